@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor which writes an index of the message handlers declared by the compiled classes to {@code
+ * META-INF/axon/message-handlers} in the class output. At runtime, Axon only inspects the methods and constructors
+ * listed in the index when looking for the handlers of an indexed class, instead of inspecting the annotations of each
+ * of them. Classes which have not been indexed, for example because they were compiled without this processor, are
+ * inspected as before.
+ * <p>
+ * An executable is indexed as a message handler if it is annotated with {@code
+ * org.axonframework.messaging.annotation.MessageHandler}, or with an annotation that is (meta-)annotated with it, such
+ * as {@code @CommandHandler} and {@code @EventHandler}.
+ * <p>
+ * Each line of the index contains the binary name of an indexed class, followed by the signatures of its message
+ * handlers, separated by spaces. A signature consists of the name of the method, or {@code <init>} for constructors,
+ * followed by the comma separated names of the parameter types between parentheses.
+ *
+ * @since 3.4
+ */
+@SupportedAnnotationTypes("*")
+public class MessageHandlerIndexProcessor extends AbstractProcessor {
+
+    /**
+     * The location of the index in the class output.
+     */
+    public static final String INDEX_LOCATION = "META-INF/axon/message-handlers";
+
+    private static final String MESSAGE_HANDLER = "org.axonframework.messaging.annotation.MessageHandler";
+
+    private final Map<String, List<String>> index = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            roundEnv.getRootElements().forEach(this::indexType);
+        }
+        // other processors may be interested in the same annotations
+        return false;
+    }
+
+    private void indexType(Element element) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        List<String> handlers = new ArrayList<>();
+        for (Element member : type.getEnclosedElements()) {
+            if (member instanceof TypeElement) {
+                indexType(member);
+            } else if ((member.getKind() == ElementKind.METHOD || member.getKind() == ElementKind.CONSTRUCTOR)
+                    && isMessageHandler(member)) {
+                handlers.add(signatureOf((ExecutableElement) member));
+            }
+        }
+        index.put(processingEnv.getElementUtils().getBinaryName(type).toString(), handlers);
+    }
+
+    private boolean isMessageHandler(Element element) {
+        Set<String> visited = new HashSet<>();
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (isMessageHandlerAnnotation((TypeElement) annotation.getAnnotationType().asElement(), visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isMessageHandlerAnnotation(TypeElement annotationType, Set<String> visited) {
+        String name = annotationType.getQualifiedName().toString();
+        if (MESSAGE_HANDLER.equals(name)) {
+            return true;
+        }
+        if (!visited.add(name)) {
+            return false;
+        }
+        for (AnnotationMirror metaAnnotation : annotationType.getAnnotationMirrors()) {
+            if (isMessageHandlerAnnotation((TypeElement) metaAnnotation.getAnnotationType().asElement(), visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String signatureOf(ExecutableElement executable) {
+        StringJoiner parameterTypes = new StringJoiner(",", "(", ")");
+        for (VariableElement parameter : executable.getParameters()) {
+            parameterTypes.add(classNameOf(processingEnv.getTypeUtils().erasure(parameter.asType())));
+        }
+        String name = executable.getKind() == ElementKind.CONSTRUCTOR
+                ? "<init>"
+                : executable.getSimpleName().toString();
+        return name + parameterTypes;
+    }
+
+    /**
+     * Returns the name of the given {@code type}, in the format returned by {@link Class#getName()}.
+     */
+    private String classNameOf(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase();
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            return descriptorOf(type);
+        }
+        return binaryNameOf(type);
+    }
+
+    private String descriptorOf(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptorOf(((ArrayType) type).getComponentType());
+            default:
+                return "L" + binaryNameOf(type) + ";";
+        }
+    }
+
+    private String binaryNameOf(TypeMirror type) {
+        return processingEnv.getElementUtils()
+                            .getBinaryName((TypeElement) ((DeclaredType) type).asElement())
+                            .toString();
+    }
+
+    private void writeIndex() {
+        if (index.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler()
+                                               .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                for (Map.Entry<String, List<String>> entry : index.entrySet()) {
+                    writer.write(entry.getKey());
+                    for (String handler : entry.getValue()) {
+                        writer.write(' ');
+                        writer.write(handler);
+                    }
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.WARNING,
+                    "Unable to write the message handler index to " + INDEX_LOCATION + ": " + e.getMessage()
+            );
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.processor;
+
+import org.axonframework.commandhandling.CommandHandler;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class MessageHandlerIndexProcessorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File classOutput;
+
+    @Before
+    public void setUp() throws IOException {
+        classOutput = temporaryFolder.newFolder();
+    }
+
+    @Test
+    public void testHandlersOfCompiledClassesAreIndexed() throws Exception {
+        compile("com.example.SomeHandler",
+                "package com.example;\n" +
+                        "import org.axonframework.commandhandling.CommandHandler;\n" +
+                        "import org.axonframework.eventhandling.EventHandler;\n" +
+                        "import org.axonframework.messaging.MetaData;\n" +
+                        "public class SomeHandler {\n" +
+                        "    @CommandHandler public SomeHandler(String command) {}\n" +
+                        "    @CommandHandler public int handle(Long command, MetaData metaData) { return 0; }\n" +
+                        "    @EventHandler public void on(int[] event, String[][] other) {}\n" +
+                        "    @EventHandler public <T extends Number> void on(T event) {}\n" +
+                        "    public void notAHandler(String value) {}\n" +
+                        "    public static class Nested {\n" +
+                        "        @EventHandler public void on(Nested event) {}\n" +
+                        "    }\n" +
+                        "}\n");
+
+        List<String> index = readIndex();
+
+        assertEquals(Arrays.asList(
+                "com.example.SomeHandler <init>(java.lang.String) "
+                        + "handle(java.lang.Long,org.axonframework.messaging.MetaData) "
+                        + "on([I,[[Ljava.lang.String;) on(java.lang.Number)",
+                "com.example.SomeHandler$Nested on(com.example.SomeHandler$Nested)"
+        ), index);
+    }
+
+    @Test
+    public void testClassesWithoutHandlersAreIndexed() throws Exception {
+        compile("com.example.NoHandlers",
+                "package com.example;\n" +
+                        "public class NoHandlers {\n" +
+                        "    public void notAHandler(String value) {}\n" +
+                        "}\n");
+
+        assertEquals(singletonList("com.example.NoHandlers"), readIndex());
+    }
+
+    @Test
+    public void testMethodsWithMetaAnnotatedHandlerAnnotationAreIndexed() throws Exception {
+        compile("com.example.CustomHandler",
+                "package com.example;\n" +
+                        "import java.lang.annotation.*;\n" +
+                        "import org.axonframework.eventhandling.EventHandler;\n" +
+                        "public class CustomHandler {\n" +
+                        "    @Retention(RetentionPolicy.RUNTIME) @EventHandler @interface Custom {}\n" +
+                        "    @Custom public void on(String event) {}\n" +
+                        "}\n");
+
+        assertTrue(readIndex().contains("com.example.CustomHandler on(java.lang.String)"));
+    }
+
+    private void compile(String className, String source) throws URISyntaxException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject sourceFile = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        String classpath = new File(CommandHandler.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .getPath();
+        JavaCompiler.CompilationTask task = compiler.getTask(
+                null, null, null,
+                Arrays.asList("-classpath", classpath, "-d", classOutput.getPath(), "-proc:only"),
+                null, singletonList(sourceFile)
+        );
+        task.setProcessors(singletonList(new MessageHandlerIndexProcessor()));
+        assertTrue("Compilation failed", task.call());
+    }
+
+    private List<String> readIndex() throws IOException {
+        return Files.readAllLines(new File(classOutput, MessageHandlerIndexProcessor.INDEX_LOCATION).toPath(),
+                                  StandardCharsets.UTF_8);
+    }
+}
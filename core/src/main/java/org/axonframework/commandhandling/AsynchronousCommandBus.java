@@ -17,15 +17,21 @@
 package org.axonframework.commandhandling;
 
 import org.axonframework.common.Assert;
+import org.axonframework.common.Registration;
 import org.axonframework.common.transaction.NoTransactionManager;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.messaging.MessageHandler;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,6 +42,12 @@
  * <p/>
  * Each Command is dispatched in a separate task, which is processed by the Executor.
  * <p/>
+ * Commands with a specific name may be processed by a dedicated Executor, registered using {@link
+ * #registerExecutor(String, Executor)}. This isolates command types that perform blocking I/O, such as commands
+ * handled by aggregates loaded from a database, from the other command types. See {@link BoundedCommandExecutor} for
+ * an Executor that limits the number of threads and waiting commands of a command type. When an Executor rejects a
+ * command, the command's callback is notified of the {@link RejectedExecutionException}.
+ * <p/>
  * Note that you should call {@link #shutdown()} to stop any threads waiting for new tasks. Failure to do so may cause
  * the JVM to hang for up to 60 seconds on JVM shutdown.
  *
@@ -45,6 +57,7 @@
 public class AsynchronousCommandBus extends SimpleCommandBus {
 
     private final Executor executor;
+    private final ConcurrentMap<String, Executor> commandExecutors = new ConcurrentHashMap<>();
 
     /**
      * Initialize the AsynchronousCommandBus, using a Cached Thread Pool.
@@ -78,24 +91,66 @@ public AsynchronousCommandBus(Executor executor,
         this.executor = executor;
     }
 
+    /**
+     * Registers the given {@code executor} to process the commands with given {@code commandName}, instead of the
+     * Executor provided in the constructor. If an Executor was already registered for the given name, the new
+     * Executor takes over.
+     * <p>
+     * Executors implementing {@code ExecutorService} are shut down when this command bus is {@link #shutdown() shut
+     * down}. Cancelling the returned registration does not shut down the executor.
+     *
+     * @param commandName The name of the commands to process with the given executor
+     * @param executor    The executor that processes the commands with given name
+     * @return a handle to unregister the executor
+     */
+    public Registration registerExecutor(String commandName, Executor executor) {
+        Assert.notNull(executor, () -> "executor may not be null");
+        commandExecutors.put(commandName, executor);
+        return () -> commandExecutors.remove(commandName, executor);
+    }
+
     @Override
     protected <C, R> void handle(CommandMessage<C> command, MessageHandler<? super CommandMessage<?>> handler, CommandCallback<? super C, R> callback) {
-        executor.execute(() -> super.handle(command, handler, callback));
+        try {
+            executorFor(command).execute(() -> super.handle(command, handler, callback));
+        } catch (RejectedExecutionException e) {
+            callback.onFailure(command, e);
+        }
     }
 
     /**
-     * Shuts down the Executor used to asynchronously dispatch incoming commands. If the {@code Executor} provided
-     * in the constructor does not implement {@code ExecutorService}, this method does nothing.
+     * Returns the Executor that processes the given {@code command}. This is the Executor registered for the
+     * command's name, or the Executor provided in the constructor if none was registered.
+     *
+     * @param command The command to process
+     * @return the Executor that processes the given command
+     */
+    protected Executor executorFor(CommandMessage<?> command) {
+        return commandExecutors.getOrDefault(command.getCommandName(), executor);
+    }
+
+    /**
+     * Shuts down the Executors used to asynchronously dispatch incoming commands. Executors that do not implement
+     * {@code ExecutorService} are ignored.
      */
     public void shutdown() {
-        if (executor instanceof ExecutorService) {
-            ((ExecutorService) executor).shutdown();
-            try {
-                ((ExecutorService) executor).awaitTermination(5, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                // we've been interrupted. Reset the interruption flag and continue
-                Thread.currentThread().interrupt();
+        List<ExecutorService> executorServices = new ArrayList<>();
+        commandExecutors.values().forEach(e -> addExecutorService(e, executorServices));
+        addExecutorService(executor, executorServices);
+        executorServices.forEach(ExecutorService::shutdown);
+        try {
+            for (ExecutorService executorService : executorServices) {
+                executorService.awaitTermination(5, TimeUnit.SECONDS);
             }
+        } catch (InterruptedException e) {
+            // we've been interrupted. Reset the interruption flag and continue
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void addExecutorService(Executor executor, List<ExecutorService> executorServices) {
+        if (executor instanceof ExecutorService && !executorServices.contains(executor)) {
+            executorServices.add((ExecutorService) executor);
         }
     }
 
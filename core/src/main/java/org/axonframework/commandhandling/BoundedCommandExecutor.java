@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread pool with a fixed number of threads and a bounded queue of waiting tasks, intended to process the commands of
+ * a single type on the {@link AsynchronousCommandBus}. Giving command types which perform blocking I/O their own
+ * bounded executor prevents a slow command type from occupying all threads and starving the other command types.
+ * <p>
+ * Tasks submitted while all threads are busy and the queue is full are rejected with a {@link
+ * RejectedExecutionException}. The AsynchronousCommandBus reports such a rejection as the failure of the command. The
+ * number of waiting and rejected tasks are available through {@link #getQueueDepth()} and {@link #getRejectedCount()}.
+ *
+ * @since 3.4
+ */
+public class BoundedCommandExecutor extends ThreadPoolExecutor {
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Initializes a BoundedCommandExecutor with given {@code poolSize} threads, which are created in a thread group
+     * with given {@code name}. At most {@code queueCapacity} tasks wait for a thread to become available.
+     *
+     * @param name          The name of the thread group to create the threads in
+     * @param poolSize      The number of threads processing tasks
+     * @param queueCapacity The maximum number of tasks waiting to be processed
+     */
+    public BoundedCommandExecutor(String name, int poolSize, int queueCapacity) {
+        this(poolSize, queueCapacity, new AxonThreadFactory(name));
+    }
+
+    /**
+     * Initializes a BoundedCommandExecutor with given {@code poolSize} threads, which are created by given {@code
+     * threadFactory}. At most {@code queueCapacity} tasks wait for a thread to become available.
+     *
+     * @param poolSize      The number of threads processing tasks
+     * @param queueCapacity The maximum number of tasks waiting to be processed
+     * @param threadFactory The factory creating the threads
+     */
+    public BoundedCommandExecutor(int poolSize, int queueCapacity, ThreadFactory threadFactory) {
+        super(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(validate(queueCapacity)),
+              threadFactory);
+        setRejectedExecutionHandler((task, executor) -> {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException(executor.isShutdown()
+                                                         ? "Executor has been shut down"
+                                                         : "Queue of waiting commands is full");
+        });
+    }
+
+    private static int validate(int queueCapacity) {
+        Assert.isTrue(queueCapacity > 0, () -> "queueCapacity must be positive");
+        return queueCapacity;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread to become available.
+     *
+     * @return the number of waiting tasks
+     */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /**
+     * Returns the number of tasks that have been rejected because the queue was full or the executor was shut down.
+     *
+     * @return the number of rejected tasks
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -227,7 +227,9 @@ private EventPublisher[] initializePublisherThreads(DisruptorConfiguration confi
         EventPublisher[] publishers = new EventPublisher[configuration.getPublisherThreadCount()];
         for (int t = 0; t < publishers.length; t++) {
             publishers[t] = new EventPublisher(executor, transactionManager,
-                                               configuration.getRollbackConfiguration(), t);
+                                               configuration.getRollbackConfiguration(), t,
+                                               configuration.getPublisherBatchSize(),
+                                               configuration.getPublisherBatchDelay());
         }
         return publishers;
     }
@@ -68,6 +68,8 @@ public class DisruptorConfiguration {
     private CommandTargetResolver commandTargetResolver;
     private int invokerThreadCount = 1;
     private int publisherThreadCount = 1;
+    private int publisherBatchSize = 1;
+    private long publisherBatchDelay = 100;
     private Serializer serializer;
     private MessageMonitor<? super CommandMessage<?>> messageMonitor = NoOpMessageMonitor.INSTANCE;
 
@@ -399,6 +401,58 @@ public DisruptorConfiguration setPublisherThreadCount(int count) {
         return this;
     }
 
+    /**
+     * Returns the maximum number of commands of which the events are stored in a single transaction.
+     *
+     * @return the maximum number of commands of which the events are stored in a single transaction
+     */
+    public int getPublisherBatchSize() {
+        return publisherBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of commands of which the events are stored in a single transaction. Defaults to 1,
+     * meaning that the Unit of Work of each command is committed individually.
+     * <p/>
+     * With a larger batch size, a publisher thread commits the Units of Work of consecutive commands available in the
+     * ring buffer in a single transaction, reducing the number of transactions under load. Results are reported to
+     * the callbacks of the commands once the transaction has been committed. If storing the events fails, each of the
+     * aggregates involved in the batch is blacklisted.
+     *
+     * @param batchSize The maximum number of commands to store the events of in a single transaction
+     * @return {@code this} for method chaining
+     */
+    public DisruptorConfiguration setPublisherBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, () -> "PublisherBatchSize must be at least 1");
+        this.publisherBatchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of milliseconds a command waits for other commands to join its batch.
+     *
+     * @return the maximum number of milliseconds a command waits for other commands to join its batch
+     */
+    public long getPublisherBatchDelay() {
+        return publisherBatchDelay;
+    }
+
+    /**
+     * Sets the maximum number of milliseconds a command waits for other commands to join its batch, when a {@link
+     * #setPublisherBatchSize(int) publisher batch size} larger than 1 is configured. Defaults to 100 milliseconds.
+     * <p/>
+     * A batch is always committed when the publisher reaches the end of the entries available in the ring buffer, so
+     * this setting only limits the latency of commands when new commands keep arriving.
+     *
+     * @param batchDelay The maximum number of milliseconds a command waits for other commands to join its batch
+     * @return {@code this} for method chaining
+     */
+    public DisruptorConfiguration setPublisherBatchDelay(long batchDelay) {
+        Assert.isTrue(batchDelay >= 0, () -> "PublisherBatchDelay may not be negative");
+        this.publisherBatchDelay = batchDelay;
+        return this;
+    }
+
     /**
      * Returns the serializer to perform pre-serialization with, or {@code null} if no pre-serialization should be
      * done.
@@ -34,6 +34,7 @@
 public abstract class DisruptorUnitOfWork<T extends Message<?>> extends AbstractUnitOfWork<T> {
 
     private MessageProcessingContext<T> processingContext;
+    private UnitOfWork<?> batch;
 
     /**
      * Resets the state of this Unit of Work, by setting its phase to {@code NOT_STARTED}, replacing the message
@@ -48,6 +49,7 @@ public void reset(T message) {
             processingContext.reset(message);
         }
         setPhase(Phase.NOT_STARTED);
+        batch = null;
         resources().clear();
         correlationDataProviders().clear();
     }
@@ -68,9 +70,26 @@ public void resume() {
         CurrentUnitOfWork.set(this);
     }
 
+    /**
+     * Nests this Unit of Work in the given {@code batch} Unit of Work. When this Unit of Work is committed afterwards,
+     * its events are staged in the batch, and only stored and published when the batch is committed. A rollback of the
+     * batch rolls back this Unit of Work as well.
+     *
+     * @param batch the Unit of Work in which the changes of this Unit of Work are to be committed
+     */
+    void joinBatch(UnitOfWork<?> batch) {
+        this.batch = batch;
+        batch.onCleanup(u -> changePhase(Phase.CLEANUP, Phase.CLOSED));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A DisruptorUnitOfWork only has a parent if it has {@link #joinBatch(UnitOfWork) joined} a batch.
+     */
     @Override
     public Optional<UnitOfWork<?>> parent() {
-        return Optional.empty();
+        return Optional.ofNullable(batch);
     }
 
     @Override
@@ -20,11 +20,15 @@
 import org.axonframework.commandhandling.CommandCallback;
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.RollbackConfiguration;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -32,6 +36,12 @@
 
 /**
  * Component of the DisruptorCommandBus that stores and publishes events generated by the command's execution.
+ * <p/>
+ * By default, the Unit of Work of each command is committed individually. When a maximum batch size larger than 1 is
+ * configured, the publisher collects the Units of Work of consecutive commands until the end of a batch of entries
+ * available in the ring buffer, the maximum batch size or the maximum batch delay is reached. The events of all these
+ * commands are then stored in a single transaction, after which the result of each command is reported. If the
+ * transaction fails, each of the aggregates involved in the batch is blacklisted.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -45,6 +55,10 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
     private final int segmentId;
     private final Set<Object> blackListedAggregates = new HashSet<>();
     private final TransactionManager transactionManager;
+    private final int maxBatchSize;
+    private final long maxBatchDelay;
+    private final List<CommandHandlingEntry> batch = new ArrayList<>();
+    private long batchStartTime;
 
     /**
      * Initializes the EventPublisher to publish Events to the given {@code eventStore} and {@code eventBus}
@@ -58,25 +72,158 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
      */
     public EventPublisher(Executor executor, TransactionManager transactionManager,
                           RollbackConfiguration rollbackConfiguration, int segmentId) {
+        this(executor, transactionManager, rollbackConfiguration, segmentId, 1, 0);
+    }
+
+    /**
+     * Initializes the EventPublisher to publish Events to the given {@code eventStore} and {@code eventBus}
+     * for aggregate of given {@code aggregateType}, committing the Units of Work of up to {@code maxBatchSize}
+     * commands in a single transaction.
+     *
+     * @param executor              The executor which schedules response reporting
+     * @param transactionManager    The transaction manager that manages the transaction around event storage and
+     *                              publication
+     * @param rollbackConfiguration The configuration that indicates which exceptions should result in a UnitOfWork
+     * @param segmentId             The ID of the segment this publisher should handle
+     * @param maxBatchSize          The maximum number of commands to commit in a single transaction. A value of 1
+     *                              commits each command individually
+     * @param maxBatchDelay         The maximum number of milliseconds a command may wait for other commands to join
+     *                              its batch, before the batch is committed
+     */
+    public EventPublisher(Executor executor, TransactionManager transactionManager,
+                          RollbackConfiguration rollbackConfiguration, int segmentId, int maxBatchSize,
+                          long maxBatchDelay) {
         this.executor = executor;
         this.transactionManager = transactionManager;
         this.rollbackConfiguration = rollbackConfiguration;
         this.segmentId = segmentId;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelay = maxBatchDelay;
     }
 
     @Override
     public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatch) {
         if (entry.isRecoverEntry()) {
+            // entries preceding the recovery are to be published with the blacklist as it was
+            publishBatch();
             recoverAggregate(entry);
         } else if (entry.getPublisherId() == segmentId) {
             entry.resume();
             String aggregateIdentifier = entry.getAggregateIdentifier();
             if (aggregateIdentifier != null && blackListedAggregates.contains(aggregateIdentifier)) {
                 rejectExecution(entry, aggregateIdentifier);
+            } else if (maxBatchSize > 1) {
+                addToBatch(entry, aggregateIdentifier);
             } else {
                 processPublication(entry, entry, aggregateIdentifier);
             }
         }
+        // entries may be overwritten in the ring buffer after the end of the batch, so the batch must be published
+        if (!batch.isEmpty() && (endOfBatch || batch.size() >= maxBatchSize
+                || System.currentTimeMillis() - batchStartTime >= maxBatchDelay)) {
+            publishBatch();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addToBatch(CommandHandlingEntry entry, String aggregateIdentifier) {
+        invokeInterceptorChain(entry);
+        if (entry.getExceptionResult() != null && rollbackConfiguration.rollBackOn(entry.getExceptionResult())) {
+            Throwable exceptionResult = performRollback(entry, aggregateIdentifier, entry.getExceptionResult());
+            executor.execute(new ReportResultTask(entry.getMessage(), entry.getCallback(), entry.getResult(),
+                                                  exceptionResult));
+        } else {
+            entry.pause();
+            if (batch.isEmpty()) {
+                batchStartTime = System.currentTimeMillis();
+            }
+            batch.add(entry);
+        }
+    }
+
+    private void publishBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<CommandHandlingEntry> entries = new ArrayList<>(batch);
+        batch.clear();
+        int next = 0;
+        while (next < entries.size()) {
+            next = publishBatch(entries, next);
+        }
+    }
+
+    /**
+     * Commits the entries starting at index {@code first} in a single Unit of Work, until all entries are committed or
+     * one of them fails. In the latter case, the changes of all entries joining the batch are rolled back and their
+     * aggregates blacklisted.
+     *
+     * @return the index of the first entry that has not been handled
+     */
+    @SuppressWarnings("unchecked")
+    private int publishBatch(List<CommandHandlingEntry> entries, int first) {
+        UnitOfWork<?> batchUnitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            if (transactionManager != null) {
+                batchUnitOfWork.attachTransaction(transactionManager);
+            }
+        } catch (Exception e) {
+            // the batch Unit of Work has been rolled back
+            entries.subList(first, entries.size()).forEach(entry -> {
+                entry.resume();
+                entry.rollback(e);
+                reportFailure(entry, e);
+            });
+            return entries.size();
+        }
+        List<CommandHandlingEntry> joined = new ArrayList<>();
+        Throwable failure = null;
+        int next = first;
+        while (failure == null && next < entries.size()) {
+            CommandHandlingEntry entry = entries.get(next++);
+            entry.resume();
+            String aggregateIdentifier = entry.getAggregateIdentifier();
+            if (aggregateIdentifier != null && blackListedAggregates.contains(aggregateIdentifier)) {
+                rejectExecution(entry, aggregateIdentifier);
+            } else {
+                joined.add(entry);
+                entry.joinBatch(batchUnitOfWork);
+                try {
+                    entry.commit();
+                } catch (Exception e) {
+                    failure = e;
+                }
+            }
+        }
+        try {
+            if (failure == null) {
+                batchUnitOfWork.commit();
+            } else {
+                batchUnitOfWork.rollback(failure);
+            }
+        } catch (Exception e) {
+            failure = e;
+        }
+        if (failure == null) {
+            joined.forEach(entry -> {
+                if (entry.getExceptionResult() != null || entry.getCallback().hasDelegate()) {
+                    executor.execute(new ReportResultTask(entry.getMessage(), entry.getCallback(),
+                                                          entry.getResult(), entry.getExceptionResult()));
+                }
+            });
+        } else {
+            for (CommandHandlingEntry entry : joined) {
+                reportFailure(entry, failure);
+            }
+        }
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reportFailure(CommandHandlingEntry entry, Throwable cause) {
+        String aggregateIdentifier = entry.getAggregateIdentifier();
+        Throwable exceptionResult = aggregateIdentifier == null ? cause : blacklist(aggregateIdentifier, cause);
+        executor.execute(new ReportResultTask(entry.getMessage(), entry.getCallback(), null, exceptionResult));
     }
 
     private void recoverAggregate(CommandHandlingEntry entry) {
@@ -158,16 +305,20 @@ private Throwable performCommit(DisruptorUnitOfWork unitOfWork,
 
     private Throwable notifyBlacklisted(DisruptorUnitOfWork unitOfWork, String aggregateIdentifier,
                                         Throwable cause) {
+        Throwable exceptionResult = blacklist(aggregateIdentifier, cause);
+        if (unitOfWork.isActive()) {
+            unitOfWork.rollback(exceptionResult);
+        }
+        return exceptionResult;
+    }
+
+    private Throwable blacklist(String aggregateIdentifier, Throwable cause) {
         blackListedAggregates.add(aggregateIdentifier);
-        Throwable exceptionResult = new AggregateBlacklistedException(
+        return new AggregateBlacklistedException(
                 aggregateIdentifier,
                 format("Aggregate %s state corrupted. "
                                + "Blacklisting the aggregate until a reset message has been received",
                        aggregateIdentifier), cause);
-        if (unitOfWork.isActive()) {
-            unitOfWork.rollback(exceptionResult);
-        }
-        return exceptionResult;
     }
 
     private static class ReportResultTask<C, R> implements Runnable {
@@ -36,6 +36,23 @@ public interface CommandRouter {
      */
     Optional<Member> findDestination(CommandMessage<?> message);
 
+    /**
+     * Returns the member instance to which the given {@code message} should be routed, taking the load of the members
+     * as tracked by the given {@code loadTracker} into account. If no suitable member could be found an empty Optional
+     * is returned.
+     * <p>
+     * By default, the load of the members is ignored, and the result of {@link #findDestination(CommandMessage)} is
+     * returned.
+     *
+     * @param message     the command message to find a member for
+     * @param loadTracker the tracker of the load of the members
+     * @return the member that should handle the message or an empty Optional if no suitable member was found
+     * @see ConsistentHash#getMember(String, CommandMessage, MemberLoadTracker)
+     */
+    default Optional<Member> findDestination(CommandMessage<?> message, MemberLoadTracker loadTracker) {
+        return findDestination(message);
+    }
+
     /**
      * Updates the load factor and capabilities of this member representing the current endpoint if the implementation
      * allows memberships to be updated dynamically.
@@ -31,6 +31,12 @@
  * <p>
  * A ConsistentHash is used to route commands targeting the same aggregate to the same member. In that case the
  * aggregate identifier is the routing key.
+ * <p>
+ * When a {@link MemberLoadTracker} is given to find a member, overloaded members temporarily hand over part of their
+ * segments to the next members on the ring. The routing keys in the remaining segments keep being routed to the same
+ * member, and the handed over segments return once the load of the member has dropped. As the load tracker only
+ * recalculates the share of active segments periodically, and with a margin, routing keys don't move back and forth
+ * between members when the load fluctuates.
  */
 public class ConsistentHash {
 
@@ -38,6 +44,7 @@ public class ConsistentHash {
     private final int modCount;
     private final Function<String, String> hashFunction;
     private final Map<String, ConsistentHashMember> members;
+    private final Map<String, Integer> segmentIndices;
 
     /**
      * Initializes a new {@link ConsistentHash}. To register members use {@link #with(Member, int, Predicate)}.
@@ -55,6 +62,7 @@ public ConsistentHash() {
     public ConsistentHash(Function<String, String> hashFunction) {
         hashToMember = Collections.emptySortedMap();
         members = Collections.emptyMap();
+        segmentIndices = Collections.emptyMap();
         modCount = 0;
         this.hashFunction = hashFunction;
     }
@@ -65,7 +73,14 @@ private ConsistentHash(Map<String, ConsistentHashMember> members,
         this.modCount = modCount;
         this.hashToMember = new TreeMap<>();
         this.members = members;
-        members.values().forEach(m -> m.hashes().forEach(h -> hashToMember.put(h, m)));
+        this.segmentIndices = new HashMap<>();
+        members.values().forEach(m -> {
+            for (int segment = 0; segment < m.segmentCount; segment++) {
+                String hash = m.segmentHash(segment);
+                hashToMember.put(hash, m);
+                segmentIndices.put(hash, segment);
+            }
+        });
     }
 
     /**
@@ -116,11 +131,77 @@ public Optional<Member> getMember(String routingKey, CommandMessage<?> commandMe
         return foundMember;
     }
 
+    /**
+     * Returns the member instance to which the given {@code message} should be routed, taking the load of the members
+     * as tracked by the given {@code loadTracker} into account. Overloaded members only handle the routing keys of the
+     * share of their segments given by the current snapshot of {@link MemberLoadTracker#activeSegmentRatios(Collection)
+     * active segment ratios}, so that routing is stable in between snapshots. The routing keys of their other segments
+     * are routed to the next suitable member on the ring. If none of the members with active segments is suitable, the
+     * member is selected as if all segments are active.
+     *
+     * @param routingKey     the routing that should be used to select a member
+     * @param commandMessage the command message to find a member for
+     * @param loadTracker    the tracker of the load of the members
+     * @return the member that should handle the message or an empty Optional if no suitable member was found
+     */
+    public Optional<Member> getMember(String routingKey, CommandMessage<?> commandMessage,
+                                      MemberLoadTracker loadTracker) {
+        Map<String, Integer> activeSegmentCounts = activeSegmentCounts(loadTracker);
+        if (activeSegmentCounts.isEmpty()) {
+            return getMember(routingKey, commandMessage);
+        }
+        String hash = hash(routingKey);
+        Predicate<Map.Entry<String, ConsistentHashMember>> activeSegment = entry -> {
+            Integer activeSegmentCount = activeSegmentCounts.get(entry.getValue().name());
+            return activeSegmentCount == null || segmentIndices.get(entry.getKey()) < activeSegmentCount;
+        };
+        Optional<Member> foundMember =
+                findSuitableMember(commandMessage, hashToMember.tailMap(hash).entrySet().iterator(), activeSegment);
+        if (!foundMember.isPresent()) {
+            foundMember = findSuitableMember(commandMessage, hashToMember.headMap(hash).entrySet().iterator(),
+                                             activeSegment);
+        }
+        return foundMember.isPresent() ? foundMember : getMember(routingKey, commandMessage);
+    }
+
+    /**
+     * Returns the number of segments of each member that are active given the load of the members as tracked by the
+     * given {@code loadTracker}. Members that are not overloaded have all of their segments active. The result
+     * describes the effective distribution of routing keys over the members.
+     *
+     * @param loadTracker the tracker of the load of the members
+     * @return the number of active segments by member name
+     */
+    public Map<String, Integer> getActiveSegmentCounts(MemberLoadTracker loadTracker) {
+        Map<String, Integer> segmentCounts = new TreeMap<>();
+        members.values().forEach(m -> segmentCounts.put(m.name(), m.segmentCount));
+        segmentCounts.putAll(activeSegmentCounts(loadTracker));
+        return segmentCounts;
+    }
+
+    private Map<String, Integer> activeSegmentCounts(MemberLoadTracker loadTracker) {
+        Map<String, Double> ratios = loadTracker.activeSegmentRatios(members.values());
+        Map<String, Integer> activeSegmentCounts = new HashMap<>();
+        ratios.forEach((name, ratio) -> {
+            ConsistentHashMember member = members.get(name);
+            if (member != null) {
+                activeSegmentCounts.put(name, (int) (ratio * member.segmentCount));
+            }
+        });
+        return activeSegmentCounts;
+    }
+
     private Optional<Member> findSuitableMember(CommandMessage<?> commandMessage,
                                                 Iterator<Map.Entry<String, ConsistentHashMember>> iterator) {
+        return findSuitableMember(commandMessage, iterator, entry -> true);
+    }
+
+    private Optional<Member> findSuitableMember(CommandMessage<?> commandMessage,
+                                                Iterator<Map.Entry<String, ConsistentHashMember>> iterator,
+                                                Predicate<Map.Entry<String, ConsistentHashMember>> activeSegment) {
         while (iterator.hasNext()) {
             Map.Entry<String, ConsistentHashMember> entry = iterator.next();
-            if (entry.getValue().commandFilter.test(commandMessage)) {
+            if (activeSegment.test(entry) && entry.getValue().commandFilter.test(commandMessage)) {
                 return Optional.of(entry.getValue());
             }
         }
@@ -280,12 +361,15 @@ public Predicate<? super CommandMessage<?>> getCommandFilter() {
         public Set<String> hashes() {
             Set<String> newHashes = new TreeSet<>();
             for (int t = 0; t < segmentCount; t++) {
-                String hash = hash(name() + " #" + t);
-                newHashes.add(hash);
+                newHashes.add(segmentHash(t));
             }
             return newHashes;
         }
 
+        private String segmentHash(int segment) {
+            return hash(name() + " #" + segment);
+        }
+
         @Override
         public <T> Optional<T> getConnectionEndpoint(Class<T> protocol) {
             return member.getConnectionEndpoint(protocol);
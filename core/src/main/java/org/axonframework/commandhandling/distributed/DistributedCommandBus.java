@@ -29,6 +29,7 @@
 import org.axonframework.monitoring.NoOpMessageMonitor;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
@@ -41,6 +42,11 @@
  * <p/>
  * The DistributedCommandBus relies on a {@link CommandBusConnector} to dispatch commands and replies to different
  * segments of the CommandBus. Depending on the implementation used, each segment may run in a different JVM.
+ * <p/>
+ * When a {@link MemberLoadTracker} is provided, the DistributedCommandBus tracks the number of commands in flight and
+ * the time it takes each member to reply, and asks the {@link CommandRouter} to take this load into account when
+ * selecting a destination. Commands dispatched without a callback are routed based on the load, but do not contribute
+ * to the tracked load, as no reply is received for them.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -60,6 +66,7 @@ public class DistributedCommandBus implements CommandBus {
     private final List<MessageDispatchInterceptor<? super CommandMessage<?>>> dispatchInterceptors = new CopyOnWriteArrayList<>();
     private final AtomicReference<Predicate<CommandMessage<?>>> commandFilter = new AtomicReference<>(DenyAll.INSTANCE);
     private final MessageMonitor<? super CommandMessage<?>> messageMonitor;
+    private final MemberLoadTracker loadTracker;
     private volatile int loadFactor = INITIAL_LOAD_FACTOR;
 
     /**
@@ -85,6 +92,22 @@ public DistributedCommandBus(CommandRouter commandRouter, CommandBusConnector co
      * @param messageMonitor the message monitor to notify of incoming messages and their execution result
      */
     public DistributedCommandBus(CommandRouter commandRouter, CommandBusConnector connector, MessageMonitor<? super CommandMessage<?>> messageMonitor) {
+        this(commandRouter, connector, messageMonitor, null);
+    }
+
+    /**
+     * Initializes the command bus with the given {@code commandRouter}, {@code connector}, {@code messageMonitor} and
+     * {@code loadTracker}. The {@code loadTracker} keeps track of the load of each member, which the
+     * {@code commandRouter} takes into account when determining the target node for each dispatched command.
+     *
+     * @param commandRouter  the service registry that discovers the network of worker nodes
+     * @param connector      the connector that connects the different command bus segments
+     * @param messageMonitor the message monitor to notify of incoming messages and their execution result
+     * @param loadTracker    the tracker of the load of the members, or {@code null} to route regardless of load
+     */
+    public DistributedCommandBus(CommandRouter commandRouter, CommandBusConnector connector,
+                                 MessageMonitor<? super CommandMessage<?>> messageMonitor,
+                                 MemberLoadTracker loadTracker) {
         Assert.notNull(commandRouter, () -> "serviceRegistry may not be null");
         Assert.notNull(connector, () -> "connector may not be null");
         Assert.notNull(messageMonitor, () -> "messageMonitor may not be null");
@@ -92,13 +115,14 @@ public DistributedCommandBus(CommandRouter commandRouter, CommandBusConnector co
         this.commandRouter = commandRouter;
         this.connector = connector;
         this.messageMonitor = messageMonitor;
+        this.loadTracker = loadTracker;
     }
 
     @Override
     public <C> void dispatch(CommandMessage<C> command) {
         if (NoOpMessageMonitor.INSTANCE.equals(messageMonitor)) {
             CommandMessage<? extends C> interceptedCommand = intercept(command);
-            Member destination = commandRouter.findDestination(interceptedCommand)
+            Member destination = findDestination(interceptedCommand)
                     .orElseThrow(() -> new NoHandlerForCommandException(
                             format("No node known to accept [%s]",
                                    interceptedCommand.getCommandName())));
@@ -121,15 +145,17 @@ public <C> void dispatch(CommandMessage<C> command) {
     @Override
     public <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C, R> callback) {
         CommandMessage<? extends C> interceptedCommand = intercept(command);
-        MessageMonitor.MonitorCallback messageMonitorCallback = messageMonitor.onMessageIngested(interceptedCommand);
-        Member destination = commandRouter.findDestination(interceptedCommand)
+        MessageMonitor.MonitorCallback monitorCallback = messageMonitor.onMessageIngested(interceptedCommand);
+        Member destination = findDestination(interceptedCommand)
                 .orElseThrow(() -> {
                     NoHandlerForCommandException exception = new NoHandlerForCommandException(
                             format("No node known to accept [%s]",
                                    interceptedCommand.getCommandName()));
-                    messageMonitorCallback.reportFailure(exception);
+                    monitorCallback.reportFailure(exception);
                     return exception;
                 });
+        MessageMonitor.MonitorCallback messageMonitorCallback =
+                loadTracker == null ? monitorCallback : new LoadTrackingMonitorCallback(monitorCallback, destination);
         try {
             connector.send(destination, interceptedCommand, new MonitorAwareCallback<>(callback,
                                                                                        messageMonitorCallback));
@@ -140,6 +166,12 @@ public <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C
         }
     }
 
+    private Optional<Member> findDestination(CommandMessage<?> command) {
+        return loadTracker == null
+                ? commandRouter.findDestination(command)
+                : commandRouter.findDestination(command, loadTracker);
+    }
+
     @SuppressWarnings("unchecked")
     private <C> CommandMessage<? extends C> intercept(CommandMessage<C> command) {
         CommandMessage<? extends C> interceptedCommand = command;
@@ -191,6 +223,16 @@ public void updateLoadFactor(int loadFactor) {
         commandRouter.updateMembership(loadFactor, commandFilter.get());
     }
 
+    /**
+     * Returns the tracker of the load of the members this command bus dispatches commands to, if load aware routing
+     * is enabled.
+     *
+     * @return an Optional containing the load tracker, or an empty Optional if commands are routed regardless of load
+     */
+    public Optional<MemberLoadTracker> getLoadTracker() {
+        return Optional.ofNullable(loadTracker);
+    }
+
     /**
      * Registers the given list of dispatch interceptors to the command bus. All incoming commands will pass through
      * the interceptors at the given order before the command is dispatched toward the command handler.
@@ -207,4 +249,35 @@ public Registration registerDispatchInterceptor(MessageDispatchInterceptor<? sup
     public Registration registerHandlerInterceptor(MessageHandlerInterceptor<? super CommandMessage<?>> handlerInterceptor) {
         return connector.registerHandlerInterceptor(handlerInterceptor);
     }
+
+    private class LoadTrackingMonitorCallback implements MessageMonitor.MonitorCallback {
+
+        private final MessageMonitor.MonitorCallback delegate;
+        private final Member destination;
+        private final long startTime;
+
+        private LoadTrackingMonitorCallback(MessageMonitor.MonitorCallback delegate, Member destination) {
+            this.delegate = delegate;
+            this.destination = destination;
+            this.startTime = loadTracker.requestStarted(destination);
+        }
+
+        @Override
+        public void reportSuccess() {
+            loadTracker.requestCompleted(destination, startTime);
+            delegate.reportSuccess();
+        }
+
+        @Override
+        public void reportFailure(Throwable cause) {
+            loadTracker.requestFailed(destination, startTime);
+            delegate.reportFailure(cause);
+        }
+
+        @Override
+        public void reportIgnored() {
+            loadTracker.requestCompleted(destination, startTime);
+            delegate.reportIgnored();
+        }
+    }
 }
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.commandhandling.distributed;
+
+import org.axonframework.common.Assert;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.axonframework.common.ObjectUtils.getOrDefault;
+
+/**
+ * Tracks the load of the members of a distributed bus, based on the requests sent to them. For each member, the
+ * tracker counts the number of requests in flight and keeps an exponentially weighted moving average of the time
+ * it takes the member to reply. Members are identified by their {@link Member#name() name}, so the statistics survive
+ * updates of the membership. The statistics of members that have left are removed once the {@link
+ * #activeSegmentRatios(Collection) active segment ratios} are requested for a set of members that no longer contains
+ * them, or when they are {@link #forget(Member) forgotten} explicitly.
+ * <p>
+ * The {@link #load(Member) load} of a member estimates how long a new request would take, by multiplying the average
+ * latency by the number of requests that would be in flight. Until a member has replied to a request, its latency is
+ * assumed to be the mean of the average latencies of the members that have, so that the requests in flight to a
+ * member that doesn't reply at all still add to its load. Failed requests never lower the average latency of a
+ * member, so that a member that fails fast is not mistaken for a fast member.
+ * <p>
+ * A member is considered overloaded when its load exceeds the average load of the other members by more than the
+ * overload threshold. The {@link #activeSegmentRatios(Collection) active segment ratios} describe which share of its
+ * segments an overloaded member should temporarily hand over to other members of a {@link ConsistentHash}. To keep the
+ * routing of commands stable, these ratios are only recalculated once per snapshot interval, and an overloaded member
+ * keeps its ratio until its load differs from the acceptable load by more than the overload margin.
+ *
+ * @since 3.4
+ */
+public class MemberLoadTracker {
+
+    private static final double DEFAULT_SMOOTHING_FACTOR = 0.2;
+    private static final double DEFAULT_OVERLOAD_THRESHOLD = 2;
+    private static final double DEFAULT_OVERLOAD_MARGIN = 0.1;
+    private static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofSeconds(1);
+
+    private final ConcurrentMap<String, Statistics> statistics = new ConcurrentHashMap<>();
+    private final double smoothingFactor;
+    private final double overloadThreshold;
+    private final double overloadMargin;
+    private final long snapshotIntervalNanos;
+    private final AtomicReference<RatioSnapshot> ratioSnapshot = new AtomicReference<>();
+
+    /**
+     * Initializes a MemberLoadTracker which gives each new latency measurement a weight of 20% in the average latency
+     * of a member, and considers members overloaded when their load is more than twice the average load of the other
+     * members. The active segment ratios are recalculated at most once per second, with an overload margin of 10%.
+     */
+    public MemberLoadTracker() {
+        this(DEFAULT_SMOOTHING_FACTOR);
+    }
+
+    /**
+     * Initializes a MemberLoadTracker which gives each new latency measurement the given {@code smoothingFactor} as
+     * weight in the average latency of a member. Higher values make the average react faster to changes in latency.
+     *
+     * @param smoothingFactor The weight of a new latency measurement, between 0 (exclusive) and 1 (inclusive)
+     */
+    public MemberLoadTracker(double smoothingFactor) {
+        this(smoothingFactor, DEFAULT_OVERLOAD_THRESHOLD);
+    }
+
+    /**
+     * Initializes a MemberLoadTracker which gives each new latency measurement the given {@code smoothingFactor} as
+     * weight in the average latency of a member, and considers members overloaded when their load exceeds the average
+     * load of the other members by more than the given {@code overloadThreshold} times.
+     *
+     * @param smoothingFactor   The weight of a new latency measurement, between 0 (exclusive) and 1 (inclusive)
+     * @param overloadThreshold The factor by which the load of a member may exceed the average load of the other
+     *                          members before it is considered overloaded, at least 1
+     */
+    public MemberLoadTracker(double smoothingFactor, double overloadThreshold) {
+        this(smoothingFactor, overloadThreshold, DEFAULT_OVERLOAD_MARGIN, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Initializes a MemberLoadTracker which gives each new latency measurement the given {@code smoothingFactor} as
+     * weight in the average latency of a member, and considers members overloaded when their load exceeds the average
+     * load of the other members by more than the given {@code overloadThreshold} times. The active segment ratios are
+     * recalculated at most once per given {@code snapshotInterval}. An overloaded member remains overloaded until its
+     * load drops below the acceptable load by more than the given {@code overloadMargin}, and its ratio is only updated
+     * when the new ratio differs from the current one by more than the margin.
+     *
+     * @param smoothingFactor   The weight of a new latency measurement, between 0 (exclusive) and 1 (inclusive)
+     * @param overloadThreshold The factor by which the load of a member may exceed the average load of the other
+     *                          members before it is considered overloaded, at least 1
+     * @param overloadMargin    The relative change in load needed to change the active segment ratio of an overloaded
+     *                          member, between 0 (inclusive) and 1 (exclusive)
+     * @param snapshotInterval  The time during which calculated active segment ratios are reused, or {@code null} to
+     *                          use the default of one second
+     */
+    public MemberLoadTracker(double smoothingFactor, double overloadThreshold, double overloadMargin,
+                             Duration snapshotInterval) {
+        Assert.isTrue(smoothingFactor > 0 && smoothingFactor <= 1,
+                      () -> "smoothingFactor must be between 0 (exclusive) and 1 (inclusive)");
+        Assert.isTrue(overloadThreshold >= 1, () -> "overloadThreshold must be at least 1");
+        Assert.isTrue(overloadMargin >= 0 && overloadMargin < 1,
+                      () -> "overloadMargin must be between 0 (inclusive) and 1 (exclusive)");
+        this.smoothingFactor = smoothingFactor;
+        this.overloadThreshold = overloadThreshold;
+        this.overloadMargin = overloadMargin;
+        this.snapshotIntervalNanos = getOrDefault(snapshotInterval, DEFAULT_SNAPSHOT_INTERVAL).toNanos();
+    }
+
+    /**
+     * Registers the start of a request to the given {@code member}. The returned value must be passed to {@link
+     * #requestCompleted(Member, long)} once the member has replied, or to {@link #requestFailed(Member, long)} if the
+     * request has failed.
+     *
+     * @param member The member the request is sent to
+     * @return the start time of the request, in nanoseconds
+     */
+    public long requestStarted(Member member) {
+        statisticsOf(member).inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Registers the completion of a request to the given {@code member}, which was started at the given {@code
+     * startTime}.
+     *
+     * @param member    The member the request was sent to
+     * @param startTime The start time of the request, as returned by {@link #requestStarted(Member)}
+     */
+    public void requestCompleted(Member member, long startTime) {
+        Statistics memberStatistics = statistics.get(member.name());
+        if (memberStatistics != null) {
+            memberStatistics.inFlight.decrementAndGet();
+            memberStatistics.recordLatency(System.nanoTime() - startTime, smoothingFactor, false);
+        }
+    }
+
+    /**
+     * Registers the failure of a request to the given {@code member}, which was started at the given {@code
+     * startTime}. The duration of the request is only taken into account if it exceeds the known average latency of the
+     * member, so that failing fast doesn't make the member look faster than it is.
+     *
+     * @param member    The member the request was sent to
+     * @param startTime The start time of the request, as returned by {@link #requestStarted(Member)}
+     */
+    public void requestFailed(Member member, long startTime) {
+        Statistics memberStatistics = statistics.get(member.name());
+        if (memberStatistics != null) {
+            memberStatistics.inFlight.decrementAndGet();
+            memberStatistics.recordLatency(System.nanoTime() - startTime, smoothingFactor, true);
+        }
+    }
+
+    /**
+     * Returns the number of requests to the given {@code member} that are in flight.
+     *
+     * @param member The member to return the number of requests in flight for
+     * @return the number of requests in flight
+     */
+    public int inFlight(Member member) {
+        Statistics memberStatistics = statistics.get(member.name());
+        return memberStatistics == null ? 0 : memberStatistics.inFlight.get();
+    }
+
+    /**
+     * Returns the average latency of the requests to the given {@code member}, in milliseconds. If no request to the
+     * member has completed yet, the mean of the average latencies of the other members is returned, or zero if no
+     * request to any member has completed yet.
+     *
+     * @param member The member to return the average latency for
+     * @return the average latency in milliseconds
+     */
+    public double averageLatency(Member member) {
+        return averageLatency(member, defaultLatency());
+    }
+
+    private double averageLatency(Member member, double defaultLatency) {
+        Statistics memberStatistics = statistics.get(member.name());
+        return memberStatistics == null || !memberStatistics.hasLatency()
+                ? defaultLatency : memberStatistics.averageLatencyMillis();
+    }
+
+    private double defaultLatency() {
+        return statistics.values().stream()
+                         .filter(Statistics::hasLatency)
+                         .mapToDouble(Statistics::averageLatencyMillis)
+                         .average()
+                         .orElse(0);
+    }
+
+    /**
+     * Returns the estimated load of the given {@code member}, being the average latency in milliseconds multiplied by
+     * the number of requests in flight, including a new request.
+     *
+     * @param member The member to return the load for
+     * @return the estimated load of the member
+     */
+    public double load(Member member) {
+        return load(member, defaultLatency());
+    }
+
+    private double load(Member member, double defaultLatency) {
+        return (inFlight(member) + 1) * averageLatency(member, defaultLatency);
+    }
+
+    /**
+     * Returns the member with the lowest {@link #load(Member) load} of the given {@code members}. Members with equal
+     * load are compared by the number of requests in flight.
+     *
+     * @param members The members to select from
+     * @return the member with the lowest load, or an empty Optional if no members were given
+     */
+    public Optional<Member> leastLoaded(Collection<? extends Member> members) {
+        double defaultLatency = defaultLatency();
+        return members.stream()
+                      .map(member -> (Member) member)
+                      .min(Comparator.<Member>comparingDouble(member -> load(member, defaultLatency))
+                                   .thenComparingInt(this::inFlight));
+    }
+
+    /**
+     * Returns the share of their segments that the overloaded members among the given {@code members} should keep.
+     * For each member whose load exceeds the average load of the other members by more than the overload threshold,
+     * the returned map contains the ratio between the highest acceptable load and the actual load of the member. The
+     * returned map does not contain the members which are not overloaded.
+     * <p>
+     * The ratios are taken from a snapshot, which is only recalculated when the snapshot interval has passed or when
+     * the given {@code members} differ from those of the snapshot. A member that was overloaded in the previous
+     * snapshot keeps its ratio as long as its load stays above the acceptable load minus the overload margin, and the
+     * ratio it would get differs from its current ratio by no more than the overload margin. This prevents routing
+     * keys from moving back and forth between members when the load fluctuates around the overload threshold.
+     * <p>
+     * The given {@code members} are expected to be all members requests may be sent to, such as the members of a
+     * {@link ConsistentHash}. When they differ from those of the snapshot, the statistics of members that are not among
+     * them are removed, as these members have left. Replies to requests sent to such members are ignored.
+     * <p>
+     * At least two members are needed to compare loads, and at least one member must have replied to a request, as
+     * loads can't be estimated otherwise. If not, an empty map is returned.
+     *
+     * @param members The members to compare the load of
+     * @return the share of their segments to keep, between 0 and 1, of the overloaded members by member name
+     */
+    public Map<String, Double> activeSegmentRatios(Collection<? extends Member> members) {
+        Set<String> memberNames = members.stream().map(Member::name).collect(Collectors.toSet());
+        long now = System.nanoTime();
+        RatioSnapshot current = ratioSnapshot.get();
+        boolean membershipChanged = current == null || !current.memberNames.equals(memberNames);
+        if (!membershipChanged && now - current.timestamp < snapshotIntervalNanos) {
+            return current.ratios;
+        }
+        if (membershipChanged) {
+            statistics.keySet().retainAll(memberNames);
+        }
+        Map<String, Double> ratios = calculateActiveSegmentRatios(
+                members, current == null ? Collections.emptyMap() : current.ratios
+        );
+        ratioSnapshot.set(new RatioSnapshot(memberNames, now, ratios));
+        return ratios;
+    }
+
+    private Map<String, Double> calculateActiveSegmentRatios(Collection<? extends Member> members,
+                                                             Map<String, Double> previousRatios) {
+        double defaultLatency = defaultLatency();
+        Map<String, Double> loads = new HashMap<>();
+        members.forEach(member -> loads.put(member.name(), load(member, defaultLatency)));
+        if (loads.size() < 2 || defaultLatency <= 0) {
+            return Collections.emptyMap();
+        }
+        double totalLoad = loads.values().stream().mapToDouble(Double::doubleValue).sum();
+        Map<String, Double> ratios = new HashMap<>();
+        loads.forEach((name, load) -> {
+            double acceptableLoad = overloadThreshold * (totalLoad - load) / (loads.size() - 1);
+            Double previousRatio = previousRatios.get(name);
+            if (load > acceptableLoad) {
+                double ratio = acceptableLoad / load;
+                boolean keepPrevious = previousRatio != null
+                        && Math.abs(ratio - previousRatio) <= overloadMargin * previousRatio;
+                ratios.put(name, keepPrevious ? previousRatio : ratio);
+            } else if (previousRatio != null && load > (1 - overloadMargin) * acceptableLoad) {
+                ratios.put(name, previousRatio);
+            }
+        });
+        return Collections.unmodifiableMap(ratios);
+    }
+
+    /**
+     * Returns the load statistics of all members that requests have been sent to, by member name.
+     *
+     * @return the load statistics of the members, by member name
+     */
+    public Map<String, MemberLoad> memberLoads() {
+        Map<String, MemberLoad> loads = new HashMap<>();
+        statistics.forEach((name, memberStatistics) -> loads.put(
+                name, new MemberLoad(memberStatistics.inFlight.get(), memberStatistics.averageLatencyMillis())
+        ));
+        return loads;
+    }
+
+    /**
+     * Removes the statistics of the given {@code member}, for example because it has left the cluster.
+     *
+     * @param member The member to forget the statistics of
+     */
+    public void forget(Member member) {
+        statistics.remove(member.name());
+    }
+
+    private Statistics statisticsOf(Member member) {
+        return statistics.computeIfAbsent(member.name(), name -> new Statistics());
+    }
+
+    /**
+     * Snapshot of the load of a member.
+     */
+    public static class MemberLoad {
+
+        private final int inFlight;
+        private final double averageLatency;
+
+        private MemberLoad(int inFlight, double averageLatency) {
+            this.inFlight = inFlight;
+            this.averageLatency = averageLatency;
+        }
+
+        /**
+         * Returns the number of requests in flight.
+         *
+         * @return the number of requests in flight
+         */
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * Returns the average latency of the requests, in milliseconds.
+         *
+         * @return the average latency in milliseconds
+         */
+        public double getAverageLatency() {
+            return averageLatency;
+        }
+
+        @Override
+        public String toString() {
+            return "MemberLoad{inFlight=" + inFlight + ", averageLatency=" + averageLatency + '}';
+        }
+    }
+
+    private static class RatioSnapshot {
+
+        private final Set<String> memberNames;
+        private final long timestamp;
+        private final Map<String, Double> ratios;
+
+        private RatioSnapshot(Set<String> memberNames, long timestamp, Map<String, Double> ratios) {
+            this.memberNames = memberNames;
+            this.timestamp = timestamp;
+            this.ratios = ratios;
+        }
+    }
+
+    private static class Statistics {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong averageLatencyBits = new AtomicLong(Double.doubleToLongBits(-1));
+
+        private void recordLatency(long latencyNanos, double smoothingFactor, boolean failed) {
+            double latency = latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            long current;
+            long updated;
+            do {
+                current = averageLatencyBits.get();
+                double average = Double.longBitsToDouble(current);
+                if (failed && (average < 0 || latency <= average)) {
+                    return;
+                }
+                updated = Double.doubleToLongBits(
+                        average < 0 ? latency : average + smoothingFactor * (latency - average)
+                );
+            } while (!averageLatencyBits.compareAndSet(current, updated));
+        }
+
+        private boolean hasLatency() {
+            return Double.longBitsToDouble(averageLatencyBits.get()) >= 0;
+        }
+
+        private double averageLatencyMillis() {
+            return Math.max(0, Double.longBitsToDouble(averageLatencyBits.get()));
+        }
+    }
+}
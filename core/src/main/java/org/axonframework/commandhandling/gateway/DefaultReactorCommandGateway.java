@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.Assert;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Default implementation of the {@link ReactorCommandGateway}. The result of command execution is reported by the
+ * command bus directly to the subscriber of the returned {@link Mono}, without creating an intermediate {@link
+ * java.util.concurrent.CompletableFuture}.
+ *
+ * @since 3.4
+ */
+public class DefaultReactorCommandGateway extends AbstractCommandGateway implements ReactorCommandGateway {
+
+    /**
+     * Initializes a command gateway that dispatches commands to the given {@code commandBus} after they have been
+     * handled by the given {@code messageDispatchInterceptors}. Commands will not be retried when command execution
+     * fails.
+     *
+     * @param commandBus                  The CommandBus on which to dispatch the Command Messages
+     * @param messageDispatchInterceptors The interceptors to invoke before dispatching commands to the Command Bus
+     */
+    @SafeVarargs
+    public DefaultReactorCommandGateway(CommandBus commandBus,
+                                        MessageDispatchInterceptor<? super CommandMessage<?>>... messageDispatchInterceptors) {
+        this(commandBus, null, asList(messageDispatchInterceptors));
+    }
+
+    /**
+     * Initializes a command gateway that dispatches commands to the given {@code commandBus} after they have been
+     * handled by the given {@code messageDispatchInterceptors}. When command execution results in an unchecked
+     * exception, the given {@code retryScheduler} is invoked to allow it to retry that command.
+     *
+     * @param commandBus                  The CommandBus on which to dispatch the Command Messages
+     * @param retryScheduler              The scheduler that will decide whether to reschedule commands. May be
+     *                                    {@code null} to prevent retries.
+     * @param messageDispatchInterceptors The interceptors to invoke before dispatching commands to the Command Bus
+     */
+    public DefaultReactorCommandGateway(CommandBus commandBus, RetryScheduler retryScheduler,
+                                        List<MessageDispatchInterceptor<? super CommandMessage<?>>> messageDispatchInterceptors) {
+        super(commandBus, retryScheduler, messageDispatchInterceptors);
+    }
+
+    @Override
+    public <R> Mono<R> send(Object command) {
+        return Mono.create(sink -> send(command, new MonoSinkCallback<>(sink)));
+    }
+
+    @Override
+    public <R> Flux<R> sendAll(Publisher<?> commands, int concurrency) {
+        Assert.isTrue(concurrency > 0, () -> "concurrency must be positive");
+        return Flux.from(commands).flatMapSequential(this::<R>send, concurrency, 1);
+    }
+
+    private static class MonoSinkCallback<C, R> implements CommandCallback<C, R> {
+
+        private final MonoSink<R> sink;
+
+        private MonoSinkCallback(MonoSink<R> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void onSuccess(CommandMessage<? extends C> commandMessage, R result) {
+            sink.success(result);
+        }
+
+        @Override
+        public void onFailure(CommandMessage<? extends C> commandMessage, Throwable cause) {
+            sink.error(cause);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.messaging.Message;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variant of the {@link CommandGateway} which returns the results of command execution as Project Reactor {@link Mono}
+ * and {@link Flux} publishers. Commands are dispatched when the returned publisher is subscribed to, rather than when
+ * the method is invoked, so that dispatching is driven by the demand of the subscriber.
+ * <p>
+ * Using this gateway requires Project Reactor to be present on the classpath.
+ *
+ * @see DefaultReactorCommandGateway
+ * @since 3.4
+ */
+public interface ReactorCommandGateway {
+
+    /**
+     * Returns a Mono which sends the given {@code command} when subscribed to, and emits the result of the command's
+     * execution. If the command handler returns {@code null}, the Mono completes without emitting a value. If
+     * command execution fails, the Mono emits the exception reported by the command bus.
+     * <p/>
+     * The given {@code command} is wrapped as the payload of the CommandMessage that is eventually posted on the
+     * Command Bus, unless Command already implements {@link Message}. In that case, a CommandMessage is constructed
+     * from that message's payload and MetaData.
+     *
+     * @param command The command to dispatch
+     * @param <R>     The type of result expected from command execution
+     * @return a Mono sending the command when subscribed to, emitting the result of its execution
+     */
+    <R> Mono<R> send(Object command);
+
+    /**
+     * Returns a Flux which sends the commands published by given {@code commands}, with at most {@code concurrency}
+     * commands being executed at the same time, and emits their results in the order in which the commands were
+     * published. A new command is only requested from the given publisher once the result of the oldest command in
+     * progress has been emitted, so a slow command bus slows down the publisher rather than buffering its commands.
+     * <p>
+     * Commands for which the handler returns {@code null} do not emit a result. The Flux terminates with an error
+     * as soon as the execution of one of the commands fails.
+     *
+     * @param commands    The publisher of the commands to dispatch
+     * @param concurrency The maximum number of commands to execute at the same time
+     * @param <R>         The type of result expected from command execution
+     * @return a Flux sending the published commands, emitting the results of their execution
+     */
+    <R> Flux<R> sendAll(Publisher<?> commands, int concurrency);
+}
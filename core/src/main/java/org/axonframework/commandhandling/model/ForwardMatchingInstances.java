@@ -21,6 +21,7 @@
 import org.axonframework.messaging.Message;
 
 import java.lang.reflect.Field;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -61,6 +62,52 @@ public <E> Stream<E> filterCandidates(T message, Stream<E> candidates) {
         return candidates.filter(candidate -> matchesInstance(candidate, routingValue));
     }
 
+    /**
+     * Filter the entities in the given {@code candidates} list which are to handle the supplied {@code message}. Rather
+     * than comparing the identifier of each of the entities, the entity with the routing value of the message is looked
+     * up in the index of the list.
+     *
+     * @param message    The message of type {@code T} to be forwarded.
+     * @param candidates The {@link IndexedEntityList} of candidates to filter.
+     * @param <E>        The type of the {@code candidates}
+     * @return a filtered {@link java.util.stream.Stream} of {@code candidates} which will handle the {@code message}.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> Stream<E> filterCandidates(T message, IndexedEntityList<E> candidates) {
+        Property routingProperty = getProperty(message.getPayloadType(), routingKey);
+        if (routingProperty == null) {
+            return Stream.empty();
+        }
+
+        Object routingValue = routingProperty.getValue(message.getPayload());
+        return candidates.entitiesWithRoutingKey(routingValue, candidate -> childEntity.getIdentifier(candidate));
+    }
+
+    /**
+     * Filter the values of the given {@code candidates} map which are to handle the supplied {@code message}. If the
+     * entity stored under the routing value of the message matches, it is the only one the message is forwarded to.
+     * Otherwise, the identifier of each of the entities in the map is compared with the routing value.
+     *
+     * @param message    The message of type {@code T} to be forwarded.
+     * @param candidates The {@link java.util.Map} of candidates to filter.
+     * @param <E>        The type of the {@code candidates}
+     * @return a filtered {@link java.util.stream.Stream} of {@code candidates} which will handle the {@code message}.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> Stream<E> filterCandidates(T message, Map<?, E> candidates) {
+        Property routingProperty = getProperty(message.getPayloadType(), routingKey);
+        if (routingProperty == null) {
+            return Stream.empty();
+        }
+
+        Object routingValue = routingProperty.getValue(message.getPayload());
+        E candidate = routingValue == null ? null : candidates.get(routingValue);
+        if (candidate != null && matchesInstance(candidate, routingValue)) {
+            return Stream.of(candidate);
+        }
+        return candidates.values().stream().filter(value -> matchesInstance(value, routingValue));
+    }
+
     @SuppressWarnings("unchecked")
     private <E> boolean matchesInstance(E candidate, Object routingValue) {
         Object identifier = childEntity.getIdentifier(candidate);
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * List of entities which maintains an index from the routing key of each entity to the entity itself. When a field
+ * annotated with {@link AggregateMember} contains an IndexedEntityList, commands and events (using {@link
+ * ForwardMatchingInstances}) are routed to the entity they target by looking up its routing key in the index, instead
+ * of comparing the routing key of every entity in the list.
+ * <p>
+ * The index is built the first time a message is routed through the list, and maintained as entities are added and
+ * removed afterwards. This requires the routing key of an entity not to change while it is part of the list. When
+ * several entities share a routing key, messages are routed by comparing the routing key of every entity, like they
+ * would be for any other collection.
+ * <p>
+ * The index itself is not serialized. It is rebuilt when the first message is routed through a deserialized list.
+ *
+ * @param <E> The type of entity contained in the list
+ * @since 3.4
+ */
+public class IndexedEntityList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = -3640294539312377046L;
+
+    private final ArrayList<E> entities;
+    private transient Function<? super E, ?> routingKeyResolver;
+    private transient Map<Object, E> index;
+    private transient boolean duplicateRoutingKeys;
+
+    /**
+     * Initializes an empty list.
+     */
+    public IndexedEntityList() {
+        this.entities = new ArrayList<>();
+    }
+
+    /**
+     * Initializes a list containing the given {@code entities}, in the order they are returned by the collection's
+     * iterator.
+     *
+     * @param entities The entities to add to the list
+     */
+    public IndexedEntityList(Collection<? extends E> entities) {
+        this.entities = new ArrayList<>(entities);
+    }
+
+    /**
+     * Returns a Stream of the entities in this list with given {@code routingKey}, in the order they appear in the
+     * list. The given {@code routingKeyResolver} is used to build the index when it doesn't exist yet, and to maintain
+     * the index afterwards.
+     *
+     * @param routingKey         The routing key of the entities to return
+     * @param routingKeyResolver The function resolving the routing key of an entity
+     * @return a Stream of the entities with given {@code routingKey}
+     */
+    public Stream<E> entitiesWithRoutingKey(Object routingKey, Function<? super E, ?> routingKeyResolver) {
+        if (index == null) {
+            buildIndex(routingKeyResolver);
+        }
+        if (duplicateRoutingKeys) {
+            return entities.stream()
+                           .filter(entity -> Objects.equals(routingKey, this.routingKeyResolver.apply(entity)));
+        }
+        E entity = index.get(routingKey);
+        return entity == null ? Stream.empty() : Stream.of(entity);
+    }
+
+    private void buildIndex(Function<? super E, ?> routingKeyResolver) {
+        this.routingKeyResolver = routingKeyResolver;
+        this.index = new HashMap<>();
+        this.duplicateRoutingKeys = false;
+        entities.forEach(this::addToIndex);
+    }
+
+    private void addToIndex(E entity) {
+        if (index != null && !duplicateRoutingKeys
+                && index.putIfAbsent(routingKeyResolver.apply(entity), entity) != null) {
+            duplicateRoutingKeys = true;
+        }
+    }
+
+    private void removeFromIndex(E entity) {
+        if (index == null) {
+            return;
+        }
+        if (duplicateRoutingKeys) {
+            // another entity may now be the only one with this routing key
+            index = null;
+        } else {
+            index.remove(routingKeyResolver.apply(entity), entity);
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        return entities.get(index);
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = entities.set(index, element);
+        removeFromIndex(previous);
+        addToIndex(element);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        entities.add(index, element);
+        modCount++;
+        addToIndex(element);
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = entities.remove(index);
+        modCount++;
+        removeFromIndex(removed);
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        entities.clear();
+        modCount++;
+        index = null;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        entities.subList(fromIndex, toIndex).clear();
+        modCount++;
+        index = null;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        if (entities.removeIf(filter)) {
+            modCount++;
+            index = null;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void sort(Comparator<? super E> c) {
+        entities.sort(c);
+        modCount++;
+    }
+}
@@ -27,6 +27,7 @@
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,6 +42,8 @@
  */
 public abstract class AbstractChildEntityDefinition implements ChildEntityDefinition {
 
+    private final Map<Field, Map<String, Property<Object>>> commandHandlerRoutingKeys = new ConcurrentHashMap<>();
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> Optional<ChildEntity<T>> createChildDefinition(Field field, EntityModel<T> declaringEntity) {
@@ -125,7 +128,8 @@ protected abstract <T> Object resolveCommandTarget(CommandMessage<?> msg,
 
     /**
      * Retrieves the routing keys of every command handler on the given {@code childEntityModel} to be able to correctly
-     * route commands to Entities.
+     * route commands to Entities. The routing keys are extracted once for each {@code field}, and reused for every
+     * command routed through it afterwards.
      *
      * @param field            a {@link java.lang.reflect.Field} denoting the Child Entity upon which the {@code
      *                         childEntityModel} is based.
@@ -137,6 +141,13 @@ protected abstract <T> Object resolveCommandTarget(CommandMessage<?> msg,
     @SuppressWarnings("WeakerAccess")
     protected Map<String, Property<Object>> extractCommandHandlerRoutingKeys(Field field,
                                                                              EntityModel<Object> childEntityModel) {
+        return commandHandlerRoutingKeys.computeIfAbsent(
+                field, f -> doExtractCommandHandlerRoutingKeys(f, childEntityModel)
+        );
+    }
+
+    private Map<String, Property<Object>> doExtractCommandHandlerRoutingKeys(Field field,
+                                                                          EntityModel<Object> childEntityModel) {
         return childEntityModel.commandHandlers()
                                .values()
                                .stream()
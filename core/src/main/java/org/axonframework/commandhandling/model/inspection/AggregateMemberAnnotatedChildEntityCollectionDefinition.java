@@ -18,7 +18,9 @@
 
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.model.AggregateMember;
+import org.axonframework.commandhandling.model.ForwardMatchingInstances;
 import org.axonframework.commandhandling.model.ForwardingMode;
+import org.axonframework.commandhandling.model.IndexedEntityList;
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.ReflectionUtils;
 import org.axonframework.common.property.Property;
@@ -37,6 +39,9 @@
  * Implementation of a {@link AbstractChildEntityDefinition} that is used to detect Collections of entities
  * (field type assignable to {@link Iterable}) annotated with {@link AggregateMember}. If such a field is found a {@link
  * ChildEntity} is created that delegates to the entities in the annotated collection.
+ * <p>
+ * When the annotated field contains an {@link IndexedEntityList}, the entity a command targets is looked up in the
+ * index of the list. The same goes for events, if these are forwarded using {@link ForwardMatchingInstances}.
  */
 public class AggregateMemberAnnotatedChildEntityCollectionDefinition extends AbstractChildEntityDefinition {
 
@@ -61,6 +66,7 @@ protected <T> EntityModel<Object> extractChildEntityModel(EntityModel<T> declari
         return declaringEntity.modelOf(entityType);
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     protected <T> Object resolveCommandTarget(CommandMessage<?> msg,
                                               T parent,
@@ -72,6 +78,12 @@ protected <T> Object resolveCommandTarget(CommandMessage<?> msg,
         Object routingValue = commandHandlerRoutingKeys.get(msg.getCommandName())
                                                        .getValue(msg.getPayload());
         Iterable<?> iterable = ReflectionUtils.getFieldValue(field, parent);
+        if (iterable instanceof IndexedEntityList) {
+            return ((IndexedEntityList<Object>) iterable).entitiesWithRoutingKey(routingValue,
+                                                                                 childEntityModel::getIdentifier)
+                                                         .findFirst()
+                                                         .orElse(null);
+        }
 
         return StreamSupport.stream(iterable.spliterator(), false)
                             .filter(i -> Objects.equals(routingValue, childEntityModel.getIdentifier(i)))
@@ -86,6 +98,10 @@ protected <T> Stream<Object> resolveEventTargets(EventMessage message,
                                                      Field field,
                                                      ForwardingMode eventForwardingMode) {
         Iterable<Object> fieldValue = ReflectionUtils.getFieldValue(field, parentEntity);
+        if (fieldValue instanceof IndexedEntityList && eventForwardingMode instanceof ForwardMatchingInstances) {
+            return ((ForwardMatchingInstances) eventForwardingMode)
+                    .filterCandidates(message, (IndexedEntityList<Object>) fieldValue);
+        }
         return fieldValue == null
                 ? Stream.empty()
                 : eventForwardingMode.filterCandidates(message, StreamSupport.stream(fieldValue.spliterator(), false));
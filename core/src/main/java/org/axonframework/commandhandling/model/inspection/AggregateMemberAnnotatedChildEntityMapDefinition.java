@@ -18,6 +18,7 @@
 
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.model.AggregateMember;
+import org.axonframework.commandhandling.model.ForwardMatchingInstances;
 import org.axonframework.commandhandling.model.ForwardingMode;
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.ReflectionUtils;
@@ -35,6 +36,10 @@
  * Implementation of a {@link AbstractChildEntityDefinition} that is used to detect Maps with entities as
  * values annotated with {@link AggregateMember}. If such a field is found a {@link ChildEntity} is created that
  * delegates to the entities in the annotated Map.
+ * <p>
+ * Commands are routed to the entity stored under their routing value. Events forwarded using {@link
+ * ForwardMatchingInstances} are routed to the entity stored under their routing value as well, provided the identifier
+ * of that entity matches.
  */
 public class AggregateMemberAnnotatedChildEntityMapDefinition extends AbstractChildEntityDefinition {
 
@@ -81,8 +86,12 @@ protected <T> Stream<Object> resolveEventTargets(EventMessage message,
                                                      Field field,
                                                      ForwardingMode eventForwardingMode) {
         Map<?, Object> fieldValue = ReflectionUtils.getFieldValue(field, parentEntity);
-        return fieldValue == null
-                ? Stream.empty()
-                : eventForwardingMode.filterCandidates(message, fieldValue.values().stream());
+        if (fieldValue == null) {
+            return Stream.empty();
+        }
+        if (eventForwardingMode instanceof ForwardMatchingInstances) {
+            return ((ForwardMatchingInstances) eventForwardingMode).filterCandidates(message, fieldValue);
+        }
+        return eventForwardingMode.filterCandidates(message, fieldValue.values().stream());
     }
 }
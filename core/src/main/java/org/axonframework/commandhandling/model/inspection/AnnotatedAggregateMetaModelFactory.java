@@ -52,6 +52,13 @@
  */
 public class AnnotatedAggregateMetaModelFactory implements AggregateMetaModelFactory {
 
+    private static final ClassValue<AggregateModel<?>> DEFAULT_MODELS = new ClassValue<AggregateModel<?>>() {
+        @Override
+        protected AggregateModel<?> computeValue(Class<?> aggregateType) {
+            return new AnnotatedAggregateMetaModelFactory().createModel(aggregateType);
+        }
+    };
+
     private final Map<Class<?>, AnnotatedAggregateModel> registry;
     private final ParameterResolverFactory parameterResolverFactory;
     private final HandlerDefinition handlerDefinition;
@@ -91,12 +98,19 @@ public AnnotatedAggregateMetaModelFactory(ParameterResolverFactory parameterReso
 
     /**
      * Shorthand to create a factory instance and inspect the model for the given {@code aggregateType}.
+     * <p>
+     * When the context class loader of the current thread is the class loader of the given {@code aggregateType}, the
+     * model is created only once, and returned by subsequent invocations for the same type.
      *
      * @param aggregateType The class of the aggregate to create the model for
      * @param <T>           The type of aggregate described in the model
      * @return The model describing the structure of the aggregate
      */
+    @SuppressWarnings("unchecked")
     public static <T> AggregateModel<T> inspectAggregate(Class<T> aggregateType) {
+        if (Thread.currentThread().getContextClassLoader() == aggregateType.getClassLoader()) {
+            return (AggregateModel<T>) DEFAULT_MODELS.get(aggregateType);
+        }
         return new AnnotatedAggregateMetaModelFactory().createModel(aggregateType);
     }
 
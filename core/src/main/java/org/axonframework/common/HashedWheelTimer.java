@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timer that executes tasks after a delay, using a hashed timing wheel. The wheel is a ring of buckets, each holding
+ * the tasks due in one tick of the wheel. Scheduling and cancelling a task take constant time, independent of the
+ * number of pending tasks, and each task only takes a few dozen bytes of memory. This makes the timer suitable for
+ * millions of pending tasks, at the cost of precision: tasks are executed in the first tick after their delay has
+ * passed.
+ * <p>
+ * A single worker thread, created using the given {@link ThreadFactory} when the first task is scheduled, advances the
+ * wheel. Each tick, the tasks that are due are handed to the configured {@link Executor} as a single batch, ordered by
+ * their due time. By default, batches are executed by the worker thread itself.
+ *
+ * @since 3.4
+ */
+public class HashedWheelTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_SHUTDOWN = 2;
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final ThreadFactory threadFactory;
+    private final Executor executor;
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<TimeoutTask> scheduledTasks = new ConcurrentLinkedQueue<>();
+    private final Queue<TimeoutTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+    private final AtomicLong pendingTasks = new AtomicLong();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private volatile long startTime;
+    private volatile Thread workerThread;
+
+    /**
+     * Initializes a timer with a tick of 100 milliseconds and 512 buckets, which executes due tasks on its worker
+     * thread.
+     *
+     * @param threadFactory the factory creating the worker thread of the timer
+     */
+    public HashedWheelTimer(ThreadFactory threadFactory) {
+        this(threadFactory, 100, TimeUnit.MILLISECONDS, 512, DirectExecutor.INSTANCE);
+    }
+
+    /**
+     * Initializes a timer advancing every given {@code tickDuration}, with the given number of {@code ticksPerWheel}
+     * buckets, which are rounded up to a power of two. Tasks that are due are executed in batches by the given
+     * {@code executor}.
+     *
+     * @param threadFactory the factory creating the worker thread of the timer
+     * @param tickDuration  the duration of a tick of the wheel
+     * @param unit          the time unit of the tick duration
+     * @param ticksPerWheel the number of buckets in the wheel
+     * @param executor      the executor executing the batches of due tasks
+     */
+    public HashedWheelTimer(ThreadFactory threadFactory, long tickDuration, TimeUnit unit, int ticksPerWheel,
+                            Executor executor) {
+        Assert.notNull(threadFactory, () -> "threadFactory may not be null");
+        Assert.notNull(executor, () -> "executor may not be null");
+        Assert.isTrue(tickDuration > 0, () -> "tickDuration must be positive");
+        Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30,
+                      () -> "ticksPerWheel must be between 1 and 2^30");
+        this.threadFactory = threadFactory;
+        this.executor = executor;
+        this.tickDuration = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        this.wheel = new Bucket[1 << -Integer.numberOfLeadingZeros(ticksPerWheel - 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+    }
+
+    /**
+     * Schedules the given {@code task} to be executed after the given {@code delay}.
+     *
+     * @param task  the task to execute
+     * @param delay the delay after which to execute the task
+     * @param unit  the time unit of the delay
+     * @return a handle to cancel the task with
+     * @throws IllegalStateException when the timer has been shut down
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Assert.notNull(task, () -> "task may not be null");
+        start();
+        long delayNanos = unit.toNanos(Math.max(0, delay));
+        long deadline = System.nanoTime() + delayNanos - startTime;
+        if (delayNanos > 0 && deadline < 0) {
+            deadline = Long.MAX_VALUE;
+        }
+        TimeoutTask timeout = new TimeoutTask(task, deadline);
+        pendingTasks.incrementAndGet();
+        scheduledTasks.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns the number of tasks that have been scheduled, but have not been executed or cancelled yet.
+     *
+     * @return the number of pending tasks
+     */
+    public long pendingTasks() {
+        return pendingTasks.get();
+    }
+
+    /**
+     * Stops the worker thread of this timer. Pending tasks are not executed and no new tasks may be scheduled.
+     */
+    public void shutdown() {
+        if (workerState.getAndSet(WORKER_SHUTDOWN) == WORKER_STARTED) {
+            Thread worker = workerThread;
+            if (worker != null && worker != Thread.currentThread()) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    private void start() {
+        int state = workerState.get();
+        if (state == WORKER_INIT && workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+            workerThread = threadFactory.newThread(this::run);
+            workerThread.start();
+        } else if (state == WORKER_SHUTDOWN) {
+            throw new IllegalStateException("Cannot schedule tasks on a timer that has been shut down");
+        }
+        boolean interrupted = false;
+        while (startTime == 0) {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long now = System.nanoTime();
+        // a start time of 0 indicates the worker hasn't started yet
+        startTime = now == 0 ? 1 : now;
+        started.countDown();
+        long tick = 0;
+        while (workerState.get() == WORKER_STARTED) {
+            long currentTime = waitForNextTick(tick);
+            if (currentTime >= 0) {
+                removeCancelledTasks();
+                transferScheduledTasks(tick);
+                List<TimeoutTask> dueTasks = wheel[(int) (tick & mask)].expireTasks(currentTime);
+                if (!dueTasks.isEmpty()) {
+                    execute(dueTasks);
+                }
+                tick++;
+            }
+        }
+    }
+
+    private long waitForNextTick(long tick) {
+        long deadline = tickDuration * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - currentTime + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return currentTime;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (workerState.get() == WORKER_SHUTDOWN) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferScheduledTasks(long tick) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            TimeoutTask timeout = scheduledTasks.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != TimeoutTask.PENDING) {
+                continue;
+            }
+            long dueTick = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            // tasks that should have been executed already are executed in the current tick
+            wheel[(int) (Math.max(dueTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelledTasks() {
+        TimeoutTask timeout;
+        while ((timeout = cancelledTasks.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void execute(List<TimeoutTask> dueTasks) {
+        dueTasks.sort(Comparator.comparingLong(timeout -> timeout.deadline));
+        try {
+            executor.execute(() -> dueTasks.forEach(TimeoutTask::run));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Executor rejected the execution of {} due task(s).", dueTasks.size(), e);
+        }
+    }
+
+    /**
+     * Handle to a task scheduled with a {@link HashedWheelTimer}.
+     */
+    public interface Timeout {
+
+        /**
+         * Cancels the task, unless it has been executed or cancelled already.
+         *
+         * @return {@code true} if the task has been cancelled by this call, otherwise {@code false}
+         */
+        boolean cancel();
+
+        /**
+         * Indicates whether the task has been cancelled.
+         *
+         * @return {@code true} if the task has been cancelled, otherwise {@code false}
+         */
+        boolean isCancelled();
+
+        /**
+         * Indicates whether the task is due and has been handed over for execution.
+         *
+         * @return {@code true} if the task is due, otherwise {@code false}
+         */
+        boolean isExpired();
+    }
+
+    private final class TimeoutTask implements Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        // not private, so it can be updated by the STATE_UPDATER of the enclosing class
+        volatile int state = PENDING;
+
+        // accessed by the worker thread only
+        private long remainingRounds;
+        private Bucket bucket;
+        private TimeoutTask previous;
+        private TimeoutTask next;
+
+        private TimeoutTask(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            pendingTasks.decrementAndGet();
+            cancelledTasks.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private boolean expire() {
+            if (!STATE_UPDATER.compareAndSet(this, PENDING, EXPIRED)) {
+                return false;
+            }
+            pendingTasks.decrementAndGet();
+            return true;
+        }
+
+        private void run() {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.warn("A task scheduled with the timer failed. Continuing with the next task.", e);
+            }
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<TimeoutTask> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(TimeoutTask.class, "state");
+
+    /**
+     * Doubly linked list of the tasks due in a tick of the wheel, accessed by the worker thread only.
+     */
+    private static final class Bucket {
+
+        private TimeoutTask head;
+        private TimeoutTask tail;
+
+        private void add(TimeoutTask timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private TimeoutTask remove(TimeoutTask timeout) {
+            TimeoutTask next = timeout.next;
+            if (timeout.previous == null) {
+                head = next;
+            } else {
+                timeout.previous.next = next;
+            }
+            if (next == null) {
+                tail = timeout.previous;
+            } else {
+                next.previous = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+
+        private List<TimeoutTask> expireTasks(long currentTime) {
+            List<TimeoutTask> dueTasks = new ArrayList<>();
+            TimeoutTask timeout = head;
+            while (timeout != null) {
+                if (timeout.isCancelled()) {
+                    timeout = remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= currentTime) {
+                    TimeoutTask next = remove(timeout);
+                    if (timeout.expire()) {
+                        dueTasks.add(timeout);
+                    }
+                    timeout = next;
+                } else {
+                    timeout.remainingRounds--;
+                    timeout = timeout.next;
+                }
+            }
+            return dueTasks;
+        }
+    }
+}
@@ -0,0 +1,619 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.Registration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.axonframework.common.ObjectUtils.getOrDefault;
+
+/**
+ * Cache implementation that holds a bounded number of entries, using the W-TinyLFU policy to decide which entries to
+ * keep. New entries enter a small admission window, which holds 1% of the capacity. Entries leaving the window are
+ * only admitted to the main space of the cache if they have been accessed more frequently than the entry they would
+ * replace, based on a compact frequency sketch of recent accesses. This keeps frequently used entries, such as hot
+ * aggregates, in the cache while a large number of entries is accessed only once, for example during a replay.
+ * <p/>
+ * Rather than a number of entries, the capacity may be expressed as a total weight, using a {@link Weigher} to
+ * calculate the weight of each entry. Entries may additionally expire a given time after they have last been accessed
+ * or written. Entries evicted or expired by the cache are reported to the listeners as expired.
+ * <p/>
+ * Reads and writes never wait for a lock. Reads are recorded in striped, lossy buffers and writes in a queue, which are
+ * replayed against the eviction policy by whichever thread manages to acquire the eviction lock. As a consequence, the
+ * cache may briefly hold more than its capacity when many entries are written concurrently.
+ *
+ * @since 3.4
+ */
+public class WindowTinyLfuCache implements Cache {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final int NEW = 0;
+    private static final int LINKED = 1;
+    private static final int RETIRED = 2;
+
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int ADMIT_RANDOMLY_THRESHOLD = 5;
+
+    private final ConcurrentMap<Object, Node> data = new ConcurrentHashMap<>();
+    private final Set<EntryListener> listeners = new CopyOnWriteArraySet<>();
+    private final ReadBuffer[] readBuffers;
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final long maximumWeight;
+    private final Weigher weigher;
+    private final boolean weighted;
+    private final long expireAfterAccess;
+    private final long expireAfterWrite;
+    private final Clock clock;
+
+    // guarded by the eviction lock
+    private final FrequencySketch sketch;
+    private final NodeList window = new NodeList(false);
+    private final NodeList probation = new NodeList(false);
+    private final NodeList protectedSpace = new NodeList(false);
+    private final NodeList writeOrder = new NodeList(true);
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long totalWeight;
+    private long windowWeight;
+    private long protectedWeight;
+
+    /**
+     * Initializes a cache holding at most the given {@code maximumSize} number of entries, which do not expire.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     */
+    public WindowTinyLfuCache(long maximumSize) {
+        this(maximumSize, null, null, null, null);
+    }
+
+    /**
+     * Initializes a cache holding entries up to the given {@code maximumWeight}. Each entry weighs as much as the given
+     * {@code weigher} calculates when it is written. When no weigher is given, each entry weighs 1, making the maximum
+     * weight the maximum number of entries.
+     * <p/>
+     * Entries expire once the given {@code expireAfterAccess} has passed since they were last read or written, or once
+     * the given {@code expireAfterWrite} has passed since they were written. When either is {@code null}, entries don't
+     * expire for that reason.
+     *
+     * @param maximumWeight     the maximum total weight of the entries in the cache
+     * @param weigher           the weigher calculating the weight of an entry, or {@code null} to count entries
+     * @param expireAfterAccess the time after the last access at which entries expire, or {@code null}
+     * @param expireAfterWrite  the time after they were written at which entries expire, or {@code null}
+     * @param clock             the clock to measure expiry with, or {@code null} to use the system clock
+     */
+    public WindowTinyLfuCache(long maximumWeight, Weigher weigher, Duration expireAfterAccess,
+                              Duration expireAfterWrite, Clock clock) {
+        Assert.isTrue(maximumWeight > 0, () -> "The maximum weight of the cache must be positive");
+        this.maximumWeight = maximumWeight;
+        this.weigher = getOrDefault(weigher, (key, value) -> 1);
+        this.weighted = weigher != null;
+        this.expireAfterAccess = expireAfterAccess == null ? -1 : expireAfterAccess.toMillis();
+        this.expireAfterWrite = expireAfterWrite == null ? -1 : expireAfterWrite.toMillis();
+        this.clock = getOrDefault(clock, Clock::systemUTC);
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch(weighted ? 1024 : maximumWeight);
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener entryListener) {
+        listeners.add(entryListener);
+        return () -> listeners.remove(entryListener);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        Node node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        long now = clock.millis();
+        if (hasExpired(node, now)) {
+            expire(node);
+            return null;
+        }
+        if (expireAfterAccess >= 0) {
+            node.accessTime = now;
+        }
+        ReadBuffer buffer = readBuffers[(int) Thread.currentThread().getId() & (readBuffers.length - 1)];
+        if (buffer.offer(node)) {
+            drainBuffers();
+        }
+        for (EntryListener listener : listeners) {
+            listener.onEntryRead(key, node.value);
+        }
+        return (V) node.value;
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        Node node = newNode(key, value);
+        Node previous = data.put(key, node);
+        afterWrite(node, previous);
+        if (previous != null && !hasExpired(previous, node.writeTime)) {
+            for (EntryListener listener : listeners) {
+                listener.onEntryUpdated(key, value);
+            }
+        } else {
+            for (EntryListener listener : listeners) {
+                listener.onEntryCreated(key, value);
+            }
+        }
+    }
+
+    @Override
+    public <K, V> boolean putIfAbsent(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        Node node = newNode(key, value);
+        Node[] replaced = new Node[1];
+        Node current = data.compute(key, (k, existing) -> {
+            if (existing == null || hasExpired(existing, node.writeTime)) {
+                replaced[0] = existing;
+                return node;
+            }
+            return existing;
+        });
+        if (current != node) {
+            return false;
+        }
+        afterWrite(node, replaced[0]);
+        for (EntryListener listener : listeners) {
+            listener.onEntryCreated(key, value);
+        }
+        return true;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        Node node = data.remove(key);
+        if (node == null) {
+            return false;
+        }
+        afterWrite(null, node);
+        if (hasExpired(node, clock.millis())) {
+            for (EntryListener listener : listeners) {
+                listener.onEntryExpired(key);
+            }
+            return false;
+        }
+        for (EntryListener listener : listeners) {
+            listener.onEntryRemoved(key);
+        }
+        return true;
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        Node node = data.get(key);
+        return node != null && !hasExpired(node, clock.millis());
+    }
+
+    /**
+     * Returns the number of entries in the cache, which may include entries that have expired but have not been
+     * removed yet.
+     *
+     * @return the number of entries in the cache
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Applies all pending reads and writes to the eviction policy, evicting entries as necessary. This happens
+     * automatically while the cache is being used, but may be invoked explicitly to remove expired entries from a cache
+     * that isn't accessed.
+     */
+    public void cleanUp() {
+        List<Object> evicted = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            maintenance(evicted);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyExpired(evicted);
+    }
+
+    private Node newNode(Object key, Object value) {
+        int weight = weigher.weigh(key, value);
+        Assert.isTrue(weight >= 0, () -> "The weight of an entry may not be negative");
+        return new Node(key, value, weight, clock.millis());
+    }
+
+    private boolean hasExpired(Node node, long now) {
+        return (expireAfterAccess >= 0 && now - node.accessTime >= expireAfterAccess)
+                || (expireAfterWrite >= 0 && now - node.writeTime >= expireAfterWrite);
+    }
+
+    private void expire(Node node) {
+        if (data.remove(node.key, node)) {
+            afterWrite(null, node);
+            notifyExpired(node.key);
+        }
+    }
+
+    private void afterWrite(Node added, Node removed) {
+        if (added != null) {
+            writeBuffer.add(() -> onAdd(added));
+        }
+        if (removed != null) {
+            writeBuffer.add(() -> onRemove(removed));
+        }
+        drainBuffers();
+    }
+
+    private void drainBuffers() {
+        while (evictionLock.tryLock()) {
+            List<Object> evicted = new ArrayList<>();
+            try {
+                maintenance(evicted);
+            } finally {
+                evictionLock.unlock();
+            }
+            notifyExpired(evicted);
+            // writes added while the lock was held may have been missed by the maintenance
+            if (writeBuffer.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void notifyExpired(List<Object> keys) {
+        keys.forEach(this::notifyExpired);
+    }
+
+    private void notifyExpired(Object key) {
+        for (EntryListener listener : listeners) {
+            listener.onEntryExpired(key);
+        }
+    }
+
+    private void maintenance(List<Object> evicted) {
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            task.run();
+        }
+        for (ReadBuffer readBuffer : readBuffers) {
+            readBuffer.drainTo(this);
+        }
+        if (expireAfterAccess >= 0 || expireAfterWrite >= 0) {
+            expireEntries(clock.millis(), evicted);
+        }
+        evictEntries(evicted);
+    }
+
+    private void onAdd(Node node) {
+        if (node.state != NEW) {
+            return;
+        }
+        node.state = LINKED;
+        node.queue = WINDOW;
+        window.addLast(node);
+        windowWeight += node.weight;
+        totalWeight += node.weight;
+        if (expireAfterWrite >= 0) {
+            writeOrder.addLast(node);
+        }
+        if (weighted) {
+            sketch.ensureCapacity(data.size());
+        }
+        sketch.increment(node.key);
+    }
+
+    private void onRead(Node node) {
+        if (node.state != LINKED) {
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.queue == WINDOW) {
+            window.moveToBack(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedSpace.addLast(node);
+            protectedWeight += node.weight;
+            while (protectedWeight > protectedMaximum && protectedSpace.first() != node) {
+                Node demoted = protectedSpace.first();
+                protectedSpace.remove(demoted);
+                protectedWeight -= demoted.weight;
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedSpace.moveToBack(node);
+        }
+    }
+
+    private void onRemove(Node node) {
+        if (node.state == LINKED) {
+            queueOf(node).remove(node);
+            totalWeight -= node.weight;
+            if (node.queue == WINDOW) {
+                windowWeight -= node.weight;
+            } else if (node.queue == PROTECTED) {
+                protectedWeight -= node.weight;
+            }
+            if (expireAfterWrite >= 0) {
+                writeOrder.remove(node);
+            }
+        }
+        node.state = RETIRED;
+    }
+
+    private void expireEntries(long now, List<Object> evicted) {
+        if (expireAfterAccess >= 0) {
+            for (NodeList queue : new NodeList[]{window, probation, protectedSpace}) {
+                Node node;
+                while ((node = queue.first()) != null && hasExpired(node, now)) {
+                    evict(node, evicted);
+                }
+            }
+        }
+        if (expireAfterWrite >= 0) {
+            Node node;
+            while ((node = writeOrder.first()) != null && hasExpired(node, now)) {
+                evict(node, evicted);
+            }
+        }
+    }
+
+    private void evictEntries(List<Object> evicted) {
+        while (windowWeight > windowMaximum) {
+            Node candidate = window.first();
+            window.remove(candidate);
+            windowWeight -= candidate.weight;
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            while (totalWeight > maximumWeight && candidate.state == LINKED) {
+                Node victim = probation.first() != candidate ? probation.first() : protectedSpace.first();
+                if (victim == null) {
+                    break;
+                }
+                evict(admit(candidate, victim) ? victim : candidate, evicted);
+            }
+        }
+        while (totalWeight > maximumWeight) {
+            Node victim = probation.first() != null ? probation.first() : protectedSpace.first();
+            if (victim == null && (victim = window.first()) == null) {
+                return;
+            }
+            evict(victim, evicted);
+        }
+    }
+
+    private boolean admit(Node candidate, Node victim) {
+        int candidateFrequency = sketch.frequency(candidate.key);
+        int victimFrequency = sketch.frequency(victim.key);
+        if (candidateFrequency > victimFrequency) {
+            return true;
+        }
+        // occasionally admit a warm candidate, so that an attacker can't keep a hot victim in place by hash collisions
+        return candidateFrequency > ADMIT_RANDOMLY_THRESHOLD && (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    private void evict(Node node, List<Object> evicted) {
+        onRemove(node);
+        if (data.remove(node.key, node)) {
+            evicted.add(node.key);
+        }
+    }
+
+    private NodeList queueOf(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedSpace;
+        }
+    }
+
+    /**
+     * Calculates the weight of entries in a {@link WindowTinyLfuCache}.
+     */
+    @FunctionalInterface
+    public interface Weigher {
+
+        /**
+         * Returns the weight of the entry with given {@code key} and {@code value}. The weight of an entry is
+         * calculated once, when it is written to the cache.
+         *
+         * @param key   the key of the entry
+         * @param value the value of the entry
+         * @return the non-negative weight of the entry
+         */
+        int weigh(Object key, Object value);
+    }
+
+    private static final class Node {
+
+        private final Object key;
+        private final Object value;
+        private final int weight;
+        private final long writeTime;
+        private volatile long accessTime;
+
+        // guarded by the eviction lock
+        private int state = NEW;
+        private int queue;
+        private Node previous;
+        private Node next;
+        private Node previousInWriteOrder;
+        private Node nextInWriteOrder;
+
+        private Node(Object key, Object value, int weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+            this.accessTime = writeTime;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes, using the links for either access order or write order.
+     */
+    private static final class NodeList {
+
+        private final boolean writeOrder;
+        private Node first;
+        private Node last;
+
+        private NodeList(boolean writeOrder) {
+            this.writeOrder = writeOrder;
+        }
+
+        private Node first() {
+            return first;
+        }
+
+        private void addLast(Node node) {
+            setPrevious(node, last);
+            setNext(node, null);
+            if (last == null) {
+                first = node;
+            } else {
+                setNext(last, node);
+            }
+            last = node;
+        }
+
+        private void remove(Node node) {
+            Node previous = previous(node);
+            Node next = next(node);
+            if (previous == null) {
+                first = next;
+            } else {
+                setNext(previous, next);
+            }
+            if (next == null) {
+                last = previous;
+            } else {
+                setPrevious(next, previous);
+            }
+            setPrevious(node, null);
+            setNext(node, null);
+        }
+
+        private void moveToBack(Node node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private Node previous(Node node) {
+            return writeOrder ? node.previousInWriteOrder : node.previous;
+        }
+
+        private Node next(Node node) {
+            return writeOrder ? node.nextInWriteOrder : node.next;
+        }
+
+        private void setPrevious(Node node, Node previous) {
+            if (writeOrder) {
+                node.previousInWriteOrder = previous;
+            } else {
+                node.previous = previous;
+            }
+        }
+
+        private void setNext(Node node, Node next) {
+            if (writeOrder) {
+                node.nextInWriteOrder = next;
+            } else {
+                node.next = next;
+            }
+        }
+    }
+
+    /**
+     * Bounded ring buffer recording reads of a stripe of threads. Reads are dropped when the buffer is full, as the
+     * policy only needs a sample of the reads to decide which entries are popular.
+     */
+    private static final class ReadBuffer {
+
+        private final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+
+        /**
+         * Records a read of the given {@code node}, returning whether the buffer should be drained.
+         */
+        private boolean offer(Node node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long size = tail - head;
+            if (size >= READ_BUFFER_SIZE) {
+                return true;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & (READ_BUFFER_SIZE - 1)), node);
+                return size + 1 >= READ_BUFFER_SIZE / 2;
+            }
+            return false;
+        }
+
+        private void drainTo(WindowTinyLfuCache cache) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & (READ_BUFFER_SIZE - 1));
+                Node node = buffer.get(index);
+                if (node == null) {
+                    // the read has been claimed, but not published yet
+                    break;
+                }
+                buffer.lazySet(index, null);
+                cache.onRead(node);
+            }
+            readCounter = head;
+        }
+    }
+}
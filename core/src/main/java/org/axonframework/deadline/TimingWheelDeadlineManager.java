@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.deadline;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.HashedWheelTimer;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.ExecutionException;
+import org.axonframework.messaging.ScopeAwareProvider;
+import org.axonframework.messaging.ScopeDescriptor;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.common.Assert.notNull;
+
+/**
+ * Implementation of {@link DeadlineManager} which uses a {@link HashedWheelTimer} as scheduling and triggering
+ * mechanism. Compared to the {@link SimpleDeadlineManager}, scheduling and cancelling a deadline take constant time and
+ * pending deadlines take less memory, making this implementation suitable for very large numbers of pending deadlines.
+ * Scheduled deadlines are indexed by their name, so that {@link #cancelAll(String)} only visits the deadlines with the
+ * given name.
+ * <p>
+ * Deadlines are triggered in the first tick of the timer after they have been met, so the precision of this
+ * implementation is limited by the tick duration of the timer.
+ * <p>
+ * Note that this mechanism is non-persistent. Scheduled tasks will be lost when the JVM is shut down. For persistent
+ * scheduling, see {@link org.axonframework.deadline.quartz.QuartzDeadlineManager}.
+ *
+ * @since 3.4
+ */
+public class TimingWheelDeadlineManager extends AbstractDeadlineManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheelDeadlineManager.class);
+    private static final String THREAD_FACTORY_GROUP_NAME = "deadlineManager";
+
+    private final ScopeAwareProvider scopeAwareProvider;
+    private final HashedWheelTimer timer;
+    private final TransactionManager transactionManager;
+
+    private final ConcurrentMap<String, Map<String, DeadlineTask>> scheduledTasks = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes a TimingWheelDeadlineManager with {@code scopeAwareProvider} which will load and send messages to
+     * {@link org.axonframework.messaging.Scope} implementing components. {@link NoTransactionManager} is used as
+     * transaction manager and a {@link HashedWheelTimer} with default settings is used as timer.
+     *
+     * @param scopeAwareProvider provides the components which are able to load and send Messages to components which
+     *                           implement {@link org.axonframework.messaging.Scope}
+     */
+    public TimingWheelDeadlineManager(ScopeAwareProvider scopeAwareProvider) {
+        this(scopeAwareProvider, NoTransactionManager.INSTANCE);
+    }
+
+    /**
+     * Initializes a TimingWheelDeadlineManager with {@code transactionManager} and {@code scopeAwareProvider} which
+     * will load and send messages to {@link org.axonframework.messaging.Scope} implementing components. A {@link
+     * HashedWheelTimer} with default settings is used as timer.
+     *
+     * @param scopeAwareProvider provides the components which are able to load and send Messages to components which
+     *                           implement {@link org.axonframework.messaging.Scope}
+     * @param transactionManager The transaction manager used to manage transaction during processing of {@link
+     *                           DeadlineMessage} when deadline is not met
+     */
+    public TimingWheelDeadlineManager(ScopeAwareProvider scopeAwareProvider, TransactionManager transactionManager) {
+        this(scopeAwareProvider,
+             new HashedWheelTimer(new AxonThreadFactory(THREAD_FACTORY_GROUP_NAME)),
+             transactionManager);
+    }
+
+    /**
+     * Initializes a TimingWheelDeadlineManager to handle the process around scheduling and triggering a {@link
+     * DeadlineMessage}.
+     *
+     * @param scopeAwareProvider provides the components which are able to load and send Messages to components which
+     *                           implement {@link org.axonframework.messaging.Scope}
+     * @param timer              the timer used for scheduling and triggering deadlines
+     * @param transactionManager The transaction manager used to manage transaction during processing of {@link
+     *                           DeadlineMessage} when deadline is not met
+     */
+    public TimingWheelDeadlineManager(ScopeAwareProvider scopeAwareProvider,
+                                      HashedWheelTimer timer,
+                                      TransactionManager transactionManager) {
+        notNull(
+                scopeAwareProvider,
+                () -> "cannot process deadline messages without scope aware components to send them too"
+        );
+        notNull(timer, () -> "timer may not be null");
+        notNull(transactionManager, () -> "transactionManager may not be null");
+
+        this.scopeAwareProvider = scopeAwareProvider;
+        this.timer = timer;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public void schedule(Duration triggerDuration,
+                         String deadlineName,
+                         Object messageOrPayload,
+                         ScopeDescriptor deadlineScope,
+                         String scheduleId) {
+        runOnPrepareCommitOrNow(() -> {
+            DeadlineTask task = new DeadlineTask(deadlineName, deadlineScope, messageOrPayload, scheduleId);
+            // register the task before scheduling it, so that a task firing immediately can deregister itself
+            scheduledTasks.compute(deadlineName, (name, tasks) -> {
+                Map<String, DeadlineTask> result = tasks == null ? new ConcurrentHashMap<>() : tasks;
+                result.put(scheduleId, task);
+                return result;
+            });
+            task.scheduled(timer.schedule(task, triggerDuration.toMillis(), TimeUnit.MILLISECONDS));
+        });
+    }
+
+    @Override
+    public void cancelSchedule(String deadlineName, String scheduleId) {
+        runOnPrepareCommitOrNow(() -> scheduledTasks.computeIfPresent(deadlineName, (name, tasks) -> {
+            DeadlineTask task = tasks.remove(scheduleId);
+            if (task != null) {
+                task.cancel();
+            }
+            return tasks.isEmpty() ? null : tasks;
+        }));
+    }
+
+    @Override
+    public void cancelAll(String deadlineName) {
+        runOnPrepareCommitOrNow(() -> {
+            Map<String, DeadlineTask> tasks = scheduledTasks.remove(deadlineName);
+            if (tasks != null) {
+                tasks.values().forEach(DeadlineTask::cancel);
+            }
+        });
+    }
+
+    /**
+     * Stops the timer of this deadline manager. Deadlines that have not been met yet will not be triggered.
+     */
+    public void shutdown() {
+        timer.shutdown();
+    }
+
+    private void deregister(DeadlineTask task) {
+        scheduledTasks.computeIfPresent(task.deadlineName, (name, tasks) -> {
+            tasks.remove(task.deadlineId, task);
+            return tasks.isEmpty() ? null : tasks;
+        });
+    }
+
+    private class DeadlineTask implements Runnable {
+
+        private final String deadlineName;
+        private final ScopeDescriptor deadlineScope;
+        private final Object messageOrPayload;
+        private final String deadlineId;
+        private volatile HashedWheelTimer.Timeout timeout;
+        private volatile boolean cancelled;
+
+        private DeadlineTask(String deadlineName,
+                             ScopeDescriptor deadlineScope,
+                             Object messageOrPayload,
+                             String deadlineId) {
+            this.deadlineName = deadlineName;
+            this.deadlineScope = deadlineScope;
+            this.messageOrPayload = messageOrPayload;
+            this.deadlineId = deadlineId;
+        }
+
+        private void scheduled(HashedWheelTimer.Timeout timeout) {
+            this.timeout = timeout;
+            if (cancelled) {
+                timeout.cancel();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            HashedWheelTimer.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            DeadlineMessage<?> deadlineMessage =
+                    GenericDeadlineMessage.asDeadlineMessage(deadlineName, messageOrPayload);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Triggered deadline");
+            }
+
+            try {
+                UnitOfWork<DeadlineMessage<?>> unitOfWork = new DefaultUnitOfWork<>(deadlineMessage);
+                unitOfWork.attachTransaction(transactionManager);
+                unitOfWork.execute(() -> executeScheduledDeadline(deadlineMessage, deadlineScope));
+            } finally {
+                deregister(this);
+            }
+        }
+
+        private void executeScheduledDeadline(DeadlineMessage deadlineMessage, ScopeDescriptor deadlineScope) {
+            scopeAwareProvider.provideScopeAwareStream(deadlineScope)
+                              .filter(scopeAwareComponent -> scopeAwareComponent.canResolve(deadlineScope))
+                              .forEach(scopeAwareComponent -> {
+                                  try {
+                                      scopeAwareComponent.send(deadlineMessage, deadlineScope);
+                                  } catch (Exception e) {
+                                      String exceptionMessage = String.format(
+                                              "Failed to send a DeadlineMessage for scope [%s]",
+                                              deadlineScope.scopeDescription()
+                                      );
+                                      throw new ExecutionException(exceptionMessage, e);
+                                  }
+                              });
+        }
+    }
+}
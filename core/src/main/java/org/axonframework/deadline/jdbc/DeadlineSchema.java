@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.deadline.jdbc;
+
+/**
+ * Schema of the table in which the {@link JdbcDeadlineManager} stores scheduled deadlines. Use the {@link Builder} to
+ * override table and column names.
+ *
+ * @since 3.4
+ */
+public class DeadlineSchema {
+
+    private final String deadlineTable, deadlineNameColumn, scheduleIdColumn, triggerTimeColumn,
+            messageIdentifierColumn, timestampColumn, payloadTypeColumn, payloadRevisionColumn, payloadColumn,
+            metaDataColumn, scopeTypeColumn, scopeColumn, ownerColumn, claimTimeColumn;
+
+    /**
+     * Initializes the default DeadlineSchema
+     */
+    public DeadlineSchema() {
+        this(builder());
+    }
+
+    private DeadlineSchema(Builder builder) {
+        this.deadlineTable = builder.deadlineTable;
+        this.deadlineNameColumn = builder.deadlineNameColumn;
+        this.scheduleIdColumn = builder.scheduleIdColumn;
+        this.triggerTimeColumn = builder.triggerTimeColumn;
+        this.messageIdentifierColumn = builder.messageIdentifierColumn;
+        this.timestampColumn = builder.timestampColumn;
+        this.payloadTypeColumn = builder.payloadTypeColumn;
+        this.payloadRevisionColumn = builder.payloadRevisionColumn;
+        this.payloadColumn = builder.payloadColumn;
+        this.metaDataColumn = builder.metaDataColumn;
+        this.scopeTypeColumn = builder.scopeTypeColumn;
+        this.scopeColumn = builder.scopeColumn;
+        this.ownerColumn = builder.ownerColumn;
+        this.claimTimeColumn = builder.claimTimeColumn;
+    }
+
+    /**
+     * Returns a new {@link Builder} initialized with default settings.
+     *
+     * @return a new builder for the deadline schema
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the name of the deadline entry table.
+     *
+     * @return the name of the deadline entry table
+     */
+    public String deadlineTable() {
+        return deadlineTable;
+    }
+
+    /**
+     * Returns the name of the column containing the name of the deadline.
+     *
+     * @return the name of the column containing the deadline name
+     */
+    public String deadlineNameColumn() {
+        return deadlineNameColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the identifier of the schedule.
+     *
+     * @return the name of the column containing the schedule identifier
+     */
+    public String scheduleIdColumn() {
+        return scheduleIdColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the time at which the deadline is met, in milliseconds since the
+     * epoch.
+     *
+     * @return the name of the column containing the trigger time
+     */
+    public String triggerTimeColumn() {
+        return triggerTimeColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the identifier of the deadline message.
+     *
+     * @return the name of the column containing the message identifier
+     */
+    public String messageIdentifierColumn() {
+        return messageIdentifierColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the timestamp of the deadline message, in milliseconds since the
+     * epoch.
+     *
+     * @return the name of the column containing the message timestamp
+     */
+    public String timestampColumn() {
+        return timestampColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the type of the serialized payload.
+     *
+     * @return the name of the column containing the payload type
+     */
+    public String payloadTypeColumn() {
+        return payloadTypeColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the revision of the serialized payload.
+     *
+     * @return the name of the column containing the payload revision
+     */
+    public String payloadRevisionColumn() {
+        return payloadRevisionColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the serialized payload.
+     *
+     * @return the name of the column containing the serialized payload
+     */
+    public String payloadColumn() {
+        return payloadColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the serialized meta data.
+     *
+     * @return the name of the column containing the serialized meta data
+     */
+    public String metaDataColumn() {
+        return metaDataColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the type of the serialized scope descriptor.
+     *
+     * @return the name of the column containing the scope type
+     */
+    public String scopeTypeColumn() {
+        return scopeTypeColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the serialized descriptor of the scope the deadline is scheduled in.
+     *
+     * @return the name of the column containing the serialized scope descriptor
+     */
+    public String scopeColumn() {
+        return scopeColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the name of the node that has claimed the deadline for triggering.
+     *
+     * @return the name of the column containing the name of the owner node
+     */
+    public String ownerColumn() {
+        return ownerColumn;
+    }
+
+    /**
+     * Returns the name of the column containing the time at which the deadline was claimed, in milliseconds since the
+     * epoch.
+     *
+     * @return the name of the column containing the claim time
+     */
+    public String claimTimeColumn() {
+        return claimTimeColumn;
+    }
+
+    /**
+     * Builder for a {@link DeadlineSchema} that gets initialized with default values.
+     */
+    public static class Builder {
+
+        private String deadlineTable = "DeadlineEntry";
+        private String deadlineNameColumn = "deadlineName";
+        private String scheduleIdColumn = "scheduleId";
+        private String triggerTimeColumn = "triggerTime";
+        private String messageIdentifierColumn = "messageIdentifier";
+        private String timestampColumn = "timestamp";
+        private String payloadTypeColumn = "payloadType";
+        private String payloadRevisionColumn = "payloadRevision";
+        private String payloadColumn = "payload";
+        private String metaDataColumn = "metaData";
+        private String scopeTypeColumn = "scopeType";
+        private String scopeColumn = "scope";
+        private String ownerColumn = "owner";
+        private String claimTimeColumn = "claimTime";
+
+        /**
+         * Sets the name of the deadline entry table. Defaults to 'DeadlineEntry'.
+         *
+         * @param deadlineTable the deadline table name
+         * @return the modified Builder instance
+         */
+        public Builder setDeadlineTable(String deadlineTable) {
+            this.deadlineTable = deadlineTable;
+            return this;
+        }
+
+        /**
+         * Sets the name of the deadline name column. Defaults to 'deadlineName'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setDeadlineNameColumn(String columnName) {
+            this.deadlineNameColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the schedule identifier column. Defaults to 'scheduleId'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setScheduleIdColumn(String columnName) {
+            this.scheduleIdColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the trigger time column. Defaults to 'triggerTime'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setTriggerTimeColumn(String columnName) {
+            this.triggerTimeColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the message identifier column. Defaults to 'messageIdentifier'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setMessageIdentifierColumn(String columnName) {
+            this.messageIdentifierColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the message timestamp column. Defaults to 'timestamp'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setTimestampColumn(String columnName) {
+            this.timestampColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the payload type column. Defaults to 'payloadType'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setPayloadTypeColumn(String columnName) {
+            this.payloadTypeColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the payload revision column. Defaults to 'payloadRevision'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setPayloadRevisionColumn(String columnName) {
+            this.payloadRevisionColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the serialized payload column. Defaults to 'payload'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setPayloadColumn(String columnName) {
+            this.payloadColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the serialized meta data column. Defaults to 'metaData'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setMetaDataColumn(String columnName) {
+            this.metaDataColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the scope type column. Defaults to 'scopeType'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setScopeTypeColumn(String columnName) {
+            this.scopeTypeColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the serialized scope descriptor column. Defaults to 'scope'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setScopeColumn(String columnName) {
+            this.scopeColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the owner column. Defaults to 'owner'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setOwnerColumn(String columnName) {
+            this.ownerColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the claim time column. Defaults to 'claimTime'.
+         *
+         * @param columnName the name of the column
+         * @return the modified Builder instance
+         */
+        public Builder setClaimTimeColumn(String columnName) {
+            this.claimTimeColumn = columnName;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link DeadlineSchema} from builder values.
+         *
+         * @return DeadlineSchema from this builder
+         */
+        public DeadlineSchema build() {
+            return new DeadlineSchema(this);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.deadline.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Interface describing a factory for JDBC to create the table and index in which the {@link JdbcDeadlineManager}
+ * stores scheduled deadlines.
+ *
+ * @since 3.4
+ */
+public interface DeadlineTableFactory {
+
+    /**
+     * Creates a PreparedStatement that allows for the creation of the table to store deadlines.
+     *
+     * @param connection The connection to create the PreparedStatement with
+     * @param schema     The schema of the table to create
+     * @return a PreparedStatement that creates the deadline table when executed
+     * @throws SQLException when an error occurs creating the PreparedStatement
+     */
+    PreparedStatement createTable(Connection connection, DeadlineSchema schema) throws SQLException;
+
+    /**
+     * Creates a PreparedStatement that allows for the creation of the index on the trigger time of deadlines, used to
+     * find the deadlines that are due.
+     *
+     * @param connection The connection to create the PreparedStatement with
+     * @param schema     The schema of the table to create the index for
+     * @return a PreparedStatement that creates the trigger time index when executed
+     * @throws SQLException when an error occurs creating the PreparedStatement
+     */
+    PreparedStatement createTriggerTimeIndex(Connection connection, DeadlineSchema schema) throws SQLException;
+}
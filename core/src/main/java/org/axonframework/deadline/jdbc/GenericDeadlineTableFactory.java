@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.deadline.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Deadline table factory that creates the deadline table using SQL supported by most databases.
+ *
+ * @since 3.4
+ */
+public class GenericDeadlineTableFactory implements DeadlineTableFactory {
+
+    @Override
+    public PreparedStatement createTable(Connection connection, DeadlineSchema schema) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS " + schema.deadlineTable() + " (\n" +
+                schema.deadlineNameColumn() + " VARCHAR(255) NOT NULL,\n" +
+                schema.scheduleIdColumn() + " VARCHAR(255) NOT NULL,\n" +
+                schema.triggerTimeColumn() + " BIGINT NOT NULL,\n" +
+                schema.messageIdentifierColumn() + " VARCHAR(255) NOT NULL,\n" +
+                schema.timestampColumn() + " BIGINT NOT NULL,\n" +
+                schema.payloadTypeColumn() + " VARCHAR(255) NOT NULL,\n" +
+                schema.payloadRevisionColumn() + " VARCHAR(255) NULL,\n" +
+                schema.payloadColumn() + " " + payloadType() + " NULL,\n" +
+                schema.metaDataColumn() + " " + payloadType() + " NULL,\n" +
+                schema.scopeTypeColumn() + " VARCHAR(255) NOT NULL,\n" +
+                schema.scopeColumn() + " " + payloadType() + " NOT NULL,\n" +
+                schema.ownerColumn() + " VARCHAR(255) NULL,\n" +
+                schema.claimTimeColumn() + " BIGINT NULL,\n" +
+                "PRIMARY KEY (" + schema.deadlineNameColumn() + "," + schema.scheduleIdColumn() + ")\n" +
+                ")";
+        return connection.prepareStatement(sql);
+    }
+
+    @Override
+    public PreparedStatement createTriggerTimeIndex(Connection connection, DeadlineSchema schema)
+            throws SQLException {
+        String sql = "CREATE INDEX " + schema.deadlineTable() + "_" + schema.triggerTimeColumn() + " ON " +
+                schema.deadlineTable() + " (" + schema.triggerTimeColumn() + ")";
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Returns the sql to describe the type of serialized data columns. Defaults to 'BLOB'.
+     *
+     * @return the sql for the serialized data column types
+     */
+    protected String payloadType() {
+        return "BLOB";
+    }
+}
@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.deadline.jdbc;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.jdbc.JdbcException;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.deadline.AbstractDeadlineManager;
+import org.axonframework.deadline.DeadlineMessage;
+import org.axonframework.deadline.GenericDeadlineMessage;
+import org.axonframework.messaging.ExecutionException;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.messaging.ScopeAwareProvider;
+import org.axonframework.messaging.ScopeDescriptor;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static org.axonframework.common.Assert.isTrue;
+import static org.axonframework.common.Assert.notNull;
+import static org.axonframework.common.ObjectUtils.getOrDefault;
+import static org.axonframework.common.jdbc.JdbcUtils.*;
+
+/**
+ * Implementation of {@link org.axonframework.deadline.DeadlineManager} which stores scheduled deadlines in a database
+ * table, using JDBC. Before using this deadline manager make sure the database contains a table named {@link
+ * DeadlineSchema#deadlineTable()}, for instance by calling {@link #createSchema(DeadlineTableFactory)}.
+ * <p>
+ * Once {@link #start() started}, the deadline manager polls the table for deadlines that have been met. Due deadlines
+ * are claimed in batches, ordered by their trigger time, by marking them with the identifier of this node. Since a
+ * claim only succeeds for a deadline that is not claimed by another node yet, multiple nodes may share the same table
+ * and trigger deadlines in parallel. On databases supporting {@code SELECT ... FOR UPDATE SKIP LOCKED} (such as
+ * PostgreSQL 9.5+, MySQL 8+ and Oracle), enable {@code skipLocked} to let concurrently polling nodes select disjoint
+ * batches instead of competing for the same deadlines. The due deadlines are selected and claimed within a single
+ * transaction. Claims of nodes that fail to trigger their deadlines in time expire after the claim timeout, after
+ * which other nodes may claim the deadlines.
+ * <p>
+ * Note that the deadlines of a claimed batch are triggered one at a time, and that claims are not refreshed while
+ * doing so. A batch that takes longer than the claim timeout to trigger may therefore be reclaimed by another node,
+ * causing its remaining deadlines to be triggered twice. Choose the {@code batchSize} and {@code claimTimeout} such
+ * that a batch is always triggered well within the claim timeout.
+ * <p>
+ * Claimed deadlines are sent to the components provided by the {@link ScopeAwareProvider} and removed from the table
+ * within a single {@link UnitOfWork}. Like with the {@link org.axonframework.deadline.quartz.QuartzDeadlineManager},
+ * a deadline that could not be handled is logged and discarded. If discarding the deadline fails as well, the failure
+ * is logged and the deadline is triggered again once its claim has expired.
+ * <p>
+ * Note that the removal of a triggered deadline only takes part in the transaction of the Unit of Work if the {@link
+ * ConnectionProvider} returns connections bound to that transaction, like the {@link
+ * org.axonframework.common.jdbc.UnitOfWorkAwareConnectionProviderWrapper} or a provider of connections managed by the
+ * {@code transactionManager}. Otherwise, the removal is committed before the Unit of Work is, and a deadline of which
+ * the Unit of Work fails to commit is lost.
+ *
+ * @since 3.4
+ */
+public class JdbcDeadlineManager extends AbstractDeadlineManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcDeadlineManager.class);
+    private static final String THREAD_FACTORY_GROUP_NAME = "deadlineManager";
+
+    private final ConnectionProvider connectionProvider;
+    private final ScopeAwareProvider scopeAwareProvider;
+    private final TransactionManager transactionManager;
+    private final Serializer serializer;
+    private final DeadlineSchema schema;
+    private final String nodeId;
+    private final int batchSize;
+    private final Duration pollingInterval;
+    private final Duration claimTimeout;
+    private final boolean skipLocked;
+    private final ScheduledExecutorService executorService;
+    private final boolean ownsExecutorService;
+
+    private volatile ScheduledFuture<?> pollingTask;
+
+    /**
+     * Initializes a JdbcDeadlineManager with default settings. Deadlines are stored in a table described by the
+     * default {@link DeadlineSchema} and serialized with an {@link XStreamSerializer}. Due deadlines are polled for
+     * every second, in batches of 100 deadlines, and triggered without a transaction.
+     *
+     * @param connectionProvider The provider of connections to the underlying database
+     * @param scopeAwareProvider provides the components which are able to load and send Messages to components which
+     *                           implement {@link org.axonframework.messaging.Scope}
+     */
+    public JdbcDeadlineManager(ConnectionProvider connectionProvider, ScopeAwareProvider scopeAwareProvider) {
+        this(connectionProvider, scopeAwareProvider, null, null, null, null, 100, null, null, false, null);
+    }
+
+    /**
+     * Initializes a JdbcDeadlineManager with given resources. All parameters but the {@code connectionProvider} and
+     * {@code scopeAwareProvider} may be {@code null} to use their defaults.
+     *
+     * @param connectionProvider The provider of connections to the underlying database. Should provide connections
+     *                           bound to the transaction of the current Unit of Work, to remove triggered deadlines
+     *                           in that transaction
+     * @param scopeAwareProvider provides the components which are able to load and send Messages to components which
+     *                           implement {@link org.axonframework.messaging.Scope}
+     * @param transactionManager The transaction manager used to manage transaction during processing of {@link
+     *                           DeadlineMessage} when deadline is not met. Defaults to {@link NoTransactionManager}
+     * @param serializer         The serializer to serialize deadline messages and scope descriptors with. Defaults to
+     *                           an {@link XStreamSerializer}
+     * @param schema             The schema describing the deadline table. Defaults to the default {@link
+     *                           DeadlineSchema}
+     * @param nodeId             The identifier of this node, used to claim deadlines. Defaults to the name of the
+     *                           running JVM
+     * @param batchSize          The maximum number of deadlines to claim at once
+     * @param pollingInterval    The interval at which to poll for due deadlines. Defaults to one second
+     * @param claimTimeout       The time after which claims of other nodes expire. Should exceed the time needed to
+     *                           trigger a batch of deadlines. Defaults to one minute
+     * @param skipLocked         Whether to select due deadlines using {@code FOR UPDATE SKIP LOCKED}
+     * @param executorService    The executor service to poll for due deadlines with. Defaults to a single thread
+     *                           executor that is shut down when this deadline manager is shut down
+     */
+    public JdbcDeadlineManager(ConnectionProvider connectionProvider,
+                               ScopeAwareProvider scopeAwareProvider,
+                               TransactionManager transactionManager,
+                               Serializer serializer,
+                               DeadlineSchema schema,
+                               String nodeId,
+                               int batchSize,
+                               Duration pollingInterval,
+                               Duration claimTimeout,
+                               boolean skipLocked,
+                               ScheduledExecutorService executorService) {
+        notNull(connectionProvider, () -> "connectionProvider may not be null");
+        notNull(
+                scopeAwareProvider,
+                () -> "cannot process deadline messages without scope aware components to send them too"
+        );
+        isTrue(batchSize > 0, () -> "batchSize must be positive");
+        this.connectionProvider = connectionProvider;
+        this.scopeAwareProvider = scopeAwareProvider;
+        this.transactionManager = getOrDefault(transactionManager, NoTransactionManager.INSTANCE);
+        this.serializer = getOrDefault(serializer, XStreamSerializer::new);
+        this.schema = getOrDefault(schema, DeadlineSchema::new);
+        this.nodeId = getOrDefault(nodeId, () -> ManagementFactory.getRuntimeMXBean().getName());
+        this.batchSize = batchSize;
+        this.pollingInterval = getOrDefault(pollingInterval, Duration.ofSeconds(1));
+        this.claimTimeout = getOrDefault(claimTimeout, Duration.ofMinutes(1));
+        this.skipLocked = skipLocked;
+        this.ownsExecutorService = executorService == null;
+        this.executorService = getOrDefault(executorService, () -> Executors.newSingleThreadScheduledExecutor(
+                new AxonThreadFactory(THREAD_FACTORY_GROUP_NAME)));
+    }
+
+    /**
+     * Performs the DDL queries to create the table and index necessary for this deadline manager.
+     *
+     * @param schemaFactory factory of the deadline table
+     * @throws JdbcException when an error occurs executing SQL statements
+     */
+    public void createSchema(DeadlineTableFactory schemaFactory) {
+        executeUpdates(getConnection(), e -> {
+                           throw new JdbcException("Failed to create deadline table", e);
+                       }, connection -> schemaFactory.createTable(connection, schema),
+                       connection -> schemaFactory.createTriggerTimeIndex(connection, schema));
+    }
+
+    /**
+     * Starts polling for deadlines that have been met. Does nothing if polling has been started already.
+     */
+    public synchronized void start() {
+        if (pollingTask == null) {
+            pollingTask = executorService.scheduleWithFixedDelay(this::triggerDueDeadlines,
+                                                                 0,
+                                                                 pollingInterval.toMillis(),
+                                                                 TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops polling for deadlines that have been met. Scheduled deadlines remain stored, and will be triggered by other
+     * nodes or after this deadline manager is started again.
+     */
+    public synchronized void shutdown() {
+        if (pollingTask != null) {
+            pollingTask.cancel(false);
+            pollingTask = null;
+        }
+        if (ownsExecutorService) {
+            executorService.shutdown();
+        }
+    }
+
+    @Override
+    public void schedule(Instant triggerDateTime,
+                         String deadlineName,
+                         Object messageOrPayload,
+                         ScopeDescriptor deadlineScope,
+                         String scheduleId) {
+        runOnPrepareCommitOrNow(() -> {
+            DeadlineMessage<?> deadlineMessage =
+                    GenericDeadlineMessage.asDeadlineMessage(deadlineName, messageOrPayload);
+            executeUpdates(getConnection(), e -> {
+                throw new JdbcException(format("Failed to schedule deadline [%s] with id [%s]",
+                                               deadlineName, scheduleId), e);
+            }, connection -> insertDeadline(connection, triggerDateTime, deadlineMessage, deadlineScope, scheduleId));
+        });
+    }
+
+    @Override
+    public void schedule(Duration triggerDuration,
+                         String deadlineName,
+                         Object messageOrPayload,
+                         ScopeDescriptor deadlineScope,
+                         String scheduleId) {
+        schedule(Instant.now().plus(triggerDuration), deadlineName, messageOrPayload, deadlineScope, scheduleId);
+    }
+
+    @Override
+    public void cancelSchedule(String deadlineName, String scheduleId) {
+        runOnPrepareCommitOrNow(() -> executeUpdates(getConnection(), e -> {
+            throw new JdbcException(format("Failed to cancel deadline [%s] with id [%s]", deadlineName, scheduleId),
+                                    e);
+        }, connection -> deleteDeadline(connection, deadlineName, scheduleId)));
+    }
+
+    @Override
+    public void cancelAll(String deadlineName) {
+        runOnPrepareCommitOrNow(() -> executeUpdates(getConnection(), e -> {
+            throw new JdbcException(format("Failed to cancel deadlines [%s]", deadlineName), e);
+        }, connection -> deleteDeadlines(connection, deadlineName)));
+    }
+
+    private void triggerDueDeadlines() {
+        try {
+            List<DeadlineEntry> claimed;
+            do {
+                claimed = claimDueDeadlines();
+                claimed.forEach(this::trigger);
+            } while (claimed.size() == batchSize && pollingTask != null);
+        } catch (Exception e) {
+            logger.warn("Failed to trigger due deadlines. Retrying in {} ms.", pollingInterval.toMillis(), e);
+        }
+    }
+
+    private List<DeadlineEntry> claimDueDeadlines() {
+        long now = Instant.now().toEpochMilli();
+        Connection connection = getConnection();
+        boolean autoCommit = true;
+        try {
+            // select and claim in a single transaction, so rows locked by the select remain locked until claimed
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            List<DeadlineEntry> candidates = new ArrayList<>();
+            try (PreparedStatement select = selectDueDeadlines(connection, now);
+                 ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    candidates.add(readDeadlineEntry(resultSet));
+                }
+            }
+            List<DeadlineEntry> claimed = new ArrayList<>(candidates.size());
+            try (PreparedStatement claim = claimDeadline(connection, now)) {
+                for (DeadlineEntry candidate : candidates) {
+                    claim.setString(3, candidate.deadlineName);
+                    claim.setString(4, candidate.scheduleId);
+                    if (claim.executeUpdate() == 1) {
+                        claimed.add(candidate);
+                    }
+                }
+            }
+            connection.commit();
+            return claimed;
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            throw new JdbcException("Failed to claim due deadlines", e);
+        } finally {
+            restoreAutoCommitQuietly(connection, autoCommit);
+            closeQuietly(connection);
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.debug("Failed to roll back the transaction claiming due deadlines", e);
+        }
+    }
+
+    private static void restoreAutoCommitQuietly(Connection connection, boolean autoCommit) {
+        try {
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            logger.debug("Failed to restore the auto commit mode of the connection", e);
+        }
+    }
+
+    private void trigger(DeadlineEntry entry) {
+        try {
+            DeadlineMessage<?> deadlineMessage = entry.deadlineMessage();
+            ScopeDescriptor deadlineScope = entry.deadlineScope();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Triggered deadline [{}] with id [{}]", entry.deadlineName, entry.scheduleId);
+            }
+            UnitOfWork<DeadlineMessage<?>> unitOfWork = new DefaultUnitOfWork<>(deadlineMessage);
+            unitOfWork.attachTransaction(transactionManager);
+            unitOfWork.execute(() -> {
+                executeScheduledDeadline(deadlineMessage, deadlineScope);
+                removeClaimed(entry);
+            });
+        } catch (Exception e) {
+            logger.error("Exception occurred during processing deadline [{}] with id [{}]. Discarding it.",
+                         entry.deadlineName, entry.scheduleId, e);
+            discard(entry);
+        }
+    }
+
+    private void discard(DeadlineEntry entry) {
+        try {
+            removeClaimed(entry);
+        } catch (Exception e) {
+            // don't abandon the rest of the batch. The deadline is triggered again once its claim expires
+            logger.warn("Failed to discard deadline [{}] with id [{}]. It will be retried once its claim expires.",
+                        entry.deadlineName, entry.scheduleId, e);
+        }
+    }
+
+    private void executeScheduledDeadline(DeadlineMessage deadlineMessage, ScopeDescriptor deadlineScope) {
+        scopeAwareProvider.provideScopeAwareStream(deadlineScope)
+                          .filter(scopeAwareComponent -> scopeAwareComponent.canResolve(deadlineScope))
+                          .forEach(scopeAwareComponent -> {
+                              try {
+                                  scopeAwareComponent.send(deadlineMessage, deadlineScope);
+                              } catch (Exception e) {
+                                  String exceptionMessage = String.format(
+                                          "Failed to send a DeadlineMessage for scope [%s]",
+                                          deadlineScope.scopeDescription()
+                                  );
+                                  throw new ExecutionException(exceptionMessage, e);
+                              }
+                          });
+    }
+
+    private void removeClaimed(DeadlineEntry entry) {
+        executeUpdates(getConnection(), e -> {
+            throw new JdbcException(format("Failed to remove triggered deadline [%s] with id [%s]",
+                                           entry.deadlineName, entry.scheduleId), e);
+        }, connection -> deleteClaimedDeadline(connection, entry.deadlineName, entry.scheduleId));
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to insert a new deadline entry.
+     *
+     * @param connection      the connection to the underlying database
+     * @param triggerDateTime the moment at which the deadline is met
+     * @param deadlineMessage the message to send when the deadline is met
+     * @param deadlineScope   the descriptor of the scope in which the deadline was scheduled
+     * @param scheduleId      the identifier of the schedule
+     * @return a {@link PreparedStatement} that will insert the deadline entry when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement insertDeadline(Connection connection, Instant triggerDateTime,
+                                               DeadlineMessage<?> deadlineMessage, ScopeDescriptor deadlineScope,
+                                               String scheduleId) throws SQLException {
+        final String sql = "INSERT INTO " + schema.deadlineTable() + " (" +
+                String.join(", ", schema.deadlineNameColumn(), schema.scheduleIdColumn(),
+                            schema.triggerTimeColumn(), schema.messageIdentifierColumn(), schema.timestampColumn(),
+                            schema.payloadTypeColumn(), schema.payloadRevisionColumn(), schema.payloadColumn(),
+                            schema.metaDataColumn(), schema.scopeTypeColumn(), schema.scopeColumn()) +
+                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        SerializedObject<byte[]> payload = serializer.serialize(deadlineMessage.getPayload(), byte[].class);
+        SerializedObject<byte[]> metaData = serializer.serialize(deadlineMessage.getMetaData(), byte[].class);
+        SerializedObject<byte[]> scope = serializer.serialize(deadlineScope, byte[].class);
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, deadlineMessage.getDeadlineName());
+        preparedStatement.setString(2, scheduleId);
+        preparedStatement.setLong(3, triggerDateTime.toEpochMilli());
+        preparedStatement.setString(4, deadlineMessage.getIdentifier());
+        preparedStatement.setLong(5, deadlineMessage.getTimestamp().toEpochMilli());
+        preparedStatement.setString(6, payload.getType().getName());
+        preparedStatement.setString(7, payload.getType().getRevision());
+        preparedStatement.setBytes(8, payload.getData());
+        preparedStatement.setBytes(9, metaData.getData());
+        preparedStatement.setString(10, scope.getType().getName());
+        preparedStatement.setBytes(11, scope.getData());
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to select at most {@code batchSize} deadlines that have been met at the given
+     * time and are not claimed by any node, or of which the claim has expired. Deadlines are ordered by their trigger
+     * time. If {@code skipLocked} is enabled, rows locked by other nodes are skipped.
+     *
+     * @param connection the connection to the underlying database
+     * @param now        the current time in milliseconds since the epoch
+     * @return a {@link PreparedStatement} that will fetch due deadlines when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement selectDueDeadlines(Connection connection, long now) throws SQLException {
+        final String sql = "SELECT " +
+                String.join(", ", schema.deadlineNameColumn(), schema.scheduleIdColumn(),
+                            schema.messageIdentifierColumn(), schema.timestampColumn(), schema.payloadTypeColumn(),
+                            schema.payloadRevisionColumn(), schema.payloadColumn(), schema.metaDataColumn(),
+                            schema.scopeTypeColumn(), schema.scopeColumn()) +
+                " FROM " + schema.deadlineTable() + " WHERE " + schema.triggerTimeColumn() + " <= ? AND (" +
+                schema.ownerColumn() + " IS NULL OR " + schema.claimTimeColumn() + " < ?) ORDER BY " +
+                schema.triggerTimeColumn() + " ASC" + (skipLocked ? " FOR UPDATE SKIP LOCKED" : "");
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setLong(1, now);
+        preparedStatement.setLong(2, now - claimTimeout.toMillis());
+        preparedStatement.setMaxRows(batchSize);
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to claim a deadline for this node, which only succeeds if the deadline is not
+     * claimed by any node, or if that claim has expired. The returned statement is executed once for every candidate
+     * deadline, after setting the deadline name as the third, and the schedule id as the fourth parameter.
+     *
+     * @param connection the connection to the underlying database
+     * @param now        the current time in milliseconds since the epoch
+     * @return a {@link PreparedStatement} that will claim a deadline when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement claimDeadline(Connection connection, long now) throws SQLException {
+        final String sql = "UPDATE " + schema.deadlineTable() + " SET " + schema.ownerColumn() + " = ?, " +
+                schema.claimTimeColumn() + " = ? WHERE " + schema.deadlineNameColumn() + " = ? AND " +
+                schema.scheduleIdColumn() + " = ? AND (" + schema.ownerColumn() + " IS NULL OR " +
+                schema.claimTimeColumn() + " < ?)";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, nodeId);
+        preparedStatement.setLong(2, now);
+        preparedStatement.setLong(5, now - claimTimeout.toMillis());
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to delete the deadline with given {@code deadlineName} and {@code
+     * scheduleId}.
+     *
+     * @param connection   the connection to the underlying database
+     * @param deadlineName the name of the deadline to delete
+     * @param scheduleId   the identifier of the schedule to delete
+     * @return a {@link PreparedStatement} that will delete the deadline when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement deleteDeadline(Connection connection, String deadlineName,
+                                               String scheduleId) throws SQLException {
+        final String sql = "DELETE FROM " + schema.deadlineTable() + " WHERE " + schema.deadlineNameColumn() +
+                " = ? AND " + schema.scheduleIdColumn() + " = ?";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, deadlineName);
+        preparedStatement.setString(2, scheduleId);
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to delete all deadlines with given {@code deadlineName}.
+     *
+     * @param connection   the connection to the underlying database
+     * @param deadlineName the name of the deadlines to delete
+     * @return a {@link PreparedStatement} that will delete the deadlines when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement deleteDeadlines(Connection connection, String deadlineName) throws SQLException {
+        final String sql = "DELETE FROM " + schema.deadlineTable() + " WHERE " + schema.deadlineNameColumn() + " = ?";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, deadlineName);
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to delete the deadline with given {@code deadlineName} and {@code
+     * scheduleId}, provided it is claimed by this node.
+     *
+     * @param connection   the connection to the underlying database
+     * @param deadlineName the name of the deadline to delete
+     * @param scheduleId   the identifier of the schedule to delete
+     * @return a {@link PreparedStatement} that will delete the claimed deadline when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement deleteClaimedDeadline(Connection connection, String deadlineName,
+                                                      String scheduleId) throws SQLException {
+        final String sql = "DELETE FROM " + schema.deadlineTable() + " WHERE " + schema.deadlineNameColumn() +
+                " = ? AND " + schema.scheduleIdColumn() + " = ? AND " + schema.ownerColumn() + " = ?";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, deadlineName);
+        preparedStatement.setString(2, scheduleId);
+        preparedStatement.setString(3, nodeId);
+        return preparedStatement;
+    }
+
+    private DeadlineEntry readDeadlineEntry(ResultSet resultSet) throws SQLException {
+        return new DeadlineEntry(resultSet.getString(schema.deadlineNameColumn()),
+                                 resultSet.getString(schema.scheduleIdColumn()),
+                                 resultSet.getString(schema.messageIdentifierColumn()),
+                                 resultSet.getLong(schema.timestampColumn()),
+                                 new SimpleSerializedObject<>(resultSet.getBytes(schema.payloadColumn()),
+                                                              byte[].class,
+                                                              resultSet.getString(schema.payloadTypeColumn()),
+                                                              resultSet.getString(schema.payloadRevisionColumn())),
+                                 new SimpleSerializedObject<>(resultSet.getBytes(schema.metaDataColumn()),
+                                                              byte[].class, MetaData.class.getName(), null),
+                                 new SimpleSerializedObject<>(resultSet.getBytes(schema.scopeColumn()),
+                                                              byte[].class,
+                                                              resultSet.getString(schema.scopeTypeColumn()),
+                                                              null));
+    }
+
+    /**
+     * Returns a {@link Connection} to the database.
+     *
+     * @return a database Connection
+     */
+    protected Connection getConnection() {
+        try {
+            return connectionProvider.getConnection();
+        } catch (SQLException e) {
+            throw new JdbcException("Failed to obtain a database connection", e);
+        }
+    }
+
+    private class DeadlineEntry {
+
+        private final String deadlineName;
+        private final String scheduleId;
+        private final String messageIdentifier;
+        private final long timestamp;
+        private final SerializedObject<byte[]> payload;
+        private final SerializedObject<byte[]> metaData;
+        private final SerializedObject<byte[]> scope;
+
+        private DeadlineEntry(String deadlineName, String scheduleId, String messageIdentifier, long timestamp,
+                              SerializedObject<byte[]> payload, SerializedObject<byte[]> metaData,
+                              SerializedObject<byte[]> scope) {
+            this.deadlineName = deadlineName;
+            this.scheduleId = scheduleId;
+            this.messageIdentifier = messageIdentifier;
+            this.timestamp = timestamp;
+            this.payload = payload;
+            this.metaData = metaData;
+            this.scope = scope;
+        }
+
+        private DeadlineMessage<?> deadlineMessage() {
+            Map<String, ?> deserializedMetaData = serializer.deserialize(metaData);
+            return new GenericDeadlineMessage<>(deadlineName,
+                                                messageIdentifier,
+                                                serializer.deserialize(payload),
+                                                deserializedMetaData,
+                                                Instant.ofEpochMilli(timestamp));
+        }
+
+        private ScopeDescriptor deadlineScope() {
+            return serializer.deserialize(scope);
+        }
+    }
+}
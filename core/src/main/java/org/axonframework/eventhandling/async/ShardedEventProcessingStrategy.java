@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.async;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessingStrategy;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static org.axonframework.common.Assert.isTrue;
+import static org.axonframework.common.Assert.notNull;
+
+/**
+ * Implementation of an {@link EventProcessingStrategy} that processes events asynchronously on a fixed number of
+ * shards, each with a bounded queue. Events are assigned to a shard based on the hash of the sequence identifier
+ * returned by the {@link SequencingPolicy}, so events of the same sequence are processed in order. Events without a
+ * sequence identifier are distributed over the shards in a round-robin fashion.
+ * <p>
+ * Unlike the {@link AsynchronousEventProcessingStrategy}, which queues events for each sequence identifier in an
+ * unbounded queue, this strategy never holds more than {@code shardCount * shardCapacity} events in memory. When the
+ * queue of a shard is full, the configured {@link BackpressureStrategy} decides what happens with new events for that
+ * shard. Queue depths and the number of dropped events are available for monitoring purposes.
+ * <p>
+ * Each shard is processed by at most one task of the {@link Executor} at a time. Queued events for the same processor
+ * are handed to it in batches.
+ *
+ * @since 3.4
+ */
+public class ShardedEventProcessingStrategy implements EventProcessingStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedEventProcessingStrategy.class);
+
+    private final String scheduledEventsKey = this + "_SCHEDULED_EVENTS";
+    private final Executor executor;
+    private final SequencingPolicy<? super EventMessage<?>> sequencingPolicy;
+    private final BackpressureStrategy backpressureStrategy;
+    private final Consumer<? super EventMessage<?>> droppedEventHandler;
+    private final Shard[] shards;
+    private final AtomicInteger roundRobinCounter = new AtomicInteger();
+    private final AtomicLong droppedEventCount = new AtomicLong();
+
+    /**
+     * Initializes a ShardedEventProcessingStrategy that uses the given {@code executor} to process the given number of
+     * {@code shards}, each holding at most {@code shardCapacity} events. Events that do not fit in their shard are
+     * handled according to the given {@code backpressureStrategy}. Dropped events are logged.
+     *
+     * @param executor             the executor processing the shards
+     * @param sequencingPolicy     the policy that determines if an event may be processed in sequence or in parallel
+     * @param shardCount           the number of shards
+     * @param shardCapacity        the maximum number of events queued in a single shard
+     * @param backpressureStrategy the strategy to apply when the queue of a shard is full
+     */
+    public ShardedEventProcessingStrategy(Executor executor,
+                                          SequencingPolicy<? super EventMessage<?>> sequencingPolicy,
+                                          int shardCount,
+                                          int shardCapacity,
+                                          BackpressureStrategy backpressureStrategy) {
+        this(executor, sequencingPolicy, shardCount, shardCapacity, backpressureStrategy, null);
+    }
+
+    /**
+     * Initializes a ShardedEventProcessingStrategy that uses the given {@code executor} to process the given number of
+     * {@code shards}, each holding at most {@code shardCapacity} events. Events that do not fit in their shard are
+     * handled according to the given {@code backpressureStrategy}. Events dropped by the {@link
+     * BackpressureStrategy#DROP} strategy are reported to the given {@code droppedEventHandler}, which may be {@code
+     * null} to log dropped events instead.
+     *
+     * @param executor             the executor processing the shards
+     * @param sequencingPolicy     the policy that determines if an event may be processed in sequence or in parallel
+     * @param shardCount           the number of shards
+     * @param shardCapacity        the maximum number of events queued in a single shard
+     * @param backpressureStrategy the strategy to apply when the queue of a shard is full
+     * @param droppedEventHandler  the handler to report dropped events to
+     */
+    public ShardedEventProcessingStrategy(Executor executor,
+                                          SequencingPolicy<? super EventMessage<?>> sequencingPolicy,
+                                          int shardCount,
+                                          int shardCapacity,
+                                          BackpressureStrategy backpressureStrategy,
+                                          Consumer<? super EventMessage<?>> droppedEventHandler) {
+        notNull(executor, () -> "executor may not be null");
+        notNull(sequencingPolicy, () -> "sequencingPolicy may not be null");
+        notNull(backpressureStrategy, () -> "backpressureStrategy may not be null");
+        isTrue(shardCount > 0, () -> "shardCount must be positive");
+        isTrue(shardCapacity > 0, () -> "shardCapacity must be positive");
+        this.executor = executor;
+        this.sequencingPolicy = sequencingPolicy;
+        this.backpressureStrategy = backpressureStrategy;
+        this.droppedEventHandler = droppedEventHandler == null
+                ? ShardedEventProcessingStrategy::logDroppedEvent
+                : droppedEventHandler;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(shardCapacity);
+        }
+    }
+
+    @Override
+    public void handle(List<? extends EventMessage<?>> events, Consumer<List<? extends EventMessage<?>>> processor) {
+        if (CurrentUnitOfWork.isStarted()) {
+            UnitOfWork<?> unitOfWorkRoot = CurrentUnitOfWork.get().root();
+            unitOfWorkRoot.getOrComputeResource(scheduledEventsKey, key -> {
+                List<EventMessage<?>> allEvents = new ArrayList<>();
+                unitOfWorkRoot.afterCommit(uow -> schedule(allEvents, processor));
+                return allEvents;
+            }).addAll(events);
+        } else {
+            schedule(events, processor);
+        }
+    }
+
+    /**
+     * Assigns the given {@code events} to their shards and schedules the shards for processing.
+     *
+     * @param events    The messages to schedule for processing
+     * @param processor The component that will perform the actual processing
+     */
+    protected void schedule(List<? extends EventMessage<?>> events,
+                            Consumer<List<? extends EventMessage<?>>> processor) {
+        for (EventMessage<?> event : events) {
+            shardFor(sequencingPolicy.getSequenceIdentifierFor(event)).enqueue(new QueuedEvent(event, processor));
+        }
+    }
+
+    /**
+     * Returns the number of shards of this strategy.
+     *
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the number of events currently queued in the shard with given {@code shardIndex}.
+     *
+     * @param shardIndex the index of the shard, between 0 and {@link #getShardCount()}
+     * @return the number of events queued in the shard
+     */
+    public int getQueueDepth(int shardIndex) {
+        return shards[shardIndex].queue.size();
+    }
+
+    /**
+     * Returns the number of events currently queued in all shards.
+     *
+     * @return the total number of queued events
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Shard shard : shards) {
+            depth += shard.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of events dropped since this strategy was created, because the queue of their shard was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+
+    private static void logDroppedEvent(EventMessage<?> event) {
+        logger.warn("Dropped event [{}] of type [{}]. The queue of its shard is full.",
+                    event.getIdentifier(), event.getPayloadType().getName());
+    }
+
+    private Shard shardFor(Object sequenceIdentifier) {
+        int hash = sequenceIdentifier == null ? roundRobinCounter.getAndIncrement() : sequenceIdentifier.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    /**
+     * Strategy applied when an event is assigned to a shard of which the queue is full.
+     */
+    public enum BackpressureStrategy {
+
+        /**
+         * Blocks the publishing thread until there is room in the queue. Avoid this strategy if the publishing thread
+         * may also be used by the {@link Executor} to process the shards.
+         */
+        BLOCK,
+
+        /**
+         * Drops the event and reports it to the dropped event handler.
+         */
+        DROP,
+
+        /**
+         * Lets the publishing thread process queued events of the shard until there is room in the queue. This
+         * preserves the order of events in the shard, while slowing down the publisher.
+         */
+        CALLER_RUNS
+    }
+
+    private final class Shard implements Runnable {
+
+        private final BlockingQueue<QueuedEvent> queue;
+        private final int maxBatchSize;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ReentrantLock processingLock = new ReentrantLock();
+
+        private Shard(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.maxBatchSize = capacity;
+        }
+
+        private void enqueue(QueuedEvent queuedEvent) {
+            if (!queue.offer(queuedEvent)) {
+                switch (backpressureStrategy) {
+                    case BLOCK:
+                        putUninterruptibly(queuedEvent);
+                        break;
+                    case DROP:
+                        droppedEventCount.incrementAndGet();
+                        droppedEventHandler.accept(queuedEvent.event);
+                        return;
+                    case CALLER_RUNS:
+                        while (!queue.offer(queuedEvent)) {
+                            processInCallingThread();
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unsupported backpressure strategy " + backpressureStrategy);
+                }
+            }
+            scheduleIfIdle();
+        }
+
+        private void putUninterruptibly(QueuedEvent queuedEvent) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    queue.put(queuedEvent);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void processInCallingThread() {
+            // processing must not join the unit of work of the publisher, which is committed already
+            UnitOfWork<?> unitOfWork = CurrentUnitOfWork.isStarted() ? CurrentUnitOfWork.get() : null;
+            if (unitOfWork != null) {
+                CurrentUnitOfWork.clear(unitOfWork);
+            }
+            try {
+                processBatch();
+            } finally {
+                if (unitOfWork != null) {
+                    CurrentUnitOfWork.set(unitOfWork);
+                }
+            }
+        }
+
+        private void scheduleIfIdle() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    logger.warn("Executor rejected processing of a shard. Its events are processed when new events "
+                                        + "are scheduled.", e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                while (processBatch()) {
+                    // continue until the queue is empty
+                }
+                scheduled.set(false);
+                // an event may have been queued after the last batch was taken, but before the flag was cleared
+                if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean processBatch() {
+            processingLock.lock();
+            try {
+                QueuedEvent first = queue.poll();
+                if (first == null) {
+                    return false;
+                }
+                List<EventMessage<?>> batch = new ArrayList<>();
+                batch.add(first.event);
+                QueuedEvent next;
+                while (batch.size() < maxBatchSize && (next = queue.peek()) != null
+                        && next.processor == first.processor) {
+                    batch.add(queue.poll().event);
+                }
+                try {
+                    first.processor.accept(batch);
+                } catch (RuntimeException e) {
+                    logger.error("Processing of a batch of {} event(s) failed. Continuing with the next batch.",
+                                 batch.size(), e);
+                }
+                return true;
+            } finally {
+                processingLock.unlock();
+            }
+        }
+    }
+
+    private static final class QueuedEvent {
+
+        private final EventMessage<?> event;
+        private final Consumer<List<? extends EventMessage<?>>> processor;
+
+        private QueuedEvent(EventMessage<?> event, Consumer<List<? extends EventMessage<?>>> processor) {
+            this.event = event;
+            this.processor = processor;
+        }
+    }
+}
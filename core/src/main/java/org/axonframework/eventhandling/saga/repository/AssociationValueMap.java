@@ -18,9 +18,12 @@
 
 import org.axonframework.eventhandling.saga.AssociationValue;
 
-import java.io.Serializable;
-import java.util.*;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -30,21 +33,20 @@
  * Note that this "map" does not implement the Map interface. This is mainly due to the specific nature and intent of
  * this implementation. For example, the Map interface does not allow a single key to point to more than one value.
  * <p/>
- * This implementation is thread safe and has an expected average time cost of {@code log(n)}.
+ * Mappings are indexed by a hash of the Saga type and association value, giving lookups, additions and removals an
+ * expected constant time cost. As most association values map to a single Saga, the identifier of that Saga is stored
+ * as is, and a set of identifiers is only created once a second Saga is associated with the same value.
+ * <p/>
+ * This implementation is thread safe.
  *
  * @author Allard Buijze
  * @since 0.7
  */
 public class AssociationValueMap {
 
-    private final NavigableSet<SagaAssociationValue> mappings;
-
-    /**
-     * Initializes a new and empty AssociationValueMap.
-     */
-    public AssociationValueMap() {
-        mappings = new ConcurrentSkipListSet<>(new AssociationValueComparator());
-    }
+    // values are either a single saga identifier, or a concurrent set of saga identifiers
+    private final ConcurrentMap<SagaAssociationKey, Object> mappings = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
 
     /**
      * Returns the identifiers of the Sagas that have been associated with the given {@code associationValue}.
@@ -53,18 +55,16 @@ public AssociationValueMap() {
      * @param associationValue The associationValue to find Sagas for
      * @return A set of Saga identifiers
      */
+    @SuppressWarnings("unchecked")
     public Set<String> findSagas(String sagaType, AssociationValue associationValue) {
-        Set<String> identifiers = new HashSet<>();
-        for (SagaAssociationValue item : mappings.tailSet(new SagaAssociationValue(associationValue, sagaType, null))) {
-            if (!item.getKey().equals(associationValue.getKey())) {
-                // we've had all relevant items
-                break;
-            }
-            if (associationValue.equals(item.getAssociationValue()) && sagaType.equals(item.getSagaType())) {
-                identifiers.add(item.getSagaIdentifier());
-            }
+        Object identifiers = associationValue == null
+                ? null : mappings.get(new SagaAssociationKey(sagaType, associationValue));
+        if (identifiers == null) {
+            return new HashSet<>();
+        } else if (identifiers instanceof String) {
+            return new HashSet<>(Collections.singleton((String) identifiers));
         }
-        return identifiers;
+        return new HashSet<>((Set<String>) identifiers);
     }
 
     /**
@@ -74,8 +74,30 @@ public Set<String> findSagas(String sagaType, AssociationValue associationValue)
      * @param sagaType         The type of the associated Saga
      * @param sagaIdentifier   The identifier of the associated Saga
      */
+    @SuppressWarnings("unchecked")
     public void add(AssociationValue associationValue, String sagaType, String sagaIdentifier) {
-        mappings.add(new SagaAssociationValue(associationValue, sagaType, sagaIdentifier));
+        if (associationValue == null) {
+            return;
+        }
+        mappings.compute(new SagaAssociationKey(sagaType, associationValue), (key, identifiers) -> {
+            if (identifiers == null) {
+                size.incrementAndGet();
+                return sagaIdentifier;
+            } else if (identifiers instanceof String) {
+                if (identifiers.equals(sagaIdentifier)) {
+                    return identifiers;
+                }
+                Set<String> set = ConcurrentHashMap.newKeySet();
+                set.add((String) identifiers);
+                set.add(sagaIdentifier);
+                size.incrementAndGet();
+                return set;
+            }
+            if (((Set<String>) identifiers).add(sagaIdentifier)) {
+                size.incrementAndGet();
+            }
+            return identifiers;
+        });
     }
 
     /**
@@ -85,15 +107,35 @@ public void add(AssociationValue associationValue, String sagaType, String sagaI
      * @param sagaType         The type of the associated Saga
      * @param sagaIdentifier   The identifier of the associated Saga
      */
+    @SuppressWarnings("unchecked")
     public void remove(AssociationValue associationValue, String sagaType, String sagaIdentifier) {
-        mappings.remove(new SagaAssociationValue(associationValue, sagaType, sagaIdentifier));
+        if (associationValue == null) {
+            return;
+        }
+        mappings.computeIfPresent(new SagaAssociationKey(sagaType, associationValue), (key, identifiers) -> {
+            if (identifiers instanceof String) {
+                if (identifiers.equals(sagaIdentifier)) {
+                    size.decrementAndGet();
+                    return null;
+                }
+                return identifiers;
+            }
+            Set<String> set = (Set<String>) identifiers;
+            if (set.remove(sagaIdentifier)) {
+                size.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
     }
 
     /**
      * Clears all the associations.
      */
     public void clear() {
-        mappings.clear();
+        mappings.keySet().forEach(key -> mappings.computeIfPresent(key, (k, identifiers) -> {
+            size.addAndGet(identifiers instanceof String ? -1 : -((Set<?>) identifiers).size());
+            return null;
+        }));
     }
 
     /**
@@ -106,93 +148,12 @@ public boolean isEmpty() {
     }
 
     /**
-     * Returns an approximation of the size of this map. Due to the concurrent nature of this map, size cannot return
-     * an
-     * accurate value.
-     * <p/>
-     * This is not a constant-time operation. The backing store of this map requires full traversal of elements to
-     * calculate this size.
+     * Returns the number of associations in this map. Due to the concurrent nature of this map, the returned value may
+     * not reflect concurrent modifications.
      *
-     * @return an approximation of the number of elements in this map
+     * @return the number of associations in this map
      */
     public int size() {
-        return mappings.size();
-    }
-
-    private static final class SagaAssociationValue {
-
-        private final AssociationValue associationValue;
-        private final String sagaType;
-        private final String sagaIdentifier;
-
-        private SagaAssociationValue(AssociationValue associationValue, String sagaType, String sagaIdentifier) {
-            this.associationValue = associationValue;
-            this.sagaType = sagaType;
-            this.sagaIdentifier = sagaIdentifier;
-        }
-
-        public AssociationValue getAssociationValue() {
-            return associationValue;
-        }
-
-        public String getSagaIdentifier() {
-            return sagaIdentifier;
-        }
-
-        public String getKey() {
-            return associationValue.getKey();
-        }
-
-        public Object getValue() {
-            return associationValue.getValue();
-        }
-
-        public String getSagaType() {
-            return sagaType;
-        }
-    }
-
-    private static class AssociationValueComparator implements Comparator<SagaAssociationValue>, Serializable {
-
-        private static final long serialVersionUID = -8733800489211327001L;
-
-        @SuppressWarnings({"unchecked"})
-        @Override
-        public int compare(SagaAssociationValue o1, SagaAssociationValue o2) {
-            int value = o1.getKey().compareTo(o2.getKey());
-            if (value == 0 && !Objects.equals(o1.getValue(), o2.getValue())) {
-                value = o1.getValue().getClass().getName().compareTo(o2.getValue().getClass().getName());
-            }
-            if (value == 0 && !Objects.equals(o1.getValue(), o2.getValue())) {
-                // the objects are of the same class
-                if (o1.getValue() instanceof Comparable) {
-                    value = ((Comparable) o1.getValue()).compareTo(o2.getValue());
-                } else {
-                    value = o1.getValue().hashCode() - o2.getValue().hashCode();
-                    if (value == 0 && o1.getValue() != o2.getValue()) {
-                        value = o1.getValue().toString().compareTo(o2.getValue().toString());
-                    }
-                }
-            }
-
-            if (value == 0 && !Objects.equals(o1.getSagaType(), o2.getSagaType())) {
-                if (o1.getSagaType() == null) {
-                    return -1;
-                } else if (o2.getSagaType() == null) {
-                    return 1;
-                }
-                return o1.getSagaType().compareTo(o2.getSagaType());
-            }
-
-            if (value == 0 && !Objects.equals(o1.getSagaIdentifier(), o2.getSagaIdentifier())) {
-                if (o1.getSagaIdentifier() == null) {
-                    return -1;
-                } else if (o2.getSagaIdentifier() == null) {
-                    return 1;
-                }
-                return o1.getSagaIdentifier().compareTo(o2.getSagaIdentifier());
-            }
-            return value;
-        }
+        return size.get();
     }
 }
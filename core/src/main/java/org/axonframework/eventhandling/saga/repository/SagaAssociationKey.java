@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.saga.repository;
+
+import org.axonframework.eventhandling.saga.AssociationValue;
+
+import java.util.Objects;
+
+/**
+ * Key identifying the Sagas of a given type that are associated with a given {@link AssociationValue}. The hash code
+ * of the key is calculated once, as keys are typically used for a single lookup in a hash based structure.
+ *
+ * @since 3.4
+ */
+final class SagaAssociationKey {
+
+    private final String sagaType;
+    private final String associationKey;
+    private final String associationValue;
+    private final int hashCode;
+
+    /**
+     * Initializes a key for Sagas of given {@code sagaType} associated with the given {@code associationValue}.
+     *
+     * @param sagaType         The type of the associated Saga
+     * @param associationValue The association value associated with the Saga
+     */
+    SagaAssociationKey(String sagaType, AssociationValue associationValue) {
+        this.sagaType = sagaType;
+        this.associationKey = associationValue.getKey();
+        this.associationValue = associationValue.getValue();
+        this.hashCode = 31 * (31 * sagaType.hashCode() + Objects.hashCode(associationKey))
+                + Objects.hashCode(this.associationValue);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SagaAssociationKey that = (SagaAssociationKey) o;
+        return hashCode == that.hashCode
+                && Objects.equals(associationValue, that.associationValue)
+                && Objects.equals(associationKey, that.associationKey)
+                && sagaType.equals(that.sagaType);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return sagaType + "/" + associationKey + "=" + associationValue;
+    }
+}
@@ -18,17 +18,20 @@
 
 import org.axonframework.eventhandling.saga.AssociationValue;
 import org.axonframework.eventhandling.saga.AssociationValues;
+import org.axonframework.eventhandling.saga.repository.AssociationValueMap;
 import org.axonframework.eventhandling.saga.repository.SagaStore;
 import org.axonframework.eventsourcing.eventstore.TrackingToken;
 
-import java.util.Map;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
 
 /**
- * SagaRepository implementation that stores all Saga instances in memory.
+ * SagaRepository implementation that stores all Saga instances in memory. The associations of the Sagas are indexed
+ * per Saga class in an {@link AssociationValueMap}, so that finding the Sagas associated with a value doesn't depend on
+ * the number of Sagas in the store. As before, Sagas are found if they are an instance of the requested type, including
+ * instances of its subclasses.
  *
  * @author Allard Buijze
  * @since 0.7
@@ -36,20 +39,26 @@
 public class InMemorySagaStore implements SagaStore<Object> {
 
     private final ConcurrentMap<String, ManagedSaga> managedSagas = new ConcurrentHashMap<>();
+    private final AssociationValueMap associations = new AssociationValueMap();
+    private final Set<Class<?>> sagaClasses = ConcurrentHashMap.newKeySet();
 
     @Override
     public Set<String> findSagas(Class<?> sagaType, AssociationValue associationValue) {
-        return managedSagas.entrySet()
-                .stream()
-                .filter(avEntry -> sagaType.isInstance(avEntry.getValue().saga()))
-                .filter(avEntry -> avEntry.getValue().associationValues().contains(associationValue))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+        Set<String> sagas = new HashSet<>();
+        sagaClasses.stream()
+                   .filter(sagaType::isAssignableFrom)
+                   .forEach(sagaClass -> sagas.addAll(associations.findSagas(sagaClass.getName(), associationValue)));
+        return sagas;
     }
 
     @Override
     public void deleteSaga(Class<?> sagaType, String sagaIdentifier, Set<AssociationValue> associationValues) {
-        managedSagas.remove(sagaIdentifier);
+        ManagedSaga removed = managedSagas.remove(sagaIdentifier);
+        if (removed != null) {
+            String sagaClass = removed.saga().getClass().getName();
+            removed.associationValues().forEach(av -> associations.remove(av, sagaClass, sagaIdentifier));
+            associationValues.forEach(av -> associations.remove(av, sagaClass, sagaIdentifier));
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -61,11 +70,16 @@ public <S> Entry<S> loadSaga(Class<S> sagaType, String sagaIdentifier) {
     @Override
     public void insertSaga(Class<?> sagaType, String sagaIdentifier, Object saga, TrackingToken token, Set<AssociationValue> associationValues) {
         managedSagas.put(sagaIdentifier, new ManagedSaga(saga, associationValues));
+        sagaClasses.add(saga.getClass());
+        associationValues.forEach(av -> associations.add(av, saga.getClass().getName(), sagaIdentifier));
     }
 
     @Override
     public void updateSaga(Class<?> sagaType, String sagaIdentifier, Object saga, TrackingToken token, AssociationValues associationValues) {
         managedSagas.put(sagaIdentifier, new ManagedSaga(saga, associationValues.asSet()));
+        String sagaClass = saga.getClass().getName();
+        associationValues.removedAssociations().forEach(av -> associations.remove(av, sagaClass, sagaIdentifier));
+        associationValues.addedAssociations().forEach(av -> associations.add(av, sagaClass, sagaIdentifier));
     }
 
     /**
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.scheduling.java;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.HashedWheelTimer;
+import org.axonframework.common.IdentifierFactory;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.EventBus;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.scheduling.EventScheduler;
+import org.axonframework.eventhandling.scheduling.ScheduleToken;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link EventScheduler} implementation that uses a {@link HashedWheelTimer} as scheduling and triggering
+ * mechanism. Scheduling and cancelling an event take constant time, which makes this implementation suitable for large
+ * numbers of scheduled events. Events are published in the first tick of the timer after their trigger time.
+ * <p/>
+ * Note that this mechanism is non-persistent. Scheduled tasks will be lost when the JVM is shut down. For persistent
+ * scheduling, see {@link org.axonframework.eventhandling.scheduling.quartz.QuartzEventScheduler}.
+ *
+ * @see SimpleEventScheduler
+ * @since 3.4
+ */
+public class TimingWheelEventScheduler implements EventScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheelEventScheduler.class);
+
+    private final HashedWheelTimer timer;
+    private final EventBus eventBus;
+    private final TransactionManager transactionManager;
+    private final Map<String, HashedWheelTimer.Timeout> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * Initialize the TimingWheelEventScheduler using the given {@code timer} as trigger and execution mechanism, and
+     * publishes events to the given {@code eventBus}.
+     *
+     * @param timer    The backing HashedWheelTimer
+     * @param eventBus The Event Bus on which Events are to be published
+     */
+    public TimingWheelEventScheduler(HashedWheelTimer timer, EventBus eventBus) {
+        this(timer, eventBus, NoTransactionManager.INSTANCE);
+    }
+
+    /**
+     * Initialize the TimingWheelEventScheduler using the given {@code timer} as trigger and execution mechanism, and
+     * publishes events to the given {@code eventBus}.
+     *
+     * @param timer              The backing HashedWheelTimer
+     * @param eventBus           The Event Bus on which Events are to be published
+     * @param transactionManager to manage the transaction around Event publication
+     */
+    public TimingWheelEventScheduler(HashedWheelTimer timer, EventBus eventBus,
+                                     TransactionManager transactionManager) {
+        Assert.notNull(timer, () -> "timer may not be null");
+        Assert.notNull(eventBus, () -> "eventBus may not be null");
+        Assert.notNull(transactionManager, () -> "transactionManager may not be null");
+
+        this.timer = timer;
+        this.eventBus = eventBus;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public ScheduleToken schedule(Instant triggerDateTime, Object event) {
+        return schedule(Duration.between(Instant.now(), triggerDateTime), event);
+    }
+
+    @Override
+    public ScheduleToken schedule(Duration triggerDuration, Object event) {
+        String tokenId = IdentifierFactory.getInstance().generateIdentifier();
+        PublishEventTask task = new PublishEventTask(event, tokenId);
+        HashedWheelTimer.Timeout timeout = timer.schedule(task, triggerDuration.toMillis(), TimeUnit.MILLISECONDS);
+        tokens.put(tokenId, timeout);
+        if (timeout.isExpired()) {
+            // the event may have been published before the token was registered
+            tokens.remove(tokenId, timeout);
+        }
+        return new SimpleScheduleToken(tokenId);
+    }
+
+    @Override
+    public void cancelSchedule(ScheduleToken scheduleToken) {
+        if (!SimpleScheduleToken.class.isInstance(scheduleToken)) {
+            throw new IllegalArgumentException("The given ScheduleToken was not provided by this scheduler.");
+        }
+        HashedWheelTimer.Timeout timeout = tokens.remove(((SimpleScheduleToken) scheduleToken).getTokenId());
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private class PublishEventTask implements Runnable {
+
+        private final Object event;
+        private final String tokenId;
+
+        public PublishEventTask(Object event, String tokenId) {
+            this.event = event;
+            this.tokenId = tokenId;
+        }
+
+        @Override
+        public void run() {
+            EventMessage<?> eventMessage = createMessage();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Triggered the publication of event [{}]", eventMessage.getPayloadType().getSimpleName());
+            }
+            try {
+                UnitOfWork<EventMessage<?>> unitOfWork = new DefaultUnitOfWork<>(null);
+                unitOfWork.attachTransaction(transactionManager);
+                unitOfWork.execute(() -> eventBus.publish(eventMessage));
+            } finally {
+                tokens.remove(tokenId);
+            }
+        }
+
+        /**
+         * Creates a new message for the scheduled event, so that the timestamp reflects the moment the trigger
+         * occurred.
+         *
+         * @return the message to publish
+         */
+        private EventMessage<?> createMessage() {
+            if (event instanceof EventMessage) {
+                return new GenericEventMessage<>(((EventMessage<?>) event).getPayload(),
+                                                 ((EventMessage<?>) event).getMetaData());
+            }
+            return new GenericEventMessage<>(event, MetaData.emptyInstance());
+        }
+    }
+}
@@ -37,6 +37,13 @@
  * <p>
  * Note that an entry of a cached aggregate is immediately invalidated when an error occurs while saving that
  * aggregate. This is done to prevent the cache from returning aggregates that may not have fully persisted to disk.
+ * <p>
+ * By default, a new cache entry is stored each time an aggregate is saved, so that caches storing a copy of their
+ * entries, such as distributed caches, hold the latest state of the aggregate. When the cache holds references to its
+ * entries, such as the {@link org.axonframework.common.caching.WeakReferenceCache}, the repository may be configured
+ * to cache live aggregates instead. The entry stored when the aggregate is first created or loaded then keeps
+ * referring to the aggregate instance used by subsequent units of work, and saving an aggregate doesn't touch the
+ * cache at all.
  *
  * @param <T> The type of aggregate this repository stores
  * @author Allard Buijze
@@ -48,6 +55,7 @@
     private final RepositoryProvider repositoryProvider;
     private final Cache cache;
     private final SnapshotTriggerDefinition snapshotTriggerDefinition;
+    private final boolean cacheLiveAggregates;
 
     /**
      * Initializes a repository with a the given {@code aggregateFactory} and a pessimistic locking strategy. It stores
@@ -169,6 +177,7 @@ public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, Even
         this.eventStore = eventStore;
         this.snapshotTriggerDefinition = snapshotTriggerDefinition;
         this.repositoryProvider = repositoryProvider;
+        this.cacheLiveAggregates = false;
     }
 
     /**
@@ -219,6 +228,44 @@ public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, Even
                                           HandlerDefinition handlerDefinition,
                                           SnapshotTriggerDefinition snapshotTriggerDefinition,
                                           RepositoryProvider repositoryProvider) {
+        this(aggregateFactory,
+             eventStore,
+             lockFactory,
+             cache,
+             parameterResolverFactory,
+             handlerDefinition,
+             snapshotTriggerDefinition,
+             repositoryProvider,
+             false);
+    }
+
+    /**
+     * Initializes a repository with a the given {@code aggregateFactory} and a pessimistic locking strategy.
+     * <p>
+     * When {@code cacheLiveAggregates} is {@code true}, the cache entry of an aggregate is stored once, when the
+     * aggregate is created or loaded from the event store, and refers to the aggregate instance used by subsequent
+     * units of work. This requires a cache that holds a reference to its entries, rather than a copy.
+     * <p>
+     * Note that an optimistic locking strategy is not compatible with caching.
+     *
+     * @param aggregateFactory          The factory for new aggregate instances
+     * @param eventStore                The event store that holds the event streams for this repository
+     * @param lockFactory               The lock factory restricting concurrent access to aggregate instances
+     * @param cache                     The cache in which entries will be stored
+     * @param parameterResolverFactory  The parameter resolver factory used to resolve parameters of annotated handlers
+     * @param handlerDefinition         The handler definition used to create concrete handlers
+     * @param snapshotTriggerDefinition The definition describing when to trigger a snapshot
+     * @param repositoryProvider        Provides repositories for specific aggregate types
+     * @param cacheLiveAggregates       Whether to keep referring to the cached aggregate instance instead of storing a
+     *                                  new entry each time the aggregate is saved
+     * @see LockingRepository#LockingRepository(Class)
+     */
+    public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, EventStore eventStore,
+                                          LockFactory lockFactory, Cache cache,
+                                          ParameterResolverFactory parameterResolverFactory,
+                                          HandlerDefinition handlerDefinition,
+                                          SnapshotTriggerDefinition snapshotTriggerDefinition,
+                                          RepositoryProvider repositoryProvider, boolean cacheLiveAggregates) {
         super(aggregateFactory,
               eventStore,
               lockFactory,
@@ -230,6 +277,7 @@ public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, Even
         this.eventStore = eventStore;
         this.snapshotTriggerDefinition = snapshotTriggerDefinition;
         this.repositoryProvider = repositoryProvider;
+        this.cacheLiveAggregates = cacheLiveAggregates;
     }
 
     @Override
@@ -249,19 +297,26 @@ protected EventSourcedAggregate<T> doCreateNewForLock(Callable<T> factoryMethod)
     @Override
     protected void doSaveWithLock(EventSourcedAggregate<T> aggregate) {
         super.doSaveWithLock(aggregate);
+        if (cacheLiveAggregates) {
+            // the cache entry refers to this instance already
+            return;
+        }
         cache.put(aggregate.identifierAsString(), new AggregateCacheEntry<>(aggregate));
     }
 
     @Override
     protected void doDeleteWithLock(EventSourcedAggregate<T> aggregate) {
         super.doDeleteWithLock(aggregate);
+        if (cacheLiveAggregates) {
+            return;
+        }
         cache.put(aggregate.identifierAsString(), new AggregateCacheEntry<>(aggregate));
     }
 
     /**
      * Perform the actual loading of an aggregate. The necessary locks have been obtained. If the aggregate is
      * available in the cache, it is returned from there. Otherwise the underlying persistence logic is called to
-     * retrieve the aggregate.
+     * retrieve the aggregate. When caching live aggregates, the retrieved aggregate is cached immediately.
      *
      * @param aggregateIdentifier the identifier of the aggregate to load
      * @param expectedVersion     The expected version of the aggregate
@@ -279,6 +334,9 @@ protected EventSourcedAggregate<T> doLoadWithLock(String aggregateIdentifier, Lo
         }
         if (aggregate == null) {
             aggregate = super.doLoadWithLock(aggregateIdentifier, expectedVersion);
+            if (cacheLiveAggregates) {
+                cache.put(aggregateIdentifier, new AggregateCacheEntry<>(aggregate));
+            }
         } else if (aggregate.isDeleted()) {
             throw new AggregateDeletedException(aggregateIdentifier);
         }
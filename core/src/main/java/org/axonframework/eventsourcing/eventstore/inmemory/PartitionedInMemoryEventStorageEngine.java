@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.inmemory;
+
+import org.axonframework.common.Assert;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.DomainEventData;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventUtils;
+import org.axonframework.eventsourcing.eventstore.GenericDomainEventEntry;
+import org.axonframework.eventsourcing.eventstore.GenericTrackedDomainEventEntry;
+import org.axonframework.eventsourcing.eventstore.GlobalSequenceTrackingToken;
+import org.axonframework.eventsourcing.eventstore.TrackedEventData;
+import org.axonframework.eventsourcing.eventstore.TrackingToken;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+import org.axonframework.serialization.upcasting.event.NoOpEventUpcaster;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.axonframework.common.ObjectUtils.getOrDefault;
+import static org.axonframework.eventsourcing.eventstore.EventUtils.asTrackedEventMessage;
+import static org.axonframework.serialization.MessageSerializer.serializeMetaData;
+import static org.axonframework.serialization.MessageSerializer.serializePayload;
+
+/**
+ * Thread-safe event storage engine that stores events and snapshots in memory, optimized for large numbers of events.
+ * <p>
+ * Events are stored in a global log that is indexed by the global sequence of the events, which makes opening a
+ * tracking event stream at a given token a constant time operation. Additionally, the events of each aggregate are
+ * kept in a separate partition ordered by sequence number, so that loading an aggregate does not require scanning the
+ * events of other aggregates.
+ * <p>
+ * Each append reserves a range of global sequence numbers and writes its events concurrently with other appends. The
+ * events become visible to tracking event streams in the order of their global sequence number: an append waits until
+ * all preceding appends have published their events before publishing its own. An append that fails after reserving
+ * its range still publishes it, leaving a gap in the global sequence that readers skip.
+ * <p>
+ * When a {@link Serializer} is provided, events and snapshots are stored in serialized form and deserialized when read,
+ * passing them through the given {@link EventUpcaster} chain. This allows tests to exercise serialization and
+ * upcasting without the need for a database. Without a serializer, event messages are stored as is.
+ * <p>
+ * Like the {@link InMemoryEventStorageEngine}, this engine does not check whether events of an aggregate have already
+ * been stored with the same sequence number, and produces non-blocking event streams.
+ *
+ * @since 3.4
+ */
+public class PartitionedInMemoryEventStorageEngine implements EventStorageEngine {
+
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final Serializer serializer;
+    private final EventUpcaster upcasterChain;
+
+    private final Object segmentLock = new Object();
+    private volatile Object[][] segments = new Object[16][];
+    private final AtomicLong reservedCount = new AtomicLong();
+    // entries with a global index below this count are visible to readers
+    private volatile long publishedCount;
+
+    private final ConcurrentMap<String, AggregatePartition> partitions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes an engine that stores event messages as is.
+     */
+    public PartitionedInMemoryEventStorageEngine() {
+        this.serializer = null;
+        this.upcasterChain = NoOpEventUpcaster.INSTANCE;
+    }
+
+    /**
+     * Initializes an engine that stores events and snapshots in serialized form, using the given {@code serializer}.
+     * Events and snapshots are passed through the given {@code upcasterChain} before they are deserialized.
+     *
+     * @param serializer    the serializer used to serialize and deserialize events and snapshots
+     * @param upcasterChain the upcasters applied to events and snapshots when they are read. If {@code null} a {@link
+     *                      NoOpEventUpcaster} is used.
+     */
+    public PartitionedInMemoryEventStorageEngine(Serializer serializer, EventUpcaster upcasterChain) {
+        Assert.notNull(serializer, () -> "serializer may not be null");
+        this.serializer = serializer;
+        this.upcasterChain = getOrDefault(upcasterChain, () -> NoOpEventUpcaster.INSTANCE);
+    }
+
+    @Override
+    public void appendEvents(List<? extends EventMessage<?>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        int count = events.size();
+        // serialize before reserving global indices, as a failing append must not leave gaps in the log
+        SerializedObject<?>[] serializedForms = serializer == null ? null : serialize(events);
+        long firstIndex = reservedCount.getAndAdd(count);
+        try {
+            // create all entries before storing any of them, so that a failing append does not store part of its events
+            Object[] entries = new Object[count];
+            for (int i = 0; i < count; i++) {
+                long index = firstIndex + i;
+                entries[i] = serializedForms == null
+                        ? asTrackedEventMessage(events.get(i), new GlobalSequenceTrackingToken(index))
+                        : createEntry(events.get(i), index, serializedForms[2 * i], serializedForms[2 * i + 1]);
+            }
+            ensureCapacity(firstIndex + count);
+            Object[][] currentSegments = segments;
+            for (int i = 0; i < count; i++) {
+                long index = firstIndex + i;
+                currentSegments[segmentOf(index)][offsetOf(index)] = entries[i];
+                EventMessage<?> event = events.get(i);
+                if (event instanceof DomainEventMessage) {
+                    DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+                    partitions.computeIfAbsent(domainEvent.getAggregateIdentifier(), id -> new AggregatePartition())
+                              .add(entries[i], domainEvent.getSequenceNumber());
+                }
+            }
+        } finally {
+            // always publish the reserved range, as subsequent appends wait for it. Unwritten entries are skipped
+            publish(firstIndex, count);
+        }
+    }
+
+    @Override
+    public void storeSnapshot(DomainEventMessage<?> snapshot) {
+        if (serializer == null) {
+            snapshots.put(snapshot.getAggregateIdentifier(), snapshot);
+        } else {
+            SerializedObject<byte[]> payload = serializePayload(snapshot, serializer, byte[].class);
+            SerializedObject<byte[]> metaData = serializeMetaData(snapshot, serializer, byte[].class);
+            snapshots.put(snapshot.getAggregateIdentifier(), new GenericDomainEventEntry<>(
+                    snapshot.getType(), snapshot.getAggregateIdentifier(), snapshot.getSequenceNumber(),
+                    snapshot.getIdentifier(), snapshot.getTimestamp(), payload.getType().getName(),
+                    payload.getType().getRevision(), payload.getData(), metaData.getData()
+            ));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation produces non-blocking event streams.
+     */
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock) {
+        long start = trackingToken == null ? 0 : ((GlobalSequenceTrackingToken) trackingToken).getGlobalIndex() + 1;
+        // read the published count before the segments, so that all published entries are in the segments read
+        long end = publishedCount;
+        Object[][] currentSegments = segments;
+        Stream<Object> entries = LongStream.range(start, end)
+                                           .mapToObj(index -> entryAt(currentSegments, index))
+                                           .filter(Objects::nonNull);
+        if (serializer == null) {
+            return entries.map(entry -> (TrackedEventMessage<?>) entry);
+        }
+        return EventUtils.upcastAndDeserializeTrackedEvents(entries.map(entry -> (TrackedEventData<?>) entry),
+                                                            serializer, upcasterChain, true);
+    }
+
+    @Override
+    public DomainEventStream readEvents(String aggregateIdentifier, long firstSequenceNumber) {
+        AggregatePartition partition = partitions.get(aggregateIdentifier);
+        if (partition == null) {
+            return DomainEventStream.empty();
+        }
+        Object[] entries = partition.entriesFrom(firstSequenceNumber);
+        if (serializer == null) {
+            Long lastSequenceNumber =
+                    entries.length == 0 ? null : sequenceNumberOf(entries[entries.length - 1]);
+            return DomainEventStream.of(Arrays.stream(entries).map(entry -> (DomainEventMessage<?>) entry),
+                                        () -> lastSequenceNumber);
+        }
+        return EventUtils.upcastAndDeserializeDomainEvents(Arrays.stream(entries)
+                                                                 .map(entry -> (DomainEventData<?>) entry),
+                                                           serializer, upcasterChain, false);
+    }
+
+    @Override
+    public Optional<DomainEventMessage<?>> readSnapshot(String aggregateIdentifier) {
+        Object snapshot = snapshots.get(aggregateIdentifier);
+        if (snapshot == null || serializer == null) {
+            return Optional.ofNullable((DomainEventMessage<?>) snapshot);
+        }
+        DomainEventStream stream = EventUtils.upcastAndDeserializeDomainEvents(
+                Stream.of((DomainEventData<?>) snapshot), serializer, upcasterChain, false
+        );
+        return stream.hasNext() ? Optional.of(stream.next()) : Optional.empty();
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        if (publishedCount == 0) {
+            return null;
+        }
+        return new GlobalSequenceTrackingToken(-1);
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        long count = publishedCount;
+        if (count == 0) {
+            return null;
+        }
+        return new GlobalSequenceTrackingToken(count - 1);
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        long count = publishedCount;
+        Object[][] currentSegments = segments;
+        for (long index = 0; index < count; index++) {
+            Object entry = entryAt(currentSegments, index);
+            if (entry != null && !timestampOf(entry).isBefore(dateTime)) {
+                return new GlobalSequenceTrackingToken(index - 1);
+            }
+        }
+        return null;
+    }
+
+    private SerializedObject<?>[] serialize(List<? extends EventMessage<?>> events) {
+        SerializedObject<?>[] serializedForms = new SerializedObject<?>[2 * events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            serializedForms[2 * i] = serializePayload(events.get(i), serializer, byte[].class);
+            serializedForms[2 * i + 1] = serializeMetaData(events.get(i), serializer, byte[].class);
+        }
+        return serializedForms;
+    }
+
+    private static Object createEntry(EventMessage<?> event, long globalIndex, SerializedObject<?> payload,
+                                      SerializedObject<?> metaData) {
+        DomainEventMessage<?> domainEvent = EventUtils.asDomainEventMessage(event);
+        return new GenericTrackedDomainEventEntry<>(globalIndex, domainEvent.getType(),
+                                                    domainEvent.getAggregateIdentifier(),
+                                                    domainEvent.getSequenceNumber(), event.getIdentifier(),
+                                                    event.getTimestamp(), payload.getType().getName(),
+                                                    payload.getType().getRevision(), (byte[]) payload.getData(),
+                                                    (byte[]) metaData.getData());
+    }
+
+    private void ensureCapacity(long requiredCount) {
+        int lastSegment = segmentOf(requiredCount - 1);
+        Object[][] currentSegments = segments;
+        if (lastSegment < currentSegments.length && currentSegments[lastSegment] != null) {
+            return;
+        }
+        synchronized (segmentLock) {
+            Object[][] newSegments = segments;
+            if (lastSegment >= newSegments.length) {
+                newSegments = Arrays.copyOf(newSegments, Math.max(newSegments.length * 2, lastSegment + 1));
+            }
+            for (int i = 0; i <= lastSegment; i++) {
+                if (newSegments[i] == null) {
+                    if (newSegments == segments) {
+                        newSegments = newSegments.clone();
+                    }
+                    newSegments[i] = new Object[SEGMENT_SIZE];
+                }
+            }
+            segments = newSegments;
+        }
+    }
+
+    private void publish(long firstIndex, int count) {
+        // entries become visible in order of their global index, so wait for preceding appends to complete
+        while (publishedCount != firstIndex) {
+            Thread.yield();
+        }
+        publishedCount = firstIndex + count;
+    }
+
+    /**
+     * Returns the entry at the given global {@code index}, or {@code null} if the append that reserved the index failed
+     * to store it.
+     */
+    private static Object entryAt(Object[][] segments, long index) {
+        int segment = segmentOf(index);
+        return segment < segments.length && segments[segment] != null ? segments[segment][offsetOf(index)] : null;
+    }
+
+    private static int segmentOf(long index) {
+        return (int) (index >>> SEGMENT_SHIFT);
+    }
+
+    private static int offsetOf(long index) {
+        return (int) (index & SEGMENT_MASK);
+    }
+
+    private static long sequenceNumberOf(Object entry) {
+        return entry instanceof DomainEventMessage
+                ? ((DomainEventMessage<?>) entry).getSequenceNumber()
+                : ((DomainEventData<?>) entry).getSequenceNumber();
+    }
+
+    private static Instant timestampOf(Object entry) {
+        return entry instanceof EventMessage
+                ? ((EventMessage<?>) entry).getTimestamp()
+                : ((TrackedEventData<?>) entry).getTimestamp();
+    }
+
+    /**
+     * The events of a single aggregate, ordered by sequence number. Events are added under the lock of the partition,
+     * while readers take a consistent view of the events without locking.
+     */
+    private static final class AggregatePartition {
+
+        private volatile Object[] entries = new Object[8];
+        private volatile int size;
+
+        private synchronized void add(Object entry, long sequenceNumber) {
+            Object[] current = entries;
+            int currentSize = size;
+            if (currentSize == current.length) {
+                current = Arrays.copyOf(current, currentSize * 2);
+            }
+            if (currentSize == 0 || sequenceNumberOf(current[currentSize - 1]) <= sequenceNumber) {
+                current[currentSize] = entry;
+                entries = current;
+            } else {
+                // out of order, copy the array to avoid affecting concurrent readers
+                int position = indexOf(current, currentSize, sequenceNumber + 1);
+                Object[] reordered = new Object[current.length];
+                System.arraycopy(current, 0, reordered, 0, position);
+                reordered[position] = entry;
+                System.arraycopy(current, position, reordered, position + 1, currentSize - position);
+                entries = reordered;
+            }
+            size = currentSize + 1;
+        }
+
+        private Object[] entriesFrom(long firstSequenceNumber) {
+            int currentSize = size;
+            Object[] current = entries;
+            int first = firstSequenceNumber <= 0 ? 0 : indexOf(current, currentSize, firstSequenceNumber);
+            return Arrays.copyOfRange(current, first, currentSize);
+        }
+
+        /**
+         * Returns the position of the first entry with a sequence number equal to or larger than the given {@code
+         * sequenceNumber}.
+         */
+        private static int indexOf(Object[] entries, int size, long sequenceNumber) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sequenceNumberOf(entries[middle]) < sequenceNumber) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package org.axonframework.messaging;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.*;
 import java.util.function.BiConsumer;
@@ -28,6 +32,10 @@
 /**
  * Represents MetaData that is passed along with a payload in a Message. Typically, the MetaData contains information
  * about the message payload that isn't "domain-specific". Examples are originating IP-address or executing User ID.
+ * <p>
+ * The entries are stored in a persistent structure, which allows instances created using {@link #and(String, Object)},
+ * {@link #mergedWith(Map)} and {@link #withoutKeys(Set)} to share most of their state with the instance they were
+ * created from.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -37,11 +45,17 @@ public class MetaData implements Map<String, Object>, Serializable {
     private static final long serialVersionUID = -7892913866303912970L;
     private static final MetaData EMPTY_META_DATA = new MetaData();
     private static final String UNSUPPORTED_MUTATION_MSG = "Metadata is immutable.";
+    // retains the serialized form of instances that were backed by a HashMap
+    private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("values", Map.class)};
 
-    private final Map<String, Object> values;
+    private transient PersistentEntryMap entries;
 
     private MetaData() {
-        values = Collections.emptyMap();
+        this(PersistentEntryMap.EMPTY);
+    }
+
+    private MetaData(PersistentEntryMap entries) {
+        this.entries = entries;
     }
 
     /**
@@ -52,7 +66,7 @@ private MetaData() {
      * @param items the items to populate the MetaData with
      */
     public MetaData(Map<String, ?> items) {
-        values = Collections.unmodifiableMap(new HashMap<>(items));
+        entries = items instanceof MetaData ? ((MetaData) items).entries : PersistentEntryMap.from(items);
     }
 
     /**
@@ -104,9 +118,8 @@ public static MetaData with(String key, Object value) {
      * @return a MetaData instance with an additional entry
      */
     public MetaData and(String key, Object value) {
-        HashMap<String, Object> newValues = new HashMap<>(values);
-        newValues.put(key, value);
-        return new MetaData(newValues);
+        PersistentEntryMap newEntries = entries.with(key, value);
+        return newEntries == entries ? this : new MetaData(newEntries);
     }
 
     /**
@@ -125,7 +138,7 @@ public MetaData andIfNotPresent(String key, Supplier<Object> value) {
 
     @Override
     public Object get(Object key) {
-        return values.get(key);
+        return entries.get(key);
     }
 
     /**
@@ -170,37 +183,37 @@ public void clear() {
 
     @Override
     public boolean containsKey(Object key) {
-        return values.containsKey(key);
+        return entries.containsKey(key);
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return values.containsValue(value);
+        return entries.containsValue(value);
     }
 
     @Override
     public Set<String> keySet() {
-        return values.keySet();
+        return Collections.unmodifiableSet(entries.keySet());
     }
 
     @Override
     public Collection<Object> values() {
-        return values.values();
+        return Collections.unmodifiableCollection(entries.values());
     }
 
     @Override
     public Set<Entry<String, Object>> entrySet() {
-        return values.entrySet();
+        return Collections.unmodifiableSet(entries.entrySet());
     }
 
     @Override
     public int size() {
-        return values.size();
+        return entries.size();
     }
 
     @Override
     public boolean isEmpty() {
-        return values.isEmpty();
+        return entries.isEmpty();
     }
 
     @Override
@@ -214,12 +227,12 @@ public boolean equals(Object o) {
 
         Map that = (Map) o;
 
-        return values.equals(that);
+        return entries.equals(that);
     }
 
     @Override
     public int hashCode() {
-        return values.hashCode();
+        return entries.hashCode();
     }
 
     /**
@@ -238,9 +251,7 @@ public MetaData mergedWith(Map<String, ?> additionalEntries) {
         if (isEmpty()) {
             return MetaData.from(additionalEntries);
         }
-        Map<String, Object> merged = new HashMap<>(values);
-        merged.putAll(additionalEntries);
-        return new MetaData(merged);
+        return new MetaData(entries.withAll(additionalEntries));
     }
 
     /**
@@ -255,9 +266,8 @@ public MetaData withoutKeys(Set<String> keys) {
         if (keys.isEmpty()) {
             return this;
         }
-        Map<String, ?> modified = new HashMap<>(values);
-        keys.forEach(modified::remove);
-        return new MetaData(modified);
+        PersistentEntryMap modified = entries.without(keys);
+        return modified == entries ? this : new MetaData(modified);
     }
 
     /**
@@ -271,6 +281,19 @@ public MetaData subset(String... keys) {
         return MetaData.from(Stream.of(keys).filter(this::containsKey).collect(new MetaDataCollector(this::get)));
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("values", Collections.unmodifiableMap(new HashMap<>(entries)));
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Map<String, ?> values = (Map<String, ?>) fields.get("values", null);
+        entries = values == null ? PersistentEntryMap.EMPTY : PersistentEntryMap.from(values);
+    }
+
     /**
      * Java Serialization specification method that will ensure that deserialization will maintain a single instance of
      * empty MetaData.
@@ -287,14 +310,14 @@ protected Object readResolve() {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        values.forEach((k, v) -> sb.append(", '")
-                                   .append(k)
-                                   .append("'->'")
-                                   .append(v)
-                                   .append('\''));
+        entries.forEach((k, v) -> sb.append(", '")
+                                    .append(k)
+                                    .append("'->'")
+                                    .append(v)
+                                    .append('\''));
         int skipInitialListingAppendString = 2;
         // Only skip if the StringBuilder actual has a field, as otherwise we'll receive an IndexOutOfBoundsException
-        return values.isEmpty() ? sb.toString() : sb.substring(skipInitialListingAppendString);
+        return entries.isEmpty() ? sb.toString() : sb.substring(skipInitialListingAppendString);
     }
 
     /**
@@ -0,0 +1,561 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map of which modified copies share most of their structure with the original. Up to {@link
+ * #ARRAY_THRESHOLD} entries are kept in a flat array, which is copied on modification. Larger maps are stored in a
+ * hash array mapped trie, in which adding or removing an entry only copies the nodes on the path to that entry.
+ * <p>
+ * {@code null} keys and values are supported, to be on par with the {@link java.util.HashMap} that used to back
+ * {@link MetaData}.
+ *
+ * @since 3.4
+ */
+final class PersistentEntryMap extends AbstractMap<String, Object> {
+
+    static final int ARRAY_THRESHOLD = 8;
+    static final PersistentEntryMap EMPTY = new PersistentEntryMap(new Object[0], null, 0);
+
+    private static final Object NULL_KEY = new Object();
+    private static final Object NOT_FOUND = new Object();
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    // keys and values alternate in the array. Unused when the entries are stored in the trie.
+    private final Object[] array;
+    private final Node root;
+    private final int size;
+    private transient int hashCode;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    private PersistentEntryMap(Object[] array, Node root, int size) {
+        this.array = array;
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns a map containing the entries of the given {@code map}.
+     *
+     * @param map the map to copy the entries of
+     * @return a map with the given entries
+     */
+    static PersistentEntryMap from(Map<String, ?> map) {
+        return map.isEmpty() ? EMPTY : EMPTY.withAll(map);
+    }
+
+    /**
+     * Returns a map containing the entries of this map and the given entry, replacing any entry with the same key.
+     * Returns this instance if it already contains the given entry.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @return a map containing the given entry
+     */
+    PersistentEntryMap with(String key, Object value) {
+        Object internalKey = maskNull(key);
+        if (root == null) {
+            int index = indexInArray(internalKey);
+            if (index >= 0) {
+                if (array[index + 1] == value) {
+                    return this;
+                }
+                Object[] newArray = array.clone();
+                newArray[index + 1] = value;
+                return new PersistentEntryMap(newArray, null, size);
+            }
+            if (size < ARRAY_THRESHOLD) {
+                Object[] newArray = Arrays.copyOf(array, array.length + 2);
+                newArray[array.length] = internalKey;
+                newArray[array.length + 1] = value;
+                return new PersistentEntryMap(newArray, null, size + 1);
+            }
+            Node newRoot = BitmapNode.EMPTY;
+            for (int i = 0; i < array.length; i += 2) {
+                newRoot = newRoot.put(0, hash(array[i]), array[i], array[i + 1], new Added());
+            }
+            return new PersistentEntryMap(null, newRoot.put(0, hash(internalKey), internalKey, value, new Added()),
+                                          size + 1);
+        }
+        Added added = new Added();
+        Node newRoot = root.put(0, hash(internalKey), internalKey, value, added);
+        return newRoot == root ? this : new PersistentEntryMap(null, newRoot, added.value ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map containing the entries of this map and the given {@code entries}, which replace entries with the
+     * same key.
+     *
+     * @param entries the entries to add
+     * @return a map containing the given entries
+     */
+    PersistentEntryMap withAll(Map<String, ?> entries) {
+        if (root == null && size + entries.size() <= ARRAY_THRESHOLD) {
+            // copy the array once, instead of once per entry
+            Object[] newArray = Arrays.copyOf(array, array.length + 2 * entries.size());
+            int[] newSize = {size};
+            entries.forEach((key, value) -> {
+                Object internalKey = maskNull(key);
+                int index = indexIn(newArray, 2 * newSize[0], internalKey);
+                if (index >= 0) {
+                    newArray[index + 1] = value;
+                } else {
+                    newArray[2 * newSize[0]] = internalKey;
+                    newArray[2 * newSize[0] + 1] = value;
+                    newSize[0]++;
+                }
+            });
+            return new PersistentEntryMap(newSize[0] * 2 == newArray.length
+                                                  ? newArray
+                                                  : Arrays.copyOf(newArray, newSize[0] * 2),
+                                          null, newSize[0]);
+        }
+        PersistentEntryMap result = this;
+        for (Entry<String, ?> entry : entries.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns a map containing the entries of this map, except those with one of the given {@code keys}. Returns this
+     * instance if none of the keys are present.
+     *
+     * @param keys the keys of the entries to leave out
+     * @return a map without entries for the given keys
+     */
+    PersistentEntryMap without(Collection<?> keys) {
+        if (root == null) {
+            return withoutInArray(keys);
+        }
+        Node newRoot = root;
+        int newSize = size;
+        for (Object key : keys) {
+            Object internalKey = maskNull(key);
+            Node node = newRoot.remove(0, hash(internalKey), internalKey);
+            if (node != newRoot) {
+                newSize--;
+                newRoot = node;
+                if (newRoot == null) {
+                    return EMPTY;
+                }
+            }
+        }
+        if (newRoot == root) {
+            return this;
+        }
+        if (newSize <= ARRAY_THRESHOLD) {
+            Object[] newArray = new Object[2 * newSize];
+            int[] index = {0};
+            newRoot.forEach((key, value) -> {
+                newArray[index[0]++] = maskNull(key);
+                newArray[index[0]++] = value;
+            });
+            return new PersistentEntryMap(newArray, null, newSize);
+        }
+        return new PersistentEntryMap(null, newRoot, newSize);
+    }
+
+    private PersistentEntryMap withoutInArray(Collection<?> keys) {
+        Object[] newArray = null;
+        int newLength = 0;
+        for (int i = 0; i < array.length; i += 2) {
+            if (keys.contains(unmaskNull(array[i]))) {
+                if (newArray == null) {
+                    // copy the entries kept so far only once the first entry to leave out is found
+                    newArray = new Object[array.length - 2];
+                    System.arraycopy(array, 0, newArray, 0, i);
+                    newLength = i;
+                }
+            } else if (newArray != null) {
+                newArray[newLength++] = array[i];
+                newArray[newLength++] = array[i + 1];
+            }
+        }
+        if (newArray == null) {
+            return this;
+        }
+        if (newLength == 0) {
+            return EMPTY;
+        }
+        return new PersistentEntryMap(newLength == newArray.length ? newArray : Arrays.copyOf(newArray, newLength),
+                                      null, newLength / 2);
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = find(maskNull(key));
+        return value == NOT_FOUND ? null : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(maskNull(key)) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        if (root == null) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(unmaskNull(array[i]), array[i + 1]);
+            }
+        } else {
+            root.forEach(action);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hashCode;
+        if (result == 0 && size > 0) {
+            int[] sum = {0};
+            forEach((key, value) -> sum[0] += Objects.hashCode(key) ^ Objects.hashCode(value));
+            result = sum[0];
+            hashCode = result;
+        }
+        return result;
+    }
+
+    private Object find(Object internalKey) {
+        if (root == null) {
+            int index = indexInArray(internalKey);
+            return index < 0 ? NOT_FOUND : array[index + 1];
+        }
+        return root.get(0, hash(internalKey), internalKey);
+    }
+
+    private int indexInArray(Object internalKey) {
+        return indexIn(array, array.length, internalKey);
+    }
+
+    private static int indexIn(Object[] array, int length, Object internalKey) {
+        for (int i = 0; i < length; i += 2) {
+            if (internalKey.equals(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static String unmaskNull(Object internalKey) {
+        return internalKey == NULL_KEY ? null : (String) internalKey;
+    }
+
+    private static int hash(Object internalKey) {
+        if (internalKey == NULL_KEY) {
+            return 0;
+        }
+        int h = internalKey.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hash(key1);
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+        }
+        Added added = new Added();
+        return BitmapNode.EMPTY.put(shift, hash1, key1, value1, added).put(shift, hash2, key2, value2, added);
+    }
+
+    private static final class Added {
+
+        private boolean value;
+    }
+
+    private interface Node {
+
+        Object get(int shift, int hash, Object key);
+
+        Node put(int shift, int hash, Object key, Object value, Added added);
+
+        /**
+         * Returns a node without the entry for the given {@code key}. Returns this node if it has no such entry, or
+         * {@code null} if the entry was the only entry of this node.
+         */
+        Node remove(int shift, int hash, Object key);
+
+        void forEach(BiConsumer<? super String, ? super Object> action);
+    }
+
+    /**
+     * Trie node holding up to 32 entries or child nodes, indexed by 5 bits of the hash of their keys. Entries are
+     * stored as key/value pairs, child nodes as a {@code null} key followed by the node.
+     */
+    private static final class BitmapNode implements Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] content;
+
+        private BitmapNode(int bitmap, Object[] content) {
+            this.bitmap = bitmap;
+            this.content = content;
+        }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object storedKey = content[index];
+            if (storedKey == null) {
+                return ((Node) content[index + 1]).get(shift + BITS_PER_LEVEL, hash, key);
+            }
+            return key.equals(storedKey) ? content[index + 1] : NOT_FOUND;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, Added added) {
+            int bit = bitFor(hash, shift);
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] newContent = new Object[content.length + 2];
+                System.arraycopy(content, 0, newContent, 0, index);
+                newContent[index] = key;
+                newContent[index + 1] = value;
+                System.arraycopy(content, index, newContent, index + 2, content.length - index);
+                added.value = true;
+                return new BitmapNode(bitmap | bit, newContent);
+            }
+            Object storedKey = content[index];
+            Object storedValue = content[index + 1];
+            if (storedKey == null) {
+                Node child = (Node) storedValue;
+                Node newChild = child.put(shift + BITS_PER_LEVEL, hash, key, value, added);
+                return newChild == child ? this : replace(index + 1, newChild);
+            }
+            if (key.equals(storedKey)) {
+                return storedValue == value ? this : replace(index + 1, value);
+            }
+            added.value = true;
+            Object[] newContent = content.clone();
+            newContent[index] = null;
+            newContent[index + 1] = createNode(shift + BITS_PER_LEVEL, storedKey, storedValue, hash, key, value);
+            return new BitmapNode(bitmap, newContent);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object storedKey = content[index];
+            if (storedKey == null) {
+                Node child = (Node) content[index + 1];
+                Node newChild = child.remove(shift + BITS_PER_LEVEL, hash, key);
+                if (newChild == child) {
+                    return this;
+                } else if (newChild == null) {
+                    return removeSlot(index, bit);
+                } else if (newChild instanceof BitmapNode && ((BitmapNode) newChild).isSingleEntry()) {
+                    // pull a remaining single entry up into this node
+                    Object[] newContent = content.clone();
+                    newContent[index] = ((BitmapNode) newChild).content[0];
+                    newContent[index + 1] = ((BitmapNode) newChild).content[1];
+                    return new BitmapNode(bitmap, newContent);
+                }
+                return replace(index + 1, newChild);
+            }
+            return key.equals(storedKey) ? removeSlot(index, bit) : this;
+        }
+
+        private boolean isSingleEntry() {
+            return content.length == 2 && content[0] != null;
+        }
+
+        private BitmapNode removeSlot(int index, int bit) {
+            if (content.length == 2) {
+                return null;
+            }
+            Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, index);
+            System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+            return new BitmapNode(bitmap & ~bit, newContent);
+        }
+
+        private BitmapNode replace(int index, Object newValue) {
+            Object[] newContent = content.clone();
+            newContent[index] = newValue;
+            return new BitmapNode(bitmap, newContent);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (content[i] == null) {
+                    ((Node) content[i + 1]).forEach(action);
+                } else {
+                    action.accept(unmaskNull(content[i]), content[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Trie node holding the entries of which the keys have the same hash.
+     */
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+        private final Object[] content;
+
+        private CollisionNode(int hash, Object[] content) {
+            this.hash = hash;
+            this.content = content;
+        }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            int index = indexIn(content, content.length, key);
+            return index < 0 ? NOT_FOUND : content[index + 1];
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, Added added) {
+            if (hash != this.hash) {
+                return new BitmapNode(bitFor(this.hash, shift), new Object[]{null, this})
+                        .put(shift, hash, key, value, added);
+            }
+            int index = indexIn(content, content.length, key);
+            if (index >= 0) {
+                if (content[index + 1] == value) {
+                    return this;
+                }
+                Object[] newContent = content.clone();
+                newContent[index + 1] = value;
+                return new CollisionNode(hash, newContent);
+            }
+            Object[] newContent = Arrays.copyOf(content, content.length + 2);
+            newContent[content.length] = key;
+            newContent[content.length + 1] = value;
+            added.value = true;
+            return new CollisionNode(hash, newContent);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int index = hash == this.hash ? indexIn(content, content.length, key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            if (content.length == 4) {
+                // a single entry remains, which its parent can hold as a regular entry
+                int remaining = index == 0 ? 2 : 0;
+                return new BitmapNode(bitFor(hash, shift), new Object[]{content[remaining], content[remaining + 1]});
+            }
+            Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, index);
+            System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+            return new CollisionNode(hash, newContent);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            for (int i = 0; i < content.length; i += 2) {
+                action.accept(unmaskNull(content[i]), content[i + 1]);
+            }
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            Object[] entries = new Object[size];
+            int[] index = {0};
+            PersistentEntryMap.this.forEach(
+                    (key, value) -> entries[index[0]++] = new SimpleImmutableEntry<>(key, value)
+            );
+            return new Iterator<Entry<String, Object>>() {
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return position < entries.length;
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public Entry<String, Object> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return (Entry<String, Object>) entries[position++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            Object value = find(maskNull(entry.getKey()));
+            return value != NOT_FOUND && Objects.equals(value, entry.getValue());
+        }
+    }
+}
@@ -32,6 +32,9 @@
  * handler should define {@code @MessageHandler(messageType = EventMessage.class)}, indicating that this handler should
  * only be invoked for {@link org.axonframework.eventhandling.EventMessage}s.
  * <p>
+ * Executables of classes which have been compiled with the Axon annotation processor are only inspected if the
+ * processor has found them to be (meta)annotated with {@link MessageHandler}.
+ * <p>
  * Use {@link HandlerEnhancerDefinition} to add extra behavior or information on top of handlers created by this
  * definition.
  *
@@ -44,6 +47,9 @@ public class AnnotatedMessageHandlingMemberDefinition implements HandlerDefiniti
     @Override
     public <T> Optional<MessageHandlingMember<T>> createHandler(Class<T> declaringType, Executable executable,
                                                                 ParameterResolverFactory parameterResolverFactory) {
+        if (!MessageHandlerIndex.forClass(executable.getDeclaringClass()).mayBeMessageHandler(executable)) {
+            return Optional.empty();
+        }
         return findAnnotationAttributes(executable, MessageHandler.class)
                 .map(attr -> new AnnotatedMessageHandlingMember<>(
                         executable,
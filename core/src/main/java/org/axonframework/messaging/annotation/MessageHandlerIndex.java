@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging.annotation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.WeakHashMap;
+
+/**
+ * Index of the message handlers declared by classes which have been compiled with the Axon annotation processor. The
+ * index is read from all {@code META-INF/axon/message-handlers} resources available to a class loader.
+ * <p>
+ * For a class contained in the index, only the methods and constructors listed in the index can be message handlers.
+ * Any other method or constructor of the class does not need to be inspected. Classes which are not contained in the
+ * index need to be inspected as usual.
+ *
+ * @since 3.4
+ */
+final class MessageHandlerIndex {
+
+    /**
+     * The location of the resources containing the index.
+     */
+    static final String INDEX_LOCATION = "META-INF/axon/message-handlers";
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageHandlerIndex.class);
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    private static final MessageHandlerIndex EMPTY = new MessageHandlerIndex(Collections.emptyMap());
+    private static final Object monitor = new Object();
+    private static final Map<ClassLoader, MessageHandlerIndex> INDICES = new WeakHashMap<>();
+
+    private final Map<String, IndexedClass> indexedClasses;
+
+    private MessageHandlerIndex(Map<String, IndexedClass> indexedClasses) {
+        this.indexedClasses = indexedClasses;
+    }
+
+    /**
+     * Returns the index of the classes available to the class loader of the given {@code clazz}.
+     *
+     * @param clazz The class for which to return the index
+     * @return the index of the classes available to the class loader of the given class
+     */
+    static MessageHandlerIndex forClass(Class<?> clazz) {
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return EMPTY;
+        }
+        synchronized (monitor) {
+            return INDICES.computeIfAbsent(classLoader, MessageHandlerIndex::load);
+        }
+    }
+
+    private static MessageHandlerIndex load(ClassLoader classLoader) {
+        Map<String, IndexedClass> indexedClasses = new HashMap<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+            while (resources.hasMoreElements()) {
+                read(resources.nextElement(), indexedClasses);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to read the message handler index. Classes will be inspected without using the index.",
+                        e);
+            return EMPTY;
+        }
+        return indexedClasses.isEmpty() ? EMPTY : new MessageHandlerIndex(indexedClasses);
+    }
+
+    private static void read(URL resource, Map<String, IndexedClass> indexedClasses) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(),
+                                                                              StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                IndexedClass indexedClass = indexedClasses.computeIfAbsent(parts[0], k -> new IndexedClass());
+                for (int i = 1; i < parts.length; i++) {
+                    indexedClass.add(parts[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the given {@code executable} may be a message handler. This is the case if the class
+     * declaring the executable is not indexed, or if the index lists the executable as one of the handlers of the
+     * class.
+     *
+     * @param executable The method or constructor to verify
+     * @return {@code true} if the executable needs to be inspected to find out whether it is a message handler,
+     * {@code false} if it certainly is not one
+     */
+    boolean mayBeMessageHandler(Executable executable) {
+        Class<?> declaringClass = executable.getDeclaringClass();
+        IndexedClass indexedClass = indexedClasses.get(declaringClass.getName());
+        if (indexedClass == null || executable.isSynthetic()
+                || (executable instanceof Method && ((Method) executable).isBridge())
+                || (executable instanceof Constructor && hasImplicitParameters(declaringClass))) {
+            // the compiler adds executables and parameters the annotation processor doesn't see
+            return true;
+        }
+        return indexedClass.contains(executable);
+    }
+
+    private static boolean hasImplicitParameters(Class<?> declaringClass) {
+        return declaringClass.isEnum()
+                || (declaringClass.isMemberClass() && !Modifier.isStatic(declaringClass.getModifiers()));
+    }
+
+    private static class IndexedClass {
+
+        private final Set<String> names = new HashSet<>();
+        private final Set<String> signatures = new HashSet<>();
+
+        private void add(String signature) {
+            signatures.add(signature);
+            names.add(signature.substring(0, signature.indexOf('(')));
+        }
+
+        private boolean contains(Executable executable) {
+            String name = executable instanceof Constructor ? CONSTRUCTOR_NAME : executable.getName();
+            if (!names.contains(name)) {
+                return false;
+            }
+            StringJoiner signature = new StringJoiner(",", name + "(", ")");
+            for (Class<?> parameterType : executable.getParameterTypes()) {
+                signature.add(parameterType.getName());
+            }
+            return signatures.contains(signature.toString());
+        }
+    }
+}
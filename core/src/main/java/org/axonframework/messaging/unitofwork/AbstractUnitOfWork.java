@@ -40,6 +40,8 @@
     private UnitOfWork<?> parentUnitOfWork;
     private Phase phase = Phase.NOT_STARTED;
     private boolean rolledBack;
+    private Message<?> correlationDataMessage;
+    private MetaData correlationData;
 
     @Override
     public void start() {
@@ -97,7 +99,7 @@ private void commitAsNested() {
         try {
             changePhase(Phase.PREPARE_COMMIT, Phase.COMMIT);
             delegateAfterCommitToParent(this);
-            parentUnitOfWork.onRollback(u -> changePhase(Phase.ROLLBACK));
+            parent().ifPresent(parent -> parent.onRollback(u -> changePhase(Phase.ROLLBACK)));
         } catch (Exception e) {
             setRollbackCause(e);
             changePhase(Phase.ROLLBACK);
@@ -150,22 +152,40 @@ public boolean isRolledBack() {
 
     @Override
     public void registerCorrelationDataProvider(CorrelationDataProvider correlationDataProvider) {
-        correlationDataProviders.add(correlationDataProvider);
+        if (correlationDataProviders.add(correlationDataProvider)) {
+            invalidateCorrelationData();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The correlation data is computed once for each message processed by this Unit of Work. Subsequent invocations
+     * return the same instance, until another message is processed or the registered Correlation Data Providers
+     * change.
+     */
     @Override
     public MetaData getCorrelationData() {
         if (correlationDataProviders.isEmpty()) {
             return MetaData.emptyInstance();
         }
-        Map<String, Object> result = new HashMap<>();
+        T message = getMessage();
+        if (correlationData == null || correlationDataMessage != message) {
+            correlationData = computeCorrelationData(message);
+            correlationDataMessage = message;
+        }
+        return correlationData;
+    }
+
+    private MetaData computeCorrelationData(T message) {
+        MetaData result = MetaData.emptyInstance();
         for (CorrelationDataProvider correlationDataProvider : correlationDataProviders) {
-            final Map<String, ?> extraData = correlationDataProvider.correlationDataFor(getMessage());
+            final Map<String, ?> extraData = correlationDataProvider.correlationDataFor(message);
             if (extraData != null) {
-                result.putAll(extraData);
+                result = result.mergedWith(extraData);
             }
         }
-        return MetaData.from(result);
+        return result;
     }
 
     @Override
@@ -226,12 +246,22 @@ protected void changePhase(Phase... phases) {
      * Provides the collection of registered Correlation Data Providers of this Unit of Work. The returned collection is a live view of the providers
      * registered. Any changes in the registration are reflected in the returned collection.
      *
+     * <p>
+     * As the returned collection may be modified, invoking this method invalidates the correlation data cached by this
+     * Unit of Work.
+     *
      * @return The Correlation Data Providers registered with this Unit of Work.
      */
     protected Collection<CorrelationDataProvider> correlationDataProviders() {
+        invalidateCorrelationData();
         return correlationDataProviders;
     }
 
+    private void invalidateCorrelationData() {
+        correlationData = null;
+        correlationDataMessage = null;
+    }
+
     /**
      * Notify the handlers attached to the given {@code phase}.
      *
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.Registration;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.queryhandling.responsetypes.ResponseType;
+import org.axonframework.queryhandling.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.responsetypes.StreamingResponseType;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * QueryBus that caches the responses of point-to-point queries dispatched through it, serving repeated queries from
+ * the cache without invoking a query handler. Responses are cached by query name, payload and response type, so the
+ * payloads of cached queries must implement {@code equals} and {@code hashCode}. The meta data of the query is not part
+ * of the key, and cache hits do not invoke the interceptors of the query bus. Queries whose response depends on meta
+ * data, or which must always pass the interceptors, should therefore not be sent through this bus.
+ * <p>
+ * The bounds and expiry of the cached responses are determined by the given {@link Cache}, for example a {@link
+ * org.axonframework.common.caching.WindowTinyLfuCache} configured with a maximum size and an expiry time. Failed
+ * queries and streaming responses are not cached.
+ * <p>
+ * This bus is also a {@link QueryUpdateEmitter}. Each update emitted through it invalidates the cached responses of
+ * the queries matching the update's filter, before the update is passed on to the delegate. When an update is emitted
+ * within a Unit of Work, the matching responses are invalidated again after the Unit of Work has been committed, so
+ * queries executing concurrently with the update do not cache a response that is about to become stale. Cached
+ * responses may also be invalidated explicitly using {@link #invalidate(Predicate)}.
+ * <p>
+ * Note that any invalidation, matching or not, prevents the responses of all queries executing at that time from being
+ * cached, as their responses may have been read before the invalidated data changed. Those queries are executed again
+ * on their next dispatch. When updates are emitted at a high rate, this lowers the hit rate of the cache.
+ * <p>
+ * Scatter-gather and subscription queries are passed on to the delegate without caching.
+ *
+ * @since 3.4
+ */
+public class CachingQueryBus implements QueryBus, QueryUpdateEmitter {
+
+    private final QueryBus delegate;
+    private final QueryUpdateEmitter updateEmitter;
+    private final Cache cache;
+    private final Set<CacheKey> cachedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Initializes a CachingQueryBus which sends queries and emits updates to the given {@code delegate}, and caches
+     * responses in the given {@code cache}.
+     *
+     * @param delegate The query bus to send queries and emit updates to
+     * @param cache    The cache to store responses in
+     */
+    public CachingQueryBus(SimpleQueryBus delegate, Cache cache) {
+        this(delegate, delegate, cache);
+    }
+
+    /**
+     * Initializes a CachingQueryBus which sends queries to the given {@code delegate}, emits updates to the given
+     * {@code updateEmitter} and caches responses in the given {@code cache}.
+     *
+     * @param delegate      The query bus to send queries to
+     * @param updateEmitter The emitter to pass updates on to
+     * @param cache         The cache to store responses in
+     */
+    public CachingQueryBus(QueryBus delegate, QueryUpdateEmitter updateEmitter, Cache cache) {
+        Assert.notNull(delegate, () -> "delegate may not be null");
+        Assert.notNull(updateEmitter, () -> "updateEmitter may not be null");
+        Assert.notNull(cache, () -> "cache may not be null");
+        this.delegate = delegate;
+        this.updateEmitter = updateEmitter;
+        this.cache = cache;
+        cache.registerCacheEntryListener(new Cache.EntryListenerAdapter() {
+            @Override
+            public void onEntryExpired(Object key) {
+                cachedKeys.remove(key);
+            }
+
+            @Override
+            public void onEntryRemoved(Object key) {
+                cachedKeys.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public <R> Registration subscribe(String queryName, Type responseType,
+                                      MessageHandler<? super QueryMessage<?, R>> handler) {
+        return delegate.subscribe(queryName, responseType, handler);
+    }
+
+    @Override
+    public <Q, R> CompletableFuture<QueryResponseMessage<R>> query(QueryMessage<Q, R> query) {
+        if (query.getResponseType() instanceof StreamingResponseType) {
+            return delegate.query(query);
+        }
+        CacheKey key = new CacheKey(query);
+        QueryResponseMessage<R> cachedResponse = cache.get(key);
+        if (cachedResponse != null) {
+            return CompletableFuture.completedFuture(cachedResponse);
+        }
+        long invalidationsBeforeQuery = invalidations.get();
+        return delegate.query(query).thenApply(response -> {
+            if (invalidationsBeforeQuery == invalidations.get()) {
+                cachedKeys.add(key);
+                cache.put(key, response);
+                // an invalidation between the check and the put may have missed the response, so remove it again
+                if (invalidationsBeforeQuery != invalidations.get()) {
+                    cachedKeys.remove(key);
+                    cache.remove(key);
+                }
+            }
+            return response;
+        });
+    }
+
+    @Override
+    public <Q, R> Stream<QueryResponseMessage<R>> scatterGather(QueryMessage<Q, R> query, long timeout,
+                                                                TimeUnit unit) {
+        return delegate.scatterGather(query, timeout, unit);
+    }
+
+    @Override
+    public <Q, I, U> SubscriptionQueryResult<QueryResponseMessage<I>, SubscriptionQueryUpdateMessage<U>> subscriptionQuery(
+            SubscriptionQueryMessage<Q, I, U> query, SubscriptionQueryBackpressure backpressure,
+            int updateBufferSize) {
+        return delegate.subscriptionQuery(query, backpressure, updateBufferSize);
+    }
+
+    @Override
+    public Registration registerHandlerInterceptor(
+            MessageHandlerInterceptor<? super QueryMessage<?, ?>> handlerInterceptor) {
+        return delegate.registerHandlerInterceptor(handlerInterceptor);
+    }
+
+    @Override
+    public Registration registerDispatchInterceptor(
+            MessageDispatchInterceptor<? super QueryMessage<?, ?>> dispatchInterceptor) {
+        return delegate.registerDispatchInterceptor(dispatchInterceptor);
+    }
+
+    @Override
+    public <U> void emit(Predicate<SubscriptionQueryMessage<?, ?, U>> filter,
+                         SubscriptionQueryUpdateMessage<U> update) {
+        ResponseType<U> updateResponseType = ResponseTypes.instanceOf(update.getPayloadType());
+        Predicate<QueryMessage<?, ?>> queryFilter = query -> filter.test(new GenericSubscriptionQueryMessage<>(
+                query, query.getQueryName(), query.getResponseType(), updateResponseType
+        ));
+        invalidate(queryFilter);
+        CurrentUnitOfWork.ifStarted(unitOfWork -> unitOfWork.afterCommit(u -> invalidate(queryFilter)));
+        updateEmitter.emit(filter, update);
+    }
+
+    @Override
+    public void complete(Predicate<SubscriptionQueryMessage<?, ?, ?>> filter) {
+        updateEmitter.complete(filter);
+    }
+
+    @Override
+    public void completeExceptionally(Predicate<SubscriptionQueryMessage<?, ?, ?>> filter, Throwable cause) {
+        updateEmitter.completeExceptionally(filter, cause);
+    }
+
+    /**
+     * Removes the cached responses of the queries matching the given {@code filter}. When the filter fails to
+     * evaluate a query, the response of that query is removed as well.
+     *
+     * @param filter The filter selecting the queries of which to remove the cached responses
+     */
+    public void invalidate(Predicate<QueryMessage<?, ?>> filter) {
+        invalidations.incrementAndGet();
+        for (CacheKey key : cachedKeys) {
+            if (matches(filter, key.query)) {
+                cachedKeys.remove(key);
+                cache.remove(key);
+            }
+        }
+    }
+
+    private static boolean matches(Predicate<QueryMessage<?, ?>> filter, QueryMessage<?, ?> query) {
+        try {
+            return filter.test(query);
+        } catch (Exception e) {
+            // invalidating too much is better than serving a stale response
+            return true;
+        }
+    }
+
+    private static final class CacheKey {
+
+        private final QueryMessage<?, ?> query;
+        private final int hashCode;
+
+        private CacheKey(QueryMessage<?, ?> query) {
+            this.query = query;
+            this.hashCode = Objects.hash(query.getQueryName(), query.getPayload(),
+                                         query.getResponseType().getClass(),
+                                         query.getResponseType().getExpectedResponseType());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hashCode == other.hashCode
+                    && Objects.equals(query.getQueryName(), other.query.getQueryName())
+                    && Objects.equals(query.getPayload(), other.query.getPayload())
+                    && query.getResponseType().getClass().equals(other.query.getResponseType().getClass())
+                    && Objects.equals(query.getResponseType().getExpectedResponseType(),
+                                      other.query.getResponseType().getExpectedResponseType());
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
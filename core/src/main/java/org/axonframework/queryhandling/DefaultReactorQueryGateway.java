@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling;
+
+import org.axonframework.common.Assert;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.axonframework.queryhandling.responsetypes.ResponseType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link ReactorQueryGateway} interface that sends queries to a {@link QueryBus}, after
+ * invoking the configured dispatch interceptors. The dispatch interceptors are invoked upon subscription to the
+ * returned publisher, just before the query is sent.
+ *
+ * @since 3.4
+ */
+public class DefaultReactorQueryGateway implements ReactorQueryGateway {
+
+    private final QueryBus queryBus;
+    private final MessageDispatchInterceptor<? super QueryMessage<?, ?>>[] dispatchInterceptors;
+
+    /**
+     * Initializes the gateway to send queries to the given {@code queryBus} and invoking given {@code
+     * dispatchInterceptors} prior to publication on the query bus.
+     *
+     * @param queryBus             The bus to deliver messages on
+     * @param dispatchInterceptors The interceptors to invoke prior to publication on the bus
+     */
+    @SafeVarargs
+    public DefaultReactorQueryGateway(QueryBus queryBus,
+                                      MessageDispatchInterceptor<? super QueryMessage<?, ?>>... dispatchInterceptors) {
+        Assert.notNull(queryBus, () -> "queryBus may not be null");
+        this.queryBus = queryBus;
+        this.dispatchInterceptors = dispatchInterceptors;
+    }
+
+    @Override
+    public <R, Q> Mono<R> query(String queryName, Q query, ResponseType<R> responseType) {
+        return Mono.defer(() -> Mono.fromFuture(
+                queryBus.query(processInterceptors(new GenericQueryMessage<>(query, queryName, responseType)))
+        )).flatMap(response -> Mono.justOrEmpty(response.getPayload()));
+    }
+
+    @Override
+    public <R, Q> Flux<R> scatterGather(String queryName, Q query, ResponseType<R> responseType, long timeout,
+                                        TimeUnit timeUnit) {
+        return Flux.defer(() -> Flux.fromStream(queryBus.scatterGather(
+                processInterceptors(new GenericQueryMessage<>(query, queryName, responseType)), timeout, timeUnit
+        ))).filter(response -> response.getPayload() != null).map(QueryResponseMessage::getPayload);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Q, R, T extends QueryMessage<Q, R>> T processInterceptors(T query) {
+        T intercepted = query;
+        for (MessageDispatchInterceptor<? super QueryMessage<?, ?>> interceptor : dispatchInterceptors) {
+            intercepted = (T) interceptor.handle(intercepted);
+        }
+        return intercepted;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling;
+
+import org.axonframework.queryhandling.responsetypes.ResponseType;
+import org.axonframework.queryhandling.responsetypes.ResponseTypes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Variant of the {@link QueryGateway} which returns query results as Project Reactor {@link Mono} and {@link Flux}
+ * publishers. Queries are sent when the returned publisher is subscribed to, rather than when the method is invoked.
+ * <p>
+ * Using this gateway requires Project Reactor to be present on the classpath. Subscription queries already expose
+ * their results as publishers and are available through {@link QueryGateway#subscriptionQuery}.
+ *
+ * @see DefaultReactorQueryGateway
+ * @since 3.4
+ */
+public interface ReactorQueryGateway {
+
+    /**
+     * Returns a Mono which sends given {@code query} over the {@link QueryBus} when subscribed to, expecting a
+     * response with the given {@code responseType} from a single source. The query name will be derived from the
+     * provided {@code query}.
+     *
+     * @param query        The {@code query} to be sent
+     * @param responseType A {@link java.lang.Class} describing the desired response type
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return a Mono sending the query when subscribed to, emitting the query result
+     */
+    default <R, Q> Mono<R> query(Q query, Class<R> responseType) {
+        return query(query.getClass().getName(), query, ResponseTypes.instanceOf(responseType));
+    }
+
+    /**
+     * Returns a Mono which sends given {@code query} over the {@link QueryBus} when subscribed to, expecting a
+     * response in the form of {@code responseType} from a single source. The query name will be derived from the
+     * provided {@code query}.
+     *
+     * @param query        The {@code query} to be sent
+     * @param responseType The {@link ResponseType} used for this query
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return a Mono sending the query when subscribed to, emitting the query result
+     */
+    default <R, Q> Mono<R> query(Q query, ResponseType<R> responseType) {
+        return query(query.getClass().getName(), query, responseType);
+    }
+
+    /**
+     * Returns a Mono which sends given {@code query} with given {@code queryName} over the {@link QueryBus} when
+     * subscribed to, expecting a response in the form of {@code responseType} from a single source. If the query
+     * handler returns {@code null}, the Mono completes without emitting a value.
+     *
+     * @param queryName    A {@link String} describing the query to be executed
+     * @param query        The {@code query} to be sent
+     * @param responseType The {@link ResponseType} used for this query
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return a Mono sending the query when subscribed to, emitting the query result
+     */
+    <R, Q> Mono<R> query(String queryName, Q query, ResponseType<R> responseType);
+
+    /**
+     * Returns a Flux which sends given {@code query} over the {@link QueryBus} when subscribed to, and emits the
+     * instances of given {@code responseType} streamed by the query handler. The query name will be derived from the
+     * provided {@code query}.
+     *
+     * @param query        The {@code query} to be sent
+     * @param responseType A {@link java.lang.Class} describing the type of the streamed instances
+     * @param <R>          The type of the streamed instances
+     * @param <Q>          The query class
+     * @return a Flux sending the query when subscribed to, emitting the streamed instances
+     * @see ResponseTypes#streamOf(Class)
+     */
+    default <R, Q> Flux<R> streamingQuery(Q query, Class<R> responseType) {
+        return streamingQuery(query.getClass().getName(), query, responseType);
+    }
+
+    /**
+     * Returns a Flux which sends given {@code query} with given {@code queryName} over the {@link QueryBus} when
+     * subscribed to, and emits the instances of given {@code responseType} streamed by the query handler. The query
+     * handler only produces instances as they are requested by the subscriber.
+     *
+     * @param queryName    A {@link String} describing the query to be executed
+     * @param query        The {@code query} to be sent
+     * @param responseType A {@link java.lang.Class} describing the type of the streamed instances
+     * @param <R>          The type of the streamed instances
+     * @param <Q>          The query class
+     * @return a Flux sending the query when subscribed to, emitting the streamed instances
+     * @see ResponseTypes#streamOf(Class)
+     */
+    default <R, Q> Flux<R> streamingQuery(String queryName, Q query, Class<R> responseType) {
+        return query(queryName, query, ResponseTypes.streamOf(responseType)).flatMapMany(Function.identity());
+    }
+
+    /**
+     * Returns a Flux which sends given {@code query} over the {@link QueryBus} when subscribed to, expecting a
+     * response in the form of {@code responseType} from several sources. The Flux completes when all sources have
+     * responded, or when the given {@code timeout} has expired. The query name will be derived from the provided
+     * {@code query}.
+     *
+     * @param query        The {@code query} to be sent
+     * @param responseType The {@link ResponseType} used for this query
+     * @param timeout      A timeout of {@code long} for the query
+     * @param timeUnit     The selected {@link java.util.concurrent.TimeUnit} for the given {@code timeout}
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return a Flux sending the query when subscribed to, emitting the results of the individual sources
+     */
+    default <R, Q> Flux<R> scatterGather(Q query, ResponseType<R> responseType, long timeout, TimeUnit timeUnit) {
+        return scatterGather(query.getClass().getName(), query, responseType, timeout, timeUnit);
+    }
+
+    /**
+     * Returns a Flux which sends given {@code query} with given {@code queryName} over the {@link QueryBus} when
+     * subscribed to, expecting a response in the form of {@code responseType} from several sources. The Flux
+     * completes when all sources have responded, or when the given {@code timeout} has expired.
+     *
+     * @param queryName    A {@link String} describing the query to be executed
+     * @param query        The {@code query} to be sent
+     * @param responseType The {@link ResponseType} used for this query
+     * @param timeout      A timeout of {@code long} for the query
+     * @param timeUnit     The selected {@link java.util.concurrent.TimeUnit} for the given {@code timeout}
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return a Flux sending the query when subscribed to, emitting the results of the individual sources
+     */
+    <R, Q> Flux<R> scatterGather(String queryName, Q query, ResponseType<R> responseType, long timeout,
+                                 TimeUnit timeUnit);
+}
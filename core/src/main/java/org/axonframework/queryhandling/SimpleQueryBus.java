@@ -28,6 +28,7 @@
 import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitor;
+import org.axonframework.queryhandling.responsetypes.AbstractResponseType;
 import org.axonframework.queryhandling.responsetypes.ResponseType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +52,7 @@
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -81,6 +83,8 @@ public class SimpleQueryBus implements QueryBus, QueryUpdateEmitter {
 
     private final ConcurrentMap<String, CopyOnWriteArrayList<QuerySubscription>> subscriptions = new ConcurrentHashMap<>();
     private final ConcurrentMap<SubscriptionQueryMessage<?, ?, ?>, FluxSinkWrapper<?>> updateHandlers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<HandlerKey, ResolvedHandlers> resolvedHandlers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriptionsVersion = new AtomicLong();
     private final MessageMonitor<? super QueryMessage<?, ?>> messageMonitor;
     private final MessageMonitor<? super SubscriptionQueryUpdateMessage<?>> updateMessageMonitor;
     private final QueryInvocationErrorHandler errorHandler;
@@ -149,6 +153,7 @@ public <R> Registration subscribe(String queryName,
                 subscriptions.computeIfAbsent(queryName, k -> new CopyOnWriteArrayList<>());
         QuerySubscription<R> querySubscription = new QuerySubscription<>(responseType, handler);
         handlers.addIfAbsent(querySubscription);
+        subscriptionsChanged();
 
         return () -> unsubscribe(queryName, querySubscription);
     }
@@ -162,9 +167,15 @@ private boolean unsubscribe(String queryName,
             }
             return handlers;
         });
+        subscriptionsChanged();
         return true;
     }
 
+    private void subscriptionsChanged() {
+        subscriptionsVersion.incrementAndGet();
+        resolvedHandlers.clear();
+    }
+
     @Override
     public <Q, R> CompletableFuture<QueryResponseMessage<R>> query(QueryMessage<Q, R> query) {
         MessageMonitor.MonitorCallback monitorCallback = messageMonitor.onMessageIngested(query);
@@ -475,11 +486,76 @@ public Registration registerDispatchInterceptor(
     private <Q, R> List<MessageHandler<? super QueryMessage<?, ?>>> getHandlersForMessage(
             QueryMessage<Q, R> queryMessage) {
         ResponseType<R> responseType = queryMessage.getResponseType();
-        return subscriptions.computeIfAbsent(queryMessage.getQueryName(), k -> new CopyOnWriteArrayList<>())
-                            .stream()
-                            .filter(querySubscription -> responseType.matches(querySubscription.getResponseType()))
-                            .map((Function<QuerySubscription, MessageHandler>) QuerySubscription::getQueryHandler)
-                            .map(queryHandler -> (MessageHandler<? super QueryMessage<?, ?>>) queryHandler)
-                            .collect(Collectors.toList());
+        if (!(responseType instanceof AbstractResponseType)) {
+            // the matching behavior of other response types may depend on more than their expected type
+            return resolveHandlers(queryMessage.getQueryName(), responseType);
+        }
+        HandlerKey key = new HandlerKey(queryMessage.getQueryName(), responseType);
+        long version = subscriptionsVersion.get();
+        ResolvedHandlers resolved = resolvedHandlers.get(key);
+        if (resolved == null || resolved.version != version) {
+            resolved = new ResolvedHandlers(version, resolveHandlers(queryMessage.getQueryName(), responseType));
+            resolvedHandlers.put(key, resolved);
+        }
+        return resolved.handlers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> List<MessageHandler<? super QueryMessage<?, ?>>> resolveHandlers(String queryName,
+                                                                                 ResponseType<R> responseType) {
+        List<QuerySubscription> querySubscriptions = subscriptions.get(queryName);
+        if (querySubscriptions == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(
+                querySubscriptions.stream()
+                                  .filter(querySubscription -> responseType.matches(querySubscription.getResponseType()))
+                                  .map((Function<QuerySubscription, MessageHandler>) QuerySubscription::getQueryHandler)
+                                  .map(queryHandler -> (MessageHandler<? super QueryMessage<?, ?>>) queryHandler)
+                                  .collect(Collectors.toList())
+        );
+    }
+
+    private static final class HandlerKey {
+
+        private final String queryName;
+        private final Class<?> responseTypeClass;
+        private final Class<?> expectedResponseType;
+
+        private HandlerKey(String queryName, ResponseType<?> responseType) {
+            this.queryName = queryName;
+            this.responseTypeClass = responseType.getClass();
+            this.expectedResponseType = responseType.getExpectedResponseType();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            HandlerKey that = (HandlerKey) o;
+            return queryName.equals(that.queryName)
+                    && responseTypeClass.equals(that.responseTypeClass)
+                    && Objects.equals(expectedResponseType, that.expectedResponseType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queryName, responseTypeClass, expectedResponseType);
+        }
+    }
+
+    private static final class ResolvedHandlers {
+
+        private final long version;
+        private final List<MessageHandler<? super QueryMessage<?, ?>>> handlers;
+
+        private ResolvedHandlers(long version, List<MessageHandler<? super QueryMessage<?, ?>>> handlers) {
+            this.version = version;
+            this.handlers = handlers;
+        }
     }
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling.distributed;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.MemberLoadTracker;
+import org.axonframework.common.Assert;
+import org.axonframework.common.Registration;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.queryhandling.NoHandlerForQueryException;
+import org.axonframework.queryhandling.QueryBus;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.QueryResponseMessage;
+import org.axonframework.queryhandling.SubscriptionQueryBackpressure;
+import org.axonframework.queryhandling.SubscriptionQueryMessage;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.axonframework.queryhandling.SubscriptionQueryUpdateMessage;
+import org.axonframework.queryhandling.responsetypes.StreamingResponseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static org.axonframework.common.ObjectUtils.getOrDefault;
+import static org.axonframework.common.ObjectUtils.getRemainingOfDeadline;
+
+/**
+ * Implementation of a {@link QueryBus} that is aware of multiple instances of a QueryBus working together to spread
+ * the load of handling queries. Each "physical" QueryBus instance is considered a "segment" of a conceptual
+ * distributed QueryBus.
+ * <p>
+ * Handlers are subscribed to the local segment, and the names of the queries they handle are published through the
+ * {@link QueryRouter}. Point-to-point queries are handled by the local segment if it is able to, avoiding a network
+ * round trip. Otherwise, they are sent through the {@link QueryBusConnector} to the capable member with the lowest
+ * load, as tracked by a {@link MemberLoadTracker} based on the number of queries in flight and the latency of the
+ * replies of each member. Queries expecting a {@link StreamingResponseType streaming response} are never sent to
+ * remote members, as such responses can't be serialized. They fail if the local segment is not able to handle them.
+ * <p>
+ * Scatter-gather queries are sent to all capable members in parallel. The local segment handles them while the remote
+ * members do, after which the remote responses that arrived before the timeout are added to the result. Subscription
+ * queries are only executed on the local segment.
+ *
+ * @since 3.4
+ */
+public class DistributedQueryBus implements QueryBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedQueryBus.class);
+
+    private final QueryBus localSegment;
+    private final QueryRouter queryRouter;
+    private final QueryBusConnector connector;
+    private final MemberLoadTracker loadTracker;
+    private final ConcurrentMap<String, Integer> subscribedQueryNames = new ConcurrentHashMap<>();
+    private final List<MessageDispatchInterceptor<? super QueryMessage<?, ?>>> dispatchInterceptors =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * Initializes the query bus with the given {@code localSegment}, {@code queryRouter} and {@code connector}.
+     *
+     * @param localSegment The query bus handling queries on this member
+     * @param queryRouter  The router keeping track of the members able to handle queries
+     * @param connector    The connector sending queries to remote members
+     */
+    public DistributedQueryBus(QueryBus localSegment, QueryRouter queryRouter, QueryBusConnector connector) {
+        this(localSegment, queryRouter, connector, null);
+    }
+
+    /**
+     * Initializes the query bus with the given {@code localSegment}, {@code queryRouter} and {@code connector}, using
+     * given {@code loadTracker} to track the load of the remote members.
+     *
+     * @param localSegment The query bus handling queries on this member
+     * @param queryRouter  The router keeping track of the members able to handle queries
+     * @param connector    The connector sending queries to remote members
+     * @param loadTracker  The tracker of the load of remote members, or {@code null} to use a default tracker
+     */
+    public DistributedQueryBus(QueryBus localSegment, QueryRouter queryRouter, QueryBusConnector connector,
+                               MemberLoadTracker loadTracker) {
+        Assert.notNull(localSegment, () -> "localSegment may not be null");
+        Assert.notNull(queryRouter, () -> "queryRouter may not be null");
+        Assert.notNull(connector, () -> "connector may not be null");
+        this.localSegment = localSegment;
+        this.queryRouter = queryRouter;
+        this.connector = connector;
+        this.loadTracker = getOrDefault(loadTracker, MemberLoadTracker::new);
+    }
+
+    @Override
+    public <R> Registration subscribe(String queryName, Type responseType,
+                                      MessageHandler<? super QueryMessage<?, R>> handler) {
+        Registration registration = localSegment.subscribe(queryName, responseType, handler);
+        subscribedQueryNames.merge(queryName, 1, Integer::sum);
+        updateMembership();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        return () -> {
+            if (cancelled.getAndSet(true)) {
+                return false;
+            }
+            subscribedQueryNames.computeIfPresent(queryName, (name, count) -> count == 1 ? null : count - 1);
+            updateMembership();
+            return registration.cancel();
+        };
+    }
+
+    private void updateMembership() {
+        queryRouter.updateMembership(Collections.unmodifiableSet(new HashSet<>(subscribedQueryNames.keySet())));
+    }
+
+    @Override
+    public <Q, R> CompletableFuture<QueryResponseMessage<R>> query(QueryMessage<Q, R> query) {
+        QueryMessage<Q, R> interceptedQuery = intercept(query);
+        List<Member> destinations = queryRouter.findDestinations(interceptedQuery);
+        if (destinations.stream().anyMatch(Member::local)) {
+            return localSegment.query(interceptedQuery);
+        }
+        if (interceptedQuery.getResponseType() instanceof StreamingResponseType) {
+            CompletableFuture<QueryResponseMessage<R>> result = new CompletableFuture<>();
+            result.completeExceptionally(new IllegalArgumentException(format(
+                    "Query [%s] expects a streaming response, which can only be consumed within the JVM handling "
+                            + "the query, but no local handler is subscribed to it",
+                    interceptedQuery.getQueryName()
+            )));
+            return result;
+        }
+        Member destination = loadTracker.leastLoaded(destinations).orElse(null);
+        if (destination == null) {
+            CompletableFuture<QueryResponseMessage<R>> result = new CompletableFuture<>();
+            result.completeExceptionally(new NoHandlerForQueryException(format(
+                    "No member found able to handle %s with response type %s",
+                    interceptedQuery.getQueryName(), interceptedQuery.getResponseType()
+            )));
+            return result;
+        }
+        long startTime = loadTracker.requestStarted(destination);
+        try {
+            return connector.query(destination, interceptedQuery)
+                            .whenComplete((response, error) -> requestEnded(destination, startTime, error));
+        } catch (Exception e) {
+            loadTracker.requestFailed(destination, startTime);
+            CompletableFuture<QueryResponseMessage<R>> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+    }
+
+    @Override
+    public <Q, R> Stream<QueryResponseMessage<R>> scatterGather(QueryMessage<Q, R> query, long timeout,
+                                                                TimeUnit unit) {
+        QueryMessage<Q, R> interceptedQuery = intercept(query);
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        List<Member> destinations = queryRouter.findDestinations(interceptedQuery);
+
+        List<CompletableFuture<List<QueryResponseMessage<R>>>> remoteResponses = new ArrayList<>();
+        boolean localDestination = false;
+        for (Member destination : destinations) {
+            if (destination.local()) {
+                localDestination = true;
+            } else {
+                remoteResponses.add(sendScatterGather(destination, interceptedQuery, timeout, unit));
+            }
+        }
+
+        Stream<QueryResponseMessage<R>> localResponses = localDestination
+                ? localSegment.scatterGather(interceptedQuery, timeout, unit)
+                : Stream.empty();
+        return Stream.concat(localResponses,
+                             remoteResponses.stream().flatMap(responses -> awaitResponses(responses, deadline)));
+    }
+
+    private <Q, R> CompletableFuture<List<QueryResponseMessage<R>>> sendScatterGather(Member destination,
+                                                                                      QueryMessage<Q, R> query,
+                                                                                      long timeout,
+                                                                                      TimeUnit unit) {
+        long startTime = loadTracker.requestStarted(destination);
+        try {
+            return connector.scatterGather(destination, query, timeout, unit)
+                            .whenComplete((responses, error) -> requestEnded(destination, startTime, error));
+        } catch (Exception e) {
+            loadTracker.requestFailed(destination, startTime);
+            CompletableFuture<List<QueryResponseMessage<R>>> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+    }
+
+    private void requestEnded(Member destination, long startTime, Throwable error) {
+        if (error == null) {
+            loadTracker.requestCompleted(destination, startTime);
+        } else {
+            loadTracker.requestFailed(destination, startTime);
+        }
+    }
+
+    private <R> Stream<QueryResponseMessage<R>> awaitResponses(
+            CompletableFuture<List<QueryResponseMessage<R>>> responses, long deadline) {
+        try {
+            return responses.get(getRemainingOfDeadline(deadline), TimeUnit.MILLISECONDS).stream();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Stream.empty();
+        } catch (TimeoutException e) {
+            logger.info("A remote member did not provide the responses to a scatter-gather query in time.");
+            return Stream.empty();
+        } catch (Exception e) {
+            logger.warn("A remote member failed to provide the responses to a scatter-gather query.", e);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Subscription queries are executed on the local segment only.
+     */
+    @Override
+    public <Q, I, U> SubscriptionQueryResult<QueryResponseMessage<I>, SubscriptionQueryUpdateMessage<U>> subscriptionQuery(
+            SubscriptionQueryMessage<Q, I, U> query, SubscriptionQueryBackpressure backpressure,
+            int updateBufferSize) {
+        return localSegment.subscriptionQuery(intercept(query), backpressure, updateBufferSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Q, R, T extends QueryMessage<Q, R>> T intercept(T query) {
+        T intercepted = query;
+        for (MessageDispatchInterceptor<? super QueryMessage<?, ?>> interceptor : dispatchInterceptors) {
+            intercepted = (T) interceptor.handle(intercepted);
+        }
+        return intercepted;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The interceptor is registered with the local segment, so it is invoked for all queries handled by this member,
+     * including those sent by other members.
+     */
+    @Override
+    public Registration registerHandlerInterceptor(
+            MessageHandlerInterceptor<? super QueryMessage<?, ?>> handlerInterceptor) {
+        return localSegment.registerHandlerInterceptor(handlerInterceptor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The interceptor is invoked before the destination of a query is selected. It is not invoked for queries sent
+     * by other members.
+     */
+    @Override
+    public Registration registerDispatchInterceptor(
+            MessageDispatchInterceptor<? super QueryMessage<?, ?>> dispatchInterceptor) {
+        dispatchInterceptors.add(dispatchInterceptor);
+        return () -> dispatchInterceptors.remove(dispatchInterceptor);
+    }
+
+    /**
+     * Returns the tracker of the load of the remote members of this query bus, which exposes the number of queries in
+     * flight and the average latency of each member.
+     *
+     * @return the tracker of the load of remote members
+     */
+    public MemberLoadTracker getLoadTracker() {
+        return loadTracker;
+    }
+}
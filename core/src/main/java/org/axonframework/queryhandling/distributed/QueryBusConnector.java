@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling.distributed;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.QueryResponseMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interface describing the component that sends queries to the query bus of a remote member of a cluster. The
+ * connector is also expected to receive queries sent by other members, and to execute them on the local segment of
+ * the {@link DistributedQueryBus}.
+ *
+ * @see DistributedQueryBus
+ * @since 3.4
+ */
+public interface QueryBusConnector {
+
+    /**
+     * Sends the given {@code query} to the given remote {@code destination}, which executes it as a point-to-point
+     * query.
+     *
+     * @param destination The member to send the query to
+     * @param query       The query to send
+     * @param <Q>         The payload type of the query
+     * @param <R>         The response type of the query
+     * @return a future completing with the response of the destination
+     */
+    <Q, R> CompletableFuture<QueryResponseMessage<R>> query(Member destination, QueryMessage<Q, R> query);
+
+    /**
+     * Sends the given {@code query} to the given remote {@code destination}, which executes it as a scatter-gather
+     * query on its local handlers, waiting at most the given {@code timeout} for them to respond.
+     *
+     * @param destination The member to send the query to
+     * @param query       The query to send
+     * @param timeout     The time the destination may spend waiting for its handlers
+     * @param unit        The unit of the given timeout
+     * @param <Q>         The payload type of the query
+     * @param <R>         The response type of the query
+     * @return a future completing with the responses of the handlers of the destination
+     */
+    <Q, R> CompletableFuture<List<QueryResponseMessage<R>>> scatterGather(Member destination,
+                                                                         QueryMessage<Q, R> query,
+                                                                         long timeout, TimeUnit unit);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling.distributed;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.queryhandling.QueryMessage;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Interface describing a mechanism that keeps track of the members of a cluster which are able to handle queries.
+ *
+ * @see DistributedQueryBus
+ * @since 3.4
+ */
+public interface QueryRouter {
+
+    /**
+     * Returns the members which are able to handle the given {@code queryMessage}. If no suitable member could be
+     * found, an empty list is returned.
+     *
+     * @param queryMessage the query message to find members for
+     * @return the members able to handle the message
+     */
+    List<Member> findDestinations(QueryMessage<?, ?> queryMessage);
+
+    /**
+     * Updates the names of the queries which the member representing the current endpoint is able to handle.
+     *
+     * @param queryNames the names of the queries handled by this endpoint
+     */
+    void updateMembership(Set<String> queryNames);
+}
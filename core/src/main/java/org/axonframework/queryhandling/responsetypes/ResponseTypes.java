@@ -1,5 +1,7 @@
 package org.axonframework.queryhandling.responsetypes;
 
+import reactor.core.publisher.Flux;
+
 import java.util.List;
 
 /**
@@ -37,6 +39,21 @@ public static <R> ResponseType<List<R>> multipleInstancesOf(Class<R> type) {
         return new MultipleInstancesResponseType<>(type);
     }
 
+    /**
+     * Specify the desire to retrieve a stream of instances of type {@code R} when performing a query, which the caller
+     * consumes incrementally instead of receiving all instances at once.
+     *
+     * @param type the {@code R} which is expected to be the type of the streamed instances
+     * @param <R>  the generic type of the instantiated
+     *             {@link org.axonframework.queryhandling.responsetypes.ResponseType}
+     * @return a {@link org.axonframework.queryhandling.responsetypes.ResponseType} specifying the desire to retrieve a
+     * stream of instances of type {@code R}
+     * @see StreamingResponseType
+     */
+    public static <R> ResponseType<Flux<R>> streamOf(Class<R> type) {
+        return new StreamingResponseType<>(type);
+    }
+
     private ResponseTypes() {
         // Utility class
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling.responsetypes;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.axonframework.common.TypeReflectionUtils;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ResponseType} implementation that will match with query handlers which return a stream of instances of the
+ * expected type, and converts their response to a {@link Flux} of the expected type. Unlike the {@link
+ * MultipleInstancesResponseType}, the response is not collected into a {@link java.util.List}: a {@link Stream} or
+ * {@link Publisher} returned by the query handler is only consumed as the caller requests elements from the Flux. This
+ * keeps memory usage flat for queries returning large result sets.
+ * <p>
+ * Note that the Unit of Work in which the query is handled has completed by the time the caller consumes the Flux.
+ * Query handlers returning a Stream backed by resources, such as a database cursor, should register a close handler on
+ * the Stream using {@link Stream#onClose(Runnable)} to release them. The Stream is closed when the Flux completes,
+ * fails or is cancelled. As the response is not materialized, it can only be consumed within the JVM handling the
+ * query.
+ * <p>
+ * Using this response type requires Project Reactor to be present on the classpath.
+ *
+ * @param <R> The type of the elements of the stream which will be matched against and converted to
+ * @since 3.4
+ */
+public class StreamingResponseType<R> extends AbstractResponseType<Flux<R>> {
+
+    /**
+     * Instantiate a {@link StreamingResponseType} with the given {@code expectedElementType} as the type to be matched
+     * against and which the convert function will use as the generic for the {@link Flux} return value.
+     *
+     * @param expectedElementType the type of the elements which is expected to be matched against and returned
+     */
+    @JsonCreator
+    public StreamingResponseType(@JsonProperty("expectedResponseType") Class<R> expectedElementType) {
+        super(expectedElementType);
+    }
+
+    /**
+     * Match the query handler its response {@link java.lang.reflect.Type} with this implementation its responseType
+     * {@code R}. Will return true if the response type is a {@link Stream}, {@link Publisher}, {@link Iterable} or
+     * array of the expected type, taking generic types into account.
+     *
+     * @param responseType the response {@link java.lang.reflect.Type} of the query handler which is matched against
+     * @return true if the response type is a Stream, Publisher, Iterable or array of the expected type
+     */
+    @Override
+    public boolean matches(Type responseType) {
+        Type unwrapped = unwrapIfTypeFuture(responseType);
+        return isStreamOfExpectedType(unwrapped) ||
+                isPublisherOfExpectedType(unwrapped) ||
+                isIterableOfExpectedType(unwrapped) ||
+                isGenericArrayOfExpectedType(unwrapped) ||
+                isArrayOfExpectedType(unwrapped);
+    }
+
+    @SuppressWarnings("unchecked") // Suppress casts to R, since in proper use of this function it is allowed
+    @Override
+    public Flux<R> convert(Object response) {
+        if (response == null) {
+            return Flux.empty();
+        } else if (response instanceof Stream) {
+            Stream<R> stream = (Stream<R>) response;
+            return Flux.fromStream(stream).doFinally(signal -> stream.close());
+        } else if (response instanceof Publisher) {
+            return Flux.from((Publisher<R>) response);
+        } else if (response instanceof Iterable) {
+            return Flux.fromIterable((Iterable<R>) response);
+        } else if (response.getClass().isArray() && !response.getClass().getComponentType().isPrimitive()) {
+            return Flux.fromIterable(Arrays.asList((R[]) response));
+        }
+
+        throw new IllegalArgumentException("Retrieved response [" + response.getClass() + "] is not convertible to a "
+                                                   + "Flux of the expected response type [" + expectedResponseType
+                                                   + "]");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Class<Flux<R>> responseMessagePayloadType() {
+        return (Class) Flux.class;
+    }
+
+    private boolean isPublisherOfExpectedType(Type responseType) {
+        Type publisherType = TypeReflectionUtils.getExactSuperType(responseType, Publisher.class);
+        return publisherType != null && isParameterizedTypeOfExpectedType(publisherType);
+    }
+}
@@ -400,6 +400,27 @@ public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
         verify(mockRepository).load(aggregateIdentifier, null);
     }
 
+    @Test
+    public void testCommandHandledByEntityFromIndexedEntityList() {
+        String aggregateIdentifier = "abc123";
+        final StubCommandAnnotatedAggregate root = new StubCommandAnnotatedAggregate(aggregateIdentifier);
+        root.entities = new IndexedEntityList<>();
+        root.initializeEntity("1");
+        root.initializeEntity("2");
+        when(mockRepository.load(any(String.class), any())).thenAnswer(i -> createAggregate(root));
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        commandBus.dispatch(asCommandMessage(new UpdateEntityFromCollectionStateCommand("abc123", "2")), callback);
+        root.entities.remove(1);
+        root.initializeEntity("3");
+        commandBus.dispatch(asCommandMessage(new UpdateEntityFromCollectionStateCommand("abc123", "3")), callback);
+        commandBus.dispatch(asCommandMessage(new UpdateEntityFromCollectionStateCommand("abc123", "2")), callback);
+
+        verify(callback).onSuccess(any(), eq("handled by 2"));
+        verify(callback).onSuccess(any(), eq("handled by 3"));
+        verify(callback).onFailure(any(), isA(AggregateEntityNotFoundException.class));
+    }
+
     @Test
     public void testCommandHandledByEntityFromCollection_NoEntityAvailable() {
         String aggregateIdentifier = "abc123";
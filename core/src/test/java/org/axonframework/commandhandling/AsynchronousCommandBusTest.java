@@ -16,6 +16,7 @@
 
 package org.axonframework.commandhandling;
 
+import org.axonframework.common.Registration;
 import org.axonframework.messaging.InterceptorChain;
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.axonframework.messaging.MessageHandler;
@@ -25,10 +26,14 @@
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -112,4 +117,64 @@ public void testShutdown_ExecutorUsed() {
 
         verify(executor, never()).execute(any(Runnable.class));
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCommandsAreProcessedByExecutorRegisteredForCommandName() throws Exception {
+        ExecutorService commandExecutor = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(commandExecutor).execute(isA(Runnable.class));
+        testSubject.subscribe(String.class.getName(), commandHandler);
+        testSubject.subscribe(Object.class.getName(), commandHandler);
+        Registration registration = testSubject.registerExecutor(String.class.getName(), commandExecutor);
+
+        testSubject.dispatch(asCommandMessage("test"));
+        testSubject.dispatch(asCommandMessage(new Object()));
+
+        verify(commandExecutor).execute(isA(Runnable.class));
+        verify(executorService).execute(isA(Runnable.class));
+        verify(commandHandler, times(2)).handle(isA(CommandMessage.class));
+
+        registration.cancel();
+        testSubject.dispatch(asCommandMessage("test"));
+        verify(executorService, times(2)).execute(isA(Runnable.class));
+
+        testSubject.registerExecutor(String.class.getName(), commandExecutor);
+        testSubject.shutdown();
+        verify(commandExecutor).shutdown();
+        verify(executorService).shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRejectedCommandIsReportedToCallback() throws Exception {
+        BoundedCommandExecutor commandExecutor = new BoundedCommandExecutor("test", 1, 1);
+        CountDownLatch handlerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseHandler = new CountDownLatch(1);
+        testSubject.subscribe(String.class.getName(), command -> {
+            handlerBlocked.countDown();
+            releaseHandler.await();
+            return null;
+        });
+        testSubject.registerExecutor(String.class.getName(), commandExecutor);
+        CommandCallback<Object, Object> mockCallback = mock(CommandCallback.class);
+
+        try {
+            testSubject.dispatch(asCommandMessage("first"), mockCallback);
+            assertTrue(handlerBlocked.await(5, TimeUnit.SECONDS));
+            testSubject.dispatch(asCommandMessage("second"), mockCallback);
+            CommandMessage<Object> rejected = asCommandMessage("third");
+            testSubject.dispatch(rejected, mockCallback);
+
+            verify(mockCallback).onFailure(eq(rejected), isA(RejectedExecutionException.class));
+            assertEquals(1, commandExecutor.getQueueDepth());
+            assertEquals(1, commandExecutor.getRejectedCount());
+        } finally {
+            releaseHandler.countDown();
+            testSubject.shutdown();
+        }
+        verify(mockCallback, times(2)).onSuccess(isA(CommandMessage.class), isNull());
+    }
 }
@@ -53,6 +53,7 @@
 import org.axonframework.messaging.annotation.ClasspathParameterResolverFactory;
 import org.axonframework.messaging.annotation.MessageHandlerInvocationException;
 import org.axonframework.messaging.annotation.ParameterResolverFactory;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.axonframework.monitoring.MessageMonitor;
@@ -62,8 +63,10 @@
 import org.mockito.stubbing.*;
 
 import java.lang.reflect.Executable;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
@@ -74,6 +77,7 @@
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
@@ -412,6 +416,132 @@ public void testCommandProcessedAndEventsStored() throws InterruptedException {
         assertEquals("Seems that some events are not stored", 0, eventStore.countDownLatch.getCount());
     }
 
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testCommandsPublishedInBatches() throws Exception {
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        CountDownLatch firstTransactionStarted = new CountDownLatch(1);
+        CountDownLatch commandsHandled = new CountDownLatch(1000);
+        Transaction mockTransaction = mock(Transaction.class);
+        mockTransactionManager = mock(TransactionManager.class);
+        // the first transaction blocks the publisher until all commands are handled, so they queue up for publication
+        when(mockTransactionManager.startTransaction()).thenAnswer(invocation -> {
+            firstTransactionStarted.countDown();
+            commandsHandled.await();
+            return mockTransaction;
+        });
+        testSubject = new DisruptorCommandBus(new DisruptorConfiguration()
+                                                      .setExecutor(customExecutor)
+                                                      .setPublisherBatchSize(50)
+                                                      .setPublisherBatchDelay(5000)
+                                                      .setTransactionManager(mockTransactionManager));
+        testSubject.subscribe(StubCommand.class.getName(), command -> {
+            Object result = stubHandler.handle(command);
+            commandsHandled.countDown();
+            return result;
+        });
+        stubHandler.setRepository(testSubject.createRepository(eventStore,
+                                                               new GenericAggregateFactory<>(StubAggregate.class)));
+        CommandCallback mockCallback = mock(CommandCallback.class);
+
+        testSubject.dispatch(asCommandMessage(new StubCommand(aggregateIdentifier)), mockCallback);
+        assertTrue(firstTransactionStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 1000; i++) {
+            testSubject.dispatch(asCommandMessage(new StubCommand(aggregateIdentifier)), mockCallback);
+        }
+        testSubject.stop();
+        customExecutor.shutdown();
+        assertTrue(customExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        verify(mockCallback, times(1000)).onSuccess(any(), any());
+        verify(mockCallback, never()).onFailure(any(), any());
+        // one transaction for the first command, one per batch of 50 queued commands, and one for a straggler
+        verify(mockTransactionManager, atMost(1 + 1000 / 50 + 1)).startTransaction();
+        verify(mockTransaction, atMost(1 + 1000 / 50 + 1)).commit();
+        assertEquals(1001, COMMAND_COUNT + 1 - eventStore.countDownLatch.getCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testOnlyEntriesJoiningBatchRolledBackWhenNestedCommitFails() throws Exception {
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        CountDownLatch firstTransactionStarted = new CountDownLatch(1);
+        CountDownLatch commandsHandled = new CountDownLatch(5);
+        Transaction mockTransaction = mock(Transaction.class);
+        mockTransactionManager = mock(TransactionManager.class);
+        when(mockTransactionManager.startTransaction()).thenAnswer(invocation -> {
+            firstTransactionStarted.countDown();
+            commandsHandled.await();
+            return mockTransaction;
+        });
+        testSubject = new DisruptorCommandBus(new DisruptorConfiguration()
+                                                      .setExecutor(customExecutor)
+                                                      .setPublisherBatchSize(50)
+                                                      .setPublisherBatchDelay(5000)
+                                                      .setTransactionManager(mockTransactionManager));
+        Set<String> committed = ConcurrentHashMap.newKeySet();
+        Set<String> rolledBack = ConcurrentHashMap.newKeySet();
+        testSubject.subscribe(String.class.getName(), command -> {
+            String payload = (String) command.getPayload();
+            UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get();
+            unitOfWork.onPrepareCommit(u -> {
+                if ("fail".equals(payload)) {
+                    throw new MockException();
+                }
+            });
+            unitOfWork.afterCommit(u -> committed.add(payload));
+            unitOfWork.onRollback(u -> rolledBack.add(payload));
+            commandsHandled.countDown();
+            return payload;
+        });
+        CommandCallback mockCallback = mock(CommandCallback.class);
+
+        testSubject.dispatch(asCommandMessage("first"), mockCallback);
+        assertTrue(firstTransactionStarted.await(5, TimeUnit.SECONDS));
+        for (String payload : asList("second", "fail", "third", "fourth")) {
+            testSubject.dispatch(asCommandMessage(payload), mockCallback);
+        }
+        testSubject.stop();
+        customExecutor.shutdown();
+        assertTrue(customExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(new HashSet<>(asList("second", "fail")), rolledBack);
+        assertEquals(new HashSet<>(asList("first", "third", "fourth")), committed);
+        verify(mockCallback, times(2)).onFailure(any(), isA(MockException.class));
+        verify(mockCallback, times(3)).onSuccess(any(), any());
+        verify(mockTransaction).rollback();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testAggregatesOfBatchBlacklistedWhenBatchCommitFails() throws Exception {
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        Transaction mockTransaction = mock(Transaction.class);
+        doThrow(new MockException()).when(mockTransaction).commit();
+        mockTransactionManager = mock(TransactionManager.class);
+        when(mockTransactionManager.startTransaction()).thenReturn(mockTransaction);
+        testSubject = new DisruptorCommandBus(new DisruptorConfiguration()
+                                                      .setExecutor(customExecutor)
+                                                      .setPublisherBatchSize(50)
+                                                      .setRescheduleCommandsOnCorruptState(false)
+                                                      .setTransactionManager(mockTransactionManager));
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(eventStore,
+                                                               new GenericAggregateFactory<>(StubAggregate.class)));
+        CommandCallback mockCallback = mock(CommandCallback.class);
+
+        for (int i = 0; i < 100; i++) {
+            testSubject.dispatch(asCommandMessage(new StubCommand(aggregateIdentifier)), mockCallback);
+        }
+        testSubject.stop();
+        customExecutor.shutdown();
+        assertTrue(customExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        verify(mockCallback, never()).onSuccess(any(), any());
+        verify(mockCallback, atLeastOnce()).onFailure(any(), isA(MockException.class));
+        verify(mockCallback, times(100)).onFailure(any(), any());
+    }
+
     @Test
     public void testCanResolveReturnsTrueForMatchingAggregateDescriptor() {
         testSubject = new DisruptorCommandBus();
@@ -23,8 +23,10 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
@@ -104,4 +106,86 @@ public void testConflictingHashesDoNotImpactMembership() {
         assertEquals(member1.name(), consistentHash.getMembers().iterator().next().name());
         assertEquals(consistentHash.getMembers(), consistentHashModified.getMembers());
     }
+
+    @Test
+    public void testSegmentsOfOverloadedMemberAreShiftedToNextMember() {
+        MemberLoadTracker loadTracker = new MemberLoadTracker();
+        recordLatency(loadTracker, member1, 1000);
+        recordLatency(loadTracker, member2, 10);
+        recordLatency(loadTracker, new SimpleMember<>("member3", "", false, null), 10);
+        GenericCommandMessage<String> command = new GenericCommandMessage<>(new GenericMessage<>("test"), "name1");
+
+        Optional<Member> actual = testSubject.getMember("routingKey", command, loadTracker);
+
+        assertEquals("member2", actual.map(Member::name).orElse(null));
+        assertEquals(0, (int) testSubject.getActiveSegmentCounts(loadTracker).get("member1"));
+        assertEquals(2, (int) testSubject.getActiveSegmentCounts(loadTracker).get("member2"));
+        assertEquals(2, (int) testSubject.getActiveSegmentCounts(loadTracker).get("member3"));
+    }
+
+    @Test
+    public void testMessageRoutedToFirstEligibleMemberWhenLoadIsBalanced() {
+        MemberLoadTracker loadTracker = new MemberLoadTracker();
+        recordLatency(loadTracker, member1, 15);
+        recordLatency(loadTracker, member2, 10);
+        GenericCommandMessage<String> command = new GenericCommandMessage<>(new GenericMessage<>("test"), "name1");
+
+        assertEquals("member1", testSubject.getMember("routingKey", command, loadTracker)
+                                           .map(Member::name).orElse(null));
+    }
+
+    @Test
+    public void testOverloadedMemberIsSelectedWhenNoOtherMemberIsEligible() {
+        MemberLoadTracker loadTracker = new MemberLoadTracker();
+        recordLatency(loadTracker, member1, 1000);
+        recordLatency(loadTracker, member2, 10);
+        ConsistentHash singleCapableMember = testSubject.without(member2);
+        GenericCommandMessage<String> command = new GenericCommandMessage<>(new GenericMessage<>("test"), "name1");
+
+        assertEquals("member1", singleCapableMember.getMember("routingKey", command, loadTracker)
+                                                   .map(Member::name).orElse(null));
+    }
+
+    @Test
+    public void testRoutingIsStableWhileLoadFluctuatesAroundThreshold() {
+        MemberLoadTracker loadTracker = new MemberLoadTracker(1, 2, 0.1, Duration.ZERO);
+        Member member3 = new SimpleMember<>("member3", "", false, null);
+        recordLatency(loadTracker, member2, 10);
+        recordLatency(loadTracker, member3, 10);
+        recordLatency(loadTracker, member1, 22);
+        GenericCommandMessage<String> command = new GenericCommandMessage<>(new GenericMessage<>("test"), "name1");
+        Optional<Member> expected = testSubject.getMember("routingKey", command, loadTracker);
+        assertEquals(1, (int) testSubject.getActiveSegmentCounts(loadTracker).get("member1"));
+
+        for (long latency : new long[]{19, 21, 23, 19}) {
+            recordLatency(loadTracker, member1, latency);
+            assertEquals(expected, testSubject.getMember("routingKey", command, loadTracker));
+            assertEquals(1, (int) testSubject.getActiveSegmentCounts(loadTracker).get("member1"));
+        }
+
+        recordLatency(loadTracker, member1, 15);
+        assertEquals(2, (int) testSubject.getActiveSegmentCounts(loadTracker).get("member1"));
+    }
+
+    @Test
+    public void testActiveSegmentsAreReusedWithinSnapshotInterval() {
+        MemberLoadTracker loadTracker = new MemberLoadTracker(1, 2, 0.1, Duration.ofMinutes(1));
+        recordLatency(loadTracker, member1, 1000);
+        recordLatency(loadTracker, member2, 10);
+        recordLatency(loadTracker, new SimpleMember<>("member3", "", false, null), 10);
+        GenericCommandMessage<String> command = new GenericCommandMessage<>(new GenericMessage<>("test"), "name1");
+        assertEquals("member2", testSubject.getMember("routingKey", command, loadTracker)
+                                           .map(Member::name).orElse(null));
+
+        recordLatency(loadTracker, member1, 10);
+
+        assertEquals("member2", testSubject.getMember("routingKey", command, loadTracker)
+                                           .map(Member::name).orElse(null));
+        assertEquals(0, (int) testSubject.getActiveSegmentCounts(loadTracker).get("member1"));
+    }
+
+    private static void recordLatency(MemberLoadTracker loadTracker, Member member, long latencyMillis) {
+        loadTracker.requestStarted(member);
+        loadTracker.requestCompleted(member, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
 }
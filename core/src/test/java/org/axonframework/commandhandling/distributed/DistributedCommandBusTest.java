@@ -33,7 +33,7 @@
 
 import java.util.Optional;
 
-import static org.junit.Assert.fail;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 @SuppressWarnings("unchecked")
@@ -168,6 +168,25 @@ public void testDispatchFailingCommandWithCallbackAndMessageMonitor() throws Exc
         verify(mockCallback).onFailure(eq(testCommandMessage), isA(Exception.class));
     }
 
+    @Test
+    public void testLoadAwareDispatchTracksLoadOfDestination() throws Exception {
+        MemberLoadTracker loadTracker = new MemberLoadTracker();
+        testSubject = new DistributedCommandBus(mockCommandRouter, mockConnector, mockMessageMonitor, loadTracker);
+        Member member = new SimpleMember<>("member", null, SimpleMember.REMOTE_MEMBER, null);
+        when(mockCommandRouter.findDestination(any(), eq(loadTracker))).thenReturn(Optional.of(member));
+        CommandMessage<Object> testCommandMessage = GenericCommandMessage.asCommandMessage("test");
+
+        testSubject.dispatch(testCommandMessage, mock(CommandCallback.class));
+        testSubject.dispatch(GenericCommandMessage.asCommandMessage("fail"), mock(CommandCallback.class));
+
+        verify(mockCommandRouter).findDestination(testCommandMessage, loadTracker);
+        verify(mockMonitorCallback).reportSuccess();
+        verify(mockMonitorCallback).reportFailure(isA(Exception.class));
+        assertSame(loadTracker, testSubject.getLoadTracker().orElse(null));
+        assertEquals(0, loadTracker.inFlight(member));
+        assertTrue(loadTracker.memberLoads().containsKey("member"));
+    }
+
     private static class StubCommandBusConnector implements CommandBusConnector {
         @Override
         public <C> void send(Member destination, CommandMessage<? extends C> command) {
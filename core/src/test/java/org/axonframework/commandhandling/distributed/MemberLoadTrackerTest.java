@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.commandhandling.distributed;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MemberLoadTrackerTest {
+
+    private MemberLoadTracker testSubject;
+    private Member member1;
+    private Member member2;
+
+    @Before
+    public void setUp() {
+        testSubject = new MemberLoadTracker(0.5);
+        member1 = new SimpleMember<>("member1", null, SimpleMember.REMOTE_MEMBER, null);
+        member2 = new SimpleMember<>("member2", null, SimpleMember.REMOTE_MEMBER, null);
+    }
+
+    @Test
+    public void testInFlightRequestsAreCounted() {
+        long startTime = testSubject.requestStarted(member1);
+        testSubject.requestStarted(member1);
+        assertEquals(2, testSubject.inFlight(member1));
+        assertEquals(0, testSubject.inFlight(member2));
+
+        testSubject.requestCompleted(member1, startTime);
+        assertEquals(1, testSubject.inFlight(member1));
+        assertEquals(1, testSubject.memberLoads().get("member1").getInFlight());
+    }
+
+    @Test
+    public void testAverageLatencyIsSmoothed() {
+        assertEquals(0, testSubject.averageLatency(member1), 0);
+
+        testSubject.requestStarted(member1);
+        testSubject.requestCompleted(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100));
+        double firstAverage = testSubject.averageLatency(member1);
+        assertEquals(100, firstAverage, 10);
+
+        testSubject.requestStarted(member1);
+        testSubject.requestCompleted(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(200, testSubject.averageLatency(member1), 10);
+    }
+
+    @Test
+    public void testLeastLoadedMemberIsSelected() {
+        assertFalse(testSubject.leastLoaded(Arrays.asList()).isPresent());
+
+        testSubject.requestStarted(member1);
+        testSubject.requestCompleted(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100));
+        testSubject.requestStarted(member2);
+        testSubject.requestCompleted(member2, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(member2, testSubject.leastLoaded(Arrays.asList(member1, member2)).orElse(null));
+
+        for (int i = 0; i < 20; i++) {
+            testSubject.requestStarted(member2);
+        }
+        assertEquals(member1, testSubject.leastLoaded(Arrays.asList(member1, member2)).orElse(null));
+
+        testSubject.forget(member2);
+        assertEquals(0, testSubject.inFlight(member2));
+        assertFalse(testSubject.memberLoads().containsKey("member2"));
+    }
+
+    @Test
+    public void testMembersExceedingOverloadThresholdGetReducedSegmentRatio() {
+        Member member3 = new SimpleMember<>("member3", null, SimpleMember.REMOTE_MEMBER, null);
+        assertTrue(testSubject.activeSegmentRatios(Arrays.asList(member1, member2)).isEmpty());
+
+        testSubject.requestStarted(member1);
+        testSubject.requestCompleted(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(400));
+        assertTrue(testSubject.activeSegmentRatios(Arrays.asList(member1, member2)).isEmpty());
+
+        testSubject.requestStarted(member2);
+        testSubject.requestCompleted(member2, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+        testSubject.requestStarted(member3);
+        testSubject.requestCompleted(member3, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(30));
+
+        Map<String, Double> ratios = testSubject.activeSegmentRatios(Arrays.asList(member1, member2, member3));
+        assertEquals(1, ratios.size());
+        assertEquals(0.1, ratios.get("member1"), 0.01);
+    }
+
+    @Test
+    public void testMembersWithoutRepliesAssumeMeanLatencyOfOtherMembers() {
+        testSubject.requestStarted(member1);
+        testSubject.requestCompleted(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100));
+        for (int i = 0; i < 10; i++) {
+            testSubject.requestStarted(member2);
+        }
+
+        assertEquals(100, testSubject.averageLatency(member2), 10);
+        assertEquals(1100, testSubject.load(member2), 110);
+        assertEquals(member1, testSubject.leastLoaded(Arrays.asList(member1, member2)).orElse(null));
+
+        Map<String, Double> ratios = testSubject.activeSegmentRatios(Arrays.asList(member1, member2));
+        assertEquals(1, ratios.size());
+        assertEquals(2 / 11d, ratios.get("member2"), 0.01);
+    }
+
+    @Test
+    public void testStatisticsOfMembersThatLeftAreRemoved() {
+        long startTime = testSubject.requestStarted(member1);
+        testSubject.requestStarted(member2);
+        testSubject.requestCompleted(member2, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+        testSubject.requestStarted(member2);
+        testSubject.activeSegmentRatios(Arrays.asList(member1, member2));
+        assertEquals(2, testSubject.memberLoads().size());
+
+        testSubject.activeSegmentRatios(Arrays.asList(member2));
+        assertEquals(1, testSubject.memberLoads().size());
+        assertEquals(1, testSubject.inFlight(member2));
+
+        testSubject.requestCompleted(member1, startTime);
+        assertFalse(testSubject.memberLoads().containsKey("member1"));
+        assertEquals(0, testSubject.inFlight(member1));
+    }
+
+    @Test
+    public void testFailuresDoNotLowerAverageLatency() {
+        testSubject.requestStarted(member2);
+        testSubject.requestFailed(member2, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(0, testSubject.inFlight(member2));
+        assertEquals(0, testSubject.averageLatency(member2), 0);
+
+        testSubject.requestStarted(member1);
+        testSubject.requestCompleted(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100));
+        testSubject.requestStarted(member1);
+        testSubject.requestFailed(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(0, testSubject.inFlight(member1));
+        assertEquals(100, testSubject.averageLatency(member1), 10);
+        assertEquals(100, testSubject.averageLatency(member2), 10);
+
+        testSubject.requestStarted(member1);
+        testSubject.requestFailed(member1, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(200, testSubject.averageLatency(member1), 10);
+    }
+}
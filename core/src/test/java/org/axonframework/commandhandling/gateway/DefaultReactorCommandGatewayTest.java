@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class DefaultReactorCommandGatewayTest {
+
+    private CommandBus mockCommandBus;
+    private MessageDispatchInterceptor<CommandMessage<?>> mockDispatchInterceptor;
+    private DefaultReactorCommandGateway testSubject;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        mockCommandBus = mock(CommandBus.class);
+        mockDispatchInterceptor = mock(MessageDispatchInterceptor.class);
+        when(mockDispatchInterceptor.handle(isA(CommandMessage.class))).thenAnswer(i -> i.getArguments()[0]);
+        doAnswer(invocation -> {
+            CommandMessage<Object> command = (CommandMessage<Object>) invocation.getArguments()[0];
+            ((CommandCallback<Object, Object>) invocation.getArguments()[1])
+                    .onSuccess(command, "result-" + command.getPayload());
+            return null;
+        }).when(mockCommandBus).dispatch(isA(CommandMessage.class), isA(CommandCallback.class));
+        testSubject = new DefaultReactorCommandGateway(mockCommandBus, mockDispatchInterceptor);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCommandIsDispatchedOnSubscription() {
+        Mono<String> result = testSubject.send("command");
+
+        verify(mockCommandBus, never()).dispatch(any(), any());
+
+        StepVerifier.create(result).expectNext("result-command").verifyComplete();
+        verify(mockDispatchInterceptor).handle(isA(CommandMessage.class));
+        verify(mockCommandBus).dispatch(argThat(c -> "command".equals(c.getPayload())), isA(CommandCallback.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFailureIsEmittedAsError() {
+        RuntimeException failure = new RuntimeException("Faking failure");
+        doAnswer(invocation -> {
+            ((CommandCallback<Object, Object>) invocation.getArguments()[1])
+                    .onFailure((CommandMessage<Object>) invocation.getArguments()[0], failure);
+            return null;
+        }).when(mockCommandBus).dispatch(isA(CommandMessage.class), isA(CommandCallback.class));
+
+        StepVerifier.create(testSubject.send("command")).verifyErrorMatches(failure::equals);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendAllLimitsConcurrencyAndKeepsOrder() {
+        List<CommandMessage<Object>> pendingCommands = new ArrayList<>();
+        List<CommandCallback<Object, Object>> pendingCallbacks = new ArrayList<>();
+        doAnswer(invocation -> {
+            pendingCommands.add((CommandMessage<Object>) invocation.getArguments()[0]);
+            pendingCallbacks.add((CommandCallback<Object, Object>) invocation.getArguments()[1]);
+            return null;
+        }).when(mockCommandBus).dispatch(isA(CommandMessage.class), isA(CommandCallback.class));
+
+        StepVerifier.create(testSubject.<String>sendAll(Flux.just("a", "b", "c"), 2))
+                    .then(() -> {
+                        assertEquals(2, pendingCommands.size());
+                        pendingCallbacks.get(1).onSuccess(pendingCommands.get(1), "result-b");
+                        assertEquals(2, pendingCommands.size());
+                        pendingCallbacks.get(0).onSuccess(pendingCommands.get(0), "result-a");
+                        assertEquals(3, pendingCommands.size());
+                        pendingCallbacks.get(2).onSuccess(pendingCommands.get(2), "result-c");
+                    })
+                    .expectNext("result-a", "result-b", "result-c")
+                    .verifyComplete();
+    }
+}
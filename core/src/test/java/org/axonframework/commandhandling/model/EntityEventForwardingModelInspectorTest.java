@@ -129,6 +129,41 @@ public void testExpectEventsToBeRoutedToRightEntityOnlyForEntityMap() {
         assertEquals(1L, entityThreePayload.get());
     }
 
+    @Test
+    public void testExpectEventsToBeRoutedToRightEntityOnlyForIndexedEntityList() {
+        AggregateModel<SomeEventForwardingIndexedEntityListAggregate> inspector =
+                inspectAggregate(SomeEventForwardingIndexedEntityListAggregate.class);
+
+        SomeEventForwardingIndexedEntityListAggregate target = new SomeEventForwardingIndexedEntityListAggregate();
+
+        AtomicLong entityOnePayload = new AtomicLong();
+        inspector.publish(asEventMessage(new EntityRoutedEvent("entityId1", entityOnePayload)), target);
+        target.entities.remove(0);
+        target.entities.add(new SomeEventForwardedEntity("entityId4"));
+        AtomicLong removedEntityPayload = new AtomicLong();
+        inspector.publish(asEventMessage(new EntityRoutedEvent("entityId1", removedEntityPayload)), target);
+        AtomicLong addedEntityPayload = new AtomicLong();
+        inspector.publish(asEventMessage(new EntityRoutedEvent("entityId4", addedEntityPayload)), target);
+
+        assertEquals(1L, entityOnePayload.get());
+        assertEquals(0L, removedEntityPayload.get());
+        assertEquals(1L, addedEntityPayload.get());
+    }
+
+    @Test
+    public void testExpectEventsToBeRoutedToAllMatchingEntitiesForEntityMapWithOtherKeys() {
+        AggregateModel<SomeEventForwardingEntityMapAggregate> inspector =
+                inspectAggregate(SomeEventForwardingEntityMapAggregate.class);
+
+        SomeEventForwardingEntityMapAggregate target = new SomeEventForwardingEntityMapAggregate();
+        target.entities.put("otherKey", new SomeEventForwardedEntity("entityId4"));
+
+        AtomicLong entityFourPayload = new AtomicLong();
+        inspector.publish(asEventMessage(new EntityRoutedEvent("entityId4", entityFourPayload)), target);
+
+        assertEquals(1L, entityFourPayload.get());
+    }
+
     private static class SomeNoneEventForwardingEntityAggregate {
 
         @AggregateIdentifier
@@ -187,6 +222,22 @@ private static class SomeEventForwardingEntityCollectionAggregate {
         }
     }
 
+    private static class SomeEventForwardingIndexedEntityListAggregate {
+
+        @AggregateIdentifier
+        private String id = AGGREGATE_ID;
+
+        @AggregateMember(eventForwardingMode = ForwardMatchingInstances.class)
+        private List<SomeEventForwardedEntity> entities;
+
+        SomeEventForwardingIndexedEntityListAggregate() {
+            this.entities = new IndexedEntityList<>();
+            entities.add(new SomeEventForwardedEntity("entityId1"));
+            entities.add(new SomeEventForwardedEntity("entityId2"));
+            entities.add(new SomeEventForwardedEntity("entityId3"));
+        }
+    }
+
     private static class SomeEventForwardingEntityMapAggregate {
 
         @AggregateIdentifier
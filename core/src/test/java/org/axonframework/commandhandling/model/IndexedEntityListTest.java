@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model;
+
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class IndexedEntityListTest {
+
+    private AtomicInteger resolverInvocations;
+    private Function<String, Object> routingKeyResolver;
+    private IndexedEntityList<String> testSubject;
+
+    @Before
+    public void setUp() {
+        resolverInvocations = new AtomicInteger();
+        routingKeyResolver = entity -> {
+            resolverInvocations.incrementAndGet();
+            return entity.substring(0, 1);
+        };
+        testSubject = new IndexedEntityList<>(asList("a1", "b1", "c1"));
+    }
+
+    @Test
+    public void testEntitiesAreLookedUpInIndex() {
+        assertEquals(asList("b1"), find("b"));
+        assertEquals(3, resolverInvocations.get());
+
+        assertEquals(asList("c1"), find("c"));
+        assertTrue(find("d").isEmpty());
+        assertEquals(3, resolverInvocations.get());
+    }
+
+    @Test
+    public void testIndexIsMaintainedWhenEntitiesAreAddedAndRemoved() {
+        find("a");
+
+        testSubject.add("d1");
+        testSubject.remove("a1");
+        testSubject.set(0, "e1");
+        testSubject.removeIf(entity -> entity.startsWith("c"));
+
+        assertTrue(find("a").isEmpty());
+        assertTrue(find("b").isEmpty());
+        assertTrue(find("c").isEmpty());
+        assertEquals(asList("d1"), find("d"));
+        assertEquals(asList("e1"), find("e"));
+        assertEquals(asList("e1", "d1"), testSubject);
+    }
+
+    @Test
+    public void testAllEntitiesWithDuplicateRoutingKeyAreReturned() {
+        find("a");
+        testSubject.add(0, "b2");
+
+        assertEquals(asList("b2", "b1"), find("b"));
+
+        testSubject.remove("b2");
+        assertEquals(asList("b1"), find("b"));
+        int invocations = resolverInvocations.get();
+        assertEquals(asList("c1"), find("c"));
+        assertEquals(invocations, resolverInvocations.get());
+    }
+
+    @Test
+    public void testIndexIsRebuiltAfterClear() {
+        find("a");
+        testSubject.clear();
+        testSubject.add("f1");
+
+        assertEquals(asList("f1"), find("f"));
+        assertTrue(find("a").isEmpty());
+    }
+
+    @Test
+    public void testIndexIsRebuiltAfterDeserialization() {
+        XStreamSerializer serializer = new XStreamSerializer();
+        find("a");
+
+        SerializedObject<String> serialized = serializer.serialize(testSubject, String.class);
+        testSubject = serializer.deserialize(serialized);
+
+        assertEquals(asList("a1", "b1", "c1"), testSubject);
+        assertEquals(asList("c1"), find("c"));
+    }
+
+    private List<String> find(String routingKey) {
+        return testSubject.entitiesWithRoutingKey(routingKey, routingKeyResolver).collect(Collectors.toList());
+    }
+}
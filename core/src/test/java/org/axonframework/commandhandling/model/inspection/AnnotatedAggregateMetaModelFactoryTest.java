@@ -65,6 +65,14 @@ public void testDetectAllAnnotatedHandlersInHierarchy() throws Exception {
         assertEquals(false, inspector.commandHandler(message.getCommandName()).handle(asCommandMessage("ok"), target));
     }
 
+    @Test
+    public void testModelOfAggregateIsCreatedOnce() {
+        AggregateModel<SomeSubclass> model = AnnotatedAggregateMetaModelFactory.inspectAggregate(SomeSubclass.class);
+
+        assertSame(model, AnnotatedAggregateMetaModelFactory.inspectAggregate(SomeSubclass.class));
+        assertNotSame(model, new AnnotatedAggregateMetaModelFactory().createModel(SomeSubclass.class));
+    }
+
     @Test
     public void testDetectFactoryMethodHandler() {
         AggregateModel<SomeAnnotatedFactoryMethodClass> inspector = AnnotatedAggregateMetaModelFactory.inspectAggregate(SomeAnnotatedFactoryMethodClass.class);
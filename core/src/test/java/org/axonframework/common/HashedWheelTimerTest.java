@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer testSubject;
+
+    @Before
+    public void setUp() {
+        // a small wheel, so that tasks need multiple rounds
+        testSubject = new HashedWheelTimer(new AxonThreadFactory("timer"), 10, TimeUnit.MILLISECONDS, 4,
+                                           DirectExecutor.INSTANCE);
+    }
+
+    @After
+    public void tearDown() {
+        testSubject.shutdown();
+    }
+
+    @Test
+    public void testTasksExecutedInOrderOfDueTime() throws InterruptedException {
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        testSubject.schedule(() -> { executed.add(3); latch.countDown(); }, 150, TimeUnit.MILLISECONDS);
+        testSubject.schedule(() -> { executed.add(1); latch.countDown(); }, 0, TimeUnit.MILLISECONDS);
+        testSubject.schedule(() -> { executed.add(2); latch.countDown(); }, 60, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(asList(1, 2, 3), executed);
+        assertEquals(0, testSubject.pendingTasks());
+    }
+
+    @Test
+    public void testCancelledTaskIsNotExecuted() throws InterruptedException {
+        CountDownLatch cancelledLatch = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = testSubject.schedule(cancelledLatch::countDown, 50, TimeUnit.MILLISECONDS);
+        testSubject.schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+        assertEquals(2, testSubject.pendingTasks());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(1, testSubject.pendingTasks());
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(1, cancelledLatch.getCount());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void testFailingTaskDoesNotPreventOtherTasksFromExecuting() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        testSubject.schedule(() -> {
+            throw new MockException();
+        }, 10, TimeUnit.MILLISECONDS);
+        testSubject.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSchedulingRejectedAfterShutdown() {
+        testSubject.shutdown();
+        testSubject.schedule(() -> {
+        }, 10, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class WindowTinyLfuCacheTest {
+
+    private WindowTinyLfuCache testSubject;
+    private Cache.EntryListener mockListener;
+
+    @Before
+    public void setUp() {
+        mockListener = mock(Cache.EntryListener.class);
+        testSubject = new WindowTinyLfuCache(100);
+        testSubject.registerCacheEntryListener(mockListener);
+    }
+
+    @Test
+    public void testEntryListenerNotifiedOfCreationUpdateAndDeletion() {
+        Object value = new Object();
+        Object value2 = new Object();
+        testSubject.put("test1", value);
+        verify(mockListener).onEntryCreated("test1", value);
+
+        assertFalse(testSubject.putIfAbsent("test1", value));
+        testSubject.put("test1", value2);
+        verify(mockListener).onEntryUpdated("test1", value2);
+
+        assertSame(value2, testSubject.get("test1"));
+        verify(mockListener).onEntryRead("test1", value2);
+
+        assertTrue(testSubject.remove("test1"));
+        verify(mockListener).onEntryRemoved("test1");
+
+        assertNull(testSubject.get("test1"));
+        assertFalse(testSubject.containsKey("test1"));
+        verifyNoMoreInteractions(mockListener);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValuesAreRejected() {
+        testSubject.put("test1", null);
+    }
+
+    @Test
+    public void testSizeIsBoundedAndEvictedEntriesReportedAsExpired() {
+        for (int i = 0; i < 1000; i++) {
+            testSubject.put(i, "value" + i);
+        }
+        testSubject.cleanUp();
+
+        assertEquals(100, testSubject.size());
+        verify(mockListener, times(1000)).onEntryCreated(any(), any());
+        verify(mockListener, times(900)).onEntryExpired(any());
+    }
+
+    @Test
+    public void testFrequentlyReadEntriesSurviveScan() {
+        for (int i = 0; i < 50; i++) {
+            testSubject.put("hot" + i, i);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                testSubject.get("hot" + i);
+            }
+        }
+        for (int i = 0; i < 10_000; i++) {
+            testSubject.put("scan" + i, i);
+            if (i % 10 == 0) {
+                testSubject.get("hot" + (i / 10) % 50);
+            }
+        }
+        testSubject.cleanUp();
+
+        assertEquals(100, testSubject.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue("Expected hot entry " + i + " to be retained", testSubject.containsKey("hot" + i));
+        }
+    }
+
+    @Test
+    public void testEntriesAreBoundedByWeight() {
+        testSubject = new WindowTinyLfuCache(10, (key, value) -> ((String) value).length(), null, null, null);
+
+        testSubject.put("a", "aaaa");
+        testSubject.put("b", "bbbb");
+        testSubject.cleanUp();
+        assertEquals(2, testSubject.size());
+
+        testSubject.put("c", "cccc");
+        testSubject.cleanUp();
+        assertEquals(2, testSubject.size());
+
+        testSubject.put("d", "ddddddddddd");
+        testSubject.cleanUp();
+        assertFalse(testSubject.containsKey("d"));
+    }
+
+    @Test
+    public void testEntriesExpireAfterAccess() {
+        MutableClock clock = new MutableClock();
+        testSubject = new WindowTinyLfuCache(100, null, Duration.ofSeconds(10), null, clock);
+        testSubject.registerCacheEntryListener(mockListener);
+        testSubject.put("test1", "value1");
+        testSubject.put("test2", "value2");
+
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals("value1", testSubject.get("test1"));
+        clock.advance(Duration.ofSeconds(6));
+
+        assertTrue(testSubject.containsKey("test1"));
+        assertFalse(testSubject.containsKey("test2"));
+        testSubject.cleanUp();
+        verify(mockListener).onEntryExpired("test2");
+        assertEquals(1, testSubject.size());
+
+        clock.advance(Duration.ofSeconds(10));
+        assertNull(testSubject.get("test1"));
+        verify(mockListener).onEntryExpired("test1");
+    }
+
+    @Test
+    public void testEntriesExpireAfterWrite() {
+        MutableClock clock = new MutableClock();
+        testSubject = new WindowTinyLfuCache(100, null, null, Duration.ofSeconds(10), clock);
+        testSubject.registerCacheEntryListener(mockListener);
+        testSubject.put("test1", "value1");
+
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals("value1", testSubject.get("test1"));
+        assertTrue(testSubject.putIfAbsent("test2", "value2"));
+        clock.advance(Duration.ofSeconds(6));
+
+        testSubject.cleanUp();
+        verify(mockListener).onEntryExpired("test1");
+        assertFalse(testSubject.containsKey("test1"));
+        assertTrue(testSubject.containsKey("test2"));
+        assertTrue(testSubject.putIfAbsent("test1", "value1"));
+    }
+
+    @Test
+    public void testConcurrentAccessKeepsCacheBounded() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            executor.execute(() -> {
+                try {
+                    for (int i = 0; i < 10_000; i++) {
+                        int key = (i * 31 + offset) % 500;
+                        if (testSubject.get(key) == null) {
+                            testSubject.put(key, "value" + key);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        testSubject.cleanUp();
+
+        assertTrue(errors.isEmpty());
+        assertEquals(100, testSubject.size());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.now();
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.deadline.jdbc;
+
+import org.axonframework.common.jdbc.DataSourceConnectionProvider;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.ConfigurationScopeAwareProvider;
+import org.axonframework.deadline.AbstractDeadlineManagerTestSuite;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.messaging.ScopeAware;
+import org.axonframework.messaging.ScopeAwareProvider;
+import org.axonframework.messaging.ScopeDescriptor;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.axonframework.common.AssertUtils.assertWithin;
+import static org.junit.Assert.*;
+
+public class JdbcDeadlineManagerTest extends AbstractDeadlineManagerTestSuite {
+
+    // deadlines in this table are not triggered by the deadline manager of the test suite
+    private static final DeadlineSchema ISOLATED_SCHEMA =
+            DeadlineSchema.builder().setDeadlineTable("IsolatedDeadlineEntry").build();
+
+    private final List<JdbcDeadlineManager> deadlineManagers = new ArrayList<>();
+    private DataSourceConnectionProvider connectionProvider;
+
+    @Override
+    public DeadlineManager buildDeadlineManager(Configuration configuration) {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:deadlines");
+        connectionProvider = new DataSourceConnectionProvider(dataSource);
+        JdbcDeadlineManager deadlineManager = createDeadlineManager(
+                new ConfigurationScopeAwareProvider(configuration), "node1", new DeadlineSchema()
+        );
+        recreateSchema(deadlineManager, "DeadlineEntry");
+        deadlineManager.start();
+        return deadlineManager;
+    }
+
+    @After
+    public void shutDownDeadlineManagers() {
+        deadlineManagers.forEach(JdbcDeadlineManager::shutdown);
+    }
+
+    @Test
+    public void testDeadlinesTriggeredOnceWhenPolledByMultipleNodes() {
+        Set<String> triggered = ConcurrentHashMap.newKeySet();
+        AtomicInteger triggerCount = new AtomicInteger();
+        ScopeAware scopeAware = new ScopeAware() {
+            @Override
+            public void send(org.axonframework.messaging.Message<?> message, ScopeDescriptor scopeDescription) {
+                triggered.add((String) message.getPayload());
+                triggerCount.incrementAndGet();
+            }
+
+            @Override
+            public boolean canResolve(ScopeDescriptor scopeDescription) {
+                return true;
+            }
+        };
+        ScopeAwareProvider scopeAwareProvider = scopeDescriptor -> Stream.of(scopeAware);
+        JdbcDeadlineManager node1 = createDeadlineManager(scopeAwareProvider, "node1", ISOLATED_SCHEMA);
+        JdbcDeadlineManager node2 = createDeadlineManager(scopeAwareProvider, "node2", ISOLATED_SCHEMA);
+        recreateSchema(node1, ISOLATED_SCHEMA.deadlineTable());
+        for (int i = 0; i < 100; i++) {
+            node1.schedule(Duration.ZERO, "deadline", "payload" + i, new StubScopeDescriptor());
+        }
+        node1.start();
+        node2.start();
+
+        assertWithin(5, SECONDS, () -> assertEquals(100, triggered.size()));
+        assertEquals(100, triggerCount.get());
+    }
+
+    @Test
+    public void testCancelAllOnlyRemovesDeadlinesWithGivenName() {
+        List<String> triggered = new ArrayList<>();
+        ScopeAware scopeAware = new ScopeAware() {
+            @Override
+            public void send(org.axonframework.messaging.Message<?> message, ScopeDescriptor scopeDescription) {
+                synchronized (triggered) {
+                    triggered.add((String) message.getPayload());
+                }
+            }
+
+            @Override
+            public boolean canResolve(ScopeDescriptor scopeDescription) {
+                return true;
+            }
+        };
+        JdbcDeadlineManager testSubject =
+                createDeadlineManager(scopeDescriptor -> Stream.of(scopeAware), "node1", ISOLATED_SCHEMA);
+        recreateSchema(testSubject, ISOLATED_SCHEMA.deadlineTable());
+        testSubject.schedule(Duration.ofMillis(50), "cancelled", "payload1", new StubScopeDescriptor());
+        testSubject.schedule(Duration.ofMillis(50), "cancelled", "payload2", new StubScopeDescriptor());
+        testSubject.schedule(Duration.ofMillis(50), "kept", "payload3", new StubScopeDescriptor());
+        testSubject.cancelAll("cancelled");
+        testSubject.start();
+
+        assertWithin(1, SECONDS, () -> {
+            synchronized (triggered) {
+                assertEquals(1, triggered.size());
+                assertEquals("payload3", triggered.get(0));
+            }
+        });
+    }
+
+    @Test
+    public void testFailureToDiscardDeadlineDoesNotAbandonRestOfBatch() {
+        Set<String> triggered = ConcurrentHashMap.newKeySet();
+        ScopeAware scopeAware = new ScopeAware() {
+            @Override
+            public void send(org.axonframework.messaging.Message<?> message, ScopeDescriptor scopeDescription) {
+                triggered.add((String) message.getPayload());
+            }
+
+            @Override
+            public boolean canResolve(ScopeDescriptor scopeDescription) {
+                return true;
+            }
+        };
+        JdbcDeadlineManager testSubject = new JdbcDeadlineManager(
+                connectionProvider, scopeDescriptor -> Stream.of(scopeAware), null, null, ISOLATED_SCHEMA, "node1",
+                10, Duration.ofMillis(10), null, false, null) {
+            @Override
+            protected PreparedStatement deleteClaimedDeadline(Connection connection, String deadlineName,
+                                                              String scheduleId) throws SQLException {
+                if ("failing".equals(deadlineName)) {
+                    throw new SQLException("Mock database failure");
+                }
+                return super.deleteClaimedDeadline(connection, deadlineName, scheduleId);
+            }
+        };
+        deadlineManagers.add(testSubject);
+        recreateSchema(testSubject, ISOLATED_SCHEMA.deadlineTable());
+        testSubject.schedule(Duration.ZERO, "failing", "payload1", new StubScopeDescriptor());
+        testSubject.schedule(Duration.ofMillis(1), "kept", "payload2", new StubScopeDescriptor());
+        testSubject.schedule(Duration.ofMillis(1), "kept", "payload3", new StubScopeDescriptor());
+        testSubject.start();
+
+        assertWithin(1, SECONDS, () -> assertEquals(3, triggered.size()));
+    }
+
+    private JdbcDeadlineManager createDeadlineManager(ScopeAwareProvider scopeAwareProvider, String nodeId,
+                                                     DeadlineSchema schema) {
+        JdbcDeadlineManager deadlineManager = new JdbcDeadlineManager(connectionProvider, scopeAwareProvider, null,
+                                                                      null, schema, nodeId, 10,
+                                                                      Duration.ofMillis(10), null, false, null);
+        deadlineManagers.add(deadlineManager);
+        return deadlineManager;
+    }
+
+    private void recreateSchema(JdbcDeadlineManager deadlineManager, String table) {
+        try (Connection connection = connectionProvider.getConnection()) {
+            connection.prepareStatement("DROP TABLE IF EXISTS " + table).executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to drop deadline table", e);
+        }
+        deadlineManager.createSchema(new GenericDeadlineTableFactory());
+    }
+
+    private static class StubScopeDescriptor implements ScopeDescriptor {
+
+        @Override
+        public String scopeDescription() {
+            return "stub";
+        }
+    }
+}
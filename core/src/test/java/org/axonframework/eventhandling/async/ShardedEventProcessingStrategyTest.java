@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.async;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Collections.singletonList;
+import static org.axonframework.eventhandling.async.ShardedEventProcessingStrategy.BackpressureStrategy.*;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
+import static org.junit.Assert.*;
+
+public class ShardedEventProcessingStrategyTest {
+
+    private List<Runnable> scheduledTasks;
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        scheduledTasks = new ArrayList<>();
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testEventsOfSameSequenceProcessedInOrder() throws InterruptedException {
+        ShardedEventProcessingStrategy testSubject = new ShardedEventProcessingStrategy(
+                executorService, new SequentialPerAggregatePolicy(), 4, 1000, BLOCK
+        );
+        Map<String, List<Long>> processed = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(1000);
+        Consumer<List<? extends EventMessage<?>>> processor = events -> events.forEach(event -> {
+            String aggregateIdentifier = ((org.axonframework.eventsourcing.DomainEventMessage<?>) event)
+                    .getAggregateIdentifier();
+            long sequenceNumber = ((org.axonframework.eventsourcing.DomainEventMessage<?>) event).getSequenceNumber();
+            processed.computeIfAbsent(aggregateIdentifier, id -> new CopyOnWriteArrayList<>()).add(sequenceNumber);
+            latch.countDown();
+        });
+
+        for (int sequenceNumber = 0; sequenceNumber < 100; sequenceNumber++) {
+            for (int aggregate = 0; aggregate < 10; aggregate++) {
+                testSubject.handle(singletonList(createEvent("aggregate" + aggregate, sequenceNumber)), processor);
+            }
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(10, processed.size());
+        processed.values().forEach(sequenceNumbers -> {
+            for (int i = 0; i < sequenceNumbers.size(); i++) {
+                assertEquals(i, (long) sequenceNumbers.get(i));
+            }
+        });
+    }
+
+    @Test
+    public void testEventsScheduledWhenSurroundingUnitOfWorkCommits() {
+        ShardedEventProcessingStrategy testSubject = new ShardedEventProcessingStrategy(
+                scheduledTasks::add, new SequentialPolicy(), 1, 10, DROP
+        );
+        List<EventMessage<?>> processed = new ArrayList<>();
+
+        DefaultUnitOfWork.startAndGet(null).execute(() -> {
+            testSubject.handle(singletonList(createEvent(1)), processed::addAll);
+            testSubject.handle(singletonList(createEvent(2)), processed::addAll);
+            assertEquals(0, testSubject.getQueueDepth());
+        });
+
+        assertEquals(2, testSubject.getQueueDepth());
+        assertEquals(1, scheduledTasks.size());
+        scheduledTasks.get(0).run();
+        assertEquals(2, processed.size());
+        assertEquals(0, testSubject.getQueueDepth());
+    }
+
+    @Test
+    public void testEventsDroppedAndReportedWhenShardIsFull() {
+        List<EventMessage<?>> dropped = new ArrayList<>();
+        ShardedEventProcessingStrategy testSubject = new ShardedEventProcessingStrategy(
+                scheduledTasks::add, new SequentialPolicy(), 2, 3, DROP, dropped::add
+        );
+        List<EventMessage<?>> processed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            testSubject.handle(singletonList(createEvent(i)), processed::addAll);
+        }
+
+        assertEquals(3, testSubject.getQueueDepth());
+        assertEquals(2, testSubject.getDroppedEventCount());
+        assertEquals(2, dropped.size());
+        scheduledTasks.forEach(Runnable::run);
+        assertEquals(3, processed.size());
+    }
+
+    @Test
+    public void testCallerProcessesQueuedEventsInOrderWhenShardIsFull() {
+        ShardedEventProcessingStrategy testSubject = new ShardedEventProcessingStrategy(
+                scheduledTasks::add, new SequentialPolicy(), 1, 2, CALLER_RUNS
+        );
+        List<EventMessage<?>> processed = Collections.synchronizedList(new ArrayList<>());
+        List<EventMessage<?>> published = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            EventMessage<?> event = createEvent(i);
+            published.add(event);
+            testSubject.handle(singletonList(event), processed::addAll);
+        }
+
+        assertFalse(processed.isEmpty());
+        assertEquals(published.subList(0, processed.size()), processed);
+        assertEquals(5 - processed.size(), testSubject.getQueueDepth());
+        assertTrue(testSubject.getQueueDepth() <= 2);
+        scheduledTasks.forEach(Runnable::run);
+        assertEquals(published, processed);
+        assertEquals(0, testSubject.getDroppedEventCount());
+    }
+
+    @Test
+    public void testPublisherBlockedUntilShardHasCapacity() throws InterruptedException {
+        ShardedEventProcessingStrategy testSubject = new ShardedEventProcessingStrategy(
+                scheduledTasks::add, new SequentialPolicy(), 1, 1, BLOCK
+        );
+        List<EventMessage<?>> processed = new CopyOnWriteArrayList<>();
+        testSubject.handle(singletonList(createEvent(1)), processed::addAll);
+        CountDownLatch published = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            testSubject.handle(singletonList(createEvent(2)), processed::addAll);
+            published.countDown();
+        });
+        publisher.start();
+
+        assertFalse(published.await(100, TimeUnit.MILLISECONDS));
+        scheduledTasks.get(0).run();
+        assertTrue(published.await(1, TimeUnit.SECONDS));
+        // the second event is either processed by the running task already, or waiting in the queue
+        assertEquals(2, processed.size() + testSubject.getQueueDepth(0));
+    }
+}
@@ -21,10 +21,13 @@
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -76,6 +79,24 @@ public void testRemoveItems() {
         assertEquals("Wrong item count", 0, testSubject.size());
     }
 
+    @Test
+    public void testSagasOfSameAssociationValueAddedAndRemoved() {
+        testSubject.add(av("a"), "T", "1");
+        testSubject.add(av("a"), "T", "2");
+        testSubject.add(av("a"), "T", "2");
+        assertEquals(2, testSubject.size());
+        assertEquals(new HashSet<>(Arrays.asList("1", "2")), testSubject.findSagas("T", av("a")));
+        assertTrue(testSubject.findSagas("Y", av("a")).isEmpty());
+
+        testSubject.remove(av("a"), "T", "1");
+        testSubject.remove(av("a"), "T", "3");
+        assertEquals(singleton("2"), testSubject.findSagas("T", av("a")));
+        testSubject.remove(av("a"), "T", "2");
+        assertTrue(testSubject.findSagas("T", av("a")).isEmpty());
+        assertTrue(testSubject.isEmpty());
+        assertEquals(0, testSubject.size());
+    }
+
     private AssociationValue av(String value) {
         return new AssociationValue("key", value);
     }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.saga.repository.inmemory;
+
+import org.axonframework.eventhandling.saga.AssociationValue;
+import org.axonframework.eventhandling.saga.AssociationValuesImpl;
+import org.axonframework.eventhandling.saga.repository.StubSaga;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.*;
+
+public class InMemorySagaStoreTest {
+
+    private final AssociationValue associationValue = new AssociationValue("key", "value");
+    private InMemorySagaStore testSubject;
+
+    @Before
+    public void setUp() {
+        testSubject = new InMemorySagaStore();
+    }
+
+    @Test
+    public void testFindSagasByAssociationValue() {
+        testSubject.insertSaga(StubSaga.class, "saga1", new StubSaga(), null, singleton(associationValue));
+        testSubject.insertSaga(StubSaga.class, "saga2", new StubSaga(), null, singleton(associationValue));
+        testSubject.insertSaga(StubSaga.class, "saga3", new StubSaga(), null,
+                               singleton(new AssociationValue("key", "other")));
+
+        assertEquals(new HashSet<>(Arrays.asList("saga1", "saga2")),
+                     testSubject.findSagas(StubSaga.class, associationValue));
+        assertEquals(emptySet(), testSubject.findSagas(String.class, associationValue));
+        assertEquals(3, testSubject.size());
+    }
+
+    @Test
+    public void testFindSagasIncludesInstancesOfSubclasses() {
+        testSubject.insertSaga(StubSaga.class, "saga1", new StubSaga(), null, singleton(associationValue));
+        testSubject.insertSaga(StubSaga.class, "saga2", new StubSaga() {}, null, singleton(associationValue));
+
+        assertEquals(new HashSet<>(Arrays.asList("saga1", "saga2")),
+                     testSubject.findSagas(StubSaga.class, associationValue));
+        assertEquals(new HashSet<>(Arrays.asList("saga1", "saga2")),
+                     testSubject.findSagas(Object.class, associationValue));
+    }
+
+    @Test
+    public void testUpdatedAssociationsAreIndexed() {
+        AssociationValuesImpl associationValues = new AssociationValuesImpl(singleton(associationValue));
+        StubSaga saga = new StubSaga();
+        testSubject.insertSaga(StubSaga.class, "saga1", saga, null, associationValues.asSet());
+
+        AssociationValue newAssociationValue = new AssociationValue("key", "new");
+        associationValues.remove(associationValue);
+        associationValues.add(newAssociationValue);
+        testSubject.updateSaga(StubSaga.class, "saga1", saga, null, associationValues);
+
+        assertEquals(emptySet(), testSubject.findSagas(StubSaga.class, associationValue));
+        assertEquals(singleton("saga1"), testSubject.findSagas(StubSaga.class, newAssociationValue));
+    }
+
+    @Test
+    public void testDeletedSagaIsNoLongerFound() {
+        testSubject.insertSaga(StubSaga.class, "saga1", new StubSaga(), null, singleton(associationValue));
+
+        testSubject.deleteSaga(StubSaga.class, "saga1", singleton(associationValue));
+
+        assertEquals(emptySet(), testSubject.findSagas(StubSaga.class, associationValue));
+        assertNull(testSubject.loadSaga(StubSaga.class, "saga1"));
+        assertEquals(0, testSubject.size());
+    }
+}
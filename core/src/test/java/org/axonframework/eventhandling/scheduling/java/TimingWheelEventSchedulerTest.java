@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.scheduling.java;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.DirectExecutor;
+import org.axonframework.common.HashedWheelTimer;
+import org.axonframework.eventhandling.EventBus;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.scheduling.ScheduleToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TimingWheelEventSchedulerTest {
+
+    private TimingWheelEventScheduler testSubject;
+    private EventBus eventBus;
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        eventBus = mock(EventBus.class);
+        timer = new HashedWheelTimer(new AxonThreadFactory("timer"), 10, TimeUnit.MILLISECONDS, 64,
+                                     DirectExecutor.INSTANCE);
+        testSubject = new TimingWheelEventScheduler(timer, eventBus);
+    }
+
+    @After
+    public void tearDown() {
+        timer.shutdown();
+    }
+
+    @Test
+    public void testScheduleJob() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(eventBus).publish(isA(EventMessage.class));
+        testSubject.schedule(Duration.ofMillis(30), new Object());
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        verify(eventBus).publish(isA(EventMessage.class));
+    }
+
+    @Test
+    public void testCancelJob() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(eventBus).publish(isA(EventMessage.class));
+        EventMessage<Object> event1 = createEvent();
+        final EventMessage<Object> event2 = createEvent();
+        ScheduleToken token1 = testSubject.schedule(Duration.ofMillis(100), event1);
+        testSubject.schedule(Duration.ofMillis(120), event2);
+        testSubject.cancelSchedule(token1);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        verify(eventBus, never()).publish(event1);
+        verify(eventBus).publish(argThat((ArgumentMatcher<EventMessage>) item -> (item != null)
+                && event2.getPayload().equals(item.getPayload())
+                && event2.getMetaData().equals(item.getMetaData())));
+        assertEquals(0, timer.pendingTasks());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCancelForeignTokenRejected() {
+        testSubject.cancelSchedule(mock(ScheduleToken.class));
+    }
+
+    private EventMessage<Object> createEvent() {
+        return new GenericEventMessage<>(new Object());
+    }
+}
@@ -24,11 +24,15 @@
 import org.axonframework.common.MockException;
 import org.axonframework.common.caching.Cache;
 import org.axonframework.common.caching.EhCacheAdapter;
+import org.axonframework.common.caching.WeakReferenceCache;
+import org.axonframework.common.lock.PessimisticLockFactory;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventsourcing.eventstore.DomainEventStream;
 import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.annotation.ClasspathHandlerDefinition;
+import org.axonframework.messaging.annotation.ClasspathParameterResolverFactory;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
@@ -154,6 +158,68 @@ public void testCacheClearedAfterRollbackOfAddedAggregate() throws Exception {
         assertNull(cache.get("id1"));
     }
 
+    @Test
+    public void testLiveAggregatesCachedOnceAndReused() throws Exception {
+        Cache liveCache = spy(new WeakReferenceCache());
+        testSubject = liveAggregateRepository(liveCache);
+
+        startAndGetUnitOfWork();
+        LockAwareAggregate<StubAggregate, EventSourcedAggregate<StubAggregate>> aggregate1 =
+                testSubject.newInstance(() -> new StubAggregate("aggregateId"));
+        aggregate1.execute(StubAggregate::doSomething);
+        CurrentUnitOfWork.commit();
+
+        for (int i = 0; i < 3; i++) {
+            startAndGetUnitOfWork();
+            LockAwareAggregate<StubAggregate, EventSourcedAggregate<StubAggregate>> reloaded =
+                    testSubject.load("aggregateId", null);
+            assertSame(aggregate1.getWrappedAggregate(), reloaded.getWrappedAggregate());
+            reloaded.execute(StubAggregate::doSomething);
+            CurrentUnitOfWork.commit();
+        }
+
+        verify(liveCache, times(1)).put(eq("aggregateId"), any());
+        assertEquals(3L, (long) aggregate1.version());
+    }
+
+    @Test
+    public void testLiveAggregateLoadedFromEventStoreIsCachedAndInvalidatedOnRollback() throws Exception {
+        Cache liveCache = new WeakReferenceCache();
+        testSubject = liveAggregateRepository(liveCache);
+
+        startAndGetUnitOfWork();
+        testSubject.newInstance(() -> new StubAggregate("aggregateId")).execute(StubAggregate::doSomething);
+        CurrentUnitOfWork.commit();
+        liveCache.remove("aggregateId");
+
+        startAndGetUnitOfWork();
+        LockAwareAggregate<StubAggregate, EventSourcedAggregate<StubAggregate>> loaded =
+                testSubject.load("aggregateId", null);
+        assertNotNull(liveCache.get("aggregateId"));
+        CurrentUnitOfWork.commit();
+
+        UnitOfWork<?> uow = startAndGetUnitOfWork();
+        assertSame(loaded.getWrappedAggregate(), testSubject.load("aggregateId", null).getWrappedAggregate());
+        testSubject.load("aggregateId", null).execute(StubAggregate::doSomething);
+        uow.rollback();
+
+        assertNull(liveCache.get("aggregateId"));
+        startAndGetUnitOfWork();
+        LockAwareAggregate<StubAggregate, EventSourcedAggregate<StubAggregate>> reloaded =
+                testSubject.load("aggregateId", null);
+        assertNotSame(loaded.getWrappedAggregate(), reloaded.getWrappedAggregate());
+        assertEquals(0L, (long) reloaded.version());
+        CurrentUnitOfWork.commit();
+    }
+
+    private CachingEventSourcingRepository<StubAggregate> liveAggregateRepository(Cache liveCache) {
+        return new CachingEventSourcingRepository<>(new StubAggregateFactory(), mockEventStore,
+                                                    new PessimisticLockFactory(), liveCache,
+                                                    ClasspathParameterResolverFactory.forClass(StubAggregate.class),
+                                                    ClasspathHandlerDefinition.forClass(StubAggregate.class),
+                                                    NoSnapshotTriggerDefinition.INSTANCE, null, true);
+    }
+
     private UnitOfWork<?> startAndGetUnitOfWork() {
         return DefaultUnitOfWork.startAndGet(null);
     }
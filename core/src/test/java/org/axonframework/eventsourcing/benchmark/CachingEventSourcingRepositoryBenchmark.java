@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.benchmark;
+
+import org.axonframework.commandhandling.StubAggregate;
+import org.axonframework.common.caching.WeakReferenceCache;
+import org.axonframework.common.lock.PessimisticLockFactory;
+import org.axonframework.eventsourcing.CachingEventSourcingRepository;
+import org.axonframework.eventsourcing.GenericAggregateFactory;
+import org.axonframework.eventsourcing.NoSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.annotation.ClasspathHandlerDefinition;
+import org.axonframework.messaging.annotation.ClasspathParameterResolverFactory;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading, changing and saving a cached aggregate with the {@link CachingEventSourcingRepository} storing a
+ * new cache entry on every save, to caching live aggregates. Run with {@code -prof gc} to compare the allocation rate
+ * of both modes.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class CachingEventSourcingRepositoryBenchmark {
+
+    private static final String AGGREGATE_IDENTIFIER = "aggregateId";
+
+    @Param({"false", "true"})
+    private boolean cacheLiveAggregates;
+
+    private EmbeddedEventStore eventStore;
+    private CachingEventSourcingRepository<StubAggregate> repository;
+
+    @Setup(Level.Iteration)
+    public void createRepository() throws Exception {
+        eventStore = new EmbeddedEventStore(new InMemoryEventStorageEngine());
+        repository = new CachingEventSourcingRepository<>(new GenericAggregateFactory<>(StubAggregate.class),
+                                                          eventStore,
+                                                          new PessimisticLockFactory(),
+                                                          new WeakReferenceCache(),
+                                                          ClasspathParameterResolverFactory
+                                                                  .forClass(StubAggregate.class),
+                                                          ClasspathHandlerDefinition.forClass(StubAggregate.class),
+                                                          NoSnapshotTriggerDefinition.INSTANCE,
+                                                          null,
+                                                          cacheLiveAggregates);
+        DefaultUnitOfWork.startAndGet(null).execute(() -> {
+            try {
+                repository.newInstance(() -> new StubAggregate(AGGREGATE_IDENTIFIER));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @TearDown(Level.Iteration)
+    public void shutDownEventStore() {
+        eventStore.shutDown();
+    }
+
+    @Benchmark
+    public void loadAndSaveCachedAggregate() {
+        DefaultUnitOfWork.startAndGet(null).execute(
+                () -> repository.load(AGGREGATE_IDENTIFIER).execute(StubAggregate::doSomething)
+        );
+    }
+
+    // Convenience main entry-point
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + CachingEventSourcingRepositoryBenchmark.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.inmemory;
+
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngineTest;
+import org.axonframework.eventsourcing.eventstore.GlobalSequenceTrackingToken;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singletonList;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PartitionedInMemoryEventStorageEngineTest extends EventStorageEngineTest {
+
+    private PartitionedInMemoryEventStorageEngine testSubject;
+
+    @Before
+    public void setUp() {
+        testSubject = new PartitionedInMemoryEventStorageEngine();
+        setTestSubject(testSubject);
+    }
+
+    @Test
+    public void testReadEventsOfAggregateFromSequenceNumber() {
+        for (int i = 0; i < 10_000; i++) {
+            testSubject.appendEvents(createEvent("aggregate" + (i % 10), i / 10));
+        }
+
+        DomainEventStream stream = testSubject.readEvents("aggregate3", 995);
+        List<Long> sequenceNumbers = new ArrayList<>();
+        while (stream.hasNext()) {
+            DomainEventMessage<?> event = stream.next();
+            assertEquals("aggregate3", event.getAggregateIdentifier());
+            sequenceNumbers.add(event.getSequenceNumber());
+        }
+        assertEquals(5, sequenceNumbers.size());
+        assertEquals(Long.valueOf(995), sequenceNumbers.get(0));
+        assertEquals(Long.valueOf(999), stream.getLastSequenceNumber());
+    }
+
+    @Test
+    public void testEventsOfAggregateAreOrderedBySequenceNumber() {
+        testSubject.appendEvents(createEvent(0), createEvent(2), createEvent(1));
+
+        List<Long> sequenceNumbers = testSubject.readEvents("aggregate").asStream()
+                                                .map(DomainEventMessage::getSequenceNumber)
+                                                .collect(Collectors.toList());
+        assertEquals(3, sequenceNumbers.size());
+        assertEquals(Long.valueOf(1), sequenceNumbers.get(1));
+    }
+
+    @Test
+    public void testConcurrentAppendsProduceGaplessTrackingStream() throws InterruptedException {
+        int threadCount = 8;
+        int eventsPerThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threadCount; t++) {
+            String aggregateId = "aggregate" + t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < eventsPerThread; i++) {
+                    testSubject.appendEvents(createEvent(aggregateId, i));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<? extends TrackedEventMessage<?>> events =
+                testSubject.readEvents(null, false).collect(Collectors.toList());
+        assertEquals(threadCount * eventsPerThread, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(new GlobalSequenceTrackingToken(i), events.get(i).trackingToken());
+        }
+        for (int t = 0; t < threadCount; t++) {
+            assertEquals(Long.valueOf(eventsPerThread - 1),
+                         testSubject.readEvents("aggregate" + t).asStream()
+                                    .reduce((first, second) -> second)
+                                    .map(DomainEventMessage::getSequenceNumber)
+                                    .orElse(null));
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testFailedAppendDoesNotBlockSubsequentAppends() {
+        DomainEventMessage<?> failingEvent = mock(DomainEventMessage.class);
+        when(failingEvent.getAggregateIdentifier()).thenThrow(new IllegalStateException("mock"));
+        try {
+            testSubject.appendEvents(createEvent(0), failingEvent);
+            fail("expected exception");
+        } catch (IllegalStateException e) {
+            //expected
+        }
+
+        testSubject.appendEvents(createEvent(1));
+
+        List<? extends TrackedEventMessage<?>> events =
+                testSubject.readEvents(null, false).collect(Collectors.toList());
+        assertEquals(1, events.size());
+        assertEquals(new GlobalSequenceTrackingToken(2), events.get(0).trackingToken());
+        assertEquals(1, testSubject.readEvents("aggregate").asStream().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerializingEngineUpcastsAndDeserializesEvents() {
+        EventUpcaster upcaster = mock(EventUpcaster.class);
+        when(upcaster.upcast(any())).thenAnswer(i -> i.getArguments()[0]);
+        PartitionedInMemoryEventStorageEngine serializingEngine =
+                new PartitionedInMemoryEventStorageEngine(new XStreamSerializer(), upcaster);
+        DomainEventMessage<String> event =
+                createEvent(0).andMetaData(MetaData.with("key", "value"));
+
+        serializingEngine.appendEvents(event, createEvent(1));
+        serializingEngine.storeSnapshot(createEvent(1));
+
+        List<? extends DomainEventMessage<?>> events =
+                serializingEngine.readEvents("aggregate").asStream().collect(Collectors.toList());
+        assertEquals(2, events.size());
+        assertEquals(event.getIdentifier(), events.get(0).getIdentifier());
+        assertEquals(event.getPayload(), events.get(0).getPayload());
+        assertEquals("value", events.get(0).getMetaData().get("key"));
+        assertEquals(event.getTimestamp(), events.get(0).getTimestamp());
+
+        TrackedEventMessage<?> tracked = serializingEngine.readEvents(null, false).findFirst().orElse(null);
+        assertNotNull(tracked);
+        assertEquals(new GlobalSequenceTrackingToken(0), tracked.trackingToken());
+        assertEquals(1L, serializingEngine.readSnapshot("aggregate").map(DomainEventMessage::getSequenceNumber)
+                                          .orElse(-1L).longValue());
+        verify(upcaster, atLeast(3)).upcast(any());
+    }
+
+    @Test
+    public void testSerializingEngineStoresApplicationEvents() {
+        PartitionedInMemoryEventStorageEngine serializingEngine =
+                new PartitionedInMemoryEventStorageEngine(new XStreamSerializer(), null);
+        serializingEngine.appendEvents(singletonList(
+                new GenericEventMessage<>("application event")
+        ));
+
+        assertEquals("application event",
+                     serializingEngine.readEvents(null, false).findFirst().map(TrackedEventMessage::getPayload)
+                                      .orElse(null));
+    }
+}
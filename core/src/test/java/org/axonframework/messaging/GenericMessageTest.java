@@ -59,4 +59,11 @@ public void testCorrelationDataAddedToNewMessage() {
         assertEquals(newMetaData.mergedWith(correlationData),
                      new GenericMessage<>(new Object(), newMetaData).getMetaData());
     }
+
+    @Test
+    public void testMessageCreatedWithNullMetaDataContainsCorrelationData() {
+        GenericMessage<Object> message = new GenericMessage<>(new Object(), null);
+
+        assertEquals(correlationData, new HashMap<>(message.getMetaData()));
+    }
 }
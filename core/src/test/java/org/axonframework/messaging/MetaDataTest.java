@@ -17,7 +17,17 @@
 
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
 
 public class MetaDataTest {
 
@@ -30,4 +40,117 @@ public void testAddNullValueToMetaData() {
         assertEquals(null, metaData.get("nullkey"));
         assertEquals("value", metaData.get("otherkey"));
     }
+
+    @Test
+    public void testMetaDataWithManyEntriesBehavesLikeHashMap() {
+        Map<String, Object> expected = new HashMap<>();
+        MetaData metaData = MetaData.emptyInstance();
+        for (int i = 0; i < 200; i++) {
+            expected.put("key" + i, i);
+            metaData = metaData.and("key" + i, i);
+        }
+        expected.put(null, "nullKey");
+        metaData = metaData.and(null, "nullKey").and("key5", "replaced");
+        expected.put("key5", "replaced");
+
+        assertEquals(expected, metaData);
+        assertEquals(metaData, expected);
+        assertEquals(expected.hashCode(), metaData.hashCode());
+        assertEquals(expected.keySet(), metaData.keySet());
+        assertEquals("nullKey", metaData.get(null));
+        assertTrue(metaData.containsValue("replaced"));
+        assertFalse(metaData.containsKey("key200"));
+    }
+
+    @Test
+    public void testKeysWithCollidingHashCodes() {
+        // "Aa" and "BB" have the same hash code
+        MetaData metaData = MetaData.emptyInstance();
+        for (int i = 0; i < 20; i++) {
+            metaData = metaData.and("Aa" + i, "first").and("BB" + i, "second");
+        }
+        metaData = metaData.and("AaAa", 1).and("BBBB", 2).and("AaBB", 3).and("BBAa", 4);
+
+        assertEquals(44, metaData.size());
+        assertEquals("first", metaData.get("Aa7"));
+        assertEquals("second", metaData.get("BB7"));
+        assertEquals(3, metaData.get("AaBB"));
+        assertEquals(4, metaData.get("BBAa"));
+        MetaData modified = metaData.and("BBAa", 5);
+        assertEquals(4, metaData.get("BBAa"));
+        assertEquals(5, modified.get("BBAa"));
+        assertEquals(43, metaData.withoutKeys(new HashSet<>(Arrays.asList("AaAa", "unknown"))).size());
+    }
+
+    @Test
+    public void testRemovingEntriesFromManyEntriesBehavesLikeHashMap() {
+        Map<String, Object> expected = new HashMap<>();
+        MetaData metaData = MetaData.with(null, "nullKey");
+        expected.put(null, "nullKey");
+        for (int i = 0; i < 100; i++) {
+            expected.put("Aa" + i, i);
+            expected.put("BB" + i, i);
+            metaData = metaData.and("Aa" + i, i).and("BB" + i, i);
+        }
+        MetaData original = metaData;
+
+        for (int i = 0; i < 100; i += 3) {
+            Set<String> keys = new HashSet<>(Arrays.asList("Aa" + i, "BB" + (i + 1), "unknown"));
+            expected.keySet().removeAll(keys);
+            metaData = metaData.withoutKeys(keys);
+            assertEquals(expected, metaData);
+            assertEquals(expected.hashCode(), metaData.hashCode());
+        }
+        assertEquals(201, original.size());
+
+        Set<String> allButThree = new HashSet<>(expected.keySet());
+        allButThree.removeAll(Arrays.asList("Aa2", "BB2", null));
+        MetaData small = metaData.withoutKeys(allButThree);
+        assertEquals(MetaData.with("Aa2", 2).and("BB2", 2).and(null, "nullKey"), small);
+        assertEquals(MetaData.with("Aa2", 2), small.withoutKeys(new HashSet<>(Arrays.asList("BB2", null))));
+        assertTrue(small.withoutKeys(new HashSet<>(Arrays.asList("Aa2", "BB2", null))).isEmpty());
+    }
+
+    @Test
+    public void testModificationsDoNotAffectOriginal() {
+        MetaData original = MetaData.with("a", 1).and("b", 2);
+        MetaData merged = original.mergedWith(MetaData.with("b", 3).and("c", 4));
+        MetaData reduced = merged.withoutKeys(new HashSet<>(Arrays.asList("a", "c")));
+
+        assertEquals(2, original.size());
+        assertEquals(2, original.get("b"));
+        assertEquals(3, merged.size());
+        assertEquals(3, merged.get("b"));
+        assertEquals(MetaData.with("b", 3), reduced);
+        assertSame(original, original.and("a", 1));
+        assertSame(original, original.withoutKeys(new HashSet<>(Arrays.asList("x", "y"))));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntrySetIsUnmodifiable() {
+        MetaData.with("a", 1).entrySet().iterator().next().setValue(2);
+    }
+
+    @Test
+    public void testJavaSerialization() throws Exception {
+        MetaData small = MetaData.with("a", 1).and("b", null);
+        MetaData large = MetaData.emptyInstance();
+        for (int i = 0; i < 50; i++) {
+            large = large.and("key" + i, "value" + i);
+        }
+
+        assertEquals(small, serializeAndDeserialize(small));
+        assertEquals(large, serializeAndDeserialize(large));
+        assertSame(MetaData.emptyInstance(), serializeAndDeserialize(MetaData.emptyInstance()));
+    }
+
+    private static Object serializeAndDeserialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
 }
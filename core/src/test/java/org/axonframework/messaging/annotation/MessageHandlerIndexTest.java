@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging.annotation;
+
+import org.axonframework.eventhandling.EventHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MessageHandlerIndexTest {
+
+    private MessageHandlerIndex testSubject;
+
+    @Before
+    public void setUp() {
+        testSubject = MessageHandlerIndex.forClass(IndexedHandler.class);
+    }
+
+    @Test
+    public void testOnlyIndexedExecutablesOfIndexedClassMayBeHandlers() throws Exception {
+        assertTrue(testSubject.mayBeMessageHandler(IndexedHandler.class.getDeclaredMethod("handle", String.class)));
+        assertTrue(testSubject.mayBeMessageHandler(IndexedHandler.class.getDeclaredConstructor(Integer.class)));
+
+        assertFalse(testSubject.mayBeMessageHandler(IndexedHandler.class.getDeclaredMethod("handle", Long.class)));
+        assertFalse(testSubject.mayBeMessageHandler(IndexedHandler.class.getDeclaredMethod("notAHandler",
+                                                                                           String.class)));
+        assertFalse(testSubject.mayBeMessageHandler(IndexedHandler.class.getDeclaredConstructor()));
+    }
+
+    @Test
+    public void testAllExecutablesOfUnindexedClassMayBeHandlers() throws Exception {
+        assertTrue(testSubject.mayBeMessageHandler(UnindexedHandler.class.getDeclaredMethod("handle", Long.class)));
+        assertTrue(testSubject.mayBeMessageHandler(UnindexedHandler.class.getDeclaredMethod("notAHandler",
+                                                                                            String.class)));
+    }
+
+    @Test
+    public void testInspectorOnlyDetectsIndexedHandlersOfIndexedClass() {
+        List<MessageHandlingMember<? super IndexedHandler>> handlers =
+                AnnotatedHandlerInspector.inspectType(IndexedHandler.class).getHandlers();
+
+        assertEquals(1, handlers.size());
+        assertEquals(String.class, handlers.get(0).payloadType());
+    }
+
+    @Test
+    public void testInspectorDetectsAllHandlersOfUnindexedClass() {
+        assertEquals(2, AnnotatedHandlerInspector.inspectType(UnindexedHandler.class).getHandlers().size());
+    }
+
+    @SuppressWarnings("unused")
+    private static class IndexedHandler {
+
+        public IndexedHandler() {
+        }
+
+        public IndexedHandler(Integer value) {
+        }
+
+        @EventHandler
+        public void handle(String event) {
+        }
+
+        // the index claims this method isn't a handler, so it will not be inspected
+        @EventHandler
+        public void handle(Long event) {
+        }
+
+        public void notAHandler(String value) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class UnindexedHandler {
+
+        @EventHandler
+        public void handle(String event) {
+        }
+
+        @EventHandler
+        public void handle(Long event) {
+        }
+
+        public void notAHandler(String value) {
+        }
+    }
+}
@@ -20,6 +20,8 @@
 import org.axonframework.common.transaction.Transaction;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.MetaData;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,7 +32,9 @@
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -182,6 +186,37 @@ public void unitOfWorkIsRolledBackWhenTransactionFailsToStart() {
     }
 
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCorrelationDataIsComputedOncePerMessage() {
+        AtomicInteger invocations = new AtomicInteger();
+        UnitOfWork<Message<?>> unitOfWork = (UnitOfWork<Message<?>>) subject;
+        unitOfWork.registerCorrelationDataProvider(m -> {
+            invocations.incrementAndGet();
+            return singletonMap("id", m.getIdentifier());
+        });
+
+        MetaData first = unitOfWork.getCorrelationData();
+        assertSame(first, unitOfWork.getCorrelationData());
+        assertEquals(1, invocations.get());
+
+        unitOfWork.transformMessage(m -> m.andMetaData(singletonMap("other", "value")));
+        assertNotSame(first, unitOfWork.getCorrelationData());
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    public void testCorrelationDataIsRecomputedWhenProvidersChange() {
+        subject.registerCorrelationDataProvider(m -> singletonMap("first", "value"));
+        MetaData first = subject.getCorrelationData();
+        assertEquals(singletonMap("first", "value"), first);
+
+        subject.registerCorrelationDataProvider(m -> singletonMap("second", "value"));
+        MetaData second = subject.getCorrelationData();
+        assertEquals(2, second.size());
+        assertSame(second, subject.getCorrelationData());
+    }
+
     private static class PhaseTransition {
 
         private final UnitOfWork.Phase phase;
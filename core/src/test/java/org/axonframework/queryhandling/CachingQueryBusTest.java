@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling;
+
+import org.axonframework.common.caching.WindowTinyLfuCache;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.queryhandling.responsetypes.ResponseTypes;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.Assert.*;
+
+public class CachingQueryBusTest {
+
+    private AtomicInteger invocationCount;
+    private CachingQueryBus testSubject;
+
+    @Before
+    public void setUp() {
+        invocationCount = new AtomicInteger();
+        testSubject = new CachingQueryBus(new SimpleQueryBus(), new WindowTinyLfuCache(100));
+        testSubject.subscribe("echo", String.class, query -> {
+            invocationCount.incrementAndGet();
+            if ("fail".equals(query.getPayload())) {
+                throw new IllegalArgumentException("Faking failure");
+            }
+            return query.getPayload().toString() + invocationCount.get();
+        });
+    }
+
+    @Test
+    public void testRepeatedQueryIsServedFromCache() throws Exception {
+        assertEquals("hello1", query("hello"));
+        assertEquals("hello1", query("hello"));
+        assertEquals("other2", query("other"));
+
+        assertEquals(2, invocationCount.get());
+    }
+
+    @Test
+    public void testFailedQueryIsNotCached() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                query("fail");
+                fail("Expected query to fail");
+            } catch (Exception e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        }
+        assertEquals(2, invocationCount.get());
+    }
+
+    @Test
+    public void testEmittedUpdateInvalidatesMatchingQueries() throws Exception {
+        query("hello");
+        query("other");
+
+        testSubject.emit(String.class, "hello"::equals, "update");
+
+        assertEquals("hello3", query("hello"));
+        assertEquals("other2", query("other"));
+        assertEquals(3, invocationCount.get());
+    }
+
+    @Test
+    public void testUpdateEmittedInUnitOfWorkInvalidatesAgainAfterCommit() throws Exception {
+        UnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(asEventMessage("event"));
+        testSubject.emit(String.class, "hello"::equals, "update");
+
+        // a query executed before the update is committed may return stale data
+        assertEquals("hello1", query("hello"));
+        assertEquals("hello1", query("hello"));
+
+        unitOfWork.commit();
+
+        assertEquals("hello2", query("hello"));
+    }
+
+    @Test
+    public void testStreamingQueriesAreNotCached() throws Exception {
+        testSubject.subscribe("stream", String[].class, query -> new String[]{"a", "b"});
+        GenericQueryMessage<String, ?> query =
+                new GenericQueryMessage<>("hello", "stream", ResponseTypes.streamOf(String.class));
+
+        assertNotSame(testSubject.query(query).get().getPayload(), testSubject.query(query).get().getPayload());
+    }
+
+    @Test
+    public void testResponseIsNotCachedWhenInvalidatedWhileBeingCached() throws Exception {
+        AtomicBoolean invalidateOnPut = new AtomicBoolean(true);
+        testSubject = new CachingQueryBus(new SimpleQueryBus(), new WindowTinyLfuCache(100) {
+            @Override
+            public <K, V> void put(K key, V value) {
+                if (invalidateOnPut.getAndSet(false)) {
+                    testSubject.invalidate(query -> true);
+                }
+                super.put(key, value);
+            }
+        });
+        testSubject.subscribe("echo", String.class, query -> query.getPayload().toString() + invocationCount.incrementAndGet());
+
+        assertEquals("hello1", query("hello"));
+        assertEquals("hello2", query("hello"));
+        assertEquals("hello2", query("hello"));
+    }
+
+    private String query(String payload) throws ExecutionException, InterruptedException {
+        return testSubject.query(new GenericQueryMessage<>(payload, "echo", ResponseTypes.instanceOf(String.class)))
+                          .get()
+                          .getPayload();
+    }
+}
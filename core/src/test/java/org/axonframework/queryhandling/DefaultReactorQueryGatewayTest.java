@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling;
+
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.axonframework.queryhandling.responsetypes.ResponseTypes;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.*;
+
+public class DefaultReactorQueryGatewayTest {
+
+    private QueryBus mockBus;
+    private DefaultReactorQueryGateway testSubject;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        MessageDispatchInterceptor<QueryMessage<?, ?>> mockDispatchInterceptor = mock(MessageDispatchInterceptor.class);
+        when(mockDispatchInterceptor.handle(isA(QueryMessage.class))).thenAnswer(i -> i.getArguments()[0]);
+        mockBus = mock(QueryBus.class);
+        testSubject = new DefaultReactorQueryGateway(mockBus, mockDispatchInterceptor);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testQueryIsSentOnSubscription() {
+        when(mockBus.query(isA(QueryMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(new GenericQueryResponseMessage<>("answer")));
+
+        Mono<String> result = testSubject.query("query", String.class);
+        verify(mockBus, never()).query(any());
+
+        StepVerifier.create(result).expectNext("answer").verifyComplete();
+        verify(mockBus).query(argThat(q -> "query".equals(q.getPayload())));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testNullResultCompletesEmpty() {
+        when(mockBus.query(isA(QueryMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(new GenericQueryResponseMessage<>(String.class, (String) null)));
+
+        StepVerifier.create(testSubject.query("query", String.class)).verifyComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testScatterGatherEmitsResultsOfAllSources() {
+        when(mockBus.scatterGather(isA(QueryMessage.class), anyLong(), any()))
+                .thenReturn(Stream.of(new GenericQueryResponseMessage<>("first"),
+                                      new GenericQueryResponseMessage<>("second")));
+
+        StepVerifier.create(testSubject.scatterGather("query", ResponseTypes.instanceOf(String.class),
+                                                      1, TimeUnit.SECONDS))
+                    .expectNext("first", "second")
+                    .verifyComplete();
+        verify(mockBus).scatterGather(isA(QueryMessage.class), eq(1L), eq(TimeUnit.SECONDS));
+    }
+}
@@ -30,6 +30,7 @@
 import org.axonframework.queryhandling.responsetypes.ResponseTypes;
 import org.junit.Before;
 import org.junit.Test;
+import reactor.core.publisher.Flux;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -37,6 +38,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toSet;
@@ -113,6 +115,23 @@ public void testSubscribingSameHandlerTwiceInvokedOnce() throws Exception {
      * This test ensures that the QueryResponseMessage is created inside the scope of the Unit of Work, and therefore
      * contains the correlation data registered with the Unit of Work
      */
+    @Test
+    public void testResolvedHandlersReflectSubscriptionChanges() throws Exception {
+        QueryMessage<String, String> testQueryMessage = new GenericQueryMessage<>("hello", singleStringResponse);
+        Registration first = testSubject.subscribe(String.class.getName(), String.class, q -> "first");
+        assertEquals("first", testSubject.query(testQueryMessage).get().getPayload());
+
+        first.cancel();
+        assertTrue(testSubject.query(testQueryMessage).isCompletedExceptionally());
+
+        testSubject.subscribe(String.class.getName(), String.class, q -> "second");
+        assertEquals("second", testSubject.query(testQueryMessage).get().getPayload());
+        assertEquals(1, testSubject.scatterGather(testQueryMessage, 1, TimeUnit.SECONDS).count());
+
+        testSubject.subscribe(String.class.getName(), String.class, q -> "third");
+        assertEquals(2, testSubject.scatterGather(testQueryMessage, 1, TimeUnit.SECONDS).count());
+    }
+
     @Test
     public void testQueryResultContainsCorrelationData() throws Exception {
         testSubject.subscribe(String.class.getName(), String.class, (q) -> q.getPayload() + "1234");
@@ -174,6 +193,29 @@ public List<String> stringListQueryHandler() {
         return new ArrayList<>();
     }
 
+    @Test
+    public void testStreamingQueryProducesResultsOnDemand() throws Exception {
+        AtomicInteger produced = new AtomicInteger();
+        testSubject.subscribe(String.class.getName(),
+                              methodOf(this.getClass(), "stringStreamQueryHandler").getGenericReturnType(),
+                              q -> Stream.iterate(0, i -> i + 1)
+                                         .peek(i -> produced.incrementAndGet())
+                                         .map(i -> q.getPayload().toString() + i));
+
+        QueryMessage<String, Flux<String>> testQueryMessage =
+                new GenericQueryMessage<>("hello", ResponseTypes.streamOf(String.class));
+        Flux<String> result = testSubject.query(testQueryMessage).get().getPayload();
+
+        assertEquals(0, produced.get());
+        assertEquals(asList("hello0", "hello1", "hello2"), result.take(3).collectList().block());
+        assertEquals(3, produced.get());
+    }
+
+    @SuppressWarnings("unused") // Used by 'testStreamingQueryProducesResultsOnDemand()' to generate response type
+    public Stream<String> stringStreamQueryHandler() {
+        return Stream.empty();
+    }
+
     @Test
     public void testQuerySingleWithTransaction() throws Exception {
         TransactionManager mockTxManager = mock(TransactionManager.class);
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling.distributed;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.MemberLoadTracker;
+import org.axonframework.commandhandling.distributed.SimpleMember;
+import org.axonframework.common.Registration;
+import org.axonframework.queryhandling.GenericQueryMessage;
+import org.axonframework.queryhandling.GenericQueryResponseMessage;
+import org.axonframework.queryhandling.NoHandlerForQueryException;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.QueryResponseMessage;
+import org.axonframework.queryhandling.SimpleQueryBus;
+import org.axonframework.queryhandling.responsetypes.ResponseTypes;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class DistributedQueryBusTest {
+
+    private QueryRouter queryRouter;
+    private QueryBusConnector connector;
+    private MemberLoadTracker loadTracker;
+    private DistributedQueryBus testSubject;
+
+    private Member localMember;
+    private Member remoteMember1;
+    private Member remoteMember2;
+    private QueryMessage<String, String> testQuery;
+
+    @Before
+    public void setUp() {
+        queryRouter = mock(QueryRouter.class);
+        connector = mock(QueryBusConnector.class);
+        loadTracker = new MemberLoadTracker();
+        testSubject = new DistributedQueryBus(new SimpleQueryBus(), queryRouter, connector, loadTracker);
+        localMember = new SimpleMember<>("local", null, SimpleMember.LOCAL_MEMBER, null);
+        remoteMember1 = new SimpleMember<>("remote1", null, SimpleMember.REMOTE_MEMBER, null);
+        remoteMember2 = new SimpleMember<>("remote2", null, SimpleMember.REMOTE_MEMBER, null);
+        testQuery = new GenericQueryMessage<>("hello", "query", ResponseTypes.instanceOf(String.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSubscribingHandlersUpdatesMembership() {
+        Registration first = testSubject.subscribe("query", String.class, q -> "first");
+        Registration second = testSubject.subscribe("query", String.class, q -> "second");
+        testSubject.subscribe("other", String.class, q -> "other");
+
+        first.cancel();
+        first.cancel();
+        verify(queryRouter, times(4)).updateMembership(any(Set.class));
+        verify(queryRouter, times(2)).updateMembership(new java.util.HashSet<>(Arrays.asList("query", "other")));
+
+        second.cancel();
+        verify(queryRouter).updateMembership(singleton("other"));
+    }
+
+    @Test
+    public void testQueryIsHandledLocallyWhenLocalMemberIsCapable() throws Exception {
+        testSubject.subscribe("query", String.class, q -> "local");
+        when(queryRouter.findDestinations(any())).thenReturn(Arrays.asList(remoteMember1, localMember));
+
+        assertEquals("local", testSubject.query(testQuery).get().getPayload());
+        verifyZeroInteractions(connector);
+    }
+
+    @Test
+    public void testQueryIsSentToLeastLoadedRemoteMember() throws Exception {
+        when(queryRouter.findDestinations(any())).thenReturn(Arrays.asList(remoteMember1, remoteMember2));
+        CompletableFuture<QueryResponseMessage<String>> pendingResponse = new CompletableFuture<>();
+        when(connector.<String, String>query(eq(remoteMember1), any())).thenReturn(pendingResponse);
+        when(connector.<String, String>query(eq(remoteMember2), any()))
+                .thenReturn(CompletableFuture.completedFuture(new GenericQueryResponseMessage<>("remote2")));
+
+        CompletableFuture<QueryResponseMessage<String>> first = testSubject.query(testQuery);
+        assertEquals(1, loadTracker.inFlight(remoteMember1));
+
+        assertEquals("remote2", testSubject.query(testQuery).get().getPayload());
+        assertEquals(0, loadTracker.inFlight(remoteMember2));
+
+        pendingResponse.complete(new GenericQueryResponseMessage<>("remote1"));
+        assertEquals("remote1", first.get().getPayload());
+        assertEquals(0, loadTracker.inFlight(remoteMember1));
+        assertEquals(2, loadTracker.memberLoads().size());
+    }
+
+    @Test
+    public void testQueryFailsWhenNoMemberIsCapable() throws InterruptedException {
+        when(queryRouter.findDestinations(any())).thenReturn(Collections.emptyList());
+
+        try {
+            testSubject.query(testQuery).get();
+            fail("Expected query to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NoHandlerForQueryException);
+        }
+    }
+
+    @Test
+    public void testStreamingQueryIsNotSentToRemoteMembers() throws InterruptedException {
+        when(queryRouter.findDestinations(any())).thenReturn(singletonList(remoteMember1));
+        QueryMessage<String, Flux<String>> streamingQuery =
+                new GenericQueryMessage<>("hello", "query", ResponseTypes.streamOf(String.class));
+
+        try {
+            testSubject.query(streamingQuery).get();
+            fail("Expected query to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        verifyZeroInteractions(connector);
+        assertEquals(0, loadTracker.inFlight(remoteMember1));
+    }
+
+    @Test
+    public void testScatterGatherCombinesLocalAndRemoteResponses() {
+        testSubject.subscribe("query", String.class, q -> "local");
+        when(queryRouter.findDestinations(any()))
+                .thenReturn(Arrays.asList(localMember, remoteMember1, remoteMember2));
+        List<QueryResponseMessage<String>> remoteResponses =
+                singletonList(new GenericQueryResponseMessage<>("remote1"));
+        when(connector.<String, String>scatterGather(eq(remoteMember1), any(), anyLong(), any()))
+                .thenReturn(CompletableFuture.completedFuture(remoteResponses));
+        when(connector.<String, String>scatterGather(eq(remoteMember2), any(), anyLong(), any()))
+                .thenReturn(new CompletableFuture<>());
+
+        List<String> responses = testSubject.scatterGather(testQuery, 100, TimeUnit.MILLISECONDS)
+                                            .map(QueryResponseMessage::getPayload)
+                                            .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("local", "remote1"), responses);
+        verify(connector).scatterGather(remoteMember1, testQuery, 100, TimeUnit.MILLISECONDS);
+        verify(connector).scatterGather(remoteMember2, testQuery, 100, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.queryhandling.responsetypes;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class StreamingResponseTypeTest extends AbstractResponseTypeTest<Flux<AbstractResponseTypeTest.QueryResponse>> {
+
+    public StreamingResponseTypeTest() {
+        super(new StreamingResponseType<>(QueryResponse.class));
+    }
+
+    @Test
+    public void testMatchesReturnsFalseIfResponseTypeIsTheSame() throws NoSuchMethodException {
+        testMatches("someQuery", DOES_NOT_MATCHES);
+    }
+
+    @Test
+    public void testMatchesReturnsTrueIfResponseTypeIsStreamOfProvidedType() throws NoSuchMethodException {
+        testMatches("someStreamQuery", MATCHES);
+    }
+
+    @Test
+    public void testMatchesReturnsTrueIfResponseTypeIsPublisherOfProvidedType() throws NoSuchMethodException {
+        testMatches("someFluxQuery", MATCHES);
+    }
+
+    @Test
+    public void testMatchesReturnsTrueIfResponseTypeIsListOrArrayOfProvidedType() throws NoSuchMethodException {
+        testMatches("someListQuery", MATCHES);
+        testMatches("someArrayQuery", MATCHES);
+    }
+
+    @Test
+    public void testMatchesReturnsFalseIfResponseTypeIsStreamOfOtherType() throws NoSuchMethodException {
+        testMatches("someOtherStreamQuery", DOES_NOT_MATCHES);
+    }
+
+    @Test
+    public void testConvertConsumesStreamOnDemandAndClosesIt() {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<QueryResponse> testResponse = Stream.generate(() -> {
+            produced.incrementAndGet();
+            return new QueryResponse();
+        }).onClose(() -> closed.set(true));
+
+        StepVerifier.create(testSubject.convert(testResponse), 2)
+                    .expectNextCount(2)
+                    // the next element is fetched to find out whether the stream has ended
+                    .then(() -> assertEquals(3, produced.get()))
+                    .thenCancel()
+                    .verify();
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testConvertReturnsFluxOnResponseOfArrayType() {
+        QueryResponse testResponse = new QueryResponse();
+
+        StepVerifier.create(testSubject.convert(new QueryResponse[]{testResponse}))
+                    .expectNext(testResponse)
+                    .verifyComplete();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConvertThrowsExceptionForSingleInstanceResponse() {
+        testSubject.convert(new QueryResponse());
+    }
+
+    @SuppressWarnings("unused")
+    public Flux<QueryResponse> someFluxQuery() {
+        return Flux.just(new QueryResponse());
+    }
+
+    @SuppressWarnings("unused")
+    public Stream<String> someOtherStreamQuery() {
+        return Stream.of("other");
+    }
+}
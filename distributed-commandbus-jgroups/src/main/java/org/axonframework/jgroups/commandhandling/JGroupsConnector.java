@@ -469,6 +469,12 @@ public Optional<Member> findDestination(CommandMessage<?> message) {
         return consistentHash.get().getMember(routingKey, message);
     }
 
+    @Override
+    public Optional<Member> findDestination(CommandMessage<?> message, MemberLoadTracker loadTracker) {
+        String routingKey = routingStrategy.getRoutingKey(message);
+        return consistentHash.get().getMember(routingKey, message, loadTracker);
+    }
+
     @Override
     public Registration registerHandlerInterceptor(MessageHandlerInterceptor<? super CommandMessage<?>> handlerInterceptor) {
         return localSegment.registerHandlerInterceptor(handlerInterceptor);
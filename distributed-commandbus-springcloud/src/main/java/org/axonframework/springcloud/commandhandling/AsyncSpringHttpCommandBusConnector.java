@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.commandhandling;
+
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.distributed.CommandDispatchException;
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.AsyncRestOperations;
+import org.springframework.web.client.RestOperations;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.axonframework.common.Assert.isTrue;
+import static org.axonframework.common.Assert.notNull;
+
+/**
+ * A {@link SpringHttpCommandBusConnector} which sends commands to remote members without blocking the sending thread.
+ * Commands are sent in batches to the {@code /spring-command-bus-connector/commands} endpoint of the destination,
+ * using an {@link AsyncRestOperations} instance. Callbacks are invoked by the thread completing the HTTP request.
+ * <p>
+ * For each destination, at most {@code maxConcurrentRequests} requests are in flight at any time. Commands sent while
+ * this limit is reached are queued, and sent together in a single request of at most {@code maxBatchSize} commands as
+ * soon as one of the pending requests completes. This way, commands arriving together share a request, while single
+ * commands are sent without delay.
+ * <p>
+ * Whether the HTTP requests themselves are non-blocking, and whether requests to the same destination share a
+ * connection, depends on the request factory of the given {@link AsyncRestOperations}. An {@link
+ * org.springframework.web.client.AsyncRestTemplate} using a {@code Netty4ClientHttpRequestFactory} for example, does not
+ * hold a thread for the duration of a request.
+ * <p>
+ * Commands are received through the endpoints of the {@link SpringHttpCommandBusConnector}, so all members need to
+ * use a connector version which provides the batch endpoint.
+ *
+ * @since 3.4
+ */
+@SuppressWarnings("deprecation")
+public class AsyncSpringHttpCommandBusConnector extends SpringHttpCommandBusConnector {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSpringHttpCommandBusConnector.class);
+
+    private static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    private final AsyncRestOperations asyncRestOperations;
+    private final Serializer serializer;
+    private final int maxBatchSize;
+    private final int maxConcurrentRequests;
+    private final ConcurrentMap<URI, Destination> destinations = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes the connector to send commands to remote members using the given {@code asyncRestOperations}, in
+     * batches of at most 64 commands and with at most 4 concurrent requests per destination.
+     *
+     * @param localCommandBus     The command bus to dispatch commands for the local member on
+     * @param restOperations      The rest operations, used by the {@link SpringHttpCommandBusConnector}
+     * @param asyncRestOperations The rest operations used to send commands to remote members
+     * @param serializer          The serializer used to serialize commands and their results
+     */
+    public AsyncSpringHttpCommandBusConnector(CommandBus localCommandBus, RestOperations restOperations,
+                                              AsyncRestOperations asyncRestOperations, Serializer serializer) {
+        this(localCommandBus, restOperations, asyncRestOperations, serializer, DEFAULT_MAX_BATCH_SIZE,
+             DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * Initializes the connector to send commands to remote members using the given {@code asyncRestOperations}, in
+     * batches of at most {@code maxBatchSize} commands and with at most {@code maxConcurrentRequests} concurrent
+     * requests per destination.
+     *
+     * @param localCommandBus       The command bus to dispatch commands for the local member on
+     * @param restOperations        The rest operations, used by the {@link SpringHttpCommandBusConnector}
+     * @param asyncRestOperations   The rest operations used to send commands to remote members
+     * @param serializer            The serializer used to serialize commands and their results
+     * @param maxBatchSize          The maximum number of commands to send in a single request
+     * @param maxConcurrentRequests The maximum number of requests in flight to a single destination
+     */
+    public AsyncSpringHttpCommandBusConnector(CommandBus localCommandBus, RestOperations restOperations,
+                                              AsyncRestOperations asyncRestOperations, Serializer serializer,
+                                              int maxBatchSize, int maxConcurrentRequests) {
+        super(localCommandBus, restOperations, serializer);
+        notNull(asyncRestOperations, () -> "asyncRestOperations may not be null");
+        isTrue(maxBatchSize > 0, () -> "maxBatchSize must be positive");
+        isTrue(maxConcurrentRequests > 0, () -> "maxConcurrentRequests must be positive");
+        this.asyncRestOperations = asyncRestOperations;
+        this.serializer = serializer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    @Override
+    public <C> void send(Member destination, CommandMessage<? extends C> commandMessage) {
+        if (destination.local()) {
+            super.send(destination, commandMessage);
+        } else {
+            enqueue(destination, new PendingCommand<>(commandMessage, null));
+        }
+    }
+
+    @Override
+    public <C, R> void send(Member destination, CommandMessage<C> commandMessage,
+                            CommandCallback<? super C, R> callback) {
+        if (destination.local()) {
+            super.send(destination, commandMessage, callback);
+        } else {
+            enqueue(destination, new PendingCommand<>(commandMessage, callback));
+        }
+    }
+
+    private void enqueue(Member member, PendingCommand<?, ?> pendingCommand) {
+        URI uri = destinationUri(member, BATCH_COMMAND_BUS_CONNECTOR_PATH, pendingCommand.commandMessage);
+        Destination destination = destinations.computeIfAbsent(uri, Destination::new);
+        destination.pending.add(pendingCommand);
+        destination.sendPending();
+    }
+
+    /**
+     * The queue of commands to send to a single destination, and the number of requests in flight to it.
+     */
+    private class Destination {
+
+        private final URI uri;
+        private final Queue<PendingCommand<?, ?>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger requestsInFlight = new AtomicInteger();
+
+        private Destination(URI uri) {
+            this.uri = uri;
+        }
+
+        private void sendPending() {
+            while (!pending.isEmpty()) {
+                int current = requestsInFlight.get();
+                if (current >= maxConcurrentRequests) {
+                    // the completion of one of the current requests will send the pending commands
+                    return;
+                }
+                if (requestsInFlight.compareAndSet(current, current + 1)) {
+                    List<PendingCommand<?, ?>> batch = new ArrayList<>();
+                    PendingCommand<?, ?> next;
+                    while (batch.size() < maxBatchSize && (next = pending.poll()) != null) {
+                        batch.add(next);
+                    }
+                    if (batch.isEmpty()) {
+                        requestsInFlight.decrementAndGet();
+                    } else {
+                        send(batch);
+                    }
+                }
+            }
+        }
+
+        private void send(List<PendingCommand<?, ?>> batch) {
+            List<SpringHttpDispatchMessage<?>> dispatchMessages = new ArrayList<>(batch.size());
+            batch.forEach(command -> dispatchMessages.add(command.dispatchMessage));
+            try {
+                asyncRestOperations.exchange(uri, HttpMethod.POST, new HttpEntity<>(dispatchMessages),
+                                             new ParameterizedTypeReference<List<SpringHttpReplyMessage<Object>>>() {
+                                             })
+                                   .addCallback(response -> completed(batch, response),
+                                                failure -> failed(batch, failure));
+            } catch (Exception e) {
+                failed(batch, e);
+            }
+        }
+
+        private void completed(List<PendingCommand<?, ?>> batch,
+                               ResponseEntity<List<SpringHttpReplyMessage<Object>>> response) {
+            List<SpringHttpReplyMessage<Object>> replies = response == null ? null : response.getBody();
+            if (replies == null || replies.size() != batch.size()) {
+                failed(batch, new CommandDispatchException(
+                        "Destination " + uri + " did not reply to each of the commands sent"
+                ));
+                return;
+            }
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(replies.get(i));
+                }
+            } finally {
+                requestCompleted();
+            }
+        }
+
+        private void failed(List<PendingCommand<?, ?>> batch, Throwable failure) {
+            logger.warn("Failed to send {} command(s) to [{}]", batch.size(), uri, failure);
+            try {
+                batch.forEach(command -> command.fail(failure));
+            } finally {
+                requestCompleted();
+            }
+        }
+
+        private void requestCompleted() {
+            requestsInFlight.decrementAndGet();
+            sendPending();
+        }
+    }
+
+    private class PendingCommand<C, R> {
+
+        private final CommandMessage<C> commandMessage;
+        private final CommandCallback<? super C, R> callback;
+        private final SpringHttpDispatchMessage<C> dispatchMessage;
+
+        @SuppressWarnings("unchecked")
+        private PendingCommand(CommandMessage<? extends C> commandMessage, CommandCallback<? super C, R> callback) {
+            this.commandMessage = (CommandMessage<C>) commandMessage;
+            this.callback = callback;
+            this.dispatchMessage = new SpringHttpDispatchMessage<>(commandMessage, serializer, callback != null);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(SpringHttpReplyMessage<?> reply) {
+            if (callback == null) {
+                return;
+            }
+            try {
+                if (reply.isSuccess()) {
+                    callback.onSuccess(commandMessage, (R) reply.getReturnValue(serializer));
+                } else {
+                    callback.onFailure(commandMessage, reply.getError(serializer));
+                }
+            } catch (Exception e) {
+                logger.warn("Callback for command [{}] failed", commandMessage.getCommandName(), e);
+            }
+        }
+
+        private void fail(Throwable failure) {
+            if (callback == null) {
+                return;
+            }
+            try {
+                callback.onFailure(commandMessage, failure);
+            } catch (Exception e) {
+                logger.warn("Callback for command [{}] failed", commandMessage.getCommandName(), e);
+            }
+        }
+    }
+}
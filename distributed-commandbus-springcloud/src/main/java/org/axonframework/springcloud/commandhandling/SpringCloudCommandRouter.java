@@ -20,6 +20,7 @@
 import org.axonframework.commandhandling.distributed.ConsistentHash;
 import org.axonframework.commandhandling.distributed.ConsistentHashChangeListener;
 import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.MemberLoadTracker;
 import org.axonframework.commandhandling.distributed.RoutingStrategy;
 import org.axonframework.commandhandling.distributed.SimpleMember;
 import org.axonframework.serialization.SerializedObject;
@@ -185,6 +186,12 @@ public Optional<Member> findDestination(CommandMessage<?> commandMessage) {
         return atomicConsistentHash.get().getMember(routingStrategy.getRoutingKey(commandMessage), commandMessage);
     }
 
+    @Override
+    public Optional<Member> findDestination(CommandMessage<?> commandMessage, MemberLoadTracker loadTracker) {
+        return atomicConsistentHash.get().getMember(routingStrategy.getRoutingKey(commandMessage), commandMessage,
+                                                    loadTracker);
+    }
+
     @Override
     public void updateMembership(int loadFactor, Predicate<? super CommandMessage<?>> commandFilter) {
         Map<String, String> localServiceInstanceMetadata = localServiceInstance.getMetadata();
@@ -38,8 +38,11 @@
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/spring-command-bus-connector")
@@ -50,6 +53,10 @@ public class SpringHttpCommandBusConnector implements CommandBusConnector {
     private static final boolean EXPECT_REPLY = true;
     private static final boolean DO_NOT_EXPECT_REPLY = false;
     private static final String COMMAND_BUS_CONNECTOR_PATH = "/spring-command-bus-connector/command";
+    /**
+     * The path, relative to the endpoint of a member, on which batches of commands are received.
+     */
+    protected static final String BATCH_COMMAND_BUS_CONNECTOR_PATH = "/spring-command-bus-connector/commands";
 
     private final CommandBus localCommandBus;
     private final RestOperations restOperations;
@@ -98,16 +105,28 @@ public <C, R> void send(Member destination, CommandMessage<C> commandMessage,
     private <C, R> ResponseEntity<SpringHttpReplyMessage<R>> sendRemotely(Member destination,
                                                                           CommandMessage<? extends C> commandMessage,
                                                                           boolean expectReply) {
+        URI destinationUri = destinationUri(destination, COMMAND_BUS_CONNECTOR_PATH, commandMessage);
+        SpringHttpDispatchMessage<C> dispatchMessage =
+                new SpringHttpDispatchMessage<>(commandMessage, serializer, expectReply);
+        return restOperations.exchange(destinationUri, HttpMethod.POST, new HttpEntity<>(dispatchMessage),
+                new ParameterizedTypeReference<SpringHttpReplyMessage<R>>(){});
+    }
+
+    /**
+     * Builds the URI of the given {@code connectorPath} on the connection endpoint of the given {@code destination}.
+     *
+     * @param destination    The member of the network to send the message to
+     * @param connectorPath  The path of the connector endpoint to send the message to
+     * @param commandMessage The command to send to the member, used for error reporting
+     * @return the URI to send the command to
+     * @throws IllegalArgumentException if the destination has no URI connection endpoint
+     */
+    protected URI destinationUri(Member destination, String connectorPath, CommandMessage<?> commandMessage) {
         Optional<URI> optionalEndpoint = destination.getConnectionEndpoint(URI.class);
         if (optionalEndpoint.isPresent()) {
             URI endpointUri = optionalEndpoint.get();
-            URI destinationUri = buildURIForPath(endpointUri.getScheme(), endpointUri.getUserInfo(),
-                    endpointUri.getHost(), endpointUri.getPort(), endpointUri.getPath());
-
-            SpringHttpDispatchMessage<C> dispatchMessage =
-                    new SpringHttpDispatchMessage<>(commandMessage, serializer, expectReply);
-            return restOperations.exchange(destinationUri, HttpMethod.POST, new HttpEntity<>(dispatchMessage),
-                    new ParameterizedTypeReference<SpringHttpReplyMessage<R>>(){});
+            return buildURIForPath(endpointUri.getScheme(), endpointUri.getUserInfo(),
+                    endpointUri.getHost(), endpointUri.getPort(), endpointUri.getPath(), connectorPath);
         } else {
             String errorMessage = String.format("No Connection Endpoint found in Member [%s] for protocol [%s] " +
                     "to send the command message [%s] to", destination, URI.class, commandMessage);
@@ -116,12 +135,13 @@ private <C, R> ResponseEntity<SpringHttpReplyMessage<R>> sendRemotely(Member des
         }
     }
 
-    private URI buildURIForPath(String scheme, String userInfo, String host, int port, String path) {
+    private URI buildURIForPath(String scheme, String userInfo, String host, int port, String path,
+                                String connectorPath) {
         try {
-            return new URI(scheme, userInfo, host, port, path + COMMAND_BUS_CONNECTOR_PATH, null, null);
+            return new URI(scheme, userInfo, host, port, path + connectorPath, null, null);
         } catch (URISyntaxException e) {
             LOGGER.error("Failed to build URI for [{}{}{}], with user info [{}] and path [{}]",
-                    scheme, host, port, userInfo, COMMAND_BUS_CONNECTOR_PATH, e);
+                    scheme, host, port, userInfo, connectorPath, e);
             throw new IllegalArgumentException(e);
         }
     }
@@ -155,6 +175,42 @@ public <C, R> CompletableFuture<?> receiveCommand(
         }
     }
 
+    /**
+     * Receives a batch of commands, sent by an {@link AsyncSpringHttpCommandBusConnector}, and dispatches them on the
+     * local command bus. The returned future completes with a reply for each of the commands, in the order in which
+     * the commands were received, once all commands have been handled.
+     *
+     * @param dispatchMessages The commands to dispatch
+     * @param <C>              The type of object expected as command
+     * @param <R>              The type of object expected as result of the command
+     * @return a future completing with the replies to the commands
+     */
+    @PostMapping("/commands")
+    public <C, R> CompletableFuture<List<SpringHttpReplyMessage>> receiveCommands(
+            @RequestBody List<SpringHttpDispatchMessage<C>> dispatchMessages) {
+        List<CompletableFuture<SpringHttpReplyMessage>> replies = new ArrayList<>(dispatchMessages.size());
+        for (SpringHttpDispatchMessage<C> dispatchMessage : dispatchMessages) {
+            CommandMessage<C> commandMessage = dispatchMessage.getCommandMessage(serializer);
+            try {
+                if (dispatchMessage.isExpectReply()) {
+                    SpringHttpReplyFutureCallback<C, R> replyFutureCallback = new SpringHttpReplyFutureCallback<>();
+                    localCommandBus.dispatch(commandMessage, replyFutureCallback);
+                    replies.add(replyFutureCallback);
+                } else {
+                    localCommandBus.dispatch(commandMessage);
+                    replies.add(CompletableFuture.completedFuture(createReply(commandMessage, true, null)));
+                }
+            } catch (Exception e) {
+                LOGGER.error("Could not dispatch command", e);
+                replies.add(CompletableFuture.completedFuture(createReply(commandMessage, false, e)));
+            }
+        }
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture[0]))
+                                .thenApply(v -> replies.stream()
+                                                       .map(CompletableFuture::join)
+                                                       .collect(Collectors.toList()));
+    }
+
     private SpringHttpReplyMessage createReply(CommandMessage<?> commandMessage, boolean success, Object result) {
         try {
             return new SpringHttpReplyMessage<>(commandMessage.getIdentifier(), success, result, serializer);
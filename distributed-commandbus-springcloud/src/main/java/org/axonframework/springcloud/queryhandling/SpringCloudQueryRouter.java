@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.queryhandling;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.SimpleMember;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.distributed.QueryRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.axonframework.common.Assert.notNull;
+
+/**
+ * A {@link QueryRouter} implementation which uses Spring Cloud's {@link DiscoveryClient} to propagate the names of the
+ * queries handled by the local member, and to discover which queries the other members are able to handle. The query
+ * names are stored as a comma separated list in the metadata of the {@link ServiceInstance} of each member. Service
+ * instances that do not contain this metadata are ignored.
+ * <p>
+ * The local member is always routed to based on the query names it has most recently subscribed, rather than on the
+ * possibly outdated metadata the discovery service provides for it.
+ *
+ * @since 3.4
+ */
+public class SpringCloudQueryRouter implements QueryRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpringCloudQueryRouter.class);
+
+    private static final String QUERY_NAMES = "queryNames";
+    private static final String QUERY_NAME_SEPARATOR = ",";
+
+    private final DiscoveryClient discoveryClient;
+    private final Registration localServiceInstance;
+    private final AtomicReference<Map<Member, Set<String>>> members =
+            new AtomicReference<>(Collections.emptyMap());
+    private volatile Set<String> localQueryNames = Collections.emptySet();
+    private volatile boolean registered = false;
+
+    /**
+     * Initialize a {@link QueryRouter} with the given {@link DiscoveryClient} to publish the query names of the local
+     * member, and to discover the query names of other members.
+     *
+     * @param discoveryClient      The {@code DiscoveryClient} used to discover other nodes
+     * @param localServiceInstance A {@link Registration} representing the local Service Instance of this application.
+     *                             Necessary to differentiate between other instances for correct message routing
+     */
+    public SpringCloudQueryRouter(DiscoveryClient discoveryClient, Registration localServiceInstance) {
+        notNull(discoveryClient, () -> "discoveryClient may not be null");
+        notNull(localServiceInstance, () -> "localServiceInstance may not be null");
+        this.discoveryClient = discoveryClient;
+        this.localServiceInstance = localServiceInstance;
+    }
+
+    @Override
+    public List<Member> findDestinations(QueryMessage<?, ?> queryMessage) {
+        return members.get().entrySet().stream()
+                      .filter(member -> member.getValue().contains(queryMessage.getQueryName()))
+                      .map(Map.Entry::getKey)
+                      .collect(Collectors.toList());
+    }
+
+    @Override
+    public void updateMembership(Set<String> queryNames) {
+        localQueryNames = new HashSet<>(queryNames);
+        localServiceInstance.getMetadata().put(QUERY_NAMES, String.join(QUERY_NAME_SEPARATOR, queryNames));
+        members.updateAndGet(current -> {
+            Map<Member, Set<String>> updated = new HashMap<>(current);
+            updated.keySet().removeIf(Member::local);
+            updated.put(buildLocalMember(), localQueryNames);
+            return updated;
+        });
+    }
+
+    /**
+     * Update the members known by the {@link DiscoveryClient}, now that the local service instance has been
+     * registered and has been provided its name and {@link URI}. This function is automatically triggered by an
+     * (unused) {@link InstanceRegisteredEvent}.
+     *
+     * @param event an unused {@link InstanceRegisteredEvent}, serves as a trigger for this function
+     */
+    @EventListener
+    @SuppressWarnings("UnusedParameters")
+    public void resetLocalMembership(InstanceRegisteredEvent event) {
+        registered = true;
+        updateMemberships();
+    }
+
+    /**
+     * Update the memberships of all nodes known by the {@link DiscoveryClient}, to be aware of the queries each of
+     * them is able to handle. This function is automatically triggered by an (unused) {@link HeartbeatEvent}.
+     *
+     * @param event an unused {@link HeartbeatEvent}, serves as a trigger for this function
+     */
+    @EventListener
+    @SuppressWarnings("UnusedParameters")
+    public void updateMemberships(HeartbeatEvent event) {
+        updateMemberships();
+    }
+
+    private void updateMemberships() {
+        Map<Member, Set<String>> updated = new HashMap<>();
+        updated.put(buildLocalMember(), localQueryNames);
+        discoveryClient.getServices().stream()
+                       .map(discoveryClient::getInstances)
+                       .flatMap(Collection::stream)
+                       .filter(serviceInstance -> serviceInstance.getMetadata().containsKey(QUERY_NAMES))
+                       .filter(serviceInstance -> !isLocalServiceInstance(serviceInstance))
+                       .forEach(serviceInstance -> updated.put(buildRemoteMember(serviceInstance),
+                                                               queryNamesOf(serviceInstance)));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updated query memberships to [{}].", updated);
+        }
+        members.set(updated);
+    }
+
+    private Set<String> queryNamesOf(ServiceInstance serviceInstance) {
+        String queryNames = serviceInstance.getMetadata().get(QUERY_NAMES);
+        if (queryNames.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(Arrays.asList(queryNames.split(QUERY_NAME_SEPARATOR)));
+    }
+
+    private boolean isLocalServiceInstance(ServiceInstance serviceInstance) {
+        return serviceInstance.equals(localServiceInstance)
+                || Objects.equals(serviceInstance.getUri(), localServiceInstance.getUri());
+    }
+
+    private Member buildLocalMember() {
+        String localServiceId = localServiceInstance.getServiceId();
+        URI emptyEndpoint = null;
+        //noinspection ConstantConditions | added null variable for clarity
+        return registered
+                ? new SimpleMember<>(buildSimpleMemberName(localServiceId, localServiceInstance.getUri()),
+                                     localServiceInstance.getUri(),
+                                     SimpleMember.LOCAL_MEMBER,
+                                     this::suspect)
+                : new SimpleMember<>(localServiceId.toUpperCase() + "[LOCAL]",
+                                     emptyEndpoint,
+                                     SimpleMember.LOCAL_MEMBER,
+                                     this::suspect);
+    }
+
+    private Member buildRemoteMember(ServiceInstance remoteServiceInstance) {
+        URI remoteServiceUri = remoteServiceInstance.getUri();
+        return new SimpleMember<>(buildSimpleMemberName(remoteServiceInstance.getServiceId(), remoteServiceUri),
+                                  remoteServiceUri,
+                                  SimpleMember.REMOTE_MEMBER,
+                                  this::suspect);
+    }
+
+    private String buildSimpleMemberName(String serviceId, URI serviceUri) {
+        return serviceId.toUpperCase() + "[" + serviceUri + "]";
+    }
+
+    private void suspect(Member member) {
+        members.updateAndGet(current -> {
+            Map<Member, Set<String>> updated = new HashMap<>(current);
+            updated.remove(member);
+            return updated;
+        });
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.queryhandling;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.queryhandling.QueryBus;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.QueryResponseMessage;
+import org.axonframework.queryhandling.distributed.QueryBusConnector;
+import org.axonframework.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestOperations;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.axonframework.common.Assert.notNull;
+
+/**
+ * A {@link QueryBusConnector} which sends queries to remote members over HTTP, using a {@link RestOperations}
+ * instance. Queries sent by other members are received on the {@code /spring-query-bus-connector} endpoints and
+ * executed on the local segment of the query bus.
+ * <p>
+ * Requests are executed by the given {@link Executor}, so that queries to several members may be in flight at the
+ * same time without blocking the thread dispatching them. Note that you should call {@link #shutdown()} to stop the
+ * threads of the executor, if it is an {@link ExecutorService}. Failure to do so may cause the JVM to hang for up to 60
+ * seconds on JVM shutdown when using the default cached thread pool.
+ *
+ * @since 3.4
+ */
+@RestController
+@RequestMapping("/spring-query-bus-connector")
+public class SpringHttpQueryBusConnector implements QueryBusConnector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpringHttpQueryBusConnector.class);
+
+    private static final String QUERY_PATH = "/spring-query-bus-connector/query";
+    private static final String SCATTER_GATHER_PATH = "/spring-query-bus-connector/scatter-gather";
+
+    private final QueryBus localSegment;
+    private final RestOperations restOperations;
+    private final Serializer serializer;
+    private final Executor executor;
+
+    /**
+     * Initializes the connector to send queries to remote members using the given {@code restOperations}. Requests are
+     * executed by a cached thread pool, which is stopped when this connector is {@link #shutdown() shut down}.
+     *
+     * @param localSegment   The query bus to execute queries received from other members on
+     * @param restOperations The rest operations used to send queries to remote members
+     * @param serializer     The serializer used to serialize queries and their responses
+     */
+    public SpringHttpQueryBusConnector(QueryBus localSegment, RestOperations restOperations, Serializer serializer) {
+        this(localSegment, restOperations, serializer,
+             Executors.newCachedThreadPool(new AxonThreadFactory("SpringHttpQueryBusConnector")));
+    }
+
+    /**
+     * Initializes the connector to send queries to remote members using the given {@code restOperations}, executing
+     * the requests using the given {@code executor}. Executors implementing {@code ExecutorService} are shut down when
+     * this connector is {@link #shutdown() shut down}.
+     *
+     * @param localSegment   The query bus to execute queries received from other members on
+     * @param restOperations The rest operations used to send queries to remote members
+     * @param serializer     The serializer used to serialize queries and their responses
+     * @param executor       The executor executing the requests to remote members
+     */
+    public SpringHttpQueryBusConnector(QueryBus localSegment, RestOperations restOperations, Serializer serializer,
+                                       Executor executor) {
+        notNull(localSegment, () -> "localSegment may not be null");
+        notNull(restOperations, () -> "restOperations may not be null");
+        notNull(serializer, () -> "serializer may not be null");
+        notNull(executor, () -> "executor may not be null");
+        this.localSegment = localSegment;
+        this.restOperations = restOperations;
+        this.serializer = serializer;
+        this.executor = executor;
+    }
+
+    /**
+     * Shuts down the Executor used to send queries to remote members. Executors that do not implement {@code
+     * ExecutorService} are ignored.
+     */
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ExecutorService executorService = (ExecutorService) executor;
+            executorService.shutdown();
+            try {
+                executorService.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // we've been interrupted. Reset the interruption flag and continue
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public <Q, R> CompletableFuture<QueryResponseMessage<R>> query(Member destination, QueryMessage<Q, R> query) {
+        if (destination.local()) {
+            return localSegment.query(query);
+        }
+        URI destinationUri = destinationUri(destination, QUERY_PATH);
+        HttpEntity<SpringHttpQueryMessage<Q, R>> request =
+                new HttpEntity<>(new SpringHttpQueryMessage<>(query, serializer));
+        return CompletableFuture.supplyAsync(() -> restOperations.exchange(
+                destinationUri, HttpMethod.POST, request,
+                new ParameterizedTypeReference<SpringHttpQueryResponseMessage<R>>() {
+                }).getBody(), executor
+        ).thenCompose(this::toResponseMessage);
+    }
+
+    @Override
+    public <Q, R> CompletableFuture<List<QueryResponseMessage<R>>> scatterGather(Member destination,
+                                                                                QueryMessage<Q, R> query,
+                                                                                long timeout, TimeUnit unit) {
+        if (destination.local()) {
+            return CompletableFuture.completedFuture(
+                    localSegment.scatterGather(query, timeout, unit).collect(Collectors.toList())
+            );
+        }
+        URI destinationUri = URI.create(destinationUri(destination, SCATTER_GATHER_PATH)
+                                                + "?timeout=" + unit.toMillis(timeout));
+        HttpEntity<SpringHttpQueryMessage<Q, R>> request =
+                new HttpEntity<>(new SpringHttpQueryMessage<>(query, serializer));
+        return CompletableFuture.supplyAsync(() -> restOperations.exchange(
+                destinationUri, HttpMethod.POST, request,
+                new ParameterizedTypeReference<List<SpringHttpQueryResponseMessage<R>>>() {
+                }).getBody(), executor
+        ).thenApply(responses -> responses.stream()
+                                          .map(response -> response.getResponseMessage(serializer))
+                                          .collect(Collectors.toList()));
+    }
+
+    private <R> CompletableFuture<QueryResponseMessage<R>> toResponseMessage(
+            SpringHttpQueryResponseMessage<R> response) {
+        CompletableFuture<QueryResponseMessage<R>> result = new CompletableFuture<>();
+        if (response.isSuccess()) {
+            result.complete(response.getResponseMessage(serializer));
+        } else {
+            result.completeExceptionally(response.getError(serializer));
+        }
+        return result;
+    }
+
+    /**
+     * Builds the URI of the given {@code connectorPath} on the connection endpoint of the given {@code destination}.
+     *
+     * @param destination   The member of the network to send the query to
+     * @param connectorPath The path of the connector endpoint to send the query to
+     * @return the URI to send the query to
+     * @throws IllegalArgumentException if the destination has no URI connection endpoint
+     */
+    protected URI destinationUri(Member destination, String connectorPath) {
+        URI endpointUri = destination.getConnectionEndpoint(URI.class).orElseThrow(
+                () -> new IllegalArgumentException(String.format(
+                        "No Connection Endpoint found in Member [%s] for protocol [%s]", destination, URI.class
+                ))
+        );
+        try {
+            return new URI(endpointUri.getScheme(), endpointUri.getUserInfo(), endpointUri.getHost(),
+                           endpointUri.getPort(), endpointUri.getPath() + connectorPath, null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Receives a query sent by another member, and executes it on the local segment of the query bus. The returned
+     * future completes with the response of the local handler, or with the error that occurred while handling the
+     * query.
+     *
+     * @param queryMessage The query to execute
+     * @param <Q>          The payload type of the query
+     * @param <R>          The response type of the query
+     * @return a future completing with the response to the query
+     */
+    @PostMapping("/query")
+    public <Q, R> CompletableFuture<SpringHttpQueryResponseMessage<R>> receiveQuery(
+            @RequestBody SpringHttpQueryMessage<Q, R> queryMessage) {
+        try {
+            return localSegment.query(queryMessage.getQueryMessage(serializer))
+                               .handle((response, error) -> error == null
+                                       ? new SpringHttpQueryResponseMessage<>(response, serializer)
+                                       : new SpringHttpQueryResponseMessage<>(unwrap(error), serializer));
+        } catch (Exception e) {
+            logger.error("Could not execute query", e);
+            return CompletableFuture.completedFuture(new SpringHttpQueryResponseMessage<>(e, serializer));
+        }
+    }
+
+    /**
+     * Receives a scatter-gather query sent by another member, and executes it on the local segment of the query bus,
+     * waiting at most the given {@code timeout} for the local handlers to respond.
+     *
+     * @param queryMessage The query to execute
+     * @param timeout      The time in milliseconds to wait for the local handlers
+     * @param <Q>          The payload type of the query
+     * @param <R>          The response type of the query
+     * @return the responses of the local handlers
+     */
+    @PostMapping("/scatter-gather")
+    public <Q, R> List<SpringHttpQueryResponseMessage<R>> receiveScatterGather(
+            @RequestBody SpringHttpQueryMessage<Q, R> queryMessage, @RequestParam("timeout") long timeout) {
+        return localSegment.scatterGather(queryMessage.getQueryMessage(serializer), timeout, TimeUnit.MILLISECONDS)
+                           .map(response -> new SpringHttpQueryResponseMessage<>(response, serializer))
+                           .collect(Collectors.toList());
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.queryhandling;
+
+import org.axonframework.messaging.GenericMessage;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.queryhandling.GenericQueryMessage;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.responsetypes.ResponseType;
+import org.axonframework.serialization.MessageSerializer;
+import org.axonframework.serialization.SerializedMetaData;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Spring Http message that contains a QueryMessage that needs to be executed on a remote query bus segment.
+ *
+ * @param <Q> The payload type of the query
+ * @param <R> The response type of the query
+ * @since 3.4
+ */
+public class SpringHttpQueryMessage<Q, R> implements Serializable {
+
+    private static final long serialVersionUID = 7416226958440452473L;
+
+    private String messageIdentifier;
+    private String queryName;
+    private byte[] serializedMetaData;
+    private String payloadType;
+    private String payloadRevision;
+    private byte[] serializedPayload;
+    private String responseTypeType;
+    private String responseTypeRevision;
+    private byte[] serializedResponseType;
+
+    /**
+     * Initialize a SpringHttpQueryMessage for the given {@code queryMessage}, to be serialized using given {@code
+     * serializer}.
+     *
+     * @param queryMessage The message to send to the remote segment
+     * @param serializer   The serializer to serialize the message payload, metadata and response type with
+     */
+    public SpringHttpQueryMessage(QueryMessage<Q, R> queryMessage, Serializer serializer) {
+        this.messageIdentifier = queryMessage.getIdentifier();
+        this.queryName = queryMessage.getQueryName();
+        this.serializedMetaData =
+                MessageSerializer.serializeMetaData(queryMessage, serializer, byte[].class).getData();
+        SerializedObject<byte[]> payload = MessageSerializer.serializePayload(queryMessage, serializer, byte[].class);
+        this.payloadType = payload.getType().getName();
+        this.payloadRevision = payload.getType().getRevision();
+        this.serializedPayload = payload.getData();
+        SerializedObject<byte[]> responseType = serializer.serialize(queryMessage.getResponseType(), byte[].class);
+        this.responseTypeType = responseType.getType().getName();
+        this.responseTypeRevision = responseType.getType().getRevision();
+        this.serializedResponseType = responseType.getData();
+    }
+
+    @SuppressWarnings("unused")
+    private SpringHttpQueryMessage() {
+        // Used for de-/serialization
+    }
+
+    /**
+     * Returns the QueryMessage wrapped in this message, deserialized using the given {@code serializer}.
+     *
+     * @param serializer The serializer to deserialize the message contents with
+     * @return the QueryMessage wrapped in this message
+     */
+    public QueryMessage<Q, R> getQueryMessage(Serializer serializer) {
+        SimpleSerializedObject<byte[]> payload =
+                new SimpleSerializedObject<>(serializedPayload, byte[].class, payloadType, payloadRevision);
+        MetaData metaData = serializer.deserialize(new SerializedMetaData<>(serializedMetaData, byte[].class));
+        ResponseType<R> responseType = serializer.deserialize(new SimpleSerializedObject<>(
+                serializedResponseType, byte[].class, responseTypeType, responseTypeRevision
+        ));
+        GenericMessage<Q> message = new GenericMessage<>(messageIdentifier, serializer.deserialize(payload), metaData);
+        return new GenericQueryMessage<>(message, queryName, responseType);
+    }
+
+    /**
+     * Returns the identifier of the query message.
+     *
+     * @return the identifier of the query message
+     */
+    public String getMessageIdentifier() {
+        return messageIdentifier;
+    }
+
+    /**
+     * Returns the name of the query.
+     *
+     * @return the name of the query
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Returns the serialized metadata of the query message.
+     *
+     * @return the serialized metadata of the query message
+     */
+    public byte[] getSerializedMetaData() {
+        return serializedMetaData;
+    }
+
+    /**
+     * Returns the type of the serialized payload of the query message.
+     *
+     * @return the type of the serialized payload
+     */
+    public String getPayloadType() {
+        return payloadType;
+    }
+
+    /**
+     * Returns the revision of the serialized payload of the query message.
+     *
+     * @return the revision of the serialized payload
+     */
+    public String getPayloadRevision() {
+        return payloadRevision;
+    }
+
+    /**
+     * Returns the serialized payload of the query message.
+     *
+     * @return the serialized payload of the query message
+     */
+    public byte[] getSerializedPayload() {
+        return serializedPayload;
+    }
+
+    /**
+     * Returns the type of the serialized response type of the query message.
+     *
+     * @return the type of the serialized response type
+     */
+    public String getResponseTypeType() {
+        return responseTypeType;
+    }
+
+    /**
+     * Returns the revision of the serialized response type of the query message.
+     *
+     * @return the revision of the serialized response type
+     */
+    public String getResponseTypeRevision() {
+        return responseTypeRevision;
+    }
+
+    /**
+     * Returns the serialized response type of the query message.
+     *
+     * @return the serialized response type of the query message
+     */
+    public byte[] getSerializedResponseType() {
+        return serializedResponseType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SpringHttpQueryMessage<?, ?> that = (SpringHttpQueryMessage<?, ?>) o;
+        return Objects.equals(messageIdentifier, that.messageIdentifier)
+                && Objects.equals(queryName, that.queryName)
+                && Arrays.equals(serializedMetaData, that.serializedMetaData)
+                && Objects.equals(payloadType, that.payloadType)
+                && Objects.equals(payloadRevision, that.payloadRevision)
+                && Arrays.equals(serializedPayload, that.serializedPayload)
+                && Objects.equals(responseTypeType, that.responseTypeType)
+                && Objects.equals(responseTypeRevision, that.responseTypeRevision)
+                && Arrays.equals(serializedResponseType, that.serializedResponseType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(messageIdentifier, queryName, payloadType, payloadRevision, responseTypeType,
+                            responseTypeRevision);
+    }
+
+    @Override
+    public String toString() {
+        return "SpringHttpQueryMessage{" +
+                "messageIdentifier='" + messageIdentifier + '\'' +
+                ", queryName='" + queryName + '\'' +
+                ", payloadType='" + payloadType + '\'' +
+                ", responseTypeType='" + responseTypeType + '\'' +
+                '}';
+    }
+}
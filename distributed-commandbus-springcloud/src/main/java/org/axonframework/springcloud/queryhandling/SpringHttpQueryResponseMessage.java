@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.queryhandling;
+
+import org.axonframework.messaging.MetaData;
+import org.axonframework.queryhandling.GenericQueryResponseMessage;
+import org.axonframework.queryhandling.QueryResponseMessage;
+import org.axonframework.serialization.MessageSerializer;
+import org.axonframework.serialization.SerializedMetaData;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.SimpleSerializedType;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Spring Http message representing the response of a remote query bus segment to a query. The message either contains
+ * a {@link QueryResponseMessage}, or the error that occurred while handling the query.
+ *
+ * @param <R> The type of the response
+ * @since 3.4
+ */
+public class SpringHttpQueryResponseMessage<R> implements Serializable {
+
+    private static final long serialVersionUID = -2398170612345239185L;
+
+    private boolean success;
+    private String declaredResultType;
+    private String resultType;
+    private String resultRevision;
+    private byte[] serializedResult;
+    private byte[] serializedMetaData;
+
+    /**
+     * Initializes a SpringHttpQueryResponseMessage containing the given {@code responseMessage}, to be serialized using
+     * given {@code serializer}.
+     *
+     * @param responseMessage The response to send back to the member that sent the query
+     * @param serializer      The serializer to serialize the response payload and metadata with
+     */
+    public SpringHttpQueryResponseMessage(QueryResponseMessage<R> responseMessage, Serializer serializer) {
+        this.success = true;
+        this.declaredResultType = responseMessage.getPayloadType().getName();
+        if (responseMessage.getPayload() != null) {
+            setResult(MessageSerializer.serializePayload(responseMessage, serializer, byte[].class));
+        }
+        this.serializedMetaData =
+                MessageSerializer.serializeMetaData(responseMessage, serializer, byte[].class).getData();
+    }
+
+    /**
+     * Initializes a SpringHttpQueryResponseMessage reporting that handling the query failed with given {@code error},
+     * to be serialized using given {@code serializer}.
+     *
+     * @param error      The error that occurred while handling the query
+     * @param serializer The serializer to serialize the error with
+     */
+    public SpringHttpQueryResponseMessage(Throwable error, Serializer serializer) {
+        this.success = false;
+        setResult(serializer.serialize(error, byte[].class));
+    }
+
+    @SuppressWarnings("unused")
+    private SpringHttpQueryResponseMessage() {
+        // Used for de-/serialization
+    }
+
+    private void setResult(SerializedObject<byte[]> result) {
+        this.resultType = result.getType().getName();
+        this.resultRevision = result.getType().getRevision();
+        this.serializedResult = result.getData();
+    }
+
+    /**
+     * Returns the QueryResponseMessage wrapped in this message, deserialized using the given {@code serializer}. If
+     * {@link #isSuccess()} returns {@code false}, this method returns {@code null}.
+     *
+     * @param serializer The serializer to deserialize the message contents with
+     * @return the QueryResponseMessage wrapped in this message
+     */
+    @SuppressWarnings("unchecked")
+    public QueryResponseMessage<R> getResponseMessage(Serializer serializer) {
+        if (!success) {
+            return null;
+        }
+        MetaData metaData = serializer.deserialize(new SerializedMetaData<>(serializedMetaData, byte[].class));
+        Class<R> payloadType = serializer.classForType(new SimpleSerializedType(declaredResultType, null));
+        R result = resultType == null ? null : serializer.deserialize(
+                new SimpleSerializedObject<>(serializedResult, byte[].class, resultType, resultRevision)
+        );
+        return new GenericQueryResponseMessage<>(payloadType, result, metaData);
+    }
+
+    /**
+     * Returns the error that occurred while handling the query. If {@link #isSuccess()} returns {@code true}, this
+     * method returns {@code null}.
+     *
+     * @param serializer The serializer to deserialize the error with
+     * @return the error that occurred while handling the query
+     */
+    public Throwable getError(Serializer serializer) {
+        if (success) {
+            return null;
+        }
+        return serializer.deserialize(
+                new SimpleSerializedObject<>(serializedResult, byte[].class, resultType, resultRevision)
+        );
+    }
+
+    /**
+     * Whether the query was handled successfully, in which case this message contains a response rather than an
+     * error.
+     *
+     * @return {@code true} if this message contains a response, {@code false} if it contains an error
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * Returns the name of the declared type of the response payload.
+     *
+     * @return the name of the declared type of the response payload
+     */
+    public String getDeclaredResultType() {
+        return declaredResultType;
+    }
+
+    /**
+     * Returns the type of the serialized response payload or error.
+     *
+     * @return the type of the serialized response payload or error
+     */
+    public String getResultType() {
+        return resultType;
+    }
+
+    /**
+     * Returns the revision of the serialized response payload or error.
+     *
+     * @return the revision of the serialized response payload or error
+     */
+    public String getResultRevision() {
+        return resultRevision;
+    }
+
+    /**
+     * Returns the serialized response payload or error.
+     *
+     * @return the serialized response payload or error
+     */
+    public byte[] getSerializedResult() {
+        return serializedResult;
+    }
+
+    /**
+     * Returns the serialized metadata of the response.
+     *
+     * @return the serialized metadata of the response
+     */
+    public byte[] getSerializedMetaData() {
+        return serializedMetaData;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SpringHttpQueryResponseMessage<?> that = (SpringHttpQueryResponseMessage<?>) o;
+        return success == that.success
+                && Objects.equals(declaredResultType, that.declaredResultType)
+                && Objects.equals(resultType, that.resultType)
+                && Objects.equals(resultRevision, that.resultRevision)
+                && Arrays.equals(serializedResult, that.serializedResult)
+                && Arrays.equals(serializedMetaData, that.serializedMetaData);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(success, declaredResultType, resultType, resultRevision);
+    }
+
+    @Override
+    public String toString() {
+        return "SpringHttpQueryResponseMessage{" +
+                "success=" + success +
+                ", declaredResultType='" + declaredResultType + '\'' +
+                ", resultType='" + resultType + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.commandhandling;
+
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.SimpleMember;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.AsyncRestOperations;
+import org.springframework.web.client.RestOperations;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"unchecked", "deprecation"})
+public class AsyncSpringHttpCommandBusConnectorTest {
+
+    private static final URI ENDPOINT = URI.create("http://localhost:8080/app");
+    private static final URI BATCH_URI = URI.create("http://localhost:8080/app/spring-command-bus-connector/commands");
+    private static final Member DESTINATION = new SimpleMember<>("remote", ENDPOINT, false, null);
+
+    private CommandBus localCommandBus;
+    private AsyncRestOperations asyncRestOperations;
+    private Serializer serializer;
+    private AsyncSpringHttpCommandBusConnector testSubject;
+    private List<SettableListenableFuture<ResponseEntity<List<SpringHttpReplyMessage<Object>>>>> responses;
+
+    @Before
+    public void setUp() {
+        localCommandBus = mock(CommandBus.class);
+        asyncRestOperations = mock(AsyncRestOperations.class);
+        serializer = new XStreamSerializer();
+        responses = new ArrayList<>();
+        when(asyncRestOperations.exchange(eq(BATCH_URI), eq(HttpMethod.POST), any(HttpEntity.class),
+                                          any(ParameterizedTypeReference.class))).thenAnswer(i -> {
+            SettableListenableFuture<ResponseEntity<List<SpringHttpReplyMessage<Object>>>> response =
+                    new SettableListenableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        testSubject = new AsyncSpringHttpCommandBusConnector(localCommandBus, mock(RestOperations.class),
+                                                             asyncRestOperations, serializer, 10, 1);
+    }
+
+    @Test
+    public void testLocalCommandsAreDispatchedOnLocalCommandBus() {
+        CommandMessage<String> command = GenericCommandMessage.asCommandMessage("command");
+        CommandCallback<String, Object> callback = mock(CommandCallback.class);
+
+        testSubject.send(new SimpleMember<>("local", ENDPOINT, true, null), command, callback);
+
+        verify(localCommandBus).dispatch(command, callback);
+        verifyZeroInteractions(asyncRestOperations);
+    }
+
+    @Test
+    public void testCallbackIsInvokedWhenReplyIsReceived() {
+        CommandMessage<String> command = GenericCommandMessage.asCommandMessage("command");
+        CommandCallback<String, Object> callback = mock(CommandCallback.class);
+
+        testSubject.send(DESTINATION, command, callback);
+
+        assertEquals(1, responses.size());
+        verifyZeroInteractions(callback);
+        responses.get(0).set(reply(new SpringHttpReplyMessage<>(command.getIdentifier(), true, "result",
+                                                                serializer)));
+        verify(callback).onSuccess(command, "result");
+    }
+
+    @Test
+    public void testCommandsSentWhileRequestIsInFlightAreBatched() {
+        CommandMessage<String> first = GenericCommandMessage.asCommandMessage("first");
+        CommandMessage<String> second = GenericCommandMessage.asCommandMessage("second");
+        CommandMessage<String> third = GenericCommandMessage.asCommandMessage("third");
+        CommandCallback<String, Object> callback = mock(CommandCallback.class);
+
+        testSubject.send(DESTINATION, first, callback);
+        testSubject.send(DESTINATION, second, callback);
+        testSubject.send(DESTINATION, third);
+        assertEquals(1, responses.size());
+
+        responses.get(0).set(reply(new SpringHttpReplyMessage<>(first.getIdentifier(), true, "first", serializer)));
+        verify(callback).onSuccess(first, "first");
+
+        ArgumentCaptor<HttpEntity> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(asyncRestOperations, times(2)).exchange(eq(BATCH_URI), eq(HttpMethod.POST), requests.capture(),
+                                                       any(ParameterizedTypeReference.class));
+        List<SpringHttpDispatchMessage<?>> batch = (List<SpringHttpDispatchMessage<?>>) requests.getValue().getBody();
+        assertEquals(2, batch.size());
+        assertEquals(second.getIdentifier(), batch.get(0).getCommandIdentifier());
+        assertTrue(batch.get(0).isExpectReply());
+        assertFalse(batch.get(1).isExpectReply());
+
+        responses.get(1).set(reply(
+                new SpringHttpReplyMessage<>(second.getIdentifier(), false, new IllegalStateException("error"),
+                                             serializer),
+                new SpringHttpReplyMessage<>(third.getIdentifier(), true, null, serializer)
+        ));
+        verify(callback).onFailure(eq(second), any(IllegalStateException.class));
+    }
+
+    @Test
+    public void testCallbacksAreInvokedWhenRequestFails() {
+        CommandMessage<String> command = GenericCommandMessage.asCommandMessage("command");
+        CommandCallback<String, Object> callback = mock(CommandCallback.class);
+        RuntimeException failure = new RuntimeException("connection refused");
+
+        testSubject.send(DESTINATION, command, callback);
+        responses.get(0).setException(failure);
+
+        verify(callback).onFailure(command, failure);
+        testSubject.send(DESTINATION, command, callback);
+        assertEquals(2, responses.size());
+    }
+
+    @Test
+    public void testReceivedBatchIsDispatchedOnLocalCommandBus() {
+        CommandMessage<String> command = GenericCommandMessage.asCommandMessage("command");
+        doAnswer(i -> {
+            ((CommandCallback<String, Object>) i.getArguments()[1]).onSuccess(command, "result");
+            return null;
+        }).when(localCommandBus).dispatch(any(), any());
+
+        List<SpringHttpReplyMessage> replies = testSubject.receiveCommands(asList(
+                new SpringHttpDispatchMessage<>(command, serializer, true),
+                new SpringHttpDispatchMessage<>(command, serializer, false)
+        )).join();
+
+        assertEquals(2, replies.size());
+        assertTrue(replies.get(0).isSuccess());
+        assertEquals("result", replies.get(0).getReturnValue(serializer));
+        verify(localCommandBus).dispatch(any());
+    }
+
+    private static ResponseEntity<List<SpringHttpReplyMessage<Object>>> reply(
+            SpringHttpReplyMessage<?>... replies) {
+        List<SpringHttpReplyMessage<Object>> body = new ArrayList<>();
+        for (SpringHttpReplyMessage<?> reply : replies) {
+            body.add((SpringHttpReplyMessage<Object>) reply);
+        }
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.queryhandling;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.queryhandling.GenericQueryMessage;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.responsetypes.ResponseTypes;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.serviceregistry.Registration;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SpringCloudQueryRouterTest {
+
+    private static final String SERVICE_ID = "service";
+
+    private DiscoveryClient discoveryClient;
+    private Registration localServiceInstance;
+    private Map<String, String> localMetadata;
+    private ServiceInstance remoteServiceInstance;
+    private Map<String, String> remoteMetadata;
+    private SpringCloudQueryRouter testSubject;
+
+    @Before
+    public void setUp() {
+        localMetadata = new HashMap<>();
+        localServiceInstance = mock(Registration.class);
+        when(localServiceInstance.getServiceId()).thenReturn(SERVICE_ID);
+        when(localServiceInstance.getUri()).thenReturn(URI.create("http://local"));
+        when(localServiceInstance.getMetadata()).thenReturn(localMetadata);
+
+        remoteMetadata = new HashMap<>();
+        remoteServiceInstance = mock(ServiceInstance.class);
+        when(remoteServiceInstance.getServiceId()).thenReturn(SERVICE_ID);
+        when(remoteServiceInstance.getUri()).thenReturn(URI.create("http://remote"));
+        when(remoteServiceInstance.getMetadata()).thenReturn(remoteMetadata);
+
+        ServiceInstance unrelatedServiceInstance = mock(ServiceInstance.class);
+        when(unrelatedServiceInstance.getMetadata()).thenReturn(Collections.emptyMap());
+
+        discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getServices()).thenReturn(Collections.singletonList(SERVICE_ID));
+        when(discoveryClient.getInstances(SERVICE_ID))
+                .thenReturn(Arrays.asList(localServiceInstance, remoteServiceInstance, unrelatedServiceInstance));
+
+        testSubject = new SpringCloudQueryRouter(discoveryClient, localServiceInstance);
+    }
+
+    @Test
+    public void testUpdateMembershipPublishesQueryNamesOfLocalMember() {
+        testSubject.updateMembership(new HashSet<>(Arrays.asList("query1", "query2")));
+
+        assertEquals(new HashSet<>(Arrays.asList("query1", "query2")),
+                     new HashSet<>(Arrays.asList(localMetadata.get("queryNames").split(","))));
+        List<Member> destinations = testSubject.findDestinations(query("query1"));
+        assertEquals(1, destinations.size());
+        assertTrue(destinations.get(0).local());
+        assertTrue(testSubject.findDestinations(query("query3")).isEmpty());
+    }
+
+    @Test
+    public void testRemoteMembersAreDiscoveredByQueryName() {
+        testSubject.updateMembership(Collections.singleton("query1"));
+        remoteMetadata.put("queryNames", "query1,query2");
+
+        testSubject.updateMemberships(mock(HeartbeatEvent.class));
+
+        assertEquals(2, testSubject.findDestinations(query("query1")).size());
+        List<Member> destinations = testSubject.findDestinations(query("query2"));
+        assertEquals(1, destinations.size());
+        assertFalse(destinations.get(0).local());
+        assertEquals(URI.create("http://remote"), destinations.get(0).getConnectionEndpoint(URI.class).orElse(null));
+
+        destinations.get(0).suspect();
+        assertTrue(testSubject.findDestinations(query("query2")).isEmpty());
+    }
+
+    private QueryMessage<String, String> query(String queryName) {
+        return new GenericQueryMessage<>("payload", queryName, ResponseTypes.instanceOf(String.class));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springcloud.queryhandling;
+
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.SimpleMember;
+import org.axonframework.queryhandling.GenericQueryMessage;
+import org.axonframework.queryhandling.GenericQueryResponseMessage;
+import org.axonframework.queryhandling.QueryMessage;
+import org.axonframework.queryhandling.QueryResponseMessage;
+import org.axonframework.queryhandling.SimpleQueryBus;
+import org.axonframework.queryhandling.responsetypes.ResponseTypes;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestOperations;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SpringHttpQueryBusConnectorTest {
+
+    private static final URI ENDPOINT = URI.create("http://remote:8080/app");
+    private static final Member DESTINATION = new SimpleMember<>("remote", ENDPOINT, SimpleMember.REMOTE_MEMBER, null);
+
+    private SimpleQueryBus localSegment;
+    private RestOperations restOperations;
+    private Serializer serializer;
+    private SpringHttpQueryBusConnector testSubject;
+    private QueryMessage<String, String> testQuery;
+
+    @Before
+    public void setUp() {
+        localSegment = new SimpleQueryBus();
+        restOperations = mock(RestOperations.class);
+        serializer = new XStreamSerializer();
+        testSubject = new SpringHttpQueryBusConnector(localSegment, restOperations, serializer, Runnable::run);
+        testQuery = new GenericQueryMessage<>("hello", "query", ResponseTypes.instanceOf(String.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testQueryIsSentToDestinationEndpoint() throws Exception {
+        when(restOperations.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class),
+                                     any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new SpringHttpQueryResponseMessage<>(
+                        new GenericQueryResponseMessage<>("world"), serializer), HttpStatus.OK));
+
+        QueryResponseMessage<String> response = testSubject.query(DESTINATION, testQuery).get();
+
+        assertEquals("world", response.getPayload());
+        verify(restOperations).exchange(eq(URI.create("http://remote:8080/app/spring-query-bus-connector/query")),
+                                        eq(HttpMethod.POST),
+                                        eq(new HttpEntity<>(new SpringHttpQueryMessage<>(testQuery, serializer))),
+                                        any(ParameterizedTypeReference.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testQueryCompletesExceptionallyWhenRemoteHandlerFails() throws InterruptedException {
+        when(restOperations.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class),
+                                     any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new SpringHttpQueryResponseMessage<>(
+                        new IllegalStateException("failure"), serializer), HttpStatus.OK));
+
+        try {
+            testSubject.query(DESTINATION, testQuery).get();
+            fail("Expected query to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("failure", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testReceivedQueryIsExecutedOnLocalSegment() throws Exception {
+        localSegment.subscribe("query", String.class, q -> q.getPayload().toString() + " world");
+
+        CompletableFuture<SpringHttpQueryResponseMessage<String>> reply =
+                testSubject.receiveQuery(new SpringHttpQueryMessage<>(testQuery, serializer));
+
+        assertTrue(reply.get().isSuccess());
+        assertEquals("hello world", reply.get().getResponseMessage(serializer).getPayload());
+    }
+
+    @Test
+    public void testReceivedQueryWithoutHandlerReportsError() throws Exception {
+        SpringHttpQueryResponseMessage<String> reply =
+                testSubject.receiveQuery(new SpringHttpQueryMessage<>(testQuery, serializer)).get();
+
+        assertFalse(reply.isSuccess());
+        assertNotNull(reply.getError(serializer));
+    }
+
+    @Test
+    public void testReceivedScatterGatherQueryCollectsLocalResponses() {
+        localSegment.subscribe("query", String.class, q -> "first");
+        localSegment.subscribe("query", String.class, q -> "second");
+
+        List<SpringHttpQueryResponseMessage<String>> replies =
+                testSubject.receiveScatterGather(new SpringHttpQueryMessage<>(testQuery, serializer), 1000);
+
+        List<String> payloads = replies.stream()
+                                       .map(reply -> reply.getResponseMessage(serializer).getPayload())
+                                       .sorted()
+                                       .collect(Collectors.toList());
+        assertEquals(Arrays.asList("first", "second"), payloads);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testScatterGatherIsSentWithTimeout() throws Exception {
+        when(restOperations.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class),
+                                     any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(Collections.singletonList(new SpringHttpQueryResponseMessage<>(
+                        new GenericQueryResponseMessage<>("remote"), serializer)), HttpStatus.OK));
+
+        List<QueryResponseMessage<String>> responses =
+                testSubject.scatterGather(DESTINATION, testQuery, 2, TimeUnit.SECONDS).get();
+
+        assertEquals(1, responses.size());
+        assertEquals("remote", responses.get(0).getPayload());
+        verify(restOperations).exchange(
+                eq(URI.create("http://remote:8080/app/spring-query-bus-connector/scatter-gather?timeout=2000")),
+                eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)
+        );
+    }
+
+    @Test
+    public void testShutdownStopsExecutorService() {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        testSubject = new SpringHttpQueryBusConnector(localSegment, restOperations, serializer, executorService);
+
+        testSubject.shutdown();
+
+        assertTrue(executorService.isTerminated());
+    }
+}
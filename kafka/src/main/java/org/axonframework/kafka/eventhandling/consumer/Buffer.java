@@ -38,6 +38,16 @@
 
     E peek();
 
+    /**
+     * Removes at most the given number of available elements from this buffer and adds them to the given collection,
+     * without waiting for elements to become available.
+     *
+     * @param c           the collection to transfer elements into
+     * @param maxElements the maximum number of elements to transfer
+     * @return the number of elements transferred
+     */
+    int drainTo(Collection<? super E> c, int maxElements);
+
     int size();
 
     boolean isEmpty();
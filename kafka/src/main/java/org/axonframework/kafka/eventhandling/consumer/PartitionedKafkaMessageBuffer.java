@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.kafka.eventhandling.consumer;
+
+import org.axonframework.common.Assert;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock free buffer for storing incoming Kafka messages, which keeps a bounded single-producer/single-consumer queue
+ * per partition and merges the heads of these queues on the consuming side in the order defined via
+ * {@link Comparable}.
+ * <p>
+ * In contrast to the {@link SortedKafkaMessageBuffer}, the fetching and the processing thread never contend on a
+ * shared lock. The merge is lazy: on every retrieval only the head of each partition queue is compared, which keeps
+ * messages of a single partition in the order in which they were put (i.e. offset order), while messages of
+ * different partitions are interleaved by their natural order (i.e. timestamp).
+ * <p>
+ * This buffer is designed to be filled by a single thread (the fetcher) and drained by a single thread (the event
+ * processor). Using it from more than one producing or more than one consuming thread is not supported.
+ *
+ * @param <E> element type.
+ */
+public class PartitionedKafkaMessageBuffer<E extends Comparable<? super E> & KafkaMetadataProvider>
+        implements Buffer<E> {
+
+    /**
+     * Max buffer size, across all partitions
+     */
+    private final int capacity;
+
+    /**
+     * Number of messages in the buffer, across all partitions
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Partition queues indexed by partition number, used by the producing side
+     */
+    private final Map<Integer, PartitionQueue<E>> queuesByPartition = new ConcurrentHashMap<>();
+
+    /**
+     * Snapshot of all partition queues, iterated by the consuming side
+     */
+    private volatile PartitionQueue<E>[] queues;
+
+    /**
+     * The consuming thread, if it is waiting for a message to become available
+     */
+    private volatile Thread waitingConsumer;
+
+    /**
+     * The producing thread, if it is waiting for space to become available
+     */
+    private volatile Thread waitingProducer;
+
+    public PartitionedKafkaMessageBuffer() {
+        this(1_000);
+    }
+
+    /**
+     * @param capacity the capacity of this buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionedKafkaMessageBuffer(int capacity) {
+        Assert.isTrue(capacity > 0, () -> "Capacity may not be <= 0");
+        this.capacity = capacity;
+        this.queues = new PartitionQueue[0];
+    }
+
+    /**
+     * Inserts the specified message in the queue of its partition, waiting for space to become available if the
+     * buffer is full.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public void put(E e) throws InterruptedException {
+        Assert.notNull(e, () -> "Element may not be empty");
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        doPut(e);
+    }
+
+    @Override
+    public void putAll(Collection<E> c) throws InterruptedException {
+        Assert.notNull(c, () -> "Element may not be empty");
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        for (E e : c) {
+            doPut(e);
+        }
+    }
+
+    private void doPut(E e) throws InterruptedException {
+        while (count.get() >= capacity) {
+            awaitNotFull();
+        }
+        // the global count guarantees the partition queue has room, as it can never hold more than capacity elements
+        queueFor(e.partition()).offer(e);
+        count.incrementAndGet();
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Retrieves and removes the first message of this buffer, waiting up to the specified wait time if necessary for a
+     * message to become available.
+     *
+     * @param timeout how long to wait before giving up, in units of {@code unit}
+     * @param unit    a {@code TimeUnit} determining how to interpret the {@code timeout} parameter
+     * @return the first message of this buffer, or {@code null} if the specified waiting time elapses before a message
+     * is available
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E removed;
+        while ((removed = remove()) == null) {
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0) {
+                return null;
+            }
+            awaitNotEmpty(nanos);
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves and removes the first message of this buffer, waiting if necessary until a message becomes available.
+     *
+     * @return the first message of this buffer.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public E take() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        E removed;
+        while ((removed = remove()) == null) {
+            awaitNotEmpty(Long.MAX_VALUE);
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves, but does not remove, the first message of this buffer, or returns null if this buffer is empty.
+     *
+     * @return the message.
+     */
+    @Override
+    public E peek() {
+        PartitionQueue<E> first = firstQueue();
+        return first == null ? null : first.peek();
+    }
+
+    /**
+     * Removes at most the given number of available messages from this buffer, in order, and adds them to the given
+     * collection. Unlike {@link #poll(long, TimeUnit)}, this method never waits for messages to become available.
+     *
+     * @param c           the collection to transfer messages into
+     * @param maxElements the maximum number of messages to transfer
+     * @return the number of messages transferred
+     */
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Assert.notNull(c, () -> "Collection may not be null");
+        int drained = 0;
+        E removed;
+        while (drained < maxElements && (removed = remove()) != null) {
+            c.add(removed);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the number of elements in this buffer.
+     *
+     * @return the number of elements in this buffer
+     */
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count.get() == 0;
+    }
+
+    /**
+     * Returns the number of additional elements that this buffer can ideally (in the absence of memory or resource
+     * constraints) accept without blocking. This is always equal to the initial capacity of this buffer less the
+     * current {@code size} of this buffer.
+     */
+    @Override
+    public int remainingCapacity() {
+        return capacity - count.get();
+    }
+
+    /**
+     * Removes all of the messages from this buffer. Should only be invoked by the consuming thread.
+     */
+    @Override
+    public void clear() {
+        while (remove() != null) {
+            // removing all available messages
+        }
+    }
+
+    /**
+     * Removes the first message across all partition queues and signals a waiting producer.
+     */
+    private E remove() {
+        PartitionQueue<E> first = firstQueue();
+        if (first == null) {
+            return null;
+        }
+        E x = first.poll();
+        count.decrementAndGet();
+        Thread producer = waitingProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+        return x;
+    }
+
+    /**
+     * Performs a single step of the k-way merge: returns the queue holding the smallest head element, or {@code null}
+     * if all queues are empty.
+     */
+    private PartitionQueue<E> firstQueue() {
+        PartitionQueue<E> first = null;
+        E firstHead = null;
+        for (PartitionQueue<E> queue : queues) {
+            E head = queue.peek();
+            if (head != null && (firstHead == null || head.compareTo(firstHead) < 0)) {
+                first = queue;
+                firstHead = head;
+            }
+        }
+        return first;
+    }
+
+    private PartitionQueue<E> queueFor(int partition) {
+        PartitionQueue<E> queue = queuesByPartition.get(partition);
+        return queue != null ? queue : queuesByPartition.computeIfAbsent(partition, this::createQueue);
+    }
+
+    private synchronized PartitionQueue<E> createQueue(int partition) {
+        PartitionQueue<E> queue = new PartitionQueue<>(capacity);
+        PartitionQueue<E>[] current = queues;
+        PartitionQueue<E>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = queue;
+        queues = updated;
+        return queue;
+    }
+
+    private void awaitNotEmpty(long nanos) throws InterruptedException {
+        waitingConsumer = Thread.currentThread();
+        try {
+            // re-check after publishing the waiting thread, so that a concurrent put cannot be missed
+            if (count.get() == 0) {
+                LockSupport.parkNanos(this, nanos);
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void awaitNotFull() throws InterruptedException {
+        waitingProducer = Thread.currentThread();
+        try {
+            // re-check after publishing the waiting thread, so that a concurrent remove cannot be missed
+            if (count.get() >= capacity) {
+                LockSupport.park(this);
+            }
+        } finally {
+            waitingProducer = null;
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionedKafkaMessageBuffer:" + queuesByPartition.keySet();
+    }
+
+    /**
+     * Bounded single-producer/single-consumer array queue. The producer publishes elements by (lazily) advancing the
+     * tail, the consumer releases slots by (lazily) advancing the head.
+     *
+     * @param <E> element type.
+     */
+    private static final class PartitionQueue<E> {
+
+        private final Object[] elements;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        private PartitionQueue(int capacity) {
+            int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            this.elements = new Object[size];
+            this.mask = size - 1;
+        }
+
+        private boolean offer(E e) {
+            long t = tail.get();
+            if (t - head.get() == elements.length) {
+                return false;
+            }
+            elements[(int) t & mask] = e;
+            tail.lazySet(t + 1);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E peek() {
+            long h = head.get();
+            return h == tail.get() ? null : (E) elements[(int) h & mask];
+        }
+
+        @SuppressWarnings("unchecked")
+        private E poll() {
+            long h = head.get();
+            if (h == tail.get()) {
+                return null;
+            }
+            int index = (int) h & mask;
+            E e = (E) elements[index];
+            elements[index] = null;
+            head.lazySet(h + 1);
+            return e;
+        }
+    }
+}
@@ -212,6 +212,36 @@ public E peek() {
         }
     }
 
+    /**
+     * Removes at most the given number of available messages from this buffer, in order, and adds them to the given
+     * collection. Unlike {@link #poll(long, TimeUnit)}, this method never waits for messages to become available.
+     *
+     * @param c           the collection to transfer messages into
+     * @param maxElements the maximum number of messages to transfer
+     * @return the number of messages transferred
+     */
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Assert.notNull(c, () -> "Collection may not be null");
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int drained = 0;
+            E x;
+            while (drained < maxElements && (x = this.delegate.pollFirst()) != null) {
+                c.add(x);
+                drained++;
+            }
+            if (drained > 0) {
+                this.count -= drained;
+                this.notFull.signalAll();
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Inserts message, advances, and signals.
      * Call only when holding lock.
@@ -96,7 +96,7 @@ public Producer<K, V> createProducer() {
             synchronized (this) {
                 if (this.producer == null) {
                     this.producer = new CloseLazyProducer<>(
-                            createKafkaProducer(configs), cache, closeTimeout, unit);
+                            createKafkaProducer(configs), null, closeTimeout, unit);
                 }
             }
         }
@@ -234,6 +234,10 @@ public void close() {
 
         @Override
         public void close(long timeout, TimeUnit unit) {
+            if (this.cache == null) {
+                // shared producer, closed when the factory shuts down
+                return;
+            }
             boolean isAdded = this.cache.offer(this);
             if (!isAdded) {
                 this.delegate.close(timeout, unit);
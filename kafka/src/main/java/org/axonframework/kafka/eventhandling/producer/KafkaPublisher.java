@@ -19,6 +19,7 @@
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.errors.ProducerFencedException;
+import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.common.Registration;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.kafka.eventhandling.KafkaMessageConverter;
@@ -35,9 +36,15 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Publisher implementation that uses Kafka Message Broker to dispatch event messages. All
@@ -45,6 +52,14 @@
  * <p>
  * This terminal does not dispatch Events internally, as it relies on each event processor to listen to it's own Kafka
  * Topic.
+ * <p>
+ * When {@link KafkaPublisherConfiguration.Builder#withPipelining(int) pipelining} is enabled, the publishing thread
+ * does not wait for Kafka to acknowledge messages or to commit transactions. Instead, the configured
+ * {@link MessageMonitor} is notified from the Kafka send callbacks (or after the asynchronous commit), and the number
+ * of unacknowledged messages is bounded. The {@link #getInFlightCount() in-flight count} and
+ * {@link #getAverageAckLatency(TimeUnit) acknowledgement latency} can be used to monitor the pipeline. Transactions are
+ * committed in the order in which their Units of Work commit, by a single thread unless a different
+ * {@link KafkaPublisherConfiguration.Builder#withCommitExecutor(ExecutorService) commit executor} is configured.
  *
  * @param <K> the key type.
  * @param <V> the value type.
@@ -61,6 +76,14 @@
     private final MessageMonitor<? super EventMessage<?>> messageMonitor;
     private final String topic;
     private final long publisherAckTimeout;
+    private final boolean pipelined;
+    private final int maxInFlightMessages;
+    private final Semaphore inFlightPermits;
+    private final ExecutorService commitExecutor;
+    private final boolean requireExecutorShutdown;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder ackCount = new LongAdder();
+    private final LongAdder ackLatencyNanos = new LongAdder();
 
     private Registration eventBusRegistration;
 
@@ -76,6 +99,16 @@ public KafkaPublisher(KafkaPublisherConfiguration<K, V> config) {
         this.messageMonitor = config.getMessageMonitor();
         this.topic = config.getTopic();
         this.publisherAckTimeout = config.getPublisherAckTimeout();
+        this.pipelined = config.isPipelined();
+        this.maxInFlightMessages = config.getMaxInFlightMessages();
+        this.inFlightPermits = new Semaphore(maxInFlightMessages);
+        if (pipelined && config.getCommitExecutor() == null) {
+            this.commitExecutor = Executors.newSingleThreadExecutor(new AxonThreadFactory("KafkaPublisher"));
+            this.requireExecutorShutdown = true;
+        } else {
+            this.commitExecutor = config.getCommitExecutor();
+            this.requireExecutorShutdown = false;
+        }
     }
 
     /**
@@ -93,9 +126,39 @@ public void shutDown() {
             eventBusRegistration.cancel();
             eventBusRegistration = null;
         }
+        if (requireExecutorShutdown) {
+            commitExecutor.shutdown();
+            try {
+                commitExecutor.awaitTermination(publisherAckTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         producerFactory.shutDown();
     }
 
+    /**
+     * Returns the number of messages that have been sent to Kafka, but of which the publication has not been
+     * acknowledged (or committed) yet. Only messages published in pipelined mode are counted.
+     *
+     * @return the number of messages awaiting acknowledgement
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the average time between sending a message to Kafka and its acknowledgement (or the commit of the
+     * transaction it was sent in). Only messages published in pipelined mode are measured.
+     *
+     * @param unit the unit to express the latency in
+     * @return the average acknowledgement latency, or {@code 0} if no message has been acknowledged yet
+     */
+    public long getAverageAckLatency(TimeUnit unit) {
+        long count = ackCount.sum();
+        return count == 0 ? 0 : unit.convert(ackLatencyNanos.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
     /**
      * Send {@code events} to the configured Kafka {@code topic}.
      * It takes the current Unit of Work into account when available.
@@ -112,6 +175,10 @@ public void shutDown() {
      * @param events the events to publish on the Kafka broker.
      */
     protected void send(List<? extends EventMessage<?>> events) {
+        if (pipelined) {
+            sendPipelined(events);
+            return;
+        }
         final Map<? super EventMessage<?>, MonitorCallback> monitorCallbacks = messageMonitor
                 .onMessagesIngested(events);
         Producer<K, V> producer = producerFactory.createProducer();
@@ -135,6 +202,147 @@ protected void send(List<? extends EventMessage<?>> events) {
         }
     }
 
+    /**
+     * Sends {@code events} without waiting for their acknowledgement. Non-transactional messages are reported to the
+     * monitor from their Kafka send callback, transactional messages once their transaction has been committed
+     * asynchronously (after the Unit of Work commits, if one is active).
+     */
+    private void sendPipelined(List<? extends EventMessage<?>> events) {
+        final Map<? super EventMessage<?>, MonitorCallback> monitorCallbacks = messageMonitor
+                .onMessagesIngested(events);
+        if (producerFactory.confirmationMode().isTransactional()) {
+            sendTransactionalBatch(events, monitorCallbacks);
+            return;
+        }
+        Producer<K, V> producer = producerFactory.createProducer();
+        int sent = 0;
+        try {
+            for (EventMessage<?> event : events) {
+                acquirePermits(1);
+                MonitorCallback monitorCallback = monitorCallbacks.get(event);
+                long sendTime = System.nanoTime();
+                inFlight.incrementAndGet();
+                try {
+                    producer.send(messageConverter.createKafkaMessage(event, topic), (metadata, exception) -> {
+                        if (exception == null) {
+                            acknowledged(1, 1, sendTime);
+                            monitorCallback.reportSuccess();
+                        } else {
+                            release(1, 1);
+                            logger.warn("Encountered error while publishing event", exception);
+                            monitorCallback.reportFailure(exception);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    release(1, 1);
+                    throw e;
+                }
+                sent++;
+            }
+        } catch (RuntimeException e) {
+            // the failing event and all events after it have not been sent
+            events.subList(sent, events.size()).forEach(event -> monitorCallbacks.get(event).reportFailure(e));
+            throw e;
+        } finally {
+            tryClose(producer);
+        }
+    }
+
+    private void sendTransactionalBatch(List<? extends EventMessage<?>> events,
+                                        Map<? super EventMessage<?>, MonitorCallback> monitorCallbacks) {
+        // a transaction can only be released as a whole, so it may never need more permits than available in total
+        int permits = Math.min(events.size(), maxInFlightMessages);
+        try {
+            acquirePermits(permits);
+        } catch (RuntimeException e) {
+            monitorCallbacks.forEach((k, v) -> v.reportFailure(e));
+            throw e;
+        }
+        long sendTime = System.nanoTime();
+        inFlight.addAndGet(events.size());
+        Producer<K, V> producer;
+        try {
+            producer = producerFactory.createProducer();
+        } catch (RuntimeException e) {
+            release(events.size(), permits);
+            monitorCallbacks.forEach((k, v) -> v.reportFailure(e));
+            throw e;
+        }
+        try {
+            tryBeginTxn(producer);
+            publishToKafka(events, producer);
+        } catch (RuntimeException e) {
+            tryRollback(producer);
+            tryClose(producer);
+            release(events.size(), permits);
+            monitorCallbacks.forEach((k, v) -> v.reportFailure(e));
+            throw e;
+        }
+        Runnable commitTask = () -> {
+            try {
+                tryCommit(producer, monitorCallbacks);
+                acknowledged(events.size(), permits, sendTime);
+            } catch (EventPublicationFailedException e) {
+                // already reported to the monitor, there is nobody left to rethrow to
+                release(events.size(), permits);
+            } catch (RuntimeException e) {
+                logger.warn("Unable to commit transaction", e);
+                tryRollback(producer);
+                release(events.size(), permits);
+                monitorCallbacks.forEach((k, v) -> v.reportFailure(e));
+            } finally {
+                tryClose(producer);
+            }
+        };
+        Runnable commit = () -> {
+            try {
+                commitExecutor.execute(commitTask);
+            } catch (RejectedExecutionException e) {
+                // the executor has been shut down, so commit on this thread rather than abandoning the transaction
+                logger.debug("Commit executor rejected the commit of a transaction. Committing it inline.", e);
+                commitTask.run();
+            }
+        };
+        if (CurrentUnitOfWork.isStarted()) {
+            UnitOfWork<?> uow = CurrentUnitOfWork.get();
+            uow.afterCommit(u -> commit.run());
+            uow.onRollback(u -> {
+                rollbackKafkaWork(producer, ConfirmationMode.TRANSACTIONAL);
+                release(events.size(), permits);
+            });
+        } else {
+            commit.run();
+        }
+    }
+
+    private void acquirePermits(int permits) {
+        try {
+            inFlightPermits.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventPublicationFailedException(
+                    "Event publication failed: Interrupted while waiting for in-flight messages to be acknowledged",
+                    e);
+        }
+    }
+
+    /**
+     * Releases in-flight resources for acknowledged messages and records their latency.
+     */
+    private void acknowledged(int messageCount, int permits, long sendTime) {
+        ackCount.add(messageCount);
+        ackLatencyNanos.add((System.nanoTime() - sendTime) * messageCount);
+        release(messageCount, permits);
+    }
+
+    /**
+     * Releases in-flight resources for messages that have been acknowledged, failed or were discarded.
+     */
+    private void release(int messageCount, int permits) {
+        inFlight.addAndGet(-messageCount);
+        inFlightPermits.release(permits);
+    }
+
     /**
      * Send's event messages to Kafka.
      *
@@ -25,6 +25,8 @@
 import org.axonframework.monitoring.NoOpMessageMonitor;
 import org.axonframework.serialization.xml.XStreamSerializer;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Configures {@link KafkaPublisher}.
  *
@@ -41,6 +43,9 @@
     private final MessageMonitor<? super EventMessage<?>> messageMonitor;
     private final String topic;
     private final long publisherAckTimeout;
+    private final boolean pipelined;
+    private final int maxInFlightMessages;
+    private final ExecutorService commitExecutor;
 
     private KafkaPublisherConfiguration(Builder<K, V> builder) {
         this.messageSource = builder.messageSource;
@@ -49,6 +54,9 @@ private KafkaPublisherConfiguration(Builder<K, V> builder) {
         this.messageMonitor = builder.messageMonitor;
         this.topic = builder.topic;
         this.publisherAckTimeout = builder.publisherAckTimeout;
+        this.pipelined = builder.pipelined;
+        this.maxInFlightMessages = builder.maxInFlightMessages;
+        this.commitExecutor = builder.commitExecutor;
     }
 
     public SubscribableMessageSource<EventMessage<?>> getMessageSource() {
@@ -75,6 +83,18 @@ public long getPublisherAckTimeout() {
         return publisherAckTimeout;
     }
 
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public int getMaxInFlightMessages() {
+        return maxInFlightMessages;
+    }
+
+    public ExecutorService getCommitExecutor() {
+        return commitExecutor;
+    }
+
     public static <K, V> Builder<K, V> builder() {
         return new Builder<>();
     }
@@ -88,6 +108,9 @@ public static <K, V> Builder<K, V> builder() {
         private MessageMonitor<? super EventMessage<?>> messageMonitor = NoOpMessageMonitor.instance();
         private String topic = "Axon.Events";
         private long publisherAckTimeout = 1000;
+        private boolean pipelined = false;
+        private int maxInFlightMessages = 10_000;
+        private ExecutorService commitExecutor;
 
         /**
          * Configure {@link SubscribableMessageSource}.
@@ -160,6 +183,40 @@ public Builder<K, V> withPublisherAckTimeout(long timeoutInMillis) {
             return this;
         }
 
+        /**
+         * Configure the publisher to pipeline publication: messages are sent without waiting for Kafka to acknowledge
+         * them, and the {@link MessageMonitor} is notified asynchronously once Kafka acknowledges a message (or, when
+         * using transactions, once the Kafka transaction has been committed). Publication failures are then only
+         * reported to the monitor, and no longer to the publishing thread.
+         * <p>
+         * The publishing thread blocks when the given number of messages are awaiting acknowledgement.
+         *
+         * @param maxInFlightMessages the maximum number of messages that may await acknowledgement.
+         * @return the builder.
+         */
+        public Builder<K, V> withPipelining(int maxInFlightMessages) {
+            Assert.isTrue(maxInFlightMessages > 0, () -> "Max in-flight messages should be > 0");
+            this.pipelined = true;
+            this.maxInFlightMessages = maxInFlightMessages;
+            return this;
+        }
+
+        /**
+         * Configure {@link ExecutorService} that commits Kafka transactions when publication is pipelined. Defaults to
+         * a single threaded executor owned by the publisher, which commits transactions in the order in which they
+         * were scheduled. An executor running tasks concurrently may commit transactions out of order.
+         * <p>
+         * Note that the provided executor will <em>not</em> be shut down when the publisher is shut down.
+         *
+         * @param commitExecutor the executor.
+         * @return the builder.
+         */
+        public Builder<K, V> withCommitExecutor(ExecutorService commitExecutor) {
+            Assert.notNull(commitExecutor, () -> "Commit executor may not be null");
+            this.commitExecutor = commitExecutor;
+            return this;
+        }
+
         public KafkaPublisherConfiguration<K, V> build() {
             Assert.notNull(producerFactory, () -> "The publisher must be configured with a ProducerFactory");
             Assert.notNull(messageSource, () -> "The publisher must be configured with a MessageSource");
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.kafka.eventhandling.benchmark;
+
+import org.axonframework.kafka.eventhandling.consumer.Buffer;
+import org.axonframework.kafka.eventhandling.consumer.KafkaEventMessage;
+import org.axonframework.kafka.eventhandling.consumer.PartitionedKafkaMessageBuffer;
+import org.axonframework.kafka.eventhandling.consumer.SortedKafkaMessageBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.axonframework.eventsourcing.eventstore.EventUtils.asTrackedEventMessage;
+
+/**
+ * This compares the {@link SortedKafkaMessageBuffer} with the {@link PartitionedKafkaMessageBuffer} in the way they
+ * are used by the {@link org.axonframework.kafka.eventhandling.consumer.AsyncFetcher}: a single fetcher thread
+ * putting messages in partition order and a single processor thread retrieving them. The put/peek/poll operations
+ * mirror {@link MessageBufferBenchmarks_PutPeekPoll} and {@link MessageBufferBenchmarks_PutPeekTake}, which can't be
+ * used for the partitioned buffer as they put from many threads concurrently. A blocking take is not measured here,
+ * as it would never return once the producing thread has finished its iteration.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+public class MessageBufferBenchmarks_SingleProducerSingleConsumer {
+
+    @Param(value = "1048576")
+    private static int bufferSize;
+
+    @Param({"sorted", "partitioned"})
+    private String bufferType;
+
+    private static KafkaEventMessage[] testData;
+
+    private Buffer<KafkaEventMessage> buffer;
+
+    private List<KafkaEventMessage> drained;
+
+    @Setup(Level.Trial)
+    public void createBuffer() {
+        buffer = "partitioned".equals(bufferType)
+                ? new PartitionedKafkaMessageBuffer<>(bufferSize)
+                : new SortedKafkaMessageBuffer<>(bufferSize);
+        drained = new ArrayList<>(100);
+    }
+
+    @Setup(Level.Trial)
+    public void prepareTestData() {
+        testData = new KafkaEventMessage[bufferSize];
+        int i = 0;
+        while (i < bufferSize) {
+            testData[i++] = message(0, i, i + 1);
+            testData[i++] = message(1, i, i + 1);
+            testData[i++] = message(2, i, i + 1);
+            testData[i++] = message(3, i, i + 1);
+        }
+    }
+
+    private static KafkaEventMessage message(int partition, int offset, int timestamp) {
+        return new KafkaEventMessage(
+                asTrackedEventMessage(asEventMessage(
+                        String.valueOf(offset) + "abc" + String.valueOf(offset * 17 + 123)), null),
+                partition,
+                offset,
+                timestamp
+        );
+    }
+
+    @Benchmark
+    @Group("putPeekPoll")
+    @GroupThreads(1)
+    public void put_poll(ProducerState state) throws InterruptedException {
+        doPut(state);
+    }
+
+    @Benchmark
+    @Group("putPeekPoll")
+    @GroupThreads(1)
+    public KafkaEventMessage peekPoll(Blackhole blackhole) throws InterruptedException {
+        // peeking is done by the consuming thread, as the partitioned buffer only supports a single consumer
+        blackhole.consume(buffer.peek());
+        return buffer.poll(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("putDrain")
+    @GroupThreads(1)
+    public void put_drain(ProducerState state) throws InterruptedException {
+        doPut(state);
+    }
+
+    @Benchmark
+    @Group("putDrain")
+    @GroupThreads(1)
+    public int drain() {
+        drained.clear();
+        return buffer.drainTo(drained, 100);
+    }
+
+    private void doPut(ProducerState state) throws InterruptedException {
+        // never block on a full buffer, as the consumer may already have finished its iteration
+        if (buffer.remainingCapacity() > 0) {
+            buffer.put(testData[state.next() & (testData.length - 1)]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ProducerState {
+
+        private int index;
+
+        int next() {
+            return index++;
+        }
+    }
+
+    // Convenience main entry-point
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + MessageBufferBenchmarks_SingleProducerSingleConsumer.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.kafka.eventhandling.consumer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.axonframework.eventsourcing.eventstore.EventUtils.asTrackedEventMessage;
+
+/**
+ * Tests for {@link PartitionedKafkaMessageBuffer}.
+ */
+public class PartitionedKafkaMessageBufferTests extends JSR166TestCase {
+
+    public void testCreateBuffer_WithNonPositiveCapacity() {
+        try {
+            new PartitionedKafkaMessageBuffer<KafkaEventMessage>(0);
+            shouldThrow();
+        } catch (IllegalArgumentException success) {
+        }
+    }
+
+    public void testPutInvalidMessageInABuffer() throws InterruptedException {
+        try {
+            new PartitionedKafkaMessageBuffer<KafkaEventMessage>().put(null);
+            shouldThrow();
+        } catch (IllegalArgumentException success) {
+        }
+    }
+
+    public void testCreateBuffer() {
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>(SIZE);
+        assertThat(buffer.remainingCapacity()).isEqualTo(SIZE);
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(buffer.peek()).isNull();
+    }
+
+    public void testRemainingCapacity() throws InterruptedException {
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            buffer.put(message(i % 3, i, i, "m" + i));
+            assertThat(buffer.size()).isEqualTo(i + 1);
+            assertThat(buffer.remainingCapacity()).isEqualTo(SIZE - (i + 1));
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertThat(buffer.take().value().getPayload()).isEqualTo("m" + i);
+            assertThat(buffer.remainingCapacity()).isEqualTo(i + 1);
+        }
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    public void testPutAndPoll_TimestampOrderingAcrossPartitions() throws InterruptedException {
+        List<KafkaEventMessage> messages = asList(message(2, 0, 0, "m0"),
+                                                  message(2, 1, 1, "m1"),
+                                                  message(2, 2, 2, "m2"),
+                                                  message(2, 3, 8, "m8"),
+                                                  message(2, 4, 9, "m9"),
+                                                  message(0, 0, 3, "m3"),
+                                                  message(0, 1, 4, "m4"),
+                                                  message(0, 2, 5, "m5"),
+                                                  message(0, 3, 7, "m7"),
+                                                  message(1, 0, 6, "m6"));
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>();
+        buffer.putAll(messages);
+        assertThat(buffer.size()).isEqualTo(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertThat(buffer.peek().value().getPayload()).isEqualTo("m" + i);
+            assertThat(buffer.poll(0, NANOSECONDS).value().getPayload()).isEqualTo("m" + i);
+        }
+        assertThat(buffer.poll(0, NANOSECONDS)).isNull();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    public void testPutAndTake_OffsetOrderIsKeptWithinPartition() throws InterruptedException {
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>();
+        buffer.put(message(0, 0, 10, "p0-0"));
+        buffer.put(message(0, 1, 5, "p0-1"));
+        buffer.put(message(1, 0, 7, "p1-0"));
+
+        assertThat(buffer.take().value().getPayload()).isEqualTo("p1-0");
+        assertThat(buffer.take().value().getPayload()).isEqualTo("p0-0");
+        assertThat(buffer.take().value().getPayload()).isEqualTo("p0-1");
+    }
+
+    public void testPutAndPoll_ProgressiveBuffer() throws InterruptedException {
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>();
+        assertThat(buffer.poll(10, NANOSECONDS)).isNull();
+        buffer.put(message(0, 10, 10, "m10"));
+        buffer.put(message(0, 11, 11, "m11"));
+        buffer.put(message(1, 20, 5, "m5"));
+        buffer.put(message(100, 0, 0, "m0"));
+        assertThat(buffer.poll(0, NANOSECONDS).value().getPayload()).isEqualTo("m0");
+        assertThat(buffer.poll(0, NANOSECONDS).value().getPayload()).isEqualTo("m5");
+        buffer.put(message(2, 9, 9, "m9"));
+        assertThat(buffer.poll(0, NANOSECONDS).value().getPayload()).isEqualTo("m9");
+        assertThat(buffer.poll(0, NANOSECONDS).value().getPayload()).isEqualTo("m10");
+        assertThat(buffer.poll(0, NANOSECONDS).value().getPayload()).isEqualTo("m11");
+    }
+
+    public void testDrainTo_RespectsMaxElements() throws InterruptedException {
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>();
+        buffer.put(message(0, 0, 2, "m2"));
+        buffer.put(message(1, 0, 0, "m0"));
+        buffer.put(message(2, 0, 1, "m1"));
+        buffer.put(message(2, 1, 3, "m3"));
+
+        List<KafkaEventMessage> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).extracting(m -> (Object) m.value().getPayload()).containsExactly("m0", "m1", "m2");
+        assertThat(buffer.size()).isOne();
+        assertThat(buffer.drainTo(drained, 10)).isOne();
+        assertThat(buffer.drainTo(drained, 10)).isZero();
+        assertThat(buffer.remainingCapacity()).isEqualTo(1_000);
+    }
+
+    public void testClear() throws InterruptedException {
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            buffer.put(message(i % 2, i, i, "m"));
+        }
+        buffer.clear();
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(buffer.remainingCapacity()).isEqualTo(SIZE);
+        assertThat(buffer.peek()).isNull();
+    }
+
+    public void testPoll_OnAnInterruptedStream() {
+        try {
+            Thread.currentThread().interrupt();
+            try {
+                new PartitionedKafkaMessageBuffer<KafkaEventMessage>().poll(0, NANOSECONDS);
+                shouldThrow();
+            } catch (InterruptedException success) {
+            }
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    public void testPut_OnAnInterruptedStream() {
+        try {
+            Thread.currentThread().interrupt();
+            try {
+                new PartitionedKafkaMessageBuffer<KafkaEventMessage>().put(message(0, 0, 1, "foo"));
+                shouldThrow();
+            } catch (InterruptedException success) {
+            }
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * put blocks interruptibly if full
+     */
+    public void testBlockingPut() {
+        final PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>(SIZE);
+        final CountDownLatch pleaseInterrupt = new CountDownLatch(1);
+        Thread t = newStartedThread(new CheckedRunnable() {
+            public void realRun() throws InterruptedException {
+                for (int i = 0; i < SIZE; ++i) {
+                    buffer.put(message(i % 4, i, i, "m"));
+                }
+                assertThat(buffer.remainingCapacity()).isZero();
+                pleaseInterrupt.countDown();
+                try {
+                    buffer.put(message(99, 99, 99, "m"));
+                    shouldThrow();
+                } catch (InterruptedException success) {
+                }
+                assertThat(Thread.interrupted()).isFalse();
+            }
+        });
+
+        await(pleaseInterrupt);
+        waitForThreadToEnterWaitState(t);
+        t.interrupt();
+        awaitTermination(t);
+        assertThat(buffer.size()).isEqualTo(SIZE);
+    }
+
+    public void testSingleProducerSingleConsumer_PreservesPartitionOrder() throws InterruptedException {
+        int messagesPerPartition = 10_000;
+        int partitions = 4;
+        PartitionedKafkaMessageBuffer<KafkaEventMessage> buffer = new PartitionedKafkaMessageBuffer<>(64);
+        Thread producer = newStartedThread(new CheckedRunnable() {
+            public void realRun() throws InterruptedException {
+                for (int offset = 0; offset < messagesPerPartition; offset++) {
+                    for (int partition = 0; partition < partitions; partition++) {
+                        buffer.put(message(partition, offset, offset, "m"));
+                    }
+                }
+            }
+        });
+
+        long[] lastOffsets = new long[partitions];
+        Arrays.fill(lastOffsets, -1);
+        for (int i = 0; i < messagesPerPartition * partitions; i++) {
+            KafkaEventMessage message = buffer.poll(LONG_DELAY_MS, MILLISECONDS);
+            assertThat(message).isNotNull();
+            assertThat(message.offset()).isEqualTo(lastOffsets[message.partition()] + 1);
+            lastOffsets[message.partition()] = message.offset();
+        }
+        awaitTermination(producer);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    private static KafkaEventMessage message(int partition, int offset, int timestamp, String value) {
+        return new KafkaEventMessage(asTrackedEventMessage(asEventMessage(value), null), partition, offset, timestamp);
+    }
+}
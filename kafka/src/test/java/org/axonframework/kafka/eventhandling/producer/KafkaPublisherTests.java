@@ -17,6 +17,7 @@
 package org.axonframework.kafka.eventhandling.producer;
 
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.errors.ProducerFencedException;
@@ -48,9 +49,11 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -283,6 +286,154 @@ public void testSendMessage_WithKafkaTransactionRollback() {
         testSubject.shutDown();
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPublishMessagesPipelined_MonitorIsNotifiedFromKafkaCallbacks() {
+        DefaultProducerFactory pf = mock(DefaultProducerFactory.class);
+        when(pf.confirmationMode()).thenReturn(ConfirmationMode.WAIT_FOR_ACK);
+        Producer producer = mock(Producer.class);
+        when(pf.createProducer()).thenReturn(producer);
+        List<Callback> callbacks = new CopyOnWriteArrayList<>();
+        when(producer.send(any(), any())).thenAnswer(invocation -> {
+            callbacks.add(invocation.getArgument(1));
+            return null;
+        });
+        KafkaPublisher<?, ?> testSubject = pipelinedPublisher("testPublishMessagesPipelined", pf, 10);
+        List<GenericDomainEventMessage<String>> messages = domainMessages("1234", 3);
+
+        eventBus.publish(messages);
+
+        assertThat(callbacks).hasSize(messages.size());
+        assertThat(testSubject.getInFlightCount()).isEqualTo(messages.size());
+        assertThat(monitor.successCount()).isZero();
+
+        callbacks.get(0).onCompletion(null, null);
+        callbacks.get(1).onCompletion(null, new RuntimeException("mock"));
+        callbacks.get(2).onCompletion(null, null);
+
+        assertThat(testSubject.getInFlightCount()).isZero();
+        assertThat(monitor.successCount()).isEqualTo(2);
+        assertThat(monitor.failureCount()).isOne();
+        verify(producer, never()).send(any());
+        testSubject.shutDown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPublishMessagesPipelined_TransactionIsCommittedAfterUnitOfWork() throws Exception {
+        DefaultProducerFactory pf = mock(DefaultProducerFactory.class);
+        when(pf.confirmationMode()).thenReturn(ConfirmationMode.TRANSACTIONAL);
+        Producer producer = mock(Producer.class);
+        when(pf.createProducer()).thenReturn(producer);
+        // the commit executor only starts committing once the latch is released
+        CountDownLatch commitLatch = new CountDownLatch(1);
+        ExecutorService commitExecutor = Executors.newSingleThreadExecutor();
+        commitExecutor.submit(() -> {
+            commitLatch.await();
+            return null;
+        });
+        KafkaPublisher<?, ?> testSubject =
+                pipelinedPublisher("testPublishMessagesPipelined_Transactional", pf, 1, commitExecutor);
+        GenericDomainEventMessage<String> message = domainMessage("1234");
+
+        UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(message);
+        eventBus.publish(message);
+        uow.commit();
+
+        // the batch was sent while committing the unit of work, but the transaction is committed asynchronously
+        verify(producer).beginTransaction();
+        verify(producer, never()).commitTransaction();
+        assertThat(testSubject.getInFlightCount()).isOne();
+
+        commitLatch.countDown();
+        commitExecutor.shutdown();
+        assertTrue(commitExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        testSubject.shutDown();
+        verify(producer).commitTransaction();
+        verify(producer).close();
+        assertThat(testSubject.getInFlightCount()).isZero();
+        assertThat(monitor.successCount()).isOne();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPublishMessagesPipelined_TransactionIsAbortedOnRollback() {
+        DefaultProducerFactory pf = mock(DefaultProducerFactory.class);
+        when(pf.confirmationMode()).thenReturn(ConfirmationMode.TRANSACTIONAL);
+        Producer producer = mock(Producer.class);
+        when(pf.createProducer()).thenReturn(producer);
+        KafkaPublisher<?, ?> testSubject = pipelinedPublisher("testPublishMessagesPipelined_Rollback", pf, 1);
+        GenericDomainEventMessage<String> message = domainMessage("1234");
+
+        UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(message);
+        eventBus.publish(message);
+        uow.onPrepareCommit(u -> {
+            throw new RuntimeException();
+        });
+        try {
+            uow.commit();
+            fail("expected exception");
+        } catch (Exception e) {
+            //expected
+        }
+
+        verify(producer).abortTransaction();
+        verify(producer, never()).commitTransaction();
+        assertThat(testSubject.getInFlightCount()).isZero();
+        testSubject.shutDown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPublishMessagesPipelined_TransactionIsCommittedInlineAfterShutDown() {
+        DefaultProducerFactory pf = mock(DefaultProducerFactory.class);
+        when(pf.confirmationMode()).thenReturn(ConfirmationMode.TRANSACTIONAL);
+        Producer producer = mock(Producer.class);
+        when(pf.createProducer()).thenReturn(producer);
+        ExecutorService commitExecutor = Executors.newSingleThreadExecutor();
+        KafkaPublisher<?, ?> testSubject =
+                pipelinedPublisher("testPublishMessagesPipelined_ShutDown", pf, 1, commitExecutor);
+        GenericDomainEventMessage<String> message = domainMessage("1234");
+
+        UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(message);
+        eventBus.publish(message);
+        commitExecutor.shutdown();
+        uow.commit();
+
+        verify(producer).commitTransaction();
+        verify(producer).close();
+        assertThat(testSubject.getInFlightCount()).isZero();
+        assertThat(monitor.successCount()).isOne();
+        testSubject.shutDown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPublishMessagesPipelined_UnsentMessagesAreReportedAsFailedOnInterrupt() {
+        DefaultProducerFactory pf = mock(DefaultProducerFactory.class);
+        when(pf.confirmationMode()).thenReturn(ConfirmationMode.WAIT_FOR_ACK);
+        Producer producer = mock(Producer.class);
+        when(pf.createProducer()).thenReturn(producer);
+        KafkaPublisher<?, ?> testSubject = pipelinedPublisher("testPublishMessagesPipelined_Interrupt", pf, 10);
+        List<GenericDomainEventMessage<String>> messages = domainMessages("1234", 3);
+
+        Thread.currentThread().interrupt();
+        try {
+            eventBus.publish(messages);
+            fail("expected exception");
+        } catch (EventPublicationFailedException e) {
+            //expected
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        verify(producer, never()).send(any(), any());
+        verify(producer).close();
+        assertThat(testSubject.getInFlightCount()).isZero();
+        assertThat(monitor.failureCount()).isEqualTo(messages.size());
+        testSubject.shutDown();
+    }
+
     @After
     public void tearDown() {
         while (CurrentUnitOfWork.isStarted()) {
@@ -333,6 +484,29 @@ private static DefaultProducerFactory producerFactoryWithFencedExceptionOnCommit
         return testSubject;
     }
 
+    private KafkaPublisher<?, ?> pipelinedPublisher(String topic, ProducerFactory<String, byte[]> pf,
+                                                    int maxInFlight) {
+        return pipelinedPublisher(topic, pf, maxInFlight, null);
+    }
+
+    private KafkaPublisher<?, ?> pipelinedPublisher(String topic, ProducerFactory<String, byte[]> pf,
+                                                    int maxInFlight, ExecutorService commitExecutor) {
+        KafkaPublisherConfiguration.Builder<String, byte[]> builder =
+                KafkaPublisherConfiguration.<String, byte[]>builder()
+                        .withProducerFactory(pf)
+                        .withPipelining(maxInFlight)
+                        .withMessageMonitor(monitor)
+                        .withMessageSource(eventBus)
+                        .withMessageConverter(new DefaultKafkaMessageConverter(new XStreamSerializer()))
+                        .withTopic(topic);
+        if (commitExecutor != null) {
+            builder.withCommitExecutor(commitExecutor);
+        }
+        KafkaPublisher<?, ?> testSubject = new KafkaPublisher<>(builder.build());
+        testSubject.start();
+        return testSubject;
+    }
+
     private Consumer<?, ?> consumer(String topic) {
         Consumer<?, ?> consumer = transactionalConsumerFactory(
                 kafka, topic, ByteArrayDeserializer.class
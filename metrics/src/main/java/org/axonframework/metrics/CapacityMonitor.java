@@ -35,6 +35,9 @@
  * If the value for a single threaded message handler is 1 the component is active 100% of the time. This means
  * that messages will have to wait to be processed.
  *
+ * Processing times are counted in a {@link SlidingTimeWindowHdrReservoir}, so the memory used by this monitor does not
+ * depend on the number of messages processed within the time window.
+ *
  * @author Marijn van Zelst
  * @since 3.0
  */
@@ -72,7 +75,7 @@ public CapacityMonitor(long window, TimeUnit timeUnit) {
      * @param clock The clock used to measure the process time per message
      */
     public CapacityMonitor(long window, TimeUnit timeUnit, Clock clock) {
-        SlidingTimeWindowReservoir slidingTimeWindowReservoir = new SlidingTimeWindowReservoir(window, timeUnit, clock);
+        SlidingTimeWindowHdrReservoir slidingTimeWindowReservoir = new SlidingTimeWindowHdrReservoir(window, timeUnit, clock);
         this.processedDurationHistogram = new Histogram(slidingTimeWindowReservoir);
         this.timeUnit = timeUnit;
         this.window = window;
@@ -113,7 +116,7 @@ private class CapacityGauge implements Gauge<Double> {
         public Double getValue() {
             Snapshot snapshot = processedDurationHistogram.getSnapshot();
             double meanProcessTime = snapshot.getMean();
-            int numProcessed = snapshot.getValues().length;
+            int numProcessed = snapshot.size();
             return  (numProcessed * meanProcessTime) / timeUnit.toMillis(window);
         }
     }
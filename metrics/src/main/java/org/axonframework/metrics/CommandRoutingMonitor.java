@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.axonframework.commandhandling.distributed.ConsistentHash;
+import org.axonframework.commandhandling.distributed.ConsistentHashChangeListener;
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.MemberLoadTracker;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exposes the effective distribution of commands over the members of a distributed command bus with load aware
+ * routing. Register this monitor as the {@link ConsistentHashChangeListener} of the command router, to be notified of
+ * membership changes, and pass it the {@link MemberLoadTracker} used by the distributed command bus.
+ * <p>
+ * For each member of the consistent hash, the following gauges are registered with the given {@link MetricRegistry},
+ * prefixed with the name of the monitored component and suffixed with the name of the member:
+ * <ul>
+ * <li>{@code activeSegments}: the number of segments of the member that are routed to it, given its current load</li>
+ * <li>{@code inFlight}: the number of commands sent to the member awaiting a reply</li>
+ * <li>{@code averageLatency}: the average time in milliseconds it takes the member to reply</li>
+ * </ul>
+ * For example, the number of active segments of a member named {@code node1} of a command bus monitored under the
+ * name {@code commandBus} is registered as {@code commandBus.activeSegments.node1}. The gauges of members that leave
+ * the consistent hash are removed from the registry.
+ *
+ * @since 3.4
+ */
+public class CommandRoutingMonitor implements ConsistentHashChangeListener {
+
+    private static final String ACTIVE_SEGMENTS = "activeSegments";
+    private static final String IN_FLIGHT = "inFlight";
+    private static final String AVERAGE_LATENCY = "averageLatency";
+
+    private final MetricRegistry registry;
+    private final String name;
+    private final MemberLoadTracker loadTracker;
+    private final AtomicReference<ConsistentHash> consistentHash = new AtomicReference<>(new ConsistentHash());
+    private final Set<String> registeredMembers = new HashSet<>();
+
+    /**
+     * Creates a monitor registering gauges with the given {@code registry} under the given {@code name}, exposing the
+     * distribution of commands given the load tracked by the given {@code loadTracker}.
+     *
+     * @param registry    The registry to register the gauges of each member with
+     * @param name        The name of the monitored component, prefixing the names of the gauges
+     * @param loadTracker The tracker of the load of the members
+     */
+    public CommandRoutingMonitor(MetricRegistry registry, String name, MemberLoadTracker loadTracker) {
+        this.registry = registry;
+        this.name = name;
+        this.loadTracker = loadTracker;
+    }
+
+    @Override
+    public void onConsistentHashChanged(ConsistentHash newConsistentHash) {
+        consistentHash.accumulateAndGet(newConsistentHash,
+                                        (current, update) -> update.version() >= current.version() ? update : current);
+        refreshGauges();
+    }
+
+    private synchronized void refreshGauges() {
+        Set<String> memberNames = new HashSet<>();
+        for (Member member : consistentHash.get().getMembers()) {
+            memberNames.add(member.name());
+            if (registeredMembers.add(member.name())) {
+                registerGauges(member);
+            }
+        }
+        registeredMembers.removeIf(memberName -> {
+            if (memberNames.contains(memberName)) {
+                return false;
+            }
+            registry.remove(MetricRegistry.name(name, ACTIVE_SEGMENTS, memberName));
+            registry.remove(MetricRegistry.name(name, IN_FLIGHT, memberName));
+            registry.remove(MetricRegistry.name(name, AVERAGE_LATENCY, memberName));
+            return true;
+        });
+    }
+
+    private void registerGauges(Member member) {
+        String memberName = member.name();
+        registry.register(MetricRegistry.name(name, ACTIVE_SEGMENTS, memberName), (Gauge<Integer>) () -> consistentHash
+                .get().getActiveSegmentCounts(loadTracker).getOrDefault(memberName, 0));
+        registry.register(MetricRegistry.name(name, IN_FLIGHT, memberName),
+                          (Gauge<Integer>) () -> loadTracker.inFlight(member));
+        registry.register(MetricRegistry.name(name, AVERAGE_LATENCY, memberName),
+                          (Gauge<Double>) () -> loadTracker.averageLatency(member));
+    }
+}
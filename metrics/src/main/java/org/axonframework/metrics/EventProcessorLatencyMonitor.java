@@ -16,19 +16,26 @@
 
 package org.axonframework.metrics;
 
+import com.codahale.metrics.Clock;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Reservoir;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitorCallback;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Measures the difference in message timestamps between the last ingested and the last processed message.
+ * <p>
+ * Additionally, the time between the timestamp of each message and the moment its processing completed is counted in
+ * a histogram, reported in milliseconds.
  *
  * @author Marijn van Zelst
  * @since 3.0
@@ -37,6 +44,30 @@ public class EventProcessorLatencyMonitor implements MessageMonitor<EventMessage
 
     private final AtomicLong lastReceivedTime = new AtomicLong(-1);
     private final AtomicLong lastProcessedTime = new AtomicLong(-1);
+    private final Clock clock;
+    private final Histogram processingLatency;
+
+    /**
+     * Creates an EventProcessorLatencyMonitor using a default clock, counting the processing latencies of up to a day
+     * recorded during the last minute in a {@link SlidingTimeWindowHdrReservoir}.
+     */
+    public EventProcessorLatencyMonitor() {
+        this(Clock.defaultClock(), new SlidingTimeWindowHdrReservoir(1, TimeUnit.MINUTES, Clock.defaultClock(), 4,
+                                                                     TimeUnit.DAYS.toMillis(1),
+                                                                     HdrHistogramReservoir.DEFAULT_SIGNIFICANT_DIGITS));
+    }
+
+    /**
+     * Creates an EventProcessorLatencyMonitor using the provided clock, counting processing latencies in the given
+     * {@code reservoir}.
+     *
+     * @param clock     the clock used to determine when the processing of a message completed
+     * @param reservoir the reservoir counting the processing latencies in milliseconds
+     */
+    public EventProcessorLatencyMonitor(Clock clock, Reservoir reservoir) {
+        this.clock = clock;
+        this.processingLatency = new Histogram(reservoir);
+    }
 
     @Override
     public MonitorCallback onMessageIngested(EventMessage<?> message) {
@@ -61,7 +92,9 @@ public void reportIgnored() {
             }
 
             private void update(){
-                updateIfMaxValue(lastProcessedTime, message.getTimestamp().toEpochMilli());
+                long timestamp = message.getTimestamp().toEpochMilli();
+                updateIfMaxValue(lastProcessedTime, timestamp);
+                processingLatency.update(clock.getTime() - timestamp);
             }
         };
     }
@@ -78,6 +111,7 @@ public Map<String, Metric> getMetrics() {
         }
         Map<String, Metric> metrics = new HashMap<>();
         metrics.put("latency", (Gauge<Long>) () -> processTime);
+        metrics.put("processingLatency", processingLatency);
         return metrics;
     }
 
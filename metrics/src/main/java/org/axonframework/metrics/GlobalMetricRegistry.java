@@ -15,8 +15,10 @@
 
 package org.axonframework.metrics;
 
+import com.codahale.metrics.Clock;
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
 import org.axonframework.commandhandling.CommandBus;
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.config.Configurer;
@@ -24,6 +26,10 @@
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.EventProcessor;
 import org.axonframework.messaging.Message;
+import org.axonframework.messaging.annotation.ClasspathHandlerDefinition;
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
+import org.axonframework.messaging.annotation.MultiHandlerDefinition;
+import org.axonframework.messaging.annotation.MultiHandlerEnhancerDefinition;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.MultiMessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitor;
@@ -37,6 +43,7 @@
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Registry for application metrics with convenient ways to register Axon components.
@@ -47,6 +54,8 @@ public class GlobalMetricRegistry {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalMetricRegistry.class);
     private final MetricRegistry registry;
+    private final Supplier<Reservoir> reservoirFactory;
+    private final HandlerMetricsEnhancerDefinition handlerEnhancerDefinition;
 
     /**
      * Initializes a new {@link GlobalMetricRegistry} delegating to a new {@link MetricRegistry} with default settings.
@@ -56,12 +65,34 @@ public GlobalMetricRegistry() {
     }
 
     /**
-     * Initializes a {@link GlobalMetricRegistry} delegating to the given {@code metricRegistry}.
+     * Initializes a {@link GlobalMetricRegistry} delegating to the given {@code metricRegistry}. Timers and histograms
+     * of registered components count the values of the last minute in a {@link
+     * SlidingTimeWindowHdrReservoir#forTimer(Clock) SlidingTimeWindowHdrReservoir}, except for the timers of message
+     * handlers, which use the smaller default of the {@link HandlerMetricsEnhancerDefinition}.
      *
      * @param metricRegistry the metric registry which will record the metrics
      */
     public GlobalMetricRegistry(MetricRegistry metricRegistry) {
+        this(metricRegistry, () -> SlidingTimeWindowHdrReservoir.forTimer(Clock.defaultClock()),
+             new HandlerMetricsEnhancerDefinition(metricRegistry));
+    }
+
+    /**
+     * Initializes a {@link GlobalMetricRegistry} delegating to the given {@code metricRegistry}. Timers and histograms
+     * of registered components count their values in a reservoir provided by the given {@code reservoirFactory}.
+     *
+     * @param metricRegistry   the metric registry which will record the metrics
+     * @param reservoirFactory the factory creating the reservoir of each timer and histogram
+     */
+    public GlobalMetricRegistry(MetricRegistry metricRegistry, Supplier<Reservoir> reservoirFactory) {
+        this(metricRegistry, reservoirFactory, new HandlerMetricsEnhancerDefinition(metricRegistry, reservoirFactory));
+    }
+
+    private GlobalMetricRegistry(MetricRegistry metricRegistry, Supplier<Reservoir> reservoirFactory,
+                                 HandlerMetricsEnhancerDefinition handlerEnhancerDefinition) {
         this.registry = metricRegistry;
+        this.reservoirFactory = reservoirFactory;
+        this.handlerEnhancerDefinition = handlerEnhancerDefinition;
     }
 
     /**
@@ -79,6 +110,36 @@ public Configurer registerWithConfigurer(Configurer configurer) {
                         componentType, componentName));
     }
 
+    /**
+     * Registers the metrics of individual message handlers with the given {@code configurer}, by adding the
+     * {@link #handlerEnhancerDefinition()} to the handler enhancers found on the classpath. This replaces a
+     * handler definition previously registered with the configurer.
+     *
+     * @param configurer the application's configurer
+     * @return configurer with the new registration applied
+     */
+    public Configurer registerHandlersWithConfigurer(Configurer configurer) {
+        return configurer.registerHandlerDefinition((configuration, inspectedClass) -> {
+            MultiHandlerDefinition classpathDefinition = ClasspathHandlerDefinition.forClass(inspectedClass);
+            return MultiHandlerDefinition.ordered(
+                    classpathDefinition.getDelegates(),
+                    MultiHandlerEnhancerDefinition.ordered(classpathDefinition.getHandlerEnhancerDefinition(),
+                                                           handlerEnhancerDefinition)
+            );
+        });
+    }
+
+    /**
+     * Returns the {@link HandlerEnhancerDefinition} that registers the metrics of each message handler it enhances
+     * with this registry.
+     *
+     * @return the enhancer registering handler metrics
+     * @see HandlerMetricsEnhancerDefinition
+     */
+    public HandlerEnhancerDefinition handlerEnhancerDefinition() {
+        return handlerEnhancerDefinition;
+    }
+
     /**
      * Registers a {@link Metric} to the registry under the given {@code name}.
      *
@@ -129,14 +190,16 @@ public MessageMonitor<? extends Message<?>> registerComponent(Class<?> component
      * @return MessageMonitor to monitor the behavior of an EventProcessor
      */
     public MessageMonitor<? super EventMessage<?>> registerEventProcessor(String eventProcessorName) {
-        MessageTimerMonitor messageTimerMonitor = new MessageTimerMonitor();
-        EventProcessorLatencyMonitor eventProcessorLatencyMonitor = new EventProcessorLatencyMonitor();
+        MessageTimerMonitor messageTimerMonitor = createMessageTimerMonitor();
+        EventProcessorLatencyMonitor eventProcessorLatencyMonitor =
+                new EventProcessorLatencyMonitor(Clock.defaultClock(), reservoirFactory.get());
         CapacityMonitor capacityMonitor = new CapacityMonitor(1, TimeUnit.MINUTES);
         MessageCountingMonitor messageCountingMonitor = new MessageCountingMonitor();
 
         MetricRegistry eventProcessingRegistry = new MetricRegistry();
         eventProcessingRegistry.register("messageTimer", messageTimerMonitor);
         eventProcessingRegistry.register("latency", eventProcessorLatencyMonitor);
+        eventProcessingRegistry.register("capacity", capacityMonitor);
         eventProcessingRegistry.register("messageCounter", messageCountingMonitor);
         registry.register(eventProcessorName, eventProcessingRegistry);
 
@@ -158,7 +221,7 @@ public MessageMonitor<? super EventMessage<?>> registerEventProcessor(String eve
      */
     public MessageMonitor<? super EventMessage<?>> registerEventBus(String name) {
         MessageCountingMonitor messageCounterMonitor = new MessageCountingMonitor();
-        MessageTimerMonitor messageTimerMonitor = new MessageTimerMonitor();
+        MessageTimerMonitor messageTimerMonitor = createMessageTimerMonitor();
 
         MetricRegistry eventProcessingRegistry = new MetricRegistry();
         eventProcessingRegistry.register("messageCounter", messageCounterMonitor);
@@ -193,7 +256,7 @@ public MessageMonitor<? super CommandMessage<?>> registerCommandBus(String name)
     }
 
     private MessageMonitor<Message<?>> registerDefaultHandlerMessageMonitor(String name) {
-        MessageTimerMonitor messageTimerMonitor = new MessageTimerMonitor();
+        MessageTimerMonitor messageTimerMonitor = createMessageTimerMonitor();
         CapacityMonitor capacityMonitor = new CapacityMonitor(1, TimeUnit.MINUTES);
         MessageCountingMonitor messageCountingMonitor = new MessageCountingMonitor();
 
@@ -206,6 +269,10 @@ private MessageMonitor<Message<?>> registerDefaultHandlerMessageMonitor(String n
         return new MultiMessageMonitor<>(messageTimerMonitor, capacityMonitor, messageCountingMonitor);
     }
 
+    private MessageTimerMonitor createMessageTimerMonitor() {
+        return new MessageTimerMonitor(Clock.defaultClock(), reservoirFactory);
+    }
+
     /**
      * Returns the global {@link MetricRegistry} to which components are registered.
      *
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Timer;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
+import org.axonframework.messaging.annotation.MessageHandlingMember;
+import org.axonframework.messaging.annotation.WrappedMessageHandlingMember;
+
+import java.lang.reflect.Executable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link HandlerEnhancerDefinition} that times each invocation of a message handler. Three timers are registered per
+ * handler, under the name of the handler prefixed with {@code handlers}: {@code allTimer}, {@code successTimer} and
+ * {@code failureTimer}. For example, the metrics of a method {@code on(OrderPlaced)} in {@code
+ * com.example.OrderProjection} are registered as {@code
+ * handlers.com.example.OrderProjection.on(com.example.OrderPlaced).allTimer}, etc.
+ * <p>
+ * The timers of a handler are resolved once, when the handler is wrapped, so that timing an invocation does not
+ * require a lookup of the timers. Handlers with the same name, for example those of a class inspected more than once
+ * or by another enhancer registering with the same registry, share the timers already registered under that name.
+ * <p>
+ * As an application may contain many handlers, the timers use a smaller reservoir by default than the other monitors
+ * in this module: a {@link SlidingTimeWindowHdrReservoir} of the last minute with a precision of one significant digit.
+ *
+ * @since 3.4
+ */
+public class HandlerMetricsEnhancerDefinition implements HandlerEnhancerDefinition {
+
+    /**
+     * The prefix of the names under which handler metrics are registered.
+     */
+    public static final String HANDLER_METRICS_PREFIX = "handlers";
+
+    private static final int DEFAULT_SIGNIFICANT_DIGITS = 1;
+
+    private final MetricRegistry registry;
+    private final Supplier<Reservoir> reservoirFactory;
+    private final Clock clock = Clock.defaultClock();
+    private final Map<String, HandlerTimers> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes an enhancer registering handler metrics with the given {@code registry}, counting the handling times
+     * of the last minute in a {@link SlidingTimeWindowHdrReservoir} with a precision of one significant digit.
+     *
+     * @param registry the registry to register the metrics of each handler with
+     */
+    public HandlerMetricsEnhancerDefinition(MetricRegistry registry) {
+        this(registry, () -> new SlidingTimeWindowHdrReservoir(1, TimeUnit.MINUTES, Clock.defaultClock(), 4,
+                                                               HdrHistogramReservoir.DEFAULT_HIGHEST_TRACKABLE_VALUE,
+                                                               DEFAULT_SIGNIFICANT_DIGITS));
+    }
+
+    /**
+     * Initializes an enhancer registering handler metrics with the given {@code registry}, counting handling times in
+     * reservoirs provided by the given {@code reservoirFactory}.
+     *
+     * @param registry         the registry to register the metrics of each handler with
+     * @param reservoirFactory the factory creating the reservoir of each timer
+     */
+    public HandlerMetricsEnhancerDefinition(MetricRegistry registry, Supplier<Reservoir> reservoirFactory) {
+        this.registry = registry;
+        this.reservoirFactory = reservoirFactory;
+    }
+
+    @Override
+    public <T> MessageHandlingMember<T> wrapHandler(MessageHandlingMember<T> original) {
+        return new TimedMessageHandlingMember<>(original, timers.computeIfAbsent(handlerName(original),
+                                                                                  this::resolveTimers));
+    }
+
+    private HandlerTimers resolveTimers(String handlerName) {
+        String name = MetricRegistry.name(HANDLER_METRICS_PREFIX, handlerName);
+        return new HandlerTimers(clock,
+                                 timer(MetricRegistry.name(name, "allTimer")),
+                                 timer(MetricRegistry.name(name, "successTimer")),
+                                 timer(MetricRegistry.name(name, "failureTimer")));
+    }
+
+    private Timer timer(String name) {
+        Metric existing = registry.getMetrics().get(name);
+        if (existing instanceof Timer) {
+            return (Timer) existing;
+        }
+        try {
+            return registry.register(name, new Timer(reservoirFactory.get(), clock));
+        } catch (IllegalArgumentException e) {
+            // registered concurrently, or by another component under the same name
+            Metric registered = registry.getMetrics().get(name);
+            if (registered instanceof Timer) {
+                return (Timer) registered;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the name under which the metrics of the given {@code handler} are registered. By default, this is the
+     * fully qualified name of the handler method followed by the fully qualified name of its payload type.
+     *
+     * @param handler the handler to return the name of
+     * @return the name of the handler
+     */
+    protected String handlerName(MessageHandlingMember<?> handler) {
+        String member = handler.unwrap(Executable.class)
+                               .map(e -> e.getDeclaringClass().getName() + "." + e.getName())
+                               .orElseGet(() -> handler.getClass().getName());
+        return member + "(" + handler.payloadType().getName() + ")";
+    }
+
+    private static class HandlerTimers {
+
+        private final Clock clock;
+        private final Timer allTimer;
+        private final Timer successTimer;
+        private final Timer failureTimer;
+
+        private HandlerTimers(Clock clock, Timer allTimer, Timer successTimer, Timer failureTimer) {
+            this.clock = clock;
+            this.allTimer = allTimer;
+            this.successTimer = successTimer;
+            this.failureTimer = failureTimer;
+        }
+
+        private void update(Timer outcomeTimer, long start) {
+            long duration = clock.getTick() - start;
+            allTimer.update(duration, TimeUnit.NANOSECONDS);
+            outcomeTimer.update(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static class TimedMessageHandlingMember<T> extends WrappedMessageHandlingMember<T> {
+
+        private final HandlerTimers timers;
+
+        private TimedMessageHandlingMember(MessageHandlingMember<T> delegate, HandlerTimers timers) {
+            super(delegate);
+            this.timers = timers;
+        }
+
+        @Override
+        public Object handle(Message<?> message, T target) throws Exception {
+            long start = timers.clock.getTick();
+            try {
+                Object result = super.handle(message, target);
+                timers.update(timers.successTimer, start);
+                return result;
+            } catch (Exception | Error e) {
+                timers.update(timers.failureTimer, start);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Reservoir} that counts values in a fixed size histogram with HDR histogram buckets, instead of storing
+ * (a sample of) the values themselves. Memory use is independent of the rate at which values are recorded, and
+ * quantiles such as the 99th and 99.9th percentile are accurate to the configured number of significant digits.
+ * <p>
+ * By default, a snapshot contains all values recorded since the reservoir was created, so its percentiles never decay.
+ * When created with {@code intervalSnapshots}, each snapshot only contains the values recorded since the previous
+ * snapshot was taken. The monitors in this module use a {@link SlidingTimeWindowHdrReservoir} by default. Provide a
+ * factory of this reservoir to opt in to cumulative percentiles instead.
+ *
+ * @since 3.4
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    /**
+     * The default highest trackable value: one hour in nanoseconds, the time unit used by a
+     * {@link com.codahale.metrics.Timer}.
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    /**
+     * The default number of significant decimal digits of recorded values.
+     */
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+    private final LogLinearHistogram histogram;
+    private final boolean intervalSnapshots;
+    private final long[] previousCounts;
+    private long previousSum;
+
+    /**
+     * Initializes a reservoir tracking values up to one hour in nanoseconds with two significant digits, of which each
+     * snapshot contains all values recorded since the reservoir was created.
+     */
+    public HdrHistogramReservoir() {
+        this(DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SIGNIFICANT_DIGITS, false);
+    }
+
+    /**
+     * Initializes a reservoir tracking values up to {@code highestTrackableValue} with the given number of {@code
+     * significantDigits}. Higher values are counted as the highest trackable value, but are still taken into account
+     * in the minimum, maximum and mean of a snapshot.
+     *
+     * @param highestTrackableValue the highest value to distinguish from other values
+     * @param significantDigits     the number of significant decimal digits, between 1 and 5
+     * @param intervalSnapshots     whether a snapshot should only contain values recorded since the previous snapshot
+     */
+    public HdrHistogramReservoir(long highestTrackableValue, int significantDigits, boolean intervalSnapshots) {
+        this.histogram = new LogLinearHistogram(highestTrackableValue, significantDigits);
+        this.intervalSnapshots = intervalSnapshots;
+        this.previousCounts = intervalSnapshots ? new long[histogram.bucketCount()] : null;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, histogram.totalCount());
+    }
+
+    @Override
+    public void update(long value) {
+        histogram.record(value);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        long[] counts = new long[histogram.bucketCount()];
+        if (!intervalSnapshots) {
+            long sum = histogram.sum();
+            histogram.addCountsTo(counts);
+            // counted from the buckets, so that quantiles are consistent with concurrently recorded values
+            long totalCount = 0;
+            for (long count : counts) {
+                totalCount += count;
+            }
+            return new HdrHistogramSnapshot(histogram, counts, totalCount, sum, histogram.min(), histogram.max());
+        }
+        return intervalSnapshot(counts);
+    }
+
+    private synchronized Snapshot intervalSnapshot(long[] counts) {
+        long sum = histogram.sum();
+        histogram.addCountsTo(counts);
+        // the histogram is never reset, so the values of the interval are the difference with the previous snapshot
+        long intervalCount = 0;
+        int lowestIndex = -1;
+        int highestIndex = -1;
+        for (int i = 0; i < counts.length; i++) {
+            long cumulativeCount = counts[i];
+            counts[i] -= previousCounts[i];
+            previousCounts[i] = cumulativeCount;
+            if (counts[i] > 0) {
+                intervalCount += counts[i];
+                lowestIndex = lowestIndex < 0 ? i : lowestIndex;
+                highestIndex = i;
+            }
+        }
+        long intervalSum = sum - previousSum;
+        previousSum = sum;
+        if (intervalCount == 0) {
+            return new HdrHistogramSnapshot(histogram, counts, 0, 0, 0, 0);
+        }
+        long min = Math.max(histogram.min(), histogram.valueAt(lowestIndex));
+        long max = Math.min(histogram.max(), highestIndex == counts.length - 1
+                ? histogram.max() : histogram.valueAt(highestIndex));
+        return new HdrHistogramSnapshot(histogram, counts, intervalCount, intervalSum, min, max);
+    }
+}
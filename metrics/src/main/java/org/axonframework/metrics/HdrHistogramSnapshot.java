@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Snapshot;
+import org.axonframework.common.Assert;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Snapshot of the bucket counts of a {@link LogLinearHistogram}. Quantiles are calculated from the buckets, while the
+ * minimum, maximum and mean are exact. Values reported for a bucket are limited to the exact minimum and maximum, so
+ * that a snapshot of equal values reports these values exactly.
+ *
+ * @since 3.4
+ */
+class HdrHistogramSnapshot extends Snapshot {
+
+    private final LogLinearHistogram layout;
+    private final long[] counts;
+    private final long totalCount;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    /**
+     * Initializes a snapshot of the given bucket {@code counts}.
+     *
+     * @param layout     the histogram defining the values represented by the buckets
+     * @param counts     the number of values counted per bucket
+     * @param totalCount the total number of values
+     * @param sum        the exact sum of all values
+     * @param min        the exact minimum of all values
+     * @param max        the exact maximum of all values
+     */
+    HdrHistogramSnapshot(LogLinearHistogram layout, long[] counts, long totalCount, long sum, long min, long max) {
+        this.layout = layout;
+        this.counts = counts;
+        this.totalCount = totalCount;
+        this.sum = sum;
+        this.min = totalCount == 0 ? 0 : min;
+        this.max = totalCount == 0 ? 0 : max;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+        Assert.isTrue(quantile >= 0.0 && quantile <= 1.0 && !Double.isNaN(quantile),
+                      () -> quantile + " is not in [0..1]");
+        if (totalCount == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return valueAt(i);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the value represented by each counted value in this snapshot. As this requires an array as large as the
+     * number of values in the snapshot, reporters should prefer the other methods of the snapshot.
+     *
+     * @return the values in this snapshot, in ascending order
+     */
+    @Override
+    public long[] getValues() {
+        long[] values = new long[size()];
+        int position = 0;
+        for (int i = 0; i < counts.length && position < values.length; i++) {
+            long value = valueAt(i);
+            for (long c = 0; c < counts[i] && position < values.length; c++) {
+                values[position++] = value;
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, totalCount);
+    }
+
+    @Override
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    @Override
+    public long getMin() {
+        return min;
+    }
+
+    @Override
+    public double getStdDev() {
+        if (totalCount <= 1) {
+            return 0.0;
+        }
+        double mean = getMean();
+        double sumOfSquares = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                double deviation = valueAt(i) - mean;
+                sumOfSquares += deviation * deviation * counts[i];
+            }
+        }
+        return Math.sqrt(sumOfSquares / (totalCount - 1));
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < counts.length; i++) {
+                for (long c = 0; c < counts[i]; c++) {
+                    out.printf("%d%n", valueAt(i));
+                }
+            }
+        }
+    }
+
+    private long valueAt(int index) {
+        return Math.min(max, Math.max(min, layout.valueAt(index)));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import org.axonframework.common.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size histogram of non-negative values, using the bucket layout of an HDR histogram. Values are counted in
+ * buckets whose width grows with the magnitude of the value, so that every recorded value is represented with the
+ * configured number of significant decimal digits. The memory used depends only on the highest trackable value and the
+ * precision, not on the number of recorded values.
+ * <p>
+ * The exact sum, minimum and maximum of all recorded values are tracked alongside the buckets. Recording is thread
+ * safe and lock free.
+ *
+ * @since 3.4
+ */
+class LogLinearHistogram {
+
+    private final long highestTrackableValue;
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final int subBucketHalfCount;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Initializes a histogram able to count values between 0 and {@code highestTrackableValue} with a precision of
+     * {@code significantDigits} decimal digits. Values above the highest trackable value are counted as the highest
+     * trackable value.
+     *
+     * @param highestTrackableValue the highest value to distinguish from other values
+     * @param significantDigits     the number of significant decimal digits, between 1 and 5
+     */
+    LogLinearHistogram(long highestTrackableValue, int significantDigits) {
+        Assert.isTrue(highestTrackableValue >= 2, () -> "The highest trackable value must be 2 or larger");
+        Assert.isTrue(significantDigits >= 1 && significantDigits <= 5,
+                      () -> "The number of significant digits must be between 1 and 5");
+        long singleUnitResolutionLimit = 2 * (long) Math.pow(10, significantDigits);
+        this.highestTrackableValue = highestTrackableValue;
+        this.subBucketBits = 64 - Long.numberOfLeadingZeros(singleUnitResolutionLimit - 1);
+        this.subBucketCount = 1 << subBucketBits;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.counts = new AtomicLongArray(indexOf(highestTrackableValue) + 1);
+    }
+
+    /**
+     * Records the given {@code value}. Negative values are counted as 0.
+     *
+     * @param value the value to record
+     */
+    void record(long value) {
+        long normalized = Math.max(0, value);
+        counts.incrementAndGet(indexOf(Math.min(normalized, highestTrackableValue)));
+        totalCount.increment();
+        sum.add(normalized);
+        min.accumulateAndGet(normalized, Math::min);
+        max.accumulateAndGet(normalized, Math::max);
+    }
+
+    /**
+     * Removes all recorded values. Values recorded concurrently with a reset may or may not be removed.
+     */
+    void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Adds the bucket counts of this histogram to the given {@code target} array, which must have the length returned
+     * by {@link #bucketCount()}.
+     *
+     * @param target the array to add the counts to
+     */
+    void addCountsTo(long[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += counts.get(i);
+        }
+    }
+
+    /**
+     * Returns the number of buckets of this histogram.
+     *
+     * @return the number of buckets
+     */
+    int bucketCount() {
+        return counts.length();
+    }
+
+    long totalCount() {
+        return totalCount.sum();
+    }
+
+    long sum() {
+        return sum.sum();
+    }
+
+    long min() {
+        return min.get();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the index of the bucket counting the given non-negative {@code value}.
+     *
+     * @param value the value to find the bucket for
+     * @return the index of the bucket
+     */
+    int indexOf(long value) {
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        int exponent = 64 - Long.numberOfLeadingZeros(value) - subBucketBits;
+        return exponent * subBucketHalfCount + (int) (value >>> exponent);
+    }
+
+    /**
+     * Returns the value representing the bucket with given {@code index}, which is the middle of the range of values
+     * counted by the bucket.
+     *
+     * @param index the index of the bucket
+     * @return the value representing the bucket
+     */
+    long valueAt(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int exponent = index / subBucketHalfCount - 1;
+        long lowestEquivalentValue = (long) (index - exponent * subBucketHalfCount) << exponent;
+        return lowestEquivalentValue + ((1L << exponent) - 1) / 2;
+    }
+}
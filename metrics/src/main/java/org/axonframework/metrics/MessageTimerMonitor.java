@@ -22,6 +22,8 @@
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Times allTimer messages, successful and failed messages
@@ -35,6 +37,7 @@ public class MessageTimerMonitor implements MessageMonitor<Message<?>>, MetricSe
     private final Timer successTimer;
     private final Timer failureTimer;
     private final Timer ignoredTimer;
+    private final Clock clock;
 
     /**
      * Creates a MessageTimerMonitor using a default clock
@@ -44,40 +47,54 @@ public MessageTimerMonitor() {
     }
 
     /**
-     * Creates a MessageTimerMonitor using the provided clock
+     * Creates a MessageTimerMonitor using the provided clock. The timers count the process times of the last minute in a
+     * {@link SlidingTimeWindowHdrReservoir#forTimer(Clock) SlidingTimeWindowHdrReservoir}.
      *
      * @param clock the clock used to measure the process time of each message
      */
     public MessageTimerMonitor(Clock clock) {
-        allTimer = new Timer(new ExponentiallyDecayingReservoir(), clock);
-        successTimer = new Timer(new ExponentiallyDecayingReservoir(), clock);
-        failureTimer = new Timer(new ExponentiallyDecayingReservoir(), clock);
-        ignoredTimer = new Timer(new ExponentiallyDecayingReservoir(), clock);
+        this(clock, () -> SlidingTimeWindowHdrReservoir.forTimer(clock));
+    }
+
+    /**
+     * Creates a MessageTimerMonitor using the provided clock, of which the timers use reservoirs provided by the given
+     * {@code reservoirFactory}.
+     *
+     * @param clock            the clock used to measure the process time of each message
+     * @param reservoirFactory the factory creating a reservoir for each timer
+     */
+    public MessageTimerMonitor(Clock clock, Supplier<Reservoir> reservoirFactory) {
+        this.clock = clock;
+        allTimer = new Timer(reservoirFactory.get(), clock);
+        successTimer = new Timer(reservoirFactory.get(), clock);
+        failureTimer = new Timer(reservoirFactory.get(), clock);
+        ignoredTimer = new Timer(reservoirFactory.get(), clock);
     }
 
     @Override
     public MonitorCallback onMessageIngested(Message<?> message) {
-        final Timer.Context allTimerContext = this.allTimer.time();
-        final Timer.Context successTimerContext = this.successTimer.time();
-        final Timer.Context failureTimerContext = this.failureTimer.time();
-        final Timer.Context ignoredTimerContext = this.ignoredTimer.time();
+        // a single start time is shared by all timers, rather than starting a Timer.Context per timer
+        final long start = clock.getTick();
         return new MessageMonitor.MonitorCallback() {
             @Override
             public void reportSuccess() {
-                allTimerContext.stop();
-                successTimerContext.stop();
+                update(successTimer);
             }
 
             @Override
             public void reportFailure(Throwable cause) {
-                allTimerContext.stop();
-                failureTimerContext.stop();
+                update(failureTimer);
             }
 
             @Override
             public void reportIgnored() {
-                allTimerContext.stop();
-                ignoredTimerContext.stop();
+                update(ignoredTimer);
+            }
+
+            private void update(Timer outcomeTimer) {
+                long duration = clock.getTick() - start;
+                allTimer.update(duration, TimeUnit.NANOSECONDS);
+                outcomeTimer.update(duration, TimeUnit.NANOSECONDS);
             }
         };
     }
@@ -44,6 +44,13 @@
     private final Function<Class<?>, String> monitorNameBuilder;
     private final Map<String, T> payloadTypeMonitors;
     private final Map<String, Metric> metricSet;
+    private final ClassValue<T> monitorsByPayloadType = new ClassValue<T>() {
+        @Override
+        protected T computeValue(Class<?> payloadType) {
+            return payloadTypeMonitors.computeIfAbsent(monitorNameBuilder.apply(payloadType),
+                                                       monitorName -> monitorSupplier.get());
+        }
+    };
 
     /**
      * Create a PayloadTypeMessageMonitorWrapper which builds monitors through a given {@code monitorSupplier} for
@@ -72,10 +79,9 @@ public PayloadTypeMessageMonitorWrapper(Supplier<T> monitorSupplier, Function<Cl
 
     @Override
     public MonitorCallback onMessageIngested(Message<?> message) {
-        String monitorName = monitorNameBuilder.apply(message.getPayloadType());
-
+        // the monitor is resolved once per payload type, avoiding building the monitor name for every message
         MessageMonitor<Message<?>> messageMonitorForPayloadType =
-                payloadTypeMonitors.computeIfAbsent(monitorName, payloadType -> monitorSupplier.get());
+                monitorsByPayloadType.get(message.getPayloadType());
 
         return messageMonitorForPayloadType.onMessageIngested(message);
     }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.axonframework.common.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Reservoir} that counts the values recorded within a sliding time window in fixed size histograms with HDR
+ * histogram buckets. The window is divided in a fixed number of slices, each counting the values recorded in its part
+ * of the window. Slices are reused once they have moved out of the window, so the memory used is independent of the
+ * rate at which values are recorded.
+ * <p>
+ * As values are counted per slice, the window moves in steps of the length of a single slice.
+ * <p>
+ * Use {@link #forTimer(Clock)} to create the reservoir used by the timers in this module by default.
+ *
+ * @since 3.4
+ */
+public class SlidingTimeWindowHdrReservoir implements Reservoir {
+
+    private static final int DEFAULT_SLICES = 10;
+    private static final int DEFAULT_TIMER_SLICES = 4;
+
+    private final Clock clock;
+    private final long sliceLength;
+    private final Slice[] slices;
+
+    /**
+     * Creates a reservoir for the durations in nanoseconds recorded by a {@link com.codahale.metrics.Timer} during the
+     * last minute, tracking durations up to one hour with two significant digits. The window moves in steps of 15
+     * seconds, so that the percentiles of a snapshot reflect recent durations only.
+     *
+     * @param clock the clock providing the time at which durations are recorded, in milliseconds
+     * @return a reservoir for the durations recorded by a timer during the last minute
+     */
+    public static SlidingTimeWindowHdrReservoir forTimer(Clock clock) {
+        return new SlidingTimeWindowHdrReservoir(1, TimeUnit.MINUTES, clock, DEFAULT_TIMER_SLICES,
+                                                 HdrHistogramReservoir.DEFAULT_HIGHEST_TRACKABLE_VALUE,
+                                                 HdrHistogramReservoir.DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Initializes a reservoir for values recorded in the given {@code window}, tracking values up to the length of that
+     * window in milliseconds with two significant digits.
+     *
+     * @param window   the length of the window
+     * @param timeUnit the time unit of the window
+     * @param clock    the clock providing the time at which values are recorded, in milliseconds
+     */
+    public SlidingTimeWindowHdrReservoir(long window, TimeUnit timeUnit, Clock clock) {
+        this(window, timeUnit, clock, DEFAULT_SLICES, Math.max(2, timeUnit.toMillis(window)),
+             HdrHistogramReservoir.DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Initializes a reservoir for values recorded in the given {@code window}, which is divided in the given number of
+     * {@code slices}. Values up to {@code highestTrackableValue} are tracked with the given number of {@code
+     * significantDigits}.
+     *
+     * @param window                the length of the window
+     * @param timeUnit              the time unit of the window
+     * @param clock                 the clock providing the time at which values are recorded, in milliseconds
+     * @param slices                the number of slices to divide the window in
+     * @param highestTrackableValue the highest value to distinguish from other values
+     * @param significantDigits     the number of significant decimal digits, between 1 and 5
+     */
+    public SlidingTimeWindowHdrReservoir(long window, TimeUnit timeUnit, Clock clock, int slices,
+                                         long highestTrackableValue, int significantDigits) {
+        Assert.isTrue(window > 0, () -> "The window must be positive");
+        Assert.isTrue(slices > 0, () -> "The number of slices must be positive");
+        this.clock = clock;
+        this.sliceLength = Math.max(1, timeUnit.toMillis(window) / slices);
+        this.slices = new Slice[slices];
+        for (int i = 0; i < slices; i++) {
+            this.slices[i] = new Slice(new LogLinearHistogram(highestTrackableValue, significantDigits));
+        }
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        long epoch = clock.getTime() / sliceLength;
+        Slice slice = slices[(int) (epoch % slices.length)];
+        if (slice.epoch != epoch) {
+            slice.moveTo(epoch);
+        }
+        slice.histogram.record(value);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        long oldestEpoch = clock.getTime() / sliceLength - slices.length;
+        LogLinearHistogram layout = slices[0].histogram;
+        long[] counts = new long[layout.bucketCount()];
+        long totalCount = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Slice slice : slices) {
+            if (slice.epoch > oldestEpoch) {
+                LogLinearHistogram histogram = slice.histogram;
+                totalCount += histogram.totalCount();
+                sum += histogram.sum();
+                min = Math.min(min, histogram.min());
+                max = Math.max(max, histogram.max());
+                histogram.addCountsTo(counts);
+            }
+        }
+        return new HdrHistogramSnapshot(layout, counts, totalCount, sum, min, max);
+    }
+
+    private static final class Slice {
+
+        private final LogLinearHistogram histogram;
+        private volatile long epoch = -1;
+
+        private Slice(LogLinearHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        private synchronized void moveTo(long newEpoch) {
+            if (epoch < newEpoch) {
+                histogram.reset();
+                epoch = newEpoch;
+            }
+        }
+    }
+}
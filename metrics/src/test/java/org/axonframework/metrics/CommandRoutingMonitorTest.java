@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.axonframework.commandhandling.distributed.ConsistentHash;
+import org.axonframework.commandhandling.distributed.Member;
+import org.axonframework.commandhandling.distributed.MemberLoadTracker;
+import org.axonframework.commandhandling.distributed.SimpleMember;
+import org.axonframework.commandhandling.distributed.commandfilter.AcceptAll;
+import org.junit.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CommandRoutingMonitorTest {
+
+    private MetricRegistry registry;
+    private MemberLoadTracker loadTracker;
+    private CommandRoutingMonitor testSubject;
+
+    @Before
+    public void setUp() {
+        registry = new MetricRegistry();
+        loadTracker = new MemberLoadTracker();
+        testSubject = new CommandRoutingMonitor(registry, "commandBus", loadTracker);
+    }
+
+    @Test
+    public void testGaugesExposeEffectiveDistributionPerMember() {
+        Member slowMember = new SimpleMember<>("slow", null, SimpleMember.REMOTE_MEMBER, null);
+        Member fastMember = new SimpleMember<>("fast", null, SimpleMember.REMOTE_MEMBER, null);
+        testSubject.onConsistentHashChanged(new ConsistentHash().with(slowMember, 100, AcceptAll.INSTANCE)
+                                                                .with(fastMember, 100, AcceptAll.INSTANCE));
+
+        loadTracker.requestStarted(slowMember);
+        loadTracker.requestCompleted(slowMember, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100));
+        loadTracker.requestStarted(slowMember);
+        loadTracker.requestStarted(fastMember);
+        loadTracker.requestCompleted(fastMember, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20));
+
+        Map<String, Gauge> gauges = registry.getGauges();
+        assertEquals(20, (int) gauges.get("commandBus.activeSegments.slow").getValue(), 2);
+        assertEquals(100, gauges.get("commandBus.activeSegments.fast").getValue());
+        assertEquals(1, gauges.get("commandBus.inFlight.slow").getValue());
+        assertEquals(0, gauges.get("commandBus.inFlight.fast").getValue());
+        assertEquals(100, (double) gauges.get("commandBus.averageLatency.slow").getValue(), 10);
+    }
+
+    @Test
+    public void testGaugesFollowMembershipChanges() {
+        Member member1 = new SimpleMember<>("member1", null, SimpleMember.REMOTE_MEMBER, null);
+        Member member2 = new SimpleMember<>("member2", null, SimpleMember.REMOTE_MEMBER, null);
+        ConsistentHash consistentHash = new ConsistentHash().with(member1, 10, AcceptAll.INSTANCE);
+        testSubject.onConsistentHashChanged(consistentHash);
+
+        testSubject.onConsistentHashChanged(consistentHash.with(member2, 20, AcceptAll.INSTANCE));
+        assertEquals(20, registry.getGauges().get("commandBus.activeSegments.member2").getValue());
+
+        testSubject.onConsistentHashChanged(consistentHash.with(member2, 20, AcceptAll.INSTANCE).without(member1));
+        assertFalse(registry.getGauges().containsKey("commandBus.activeSegments.member1"));
+        assertFalse(registry.getGauges().containsKey("commandBus.inFlight.member1"));
+        assertEquals(3, registry.getGauges().size());
+    }
+
+    @Test
+    public void testMonitorsOfDifferentComponentsShareRegistry() {
+        Member member = new SimpleMember<>("member", null, SimpleMember.REMOTE_MEMBER, null);
+        CommandRoutingMonitor otherMonitor = new CommandRoutingMonitor(registry, "otherBus", new MemberLoadTracker());
+
+        testSubject.onConsistentHashChanged(new ConsistentHash().with(member, 10, AcceptAll.INSTANCE));
+        otherMonitor.onConsistentHashChanged(new ConsistentHash().with(member, 20, AcceptAll.INSTANCE));
+
+        assertEquals(10, registry.getGauges().get("commandBus.activeSegments.member").getValue());
+        assertEquals(20, registry.getGauges().get("otherBus.activeSegments.member").getValue());
+    }
+
+    @Test
+    public void testOutdatedConsistentHashIsIgnored() {
+        Member member = new SimpleMember<>("member", null, SimpleMember.REMOTE_MEMBER, null);
+        ConsistentHash consistentHash = new ConsistentHash().with(member, 10, AcceptAll.INSTANCE);
+
+        testSubject.onConsistentHashChanged(consistentHash.with(member, 20, AcceptAll.INSTANCE));
+        testSubject.onConsistentHashChanged(consistentHash);
+
+        assertEquals(20, registry.getGauges().get("commandBus.activeSegments.member").getValue());
+    }
+}
@@ -17,6 +17,7 @@
 package org.axonframework.metrics;
 
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Metric;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.monitoring.MessageMonitor;
@@ -70,6 +71,23 @@ public void testFailureMessage(){
         assertEquals(1000, latency.getValue(), 0);
     }
 
+    @Test
+    public void testProcessingLatency(){
+        TestClock testClock = new TestClock();
+        EventProcessorLatencyMonitor testSubject =
+                new EventProcessorLatencyMonitor(testClock, new HdrHistogramReservoir());
+        EventMessage<?> eventMessage = mock(EventMessage.class);
+        when(eventMessage.getTimestamp()).thenReturn(Instant.ofEpochMilli(0));
+
+        MessageMonitor.MonitorCallback monitorCallback = testSubject.onMessageIngested(eventMessage);
+        testClock.increase(1500);
+        monitorCallback.reportSuccess();
+
+        Histogram processingLatency = (Histogram) testSubject.getMetrics().get("processingLatency");
+
+        assertArrayEquals(new long[]{1500}, processingLatency.getSnapshot().getValues());
+    }
+
     @Test
     public void testNullMessage(){
         EventProcessorLatencyMonitor testSubject = new EventProcessorLatencyMonitor();
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.axonframework.eventhandling.AnnotationEventListenerAdapter;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.messaging.annotation.ClasspathHandlerDefinition;
+import org.axonframework.messaging.annotation.ClasspathParameterResolverFactory;
+import org.axonframework.messaging.annotation.MultiHandlerDefinition;
+import org.junit.*;
+
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.Assert.*;
+
+public class HandlerMetricsEnhancerDefinitionTest {
+
+    private static final String PREFIX = "handlers." + MyEventHandler.class.getName();
+
+    private MetricRegistry registry;
+    private HandlerMetricsEnhancerDefinition enhancer;
+    private AnnotationEventListenerAdapter testSubject;
+
+    @Before
+    public void setUp() {
+        registry = new MetricRegistry();
+        enhancer = new HandlerMetricsEnhancerDefinition(registry);
+        testSubject = createAdapter(enhancer);
+    }
+
+    @Test
+    public void testMetricsAreRegisteredPerHandlerAndPayloadType() throws Exception {
+        testSubject.handle(asEventMessage("test"));
+        testSubject.handle(asEventMessage("test"));
+        testSubject.handle(asEventMessage(42L));
+
+        assertEquals(2, timer(PREFIX + ".on(java.lang.String).successTimer").getCount());
+        assertEquals(1, timer(PREFIX + ".on(java.lang.Long).successTimer").getCount());
+        assertEquals(0, timer(PREFIX + ".handleFailure(java.lang.Integer).allTimer").getCount());
+    }
+
+    @Test
+    public void testFailingHandlerIsReportedAsFailure() {
+        try {
+            testSubject.handle(asEventMessage(1));
+            fail("Expected exception to be propagated");
+        } catch (Exception e) {
+            assertEquals("failure", e.getMessage());
+        }
+
+        assertEquals(1, timer(PREFIX + ".handleFailure(java.lang.Integer).failureTimer").getCount());
+        assertEquals(1, timer(PREFIX + ".handleFailure(java.lang.Integer).allTimer").getCount());
+    }
+
+    @Test
+    public void testHandlersInspectedTwiceShareTheirMetrics() throws Exception {
+        createAdapter(enhancer).handle(asEventMessage("test"));
+        testSubject.handle(asEventMessage("test"));
+
+        assertEquals(2, timer(PREFIX + ".on(java.lang.String).allTimer").getCount());
+    }
+
+    @Test
+    public void testEnhancersSharingRegistryShareTheirMetrics() throws Exception {
+        createAdapter(new HandlerMetricsEnhancerDefinition(registry)).handle(asEventMessage("test"));
+        testSubject.handle(asEventMessage("test"));
+
+        assertEquals(2, timer(PREFIX + ".on(java.lang.String).allTimer").getCount());
+        assertFalse(registry.getMetrics().containsKey(PREFIX + ".on(java.lang.String).ignoredTimer"));
+    }
+
+    private Timer timer(String name) {
+        return (Timer) registry.getMetrics().get(name);
+    }
+
+    private static AnnotationEventListenerAdapter createAdapter(HandlerMetricsEnhancerDefinition enhancer) {
+        return new AnnotationEventListenerAdapter(
+                new MyEventHandler(),
+                ClasspathParameterResolverFactory.forClass(MyEventHandler.class),
+                MultiHandlerDefinition.ordered(ClasspathHandlerDefinition.forClass(MyEventHandler.class).getDelegates(),
+                                               enhancer)
+        );
+    }
+
+    private static class MyEventHandler {
+
+        @EventHandler
+        public void on(String event) {
+        }
+
+        @EventHandler
+        public void on(Long event) {
+        }
+
+        @EventHandler
+        public void handleFailure(Integer event) {
+            throw new IllegalStateException("failure");
+        }
+    }
+}
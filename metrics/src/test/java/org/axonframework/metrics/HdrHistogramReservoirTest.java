@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Snapshot;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HdrHistogramReservoirTest {
+
+    @Test
+    public void testEmptySnapshot() {
+        Snapshot snapshot = new HdrHistogramReservoir().getSnapshot();
+
+        assertEquals(0, snapshot.size());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getMean(), 0);
+        assertEquals(0, snapshot.get99thPercentile(), 0);
+        assertArrayEquals(new long[]{}, snapshot.getValues());
+    }
+
+    @Test
+    public void testPercentilesAreAccurateToSignificantDigits() {
+        HdrHistogramReservoir testSubject = new HdrHistogramReservoir(1_000_000_000L, 2, false);
+        for (long value = 1; value <= 100_000; value++) {
+            testSubject.update(value * 1000);
+        }
+
+        Snapshot snapshot = testSubject.getSnapshot();
+
+        assertEquals(100_000, snapshot.size());
+        assertEquals(1000, snapshot.getMin());
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(50_000_500, snapshot.getMean(), 0);
+        assertEquals(50_000_000, snapshot.getMedian(), 50_000_000 * 0.01);
+        assertEquals(99_000_000, snapshot.get99thPercentile(), 99_000_000 * 0.01);
+        assertEquals(99_900_000, snapshot.get999thPercentile(), 99_900_000 * 0.01);
+    }
+
+    @Test
+    public void testEqualValuesAreReportedExactly() {
+        HdrHistogramReservoir testSubject = new HdrHistogramReservoir();
+        testSubject.update(1_000_003);
+        testSubject.update(1_000_003);
+
+        assertArrayEquals(new long[]{1_000_003, 1_000_003}, testSubject.getSnapshot().getValues());
+    }
+
+    @Test
+    public void testValuesAboveHighestTrackableValueAreCountedAsHighestTrackableValue() {
+        HdrHistogramReservoir testSubject = new HdrHistogramReservoir(1000, 2, false);
+        testSubject.update(10);
+        testSubject.update(5000);
+
+        Snapshot snapshot = testSubject.getSnapshot();
+
+        assertEquals(5000, snapshot.getMax());
+        assertEquals(2505, snapshot.getMean(), 0);
+        assertEquals(1000, snapshot.get99thPercentile(), 1000 * 0.01);
+    }
+
+    @Test
+    public void testIntervalSnapshotsOnlyContainValuesSincePreviousSnapshot() {
+        HdrHistogramReservoir testSubject = new HdrHistogramReservoir(1_000_000, 2, true);
+        testSubject.update(100);
+        testSubject.update(200);
+
+        Snapshot first = testSubject.getSnapshot();
+        testSubject.update(300);
+        Snapshot second = testSubject.getSnapshot();
+        Snapshot third = testSubject.getSnapshot();
+
+        assertArrayEquals(new long[]{100, 200}, first.getValues());
+        assertArrayEquals(new long[]{300}, second.getValues());
+        assertEquals(300, second.getMean(), 0);
+        assertEquals(0, third.size());
+        assertEquals(3, testSubject.size());
+    }
+}
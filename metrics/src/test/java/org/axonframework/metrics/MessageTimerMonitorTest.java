@@ -22,8 +22,10 @@
 import org.junit.Test;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 public class MessageTimerMonitorTest {
 
@@ -90,4 +92,19 @@ public void testIgnoredMessage(){
         assertArrayEquals(new long[]{}, failureTimer.getSnapshot().getValues());
     }
 
+
+    @Test
+    public void testTimesOfPreviousMinutesAreNotReported() {
+        TestClock testClock = new TestClock();
+        MessageTimerMonitor testSubject = new MessageTimerMonitor(testClock);
+        MessageMonitor.MonitorCallback monitorCallback = testSubject.onMessageIngested(null);
+        testClock.increase(1000);
+        monitorCallback.reportSuccess();
+
+        testClock.increase(TimeUnit.MINUTES.toMillis(2));
+
+        Timer all = (Timer) testSubject.getMetrics().get("allTimer");
+        assertArrayEquals(new long[]{}, all.getSnapshot().getValues());
+        assertEquals(1, all.getCount());
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SlidingTimeWindowHdrReservoirTest {
+
+    @Test
+    public void testValuesOutsideOfWindowAreRemoved() {
+        TestClock testClock = new TestClock();
+        SlidingTimeWindowHdrReservoir testSubject =
+                new SlidingTimeWindowHdrReservoir(1, TimeUnit.SECONDS, testClock);
+        testSubject.update(10);
+        testClock.increase(500);
+        testSubject.update(20);
+
+        assertArrayEquals(new long[]{10, 20}, testSubject.getSnapshot().getValues());
+
+        testClock.increase(500);
+        assertArrayEquals(new long[]{20}, testSubject.getSnapshot().getValues());
+
+        testClock.increase(500);
+        assertEquals(0, testSubject.size());
+    }
+
+    @Test
+    public void testSlicesAreReusedWhenWindowMoves() {
+        TestClock testClock = new TestClock();
+        SlidingTimeWindowHdrReservoir testSubject =
+                new SlidingTimeWindowHdrReservoir(1, TimeUnit.SECONDS, testClock);
+        for (int i = 0; i < 100; i++) {
+            testSubject.update(i);
+            testClock.increase(100);
+        }
+
+        assertEquals(9, testSubject.size());
+        assertEquals(91, testSubject.getSnapshot().getMin());
+        assertEquals(99, testSubject.getSnapshot().getMax());
+    }
+}
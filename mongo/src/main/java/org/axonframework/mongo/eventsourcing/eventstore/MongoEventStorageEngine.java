@@ -33,7 +33,6 @@
 
 import javax.annotation.PostConstruct;
 import java.time.Instant;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -218,11 +217,11 @@ public TrackingToken createTailToken() {
 
     @Override
     public TrackingToken createHeadToken() {
-        return createTokenAt(Instant.now());
+        return storageStrategy.createHeadToken(template.eventCollection());
     }
 
     @Override
     public TrackingToken createTokenAt(Instant dateTime) {
-        return MongoTrackingToken.of(dateTime, Collections.emptyMap());
+        return storageStrategy.createTokenAt(template.eventCollection(), dateTime);
     }
 }
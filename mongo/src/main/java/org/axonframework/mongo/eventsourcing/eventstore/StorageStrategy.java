@@ -25,6 +25,8 @@
 import org.axonframework.serialization.Serializer;
 import org.bson.Document;
 
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -138,4 +140,30 @@ Optional<? extends DomainEventData<?>> findLastSnapshot(MongoCollection<Document
      * @return a tracking token at the tail of an event stream, if event stream is empty {@code null} is returned
      */
     TrackingToken createTailToken(MongoCollection<Document> eventsCollection);
+
+    /**
+     * Creates a token that is at the head of an event stream - that tracks all new events.
+     * <p>
+     * The default implementation returns a {@link MongoTrackingToken} at the current time.
+     *
+     * @param eventsCollection The collection containing the documents representing commits and events
+     * @return a tracking token at the head of an event stream
+     */
+    default TrackingToken createHeadToken(MongoCollection<Document> eventsCollection) {
+        return createTokenAt(eventsCollection, Instant.now());
+    }
+
+    /**
+     * Creates a token that tracks all events after given {@code dateTime}. If there is an event exactly at the given
+     * {@code dateTime}, it will be tracked too.
+     * <p>
+     * The default implementation returns a {@link MongoTrackingToken} at the given {@code dateTime}.
+     *
+     * @param eventsCollection The collection containing the documents representing commits and events
+     * @param dateTime         The date and time for determining criteria how the tracking token should be created
+     * @return a tracking token at the given {@code dateTime}
+     */
+    default TrackingToken createTokenAt(MongoCollection<Document> eventsCollection, Instant dateTime) {
+        return MongoTrackingToken.of(dateTime, Collections.emptyMap());
+    }
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.mongo.eventsourcing.eventstore.globalsequence;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import org.axonframework.common.Assert;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventUtils;
+import org.axonframework.eventsourcing.eventstore.GapAwareTrackingToken;
+import org.axonframework.eventsourcing.eventstore.TrackedDomainEventData;
+import org.axonframework.eventsourcing.eventstore.TrackedEventData;
+import org.axonframework.eventsourcing.eventstore.TrackingToken;
+import org.axonframework.mongo.eventsourcing.eventstore.StorageStrategy;
+import org.axonframework.mongo.eventsourcing.eventstore.documentperevent.DocumentPerEventStorageStrategy;
+import org.axonframework.mongo.eventsourcing.eventstore.documentperevent.EventEntry;
+import org.axonframework.mongo.eventsourcing.eventstore.documentperevent.EventEntryConfiguration;
+import org.axonframework.serialization.Serializer;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.mongodb.client.model.Filters.*;
+import static org.axonframework.common.DateTimeUtils.formatInstant;
+import static org.axonframework.common.DateTimeUtils.parseInstant;
+import static org.axonframework.common.ObjectUtils.getOrDefault;
+
+/**
+ * Implementation of a {@link StorageStrategy} that stores one {@link Document} per {@link EventMessage} and assigns
+ * each event a monotonically increasing global index. Tracking processors use a {@link GapAwareTrackingToken} based on
+ * this index, so fetching new events is an indexed range scan rather than a look back over a period of time.
+ * <p>
+ * Global indices are allocated from a counter document in a separate sequence collection. Each batch of events
+ * appended in a single commit reserves a consecutive range of indices with a single atomic increment. Concurrent
+ * commits may become visible out of order, or a commit may fail after reserving its range. The resulting gaps are
+ * recorded in the tracking token, until they are either filled or older than the configured gap timeout.
+ */
+public class GlobalSequenceStorageStrategy extends DocumentPerEventStorageStrategy {
+
+    /**
+     * The name of the property containing the global index of an event entry.
+     */
+    public static final String GLOBAL_INDEX_PROPERTY = "globalIndex";
+
+    private static final String COUNTER_PROPERTY = "value";
+    private static final long DEFAULT_LOWEST_GLOBAL_SEQUENCE = 1;
+    private static final int DEFAULT_MAX_GAP_OFFSET = 10000;
+    private static final long DEFAULT_GAP_TIMEOUT = 60000;
+    private static final int DEFAULT_GAP_CLEANING_THRESHOLD = 250;
+
+    private final MongoCollection<Document> sequenceCollection;
+    private final int maxGapOffset;
+    private final long gapTimeout;
+    private final int gapCleaningThreshold;
+
+    /**
+     * Initializes a {@link GlobalSequenceStorageStrategy} with default configuration, allocating global indices from
+     * the given {@code sequenceCollection}.
+     *
+     * @param sequenceCollection the collection containing the counter documents used to allocate global indices
+     */
+    public GlobalSequenceStorageStrategy(MongoCollection<Document> sequenceCollection) {
+        this(EventEntryConfiguration.getDefault(), sequenceCollection, null, null, null);
+    }
+
+    /**
+     * Initializes a {@link GlobalSequenceStorageStrategy} with given {@code eventConfiguration}, allocating global
+     * indices from the given {@code sequenceCollection}.
+     *
+     * @param eventConfiguration   object that configures the naming of event entry properties
+     * @param sequenceCollection   the collection containing the counter documents used to allocate global indices
+     * @param maxGapOffset         the maximum distance in sequence numbers between a missing event and the event with
+     *                             the highest known index. If {@code null} a distance of 10000 is used.
+     * @param gapTimeout           the amount of time in milliseconds after which a gap is no longer expected to be
+     *                             filled. If {@code null} a timeout of 60 seconds is used.
+     * @param gapCleaningThreshold the number of gaps in a token before an attempt is made to clean up gaps that have
+     *                             timed out. If {@code null} a threshold of 250 gaps is used.
+     */
+    public GlobalSequenceStorageStrategy(EventEntryConfiguration eventConfiguration,
+                                         MongoCollection<Document> sequenceCollection, Integer maxGapOffset,
+                                         Long gapTimeout, Integer gapCleaningThreshold) {
+        super(eventConfiguration, null);
+        Assert.notNull(sequenceCollection, () -> "sequenceCollection may not be null");
+        this.sequenceCollection = sequenceCollection;
+        this.maxGapOffset = getOrDefault(maxGapOffset, DEFAULT_MAX_GAP_OFFSET);
+        this.gapTimeout = getOrDefault(gapTimeout, DEFAULT_GAP_TIMEOUT);
+        this.gapCleaningThreshold = getOrDefault(gapCleaningThreshold, DEFAULT_GAP_CLEANING_THRESHOLD);
+    }
+
+    @Override
+    public void appendEvents(MongoCollection<Document> eventCollection, List<? extends EventMessage<?>> events,
+                             Serializer serializer) {
+        if (events.isEmpty()) {
+            return;
+        }
+        long nextIndex = reserveGlobalIndices(eventCollection, events.size());
+        List<Document> documents = new ArrayList<>(events.size());
+        for (EventMessage<?> event : events) {
+            documents.add(new EventEntry(EventUtils.asDomainEventMessage(event), serializer)
+                                  .asDocument(eventConfiguration())
+                                  .append(GLOBAL_INDEX_PROPERTY, nextIndex++));
+        }
+        eventCollection.insertMany(documents);
+    }
+
+    /**
+     * Reserves a consecutive range of {@code count} global indices for events appended to the given {@code
+     * eventCollection}, returning the first index of the range. A counter document is kept per event collection,
+     * identified by the name of that collection.
+     *
+     * @param eventCollection the collection the events will be appended to
+     * @param count           the number of indices to reserve
+     * @return the first global index of the reserved range
+     */
+    protected long reserveGlobalIndices(MongoCollection<Document> eventCollection, int count) {
+        Document counter = sequenceCollection.findOneAndUpdate(
+                eq("_id", eventCollection.getNamespace().getCollectionName()),
+                Updates.inc(COUNTER_PROPERTY, (long) count),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return counter.getLong(COUNTER_PROPERTY) - count + 1;
+    }
+
+    @Override
+    public List<? extends TrackedEventData<?>> findTrackedEvents(MongoCollection<Document> eventCollection,
+                                                                 TrackingToken lastToken, int batchSize) {
+        Assert.isTrue(lastToken == null || lastToken instanceof GapAwareTrackingToken,
+                      () -> String.format("Token [%s] is of the wrong type. Expected [%s]",
+                                          lastToken, GapAwareTrackingToken.class.getSimpleName()));
+        GapAwareTrackingToken previousToken = (GapAwareTrackingToken) lastToken;
+        if (previousToken != null && previousToken.getGaps().size() > gapCleaningThreshold) {
+            previousToken = cleanGaps(eventCollection, previousToken);
+        }
+
+        Bson filter;
+        if (previousToken == null) {
+            filter = new BasicDBObject();
+        } else if (previousToken.getGaps().isEmpty()) {
+            filter = gt(GLOBAL_INDEX_PROPERTY, previousToken.getIndex());
+        } else {
+            filter = or(gt(GLOBAL_INDEX_PROPERTY, previousToken.getIndex()),
+                        in(GLOBAL_INDEX_PROPERTY, previousToken.getGaps()));
+        }
+        FindIterable<Document> cursor = eventCollection.find(filter)
+                                                       .sort(Sorts.ascending(GLOBAL_INDEX_PROPERTY))
+                                                       .limit(batchSize)
+                                                       .batchSize(batchSize);
+        List<TrackedEventData<?>> results = new ArrayList<>();
+        for (Document document : cursor) {
+            long globalIndex = document.getLong(GLOBAL_INDEX_PROPERTY);
+            EventEntry event = new EventEntry(document, eventConfiguration());
+            // gaps are only kept when they may still be filled by a commit that is in progress
+            boolean allowGaps = event.getTimestamp().isAfter(gapTimeoutFrame());
+            if (previousToken == null) {
+                previousToken = GapAwareTrackingToken.newInstance(
+                        globalIndex,
+                        allowGaps
+                                ? LongStream.range(Math.min(DEFAULT_LOWEST_GLOBAL_SEQUENCE, globalIndex), globalIndex)
+                                            .boxed()
+                                            .collect(Collectors.toCollection(TreeSet::new))
+                                : Collections.emptySortedSet()
+                );
+            } else {
+                previousToken = previousToken.advanceTo(globalIndex, maxGapOffset, allowGaps);
+            }
+            results.add(new TrackedDomainEventData<>(previousToken, event));
+        }
+        return results;
+    }
+
+    private GapAwareTrackingToken cleanGaps(MongoCollection<Document> eventCollection, GapAwareTrackingToken token) {
+        SortedSet<Long> gaps = token.getGaps();
+        FindIterable<Document> cursor = eventCollection
+                .find(and(gte(GLOBAL_INDEX_PROPERTY, gaps.first()), lte(GLOBAL_INDEX_PROPERTY, gaps.last() + 1L)))
+                .projection(Projections.include(GLOBAL_INDEX_PROPERTY, eventConfiguration().timestampProperty()))
+                .sort(Sorts.ascending(GLOBAL_INDEX_PROPERTY));
+        GapAwareTrackingToken cleanToken = token;
+        for (Document document : cursor) {
+            long globalIndex = document.getLong(GLOBAL_INDEX_PROPERTY);
+            Instant timestamp = parseInstant(document.getString(eventConfiguration().timestampProperty()));
+            if (gaps.contains(globalIndex) || timestamp.isAfter(gapTimeoutFrame())) {
+                // Filled a gap, should not continue cleaning up.
+                break;
+            }
+            if (gaps.contains(globalIndex - 1)) {
+                cleanToken = cleanToken.advanceTo(globalIndex - 1, maxGapOffset, false);
+            }
+        }
+        return cleanToken;
+    }
+
+    private Instant gapTimeoutFrame() {
+        return GenericEventMessage.clock.instant().minus(gapTimeout, ChronoUnit.MILLIS);
+    }
+
+    @Override
+    public TrackingToken createTailToken(MongoCollection<Document> eventsCollection) {
+        Document first = eventsCollection.find()
+                                         .sort(Sorts.ascending(GLOBAL_INDEX_PROPERTY))
+                                         .projection(Projections.include(GLOBAL_INDEX_PROPERTY))
+                                         .first();
+        return first == null ? null : tokenBefore(first);
+    }
+
+    @Override
+    public TrackingToken createHeadToken(MongoCollection<Document> eventsCollection) {
+        Document last = eventsCollection.find()
+                                        .sort(Sorts.descending(GLOBAL_INDEX_PROPERTY))
+                                        .projection(Projections.include(GLOBAL_INDEX_PROPERTY))
+                                        .first();
+        return last == null
+                ? null
+                : GapAwareTrackingToken.newInstance(last.getLong(GLOBAL_INDEX_PROPERTY), Collections.emptySortedSet());
+    }
+
+    @Override
+    public TrackingToken createTokenAt(MongoCollection<Document> eventsCollection, Instant dateTime) {
+        Document first = eventsCollection.find(gte(eventConfiguration().timestampProperty(), formatInstant(dateTime)))
+                                         .sort(Sorts.ascending(GLOBAL_INDEX_PROPERTY))
+                                         .projection(Projections.include(GLOBAL_INDEX_PROPERTY))
+                                         .first();
+        return first == null ? createHeadToken(eventsCollection) : tokenBefore(first);
+    }
+
+    private GapAwareTrackingToken tokenBefore(Document document) {
+        return GapAwareTrackingToken.newInstance(document.getLong(GLOBAL_INDEX_PROPERTY) - 1,
+                                                 Collections.emptySortedSet());
+    }
+
+    @Override
+    public void ensureIndexes(MongoCollection<Document> eventsCollection,
+                              MongoCollection<Document> snapshotsCollection) {
+        super.ensureIndexes(eventsCollection, snapshotsCollection);
+        eventsCollection.createIndex(new BasicDBObject(GLOBAL_INDEX_PROPERTY, ORDER_ASC),
+                                     new IndexOptions().unique(true).name("globalIndex"));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.mongo.eventsourcing.eventstore.globalsequence;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodProcess;
+import org.axonframework.eventsourcing.eventstore.GapAwareTrackingToken;
+import org.axonframework.eventsourcing.eventstore.TrackedEventData;
+import org.axonframework.eventsourcing.eventstore.TrackingToken;
+import org.axonframework.mongo.eventsourcing.eventstore.DefaultMongoTemplate;
+import org.axonframework.mongo.eventsourcing.eventstore.MongoEventStorageEngine;
+import org.axonframework.mongo.utils.MongoLauncher;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.bson.Document;
+import org.junit.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptySortedSet;
+import static java.util.Collections.singletonList;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvents;
+import static org.junit.Assert.*;
+
+public class GlobalSequenceStorageStrategyTest {
+
+    private static MongodExecutable mongoExe;
+    private static MongodProcess mongod;
+
+    private MongoClient mongoClient;
+    private DefaultMongoTemplate mongoTemplate;
+    private MongoCollection<Document> sequenceCollection;
+    private GlobalSequenceStorageStrategy storageStrategy;
+    private MongoEventStorageEngine testSubject;
+
+    @BeforeClass
+    public static void start() throws IOException {
+        mongoExe = MongoLauncher.prepareExecutable();
+        mongod = mongoExe.start();
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        if (mongod != null) {
+            mongod.stop();
+        }
+        if (mongoExe != null) {
+            mongoExe.stop();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mongoClient = new MongoClient();
+        mongoTemplate = new DefaultMongoTemplate(mongoClient);
+        sequenceCollection = mongoClient.getDatabase("axonframework").getCollection("sequences");
+        mongoTemplate.eventCollection().deleteMany(new BasicDBObject());
+        mongoTemplate.snapshotCollection().deleteMany(new BasicDBObject());
+        sequenceCollection.deleteMany(new BasicDBObject());
+        mongoTemplate.eventCollection().dropIndexes();
+        storageStrategy = new GlobalSequenceStorageStrategy(sequenceCollection);
+        testSubject = new MongoEventStorageEngine(new XStreamSerializer(), null, mongoTemplate, storageStrategy);
+        testSubject.ensureIndexes();
+    }
+
+    @After
+    public void tearDown() {
+        mongoClient.close();
+    }
+
+    @Test
+    public void testTrackedEventsAreOrderedByGlobalIndex() {
+        testSubject.appendEvents(createEvents(3));
+        testSubject.appendEvents(createEvent(3, Instant.parse("2007-12-03T10:15:30.00Z")));
+
+        List<? extends TrackedEventData<?>> result =
+                storageStrategy.findTrackedEvents(mongoTemplate.eventCollection(), null, 10);
+
+        assertEquals(4, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            GapAwareTrackingToken token = (GapAwareTrackingToken) result.get(i).trackingToken();
+            assertEquals(i + 1, token.getIndex());
+            assertFalse(token.hasGaps());
+        }
+    }
+
+    @Test
+    public void testFetchFromTokenOnlyReturnsNewerEvents() {
+        testSubject.appendEvents(createEvents(5));
+
+        List<? extends TrackedEventData<?>> first =
+                storageStrategy.findTrackedEvents(mongoTemplate.eventCollection(), null, 2);
+        List<? extends TrackedEventData<?>> second = storageStrategy.findTrackedEvents(
+                mongoTemplate.eventCollection(), first.get(1).trackingToken(), 10);
+
+        assertEquals(2, first.size());
+        assertEquals(3, second.size());
+        assertEquals(5, ((GapAwareTrackingToken) second.get(2).trackingToken()).getIndex());
+    }
+
+    @Test
+    public void testReservedButUnusedIndicesAreTrackedAsGaps() {
+        testSubject.appendEvents(createEvent(0));
+        // simulate a concurrent commit that has reserved an index, but has not inserted its event yet
+        long reserved = storageStrategy.reserveGlobalIndices(mongoTemplate.eventCollection(), 1);
+        testSubject.appendEvents(createEvent(1));
+
+        List<? extends TrackedEventData<?>> result =
+                storageStrategy.findTrackedEvents(mongoTemplate.eventCollection(), null, 10);
+
+        assertEquals(2, result.size());
+        GapAwareTrackingToken lastToken = (GapAwareTrackingToken) result.get(1).trackingToken();
+        assertEquals(3, lastToken.getIndex());
+        assertEquals(singletonList(reserved), new ArrayList<>(lastToken.getGaps()));
+    }
+
+    @Test
+    public void testCreateTailHeadAndTimeBasedTokens() {
+        assertNull(testSubject.createTailToken());
+        assertNull(testSubject.createHeadToken());
+
+        testSubject.appendEvents(createEvent(0, Instant.parse("2007-12-03T10:15:00.00Z")),
+                                 createEvent(1, Instant.parse("2007-12-03T10:15:40.00Z")),
+                                 createEvent(2, Instant.parse("2007-12-03T10:15:50.00Z")));
+
+        TrackingToken tail = testSubject.createTailToken();
+        TrackingToken head = testSubject.createHeadToken();
+        TrackingToken at = testSubject.createTokenAt(Instant.parse("2007-12-03T10:15:30.00Z"));
+
+        assertEquals(GapAwareTrackingToken.newInstance(0, emptySortedSet()), tail);
+        assertEquals(GapAwareTrackingToken.newInstance(3, emptySortedSet()), head);
+        assertEquals(GapAwareTrackingToken.newInstance(1, emptySortedSet()), at);
+    }
+}
@@ -29,6 +29,8 @@ public class MetricsProperties {
 
     private AutoConfiguration autoConfiguration = new AutoConfiguration();
 
+    private Handlers handlers = new Handlers();
+
     /**
      * Retrieves the AutoConfiguration settings for Metrics
      *
@@ -47,6 +49,24 @@ public void setAutoConfiguration(AutoConfiguration autoConfiguration) {
         this.autoConfiguration = autoConfiguration;
     }
 
+    /**
+     * Retrieves the settings for metrics of individual message handlers
+     *
+     * @return the settings for metrics of individual message handlers
+     */
+    public Handlers getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Defines the settings for metrics of individual message handlers.
+     *
+     * @param handlers the settings for metrics of individual message handlers
+     */
+    public void setHandlers(Handlers handlers) {
+        this.handlers = handlers;
+    }
+
     /**
      * Auto configuration specific properties around Metrics.
      */
@@ -76,4 +96,34 @@ public void setEnabled(boolean enabled) {
             this.enabled = enabled;
         }
     }
+
+    /**
+     * Properties around metrics of individual message handlers.
+     */
+    public static class Handlers {
+
+        /**
+         * Enables timing of each individual message handler
+         */
+        private boolean enabled = false;
+
+        /**
+         * Indicates whether metrics of individual message handlers are enabled
+         *
+         * @return true if metrics of individual message handlers are enabled, false if otherwise
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Enables (if {@code true}) or disables (if {@code false}, default) the metrics of individual message
+         * handlers, registered per handler method and payload type.
+         *
+         * @param enabled whether to enable metrics of individual message handlers
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
 }
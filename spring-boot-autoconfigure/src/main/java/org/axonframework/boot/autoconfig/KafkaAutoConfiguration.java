@@ -35,6 +35,7 @@
 import org.springframework.context.annotation.Configuration;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -86,14 +87,17 @@ public KafkaPublisher<String, byte[]> kafkaPublisher(ProducerFactory<String, byt
                                                          EventBus eventBus,
                                                          KafkaMessageConverter<String, byte[]> messageConverter,
                                                          AxonConfiguration configuration) {
-        return new KafkaPublisher<>(KafkaPublisherConfiguration.<String, byte[]>builder()
-                                            .withTopic(properties.getDefaultTopic())
-                                            .withMessageConverter(messageConverter)
-                                            .withProducerFactory(producerFactory)
-                                            .withMessageSource(eventBus)
-                                            .withMessageMonitor(configuration
-                                                                        .messageMonitor(KafkaPublisher.class, "kafkaPublisher"))
-                                            .build());
+        KafkaPublisherConfiguration.Builder<String, byte[]> builder =
+                KafkaPublisherConfiguration.<String, byte[]>builder()
+                        .withTopic(properties.getDefaultTopic())
+                        .withMessageConverter(messageConverter)
+                        .withProducerFactory(producerFactory)
+                        .withMessageSource(eventBus)
+                        .withMessageMonitor(configuration.messageMonitor(KafkaPublisher.class, "kafkaPublisher"));
+        if (properties.getPublisher().isPipelined()) {
+            builder.withPipelining(properties.getPublisher().getMaxInFlightMessages());
+        }
+        return new KafkaPublisher<>(builder.build());
     }
 
     @ConditionalOnMissingBean
@@ -101,11 +105,15 @@ public KafkaPublisher<String, byte[]> kafkaPublisher(ProducerFactory<String, byt
     @ConditionalOnBean({ConsumerFactory.class, KafkaMessageConverter.class})
     public Fetcher kafkaFetcher(ConsumerFactory<String, byte[]> consumerFactory,
                                                 KafkaMessageConverter<String, byte[]> messageConverter) {
+        KafkaProperties.Fetcher fetcherProperties = properties.getFetcher();
+        Supplier<Buffer<KafkaEventMessage>> bufferFactory = fetcherProperties.isPartitionedBuffer()
+                ? () -> new PartitionedKafkaMessageBuffer<>(fetcherProperties.getBufferSize())
+                : () -> new SortedKafkaMessageBuffer<>(fetcherProperties.getBufferSize());
         return AsyncFetcher.builder(consumerFactory)
                            .withTopic(properties.getDefaultTopic())
-                           .withPollTimeout(properties.getFetcher().getPollTimeout(), MILLISECONDS)
+                           .withPollTimeout(fetcherProperties.getPollTimeout(), MILLISECONDS)
                            .withMessageConverter(messageConverter)
-                           .withBufferFactory(() -> new SortedKafkaMessageBuffer<>(properties.getFetcher().getBufferSize()))
+                           .withBufferFactory(bufferFactory)
                            .build();
 
     }
@@ -80,6 +80,8 @@ public class KafkaProperties {
 
     private final Fetcher fetcher = new Fetcher();
 
+    private final Publisher publisher = new Publisher();
+
     private final Ssl ssl = new Ssl();
 
     public List<String> getBootstrapServers() {
@@ -126,6 +128,10 @@ public Fetcher getFetcher() {
         return fetcher;
     }
 
+    public Publisher getPublisher() {
+        return publisher;
+    }
+
     public Ssl getSsl() {
         return this.ssl;
     }
@@ -464,6 +470,12 @@ public static class Fetcher {
 
         private int bufferSize = 10_000;
 
+        /**
+         * Whether to buffer fetched messages in one lock free queue per partition, merged by timestamp when consumed,
+         * instead of in a single sorted buffer. Defaults to {@code false}.
+         */
+        private boolean partitionedBuffer = false;
+
         public long getPollTimeout() {
             return pollTimeout;
         }
@@ -479,6 +491,14 @@ public int getBufferSize() {
         public void setBufferSize(int bufferSize) {
             this.bufferSize = bufferSize;
         }
+
+        public boolean isPartitionedBuffer() {
+            return partitionedBuffer;
+        }
+
+        public void setPartitionedBuffer(boolean partitionedBuffer) {
+            this.partitionedBuffer = partitionedBuffer;
+        }
     }
 
     public static class Producer {
@@ -689,6 +709,17 @@ public static class Publisher {
          */
         private ConfirmationMode confirmationMode = ConfirmationMode.NONE;
 
+        /**
+         * Whether to publish without waiting for Kafka acknowledgements or transaction commits, reporting their
+         * outcome to the message monitor asynchronously. Defaults to {@code false}.
+         */
+        private boolean pipelined = false;
+
+        /**
+         * The maximum number of messages awaiting acknowledgement when publication is pipelined.
+         */
+        private int maxInFlightMessages = 10_000;
+
         public ConfirmationMode getConfirmationMode() {
             return confirmationMode;
         }
@@ -696,6 +727,22 @@ public ConfirmationMode getConfirmationMode() {
         public void setConfirmationMode(ConfirmationMode confirmationMode) {
             this.confirmationMode = confirmationMode;
         }
+
+        public boolean isPipelined() {
+            return pipelined;
+        }
+
+        public void setPipelined(boolean pipelined) {
+            this.pipelined = pipelined;
+        }
+
+        public int getMaxInFlightMessages() {
+            return maxInFlightMessages;
+        }
+
+        public void setMaxInFlightMessages(int maxInFlightMessages) {
+            this.maxInFlightMessages = maxInFlightMessages;
+        }
     }
 
     public static class Ssl {
@@ -18,6 +18,7 @@
 
 import com.codahale.metrics.MetricRegistry;
 import org.axonframework.boot.MetricsProperties;
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
 import org.axonframework.metrics.GlobalMetricRegistry;
 import org.axonframework.metrics.MetricsConfigurerModule;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
@@ -64,5 +65,13 @@ public static GlobalMetricRegistry globalMetricRegistry(MetricRegistry metricReg
     public static MetricsConfigurerModule metricsConfigurerModule(GlobalMetricRegistry globalMetricRegistry) {
         return new MetricsConfigurerModule(globalMetricRegistry);
     }
+
+    @Bean
+    @ConditionalOnBean(GlobalMetricRegistry.class)
+    @ConditionalOnProperty("axon.metrics.handlers.enabled")
+    public static HandlerEnhancerDefinition handlerMetricsEnhancerDefinition(
+            GlobalMetricRegistry globalMetricRegistry) {
+        return globalMetricRegistry.handlerEnhancerDefinition();
+    }
 }
 
@@ -66,5 +66,7 @@ public void testContextInitialization() {
         assertTrue(applicationContext.containsBean("metricsConfigurerModule"));
         assertNotNull(applicationContext.getBean(MetricsConfigurerModule.class));
         assertEquals(MetricsConfigurerModule.class, metricsConfigurerModule.getClass());
+
+        assertFalse(applicationContext.containsBean("handlerMetricsEnhancerDefinition"));
     }
 }